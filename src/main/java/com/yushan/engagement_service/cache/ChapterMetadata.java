@@ -0,0 +1,25 @@
+package com.yushan.engagement_service.cache;
+
+import com.yushan.engagement_service.dto.chapter.ChapterDetailResponseDTO;
+
+/**
+ * Chapter projection kept by ChapterMetadataCache.
+ * A projection with found = false records that content-service does not know the chapter.
+ */
+public record ChapterMetadata(
+        Integer id,
+        Integer novelId,
+        String title,
+        boolean valid,
+        boolean found
+) {
+
+    public static ChapterMetadata of(ChapterDetailResponseDTO chapter) {
+        return new ChapterMetadata(chapter.getId(), chapter.getNovelId(), chapter.getTitle(),
+                Boolean.TRUE.equals(chapter.getIsValid()), true);
+    }
+
+    public static ChapterMetadata notFound(Integer chapterId) {
+        return new ChapterMetadata(chapterId, null, null, false, false);
+    }
+}
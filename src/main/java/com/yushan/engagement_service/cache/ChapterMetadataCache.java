@@ -0,0 +1,176 @@
+package com.yushan.engagement_service.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.yushan.engagement_service.client.ContentServiceClient;
+import com.yushan.engagement_service.dto.chapter.ChapterDetailResponseDTO;
+import com.yushan.engagement_service.dto.common.ApiResponse;
+import com.yushan.engagement_service.enums.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process cache of chapter metadata (title, validity, novel ID) in front of ContentServiceClient.
+ *
+ * Misses for a whole page are loaded with one getChaptersBatch call, and concurrent misses on the
+ * same chapter share a single load. Chapters unknown to content-service are cached as negative
+ * entries with a much shorter TTL, so repeated probes for missing chapters do not go downstream.
+ * Failed lookups are not cached.
+ */
+@Slf4j
+@Component
+public class ChapterMetadataCache {
+
+    @Autowired
+    private ContentServiceClient contentServiceClient;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.chapter-metadata.maximum-size:20000}")
+    private long maximumSize;
+
+    @Value("${cache.chapter-metadata.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${cache.chapter-metadata.negative-ttl-seconds:30}")
+    private long negativeTtlSeconds;
+
+    private LoadingCache<Integer, ChapterMetadata> chapters;
+
+    @PostConstruct
+    void init() {
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        long negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        chapters = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Integer, ChapterMetadata>() {
+                    @Override
+                    public long expireAfterCreate(Integer key, ChapterMetadata value, long currentTime) {
+                        return value.found() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Integer key, ChapterMetadata value, long currentTime,
+                                                  long currentDuration) {
+                        return value.found() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Integer key, ChapterMetadata value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build(new CacheLoader<Integer, ChapterMetadata>() {
+                    @Override
+                    public ChapterMetadata load(Integer chapterId) {
+                        return loadChapters(Collections.singleton(chapterId)).get(chapterId);
+                    }
+
+                    @Override
+                    public Map<Integer, ChapterMetadata> loadAll(Set<? extends Integer> chapterIds) {
+                        return loadChapters(chapterIds);
+                    }
+                });
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, chapters, "chapterMetadataCache");
+        }
+    }
+
+    /**
+     * Get chapter metadata, or null if the chapter does not exist or content-service is unavailable
+     */
+    public ChapterMetadata getChapter(Integer chapterId) {
+        if (chapterId == null) {
+            return null;
+        }
+        try {
+            ChapterMetadata chapter = chapters.get(chapterId);
+            return chapter != null && chapter.found() ? chapter : null;
+        } catch (RuntimeException e) {
+            log.error("Error getting chapter {}: {}", chapterId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Get metadata for a set of chapters, loading all misses with one batch call.
+     * Chapters that do not exist are left out of the result.
+     */
+    public Map<Integer, ChapterMetadata> getChapters(Collection<Integer> chapterIds) {
+        if (chapterIds == null || chapterIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Set<Integer> distinctIds = new LinkedHashSet<>(chapterIds);
+        distinctIds.remove(null);
+        try {
+            Map<Integer, ChapterMetadata> result = new HashMap<>();
+            chapters.getAll(distinctIds).forEach((chapterId, chapter) -> {
+                if (chapter.found()) {
+                    result.put(chapterId, chapter);
+                }
+            });
+            return result;
+        } catch (RuntimeException e) {
+            log.error("Error getting {} chapters in batch: {}", distinctIds.size(), e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    public boolean chapterExists(Integer chapterId) {
+        ChapterMetadata chapter = getChapter(chapterId);
+        return chapter != null && chapter.valid();
+    }
+
+    public void invalidate(Integer chapterId) {
+        if (chapterId != null) {
+            chapters.invalidate(chapterId);
+        }
+    }
+
+    public void invalidateAll() {
+        chapters.invalidateAll();
+    }
+
+    /**
+     * Load chapters from content-service. Every requested ID gets an entry: chapters missing from
+     * a successful response become negative entries. An error response throws so nothing is cached.
+     */
+    private Map<Integer, ChapterMetadata> loadChapters(Set<? extends Integer> chapterIds) {
+        ApiResponse<List<ChapterDetailResponseDTO>> response =
+                contentServiceClient.getChaptersBatch(new ArrayList<>(chapterIds));
+        if (response == null || response.getData() == null || response.getCode() != ErrorCode.SUCCESS.getCode()) {
+            throw new IllegalStateException("Content service returned no chapter data");
+        }
+
+        Map<Integer, ChapterMetadata> loaded = new HashMap<>();
+        for (ChapterDetailResponseDTO chapter : response.getData()) {
+            if (chapter != null && chapter.getId() != null) {
+                loaded.put(chapter.getId(), ChapterMetadata.of(chapter));
+            }
+        }
+        for (Integer chapterId : chapterIds) {
+            loaded.putIfAbsent(chapterId, ChapterMetadata.notFound(chapterId));
+        }
+        return loaded;
+    }
+}
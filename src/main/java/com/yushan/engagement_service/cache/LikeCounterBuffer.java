@@ -0,0 +1,194 @@
+package com.yushan.engagement_service.cache;
+
+import com.yushan.engagement_service.entity.LikeCountDelta;
+import com.yushan.engagement_service.enums.LikeTargetType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory write-behind buffer of like count deltas, one LongAdder per comment or review.
+ *
+ * Deltas accumulate in the current generation, which is journaled to its own segment. A flush
+ * swaps in a fresh generation, seals the old one, waits for writers still inside it to finish and
+ * drains it into one batch; the sealed generation keeps answering reads until the batch is
+ * committed, so buffered likes never disappear from read counts in between. The current and
+ * sealed generations are published together, so a read never counts a generation twice or misses
+ * it during a swap. A batch that fails to commit stays sealed and is drained again by the next flush.
+ *
+ * Reads add pending() to a count read from the database, and the commit of a batch cannot be seen
+ * by both at the same instant: a read racing with it may count the batch twice (committed row plus
+ * still-pending batch) or not at all, until complete() returns right after the commit.
+ *
+ * Hot rows only contend on LongAdder cells, never on a database row lock.
+ */
+public class LikeCounterBuffer {
+
+    private final LikeCounterJournal journal;
+    private volatile Generations generations;
+
+    public LikeCounterBuffer(LikeCounterJournal journal, long firstSegment) {
+        this.journal = journal;
+        this.generations = new Generations(new Generation(journal.open(firstSegment)), List.of());
+    }
+
+    /**
+     * Journal and buffer one delta
+     */
+    public void add(LikeTargetType type, int id, int delta) {
+        while (true) {
+            Generation generation = generations.current();
+            generation.inFlight.increment();
+            try {
+                if (generation.sealed) {
+                    // Lost the race with a flush; the next read of current sees the new generation
+                    continue;
+                }
+                generation.segment.append(type, id, delta);
+                generation.counter(type, id).add(delta);
+                return;
+            } finally {
+                generation.inFlight.decrement();
+            }
+        }
+    }
+
+    /**
+     * Add a delta that is already durable elsewhere (journal replay) without journaling it again
+     */
+    public void merge(LikeTargetType type, int id, long delta) {
+        generations.current().counter(type, id).add(delta);
+    }
+
+    /**
+     * Net delta not yet committed to the database
+     */
+    public long pending(LikeTargetType type, int id) {
+        Generations snapshot = generations;
+        long pending = snapshot.current().pending(type, id);
+        for (Generation generation : snapshot.sealed()) {
+            pending += generation.pending(type, id);
+        }
+        return pending;
+    }
+
+    /**
+     * Number of buffered entities, counted once per generation still to be committed
+     */
+    public int size() {
+        Generations snapshot = generations;
+        int size = snapshot.current().size();
+        for (Generation generation : snapshot.sealed()) {
+            size += generation.size();
+        }
+        return size;
+    }
+
+    public long currentSegment() {
+        return generations.current().segment.getNumber();
+    }
+
+    /**
+     * Seal the current generation behind a new one and drain every sealed generation, including
+     * any left by a failed flush. Only one flush may run at a time.
+     */
+    public Batch rotate() {
+        Generations snapshot = generations;
+        Generation old = snapshot.current();
+        List<Generation> sealed = new ArrayList<>(snapshot.sealed());
+        sealed.add(old);
+        generations = new Generations(new Generation(journal.open(old.segment.getNumber() + 1)), List.copyOf(sealed));
+        old.sealed = true;
+        while (old.inFlight.sum() != 0) {
+            Thread.onSpinWait();
+        }
+        old.segment.close();
+        return new Batch(old.segment.getNumber(), Generation.drain(sealed));
+    }
+
+    /**
+     * The batch is committed: stop counting it as pending
+     */
+    public void complete(Batch batch) {
+        generations = new Generations(generations.current(), List.of());
+    }
+
+    public void close() {
+        generations.current().segment.close();
+    }
+
+    /**
+     * Deltas drained from one sealed generation, covering journal segments up to and including segment
+     */
+    public record Batch(long segment, Map<LikeTargetType, List<LikeCountDelta>> deltas) {
+
+        public boolean isEmpty() {
+            return deltas.values().stream().allMatch(List::isEmpty);
+        }
+
+        public int size() {
+            return deltas.values().stream().mapToInt(List::size).sum();
+        }
+    }
+
+    /**
+     * Generation taking new deltas and the sealed ones not yet committed, replaced as a whole
+     */
+    private record Generations(Generation current, List<Generation> sealed) {
+    }
+
+    private static final class Generation {
+
+        private final LikeCounterJournal.Segment segment;
+        private final Map<LikeTargetType, ConcurrentHashMap<Integer, LongAdder>> counters =
+                new EnumMap<>(LikeTargetType.class);
+        private final LongAdder inFlight = new LongAdder();
+        private volatile boolean sealed;
+
+        private Generation(LikeCounterJournal.Segment segment) {
+            this.segment = segment;
+            for (LikeTargetType type : LikeTargetType.values()) {
+                counters.put(type, new ConcurrentHashMap<>());
+            }
+        }
+
+        private LongAdder counter(LikeTargetType type, int id) {
+            return counters.get(type).computeIfAbsent(id, key -> new LongAdder());
+        }
+
+        private long pending(LikeTargetType type, int id) {
+            LongAdder counter = counters.get(type).get(id);
+            return counter != null ? counter.sum() : 0L;
+        }
+
+        private int size() {
+            return counters.values().stream().mapToInt(Map::size).sum();
+        }
+
+        private static Map<LikeTargetType, List<LikeCountDelta>> drain(List<Generation> generations) {
+            Map<LikeTargetType, List<LikeCountDelta>> deltas = new EnumMap<>(LikeTargetType.class);
+            for (LikeTargetType type : LikeTargetType.values()) {
+                Map<Integer, Long> byId = new HashMap<>();
+                for (Generation generation : generations) {
+                    generation.counters.get(type).forEach((id, counter) -> byId.merge(id, counter.sum(), Long::sum));
+                }
+                List<LikeCountDelta> rows = new ArrayList<>();
+                byId.forEach((id, delta) -> {
+                    if (delta != 0) {
+                        rows.add(new LikeCountDelta(id, delta));
+                    }
+                });
+                // Sorted so flushes from several instances tend to lock shared rows in the same order
+                rows.sort(Comparator.comparing(LikeCountDelta::getId));
+                deltas.put(type, rows);
+            }
+            return deltas;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.yushan.engagement_service.cache;
+
+import com.yushan.engagement_service.enums.LikeTargetType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local journal of buffered like deltas.
+ *
+ * Every delta is written to the segment file of the buffer generation it lands in before it is
+ * counted, so deltas that have not reached the database survive a restart. Records are fixed
+ * 9 bytes (type code, target ID, delta); a record cut short by a crash is ignored on replay.
+ * The directory also holds a stable journal ID under which flushed segments are checkpointed.
+ */
+public class LikeCounterJournal {
+
+    static final int RECORD_SIZE = 9;
+    private static final String ID_FILE = "journal-id";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final String journalId;
+
+    public LikeCounterJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            Path idFile = directory.resolve(ID_FILE);
+            if (Files.exists(idFile)) {
+                journalId = Files.readString(idFile, StandardCharsets.UTF_8).trim();
+            } else {
+                journalId = UUID.randomUUID().toString();
+                Files.writeString(idFile, journalId, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open like counter journal in " + directory, e);
+        }
+    }
+
+    public String getJournalId() {
+        return journalId;
+    }
+
+    /**
+     * Segment numbers present on disk, ascending
+     */
+    public List<Long> segments() {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> segments.add(Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    public Segment open(long segment) {
+        try {
+            FileChannel channel = FileChannel.open(segmentPath(segment),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            return new Segment(segment, channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open like counter journal segment " + segment, e);
+        }
+    }
+
+    /**
+     * Feed every complete record of a segment to the consumer
+     */
+    public void replay(long segment, RecordConsumer consumer) {
+        try {
+            ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(segmentPath(segment)));
+            while (records.remaining() >= RECORD_SIZE) {
+                LikeTargetType type = LikeTargetType.fromCode(records.get());
+                int id = records.getInt();
+                int delta = records.getInt();
+                if (type != null) {
+                    consumer.accept(type, id, delta);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot replay like counter journal segment " + segment, e);
+        }
+    }
+
+    /**
+     * Delete every segment up to and including the given one
+     */
+    public void deleteUpTo(long segment) {
+        for (Long existing : segments()) {
+            if (existing <= segment) {
+                try {
+                    Files.deleteIfExists(segmentPath(existing));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(SEGMENT_PREFIX + segment + SEGMENT_SUFFIX);
+    }
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(LikeTargetType type, int id, int delta);
+    }
+
+    /**
+     * One open segment file. FileChannel serializes appends, so records from concurrent writers never interleave.
+     */
+    public final class Segment {
+
+        private final long number;
+        private final FileChannel channel;
+
+        private Segment(long number, FileChannel channel) {
+            this.number = number;
+            this.channel = channel;
+        }
+
+        public long getNumber() {
+            return number;
+        }
+
+        public void append(LikeTargetType type, int id, int delta) {
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            record.put(type.getCode()).putInt(id).putInt(delta).flip();
+            try {
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+                if (fsync) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write like counter journal segment " + number, e);
+            }
+        }
+
+        /**
+         * Force the segment to disk and close it
+         */
+        public void close() {
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close like counter journal segment " + number, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.yushan.engagement_service.cache;
+
+import com.yushan.engagement_service.enums.LikeTargetType;
+import com.yushan.engagement_service.repository.LikeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Redis cache of which comments or reviews a user likes, in front of the like ledger.
+ *
+ * Each viewer has one set of liked IDs per content type (integer sets, stored compactly by Redis),
+ * so a whole page is annotated with a single SMISMEMBER. A marker member tells a loaded set from a
+ * missing one: a missing set is loaded from the ledger once, and like writes only touch sets that
+ * are already loaded so a partial set is never mistaken for a complete one. Viewers with more likes
+ * than fit one set get a set holding only an oversize marker, so their pages go straight to one
+ * ledger query per page, as they do on any Redis failure.
+ *
+ * Every like write bumps a per-user version. A load builds the set under a temporary key and
+ * renames it into place only if the version is unchanged since before it read the ledger, so a
+ * like or unlike landing in between cannot be overwritten by the older snapshot.
+ */
+@Slf4j
+@Component
+public class LikeMembershipCache {
+
+    private static final String KEY_PREFIX = "like:member:";
+    // Target IDs start at 1, so 0 and -1 never collide with a real member
+    static final Integer LOADED_MARKER = 0;
+    static final Integer OVERSIZE_MARKER = -1;
+    private static final Duration LOAD_KEY_TTL = Duration.ofMinutes(1);
+
+    // KEYS: set, version; ARGV: target ID, version TTL (ms)
+    private static final RedisScript<Long> ADD_IF_LOADED = new DefaultRedisScript<>(
+            "redis.call('incr', KEYS[2]) redis.call('pexpire', KEYS[2], ARGV[2]) "
+                    + "if redis.call('exists', KEYS[1]) == 1 then return redis.call('sadd', KEYS[1], ARGV[1]) end return 0",
+            Long.class);
+
+    private static final RedisScript<Long> REMOVE = new DefaultRedisScript<>(
+            "redis.call('incr', KEYS[2]) redis.call('pexpire', KEYS[2], ARGV[2]) "
+                    + "return redis.call('srem', KEYS[1], ARGV[1])",
+            Long.class);
+
+    // KEYS: set, version, loaded set; ARGV: version read before the ledger, set TTL (ms)
+    private static final RedisScript<Long> PUBLISH_IF_UNCHANGED = new DefaultRedisScript<>(
+            "if (redis.call('get', KEYS[2]) or '0') == ARGV[1] then "
+                    + "redis.call('rename', KEYS[3], KEYS[1]) redis.call('pexpire', KEYS[1], ARGV[2]) return 1 end "
+                    + "redis.call('del', KEYS[3]) return 0",
+            Long.class);
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Value("${cache.like-membership.ttl-seconds:1800}")
+    private long ttlSeconds;
+
+    @Value("${cache.like-membership.max-set-size:5000}")
+    private int maxSetSize;
+
+    /**
+     * The subset of targetIds the user likes
+     */
+    public Set<Integer> likedAmong(LikeTargetType type, UUID userId, Collection<Integer> targetIds) {
+        if (userId == null || targetIds == null || targetIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(targetIds));
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return Collections.emptySet();
+        }
+        String key = key(type, userId);
+        try {
+            Object[] members = new Object[ids.size() + 2];
+            members[0] = LOADED_MARKER;
+            members[1] = OVERSIZE_MARKER;
+            for (int i = 0; i < ids.size(); i++) {
+                members[i + 2] = ids.get(i);
+            }
+            Map<Object, Boolean> found = redisTemplate.opsForSet().isMember(key, members);
+            if (found != null && Boolean.TRUE.equals(found.get(OVERSIZE_MARKER))) {
+                return new HashSet<>(likeRepository.findLikedAmong(type, userId, ids));
+            }
+            if (found != null && Boolean.TRUE.equals(found.get(LOADED_MARKER))) {
+                Set<Integer> liked = new HashSet<>();
+                for (Integer id : ids) {
+                    if (Boolean.TRUE.equals(found.get(id))) {
+                        liked.add(id);
+                    }
+                }
+                return liked;
+            }
+            return load(type, userId, key, ids);
+        } catch (RuntimeException e) {
+            log.debug("Like membership cache unavailable, reading the ledger: {}", e.getMessage());
+            return new HashSet<>(likeRepository.findLikedAmong(type, userId, ids));
+        }
+    }
+
+    /**
+     * Reflect a recorded like in the user's set if it is loaded
+     */
+    public void recordLike(LikeTargetType type, UUID userId, Integer targetId) {
+        String key = key(type, userId);
+        try {
+            redisTemplate.execute(ADD_IF_LOADED, List.of(key, versionKey(key)), targetId, versionTtlMillis());
+        } catch (RuntimeException e) {
+            evict(key, e);
+        }
+    }
+
+    /**
+     * Reflect a removed like in the user's set
+     */
+    public void recordUnlike(LikeTargetType type, UUID userId, Integer targetId) {
+        String key = key(type, userId);
+        try {
+            redisTemplate.execute(REMOVE, List.of(key, versionKey(key)), targetId, versionTtlMillis());
+        } catch (RuntimeException e) {
+            evict(key, e);
+        }
+    }
+
+    private Set<Integer> load(LikeTargetType type, UUID userId, String key, List<Integer> ids) {
+        // Read before the ledger, so any like write after this point fails the publish below
+        Object version = redisTemplate.opsForValue().get(versionKey(key));
+        List<Integer> allLiked = likeRepository.findLikedIds(type, userId, maxSetSize + 1);
+        if (allLiked.size() > maxSetSize) {
+            // Too many likes to keep as one set; remember that and answer this page from the ledger
+            publish(key, version, new Object[]{OVERSIZE_MARKER});
+            return new HashSet<>(likeRepository.findLikedAmong(type, userId, ids));
+        }
+        Object[] members = new Object[allLiked.size() + 1];
+        members[0] = LOADED_MARKER;
+        for (int i = 0; i < allLiked.size(); i++) {
+            members[i + 1] = allLiked.get(i);
+        }
+        publish(key, version, members);
+
+        Set<Integer> liked = new HashSet<>(allLiked);
+        liked.retainAll(ids);
+        return liked;
+    }
+
+    /**
+     * Build the set under a temporary key and move it into place unless a like write happened
+     * since the version was read; otherwise the next page loads again
+     */
+    private void publish(String key, Object version, Object[] members) {
+        String loadKey = key + ":load:" + UUID.randomUUID();
+        redisTemplate.opsForSet().add(loadKey, members);
+        // Cleans up after a crash between the two steps
+        redisTemplate.expire(loadKey, LOAD_KEY_TTL);
+        redisTemplate.execute(PUBLISH_IF_UNCHANGED, List.of(key, versionKey(key), loadKey),
+                version != null ? Long.parseLong(version.toString()) : 0L, ttlSeconds * 1000);
+    }
+
+    private long versionTtlMillis() {
+        // Outlives the set, so a version cannot expire and restart while a load is in progress
+        return ttlSeconds * 2000;
+    }
+
+    private void evict(String key, RuntimeException cause) {
+        try {
+            redisTemplate.delete(key);
+        } catch (RuntimeException e) {
+            // Redis is down: the stale set expires with its TTL
+            log.warn("Could not update like membership for {}: {}", key, cause.getMessage());
+        }
+    }
+
+    // The user ID is a hash tag, so the set, its version and its load keys share a cluster slot
+    private static String key(LikeTargetType type, UUID userId) {
+        return KEY_PREFIX + type.name().toLowerCase() + ":{" + userId + "}";
+    }
+
+    private static String versionKey(String key) {
+        return key + ":ver";
+    }
+}
@@ -0,0 +1,20 @@
+package com.yushan.engagement_service.cache;
+
+import com.yushan.engagement_service.dto.novel.NovelDetailResponseDTO;
+
+import java.util.UUID;
+
+/**
+ * Novel projection kept by NovelProjectionCache, holding only the fields engagement flows need
+ */
+public record NovelProjection(
+        Integer id,
+        String title,
+        UUID authorId,
+        String status
+) {
+
+    public static NovelProjection of(NovelDetailResponseDTO novel) {
+        return new NovelProjection(novel.getId(), novel.getTitle(), novel.getAuthorId(), novel.getStatus());
+    }
+}
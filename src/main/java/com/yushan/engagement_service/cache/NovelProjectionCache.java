@@ -0,0 +1,147 @@
+package com.yushan.engagement_service.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.yushan.engagement_service.client.ContentServiceClient;
+import com.yushan.engagement_service.dto.common.ApiResponse;
+import com.yushan.engagement_service.dto.novel.NovelDetailResponseDTO;
+import com.yushan.engagement_service.enums.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-process cache of novel projections (ID, title, authorId, status) shared by the review, vote,
+ * vote SAGA and report flows.
+ *
+ * Misses are loaded in bulk through getNovelsBatch. Entries read after the refresh interval are
+ * reloaded in the background while the current value keeps being served, so hot novels do not take
+ * a synchronous miss; entries that are not read expire after the TTL. Novels unknown to
+ * content-service and failed lookups are not cached.
+ */
+@Slf4j
+@Component
+public class NovelProjectionCache {
+
+    @Autowired
+    private ContentServiceClient contentServiceClient;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.novel.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${cache.novel.refresh-seconds:120}")
+    private long refreshSeconds;
+
+    @Value("${cache.novel.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private Ticker ticker = Ticker.systemTicker();
+
+    private LoadingCache<Integer, NovelProjection> novels;
+
+    @PostConstruct
+    void init() {
+        novels = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .ticker(ticker)
+                .recordStats()
+                .build(new CacheLoader<Integer, NovelProjection>() {
+                    @Override
+                    public NovelProjection load(Integer novelId) {
+                        return loadNovels(Collections.singleton(novelId)).get(novelId);
+                    }
+
+                    @Override
+                    public Map<Integer, NovelProjection> loadAll(Set<? extends Integer> novelIds) {
+                        return loadNovels(novelIds);
+                    }
+                });
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, novels, "novelProjectionCache");
+        }
+    }
+
+    /**
+     * Get a novel projection, or null if the novel does not exist or content-service is unavailable
+     */
+    public NovelProjection getNovel(Integer novelId) {
+        if (novelId == null) {
+            return null;
+        }
+        try {
+            return novels.get(novelId);
+        } catch (RuntimeException e) {
+            log.error("Error getting novel {}: {}", novelId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Get projections for a set of novels, loading all misses with one batch call.
+     * Novels that do not exist are left out of the result.
+     */
+    public Map<Integer, NovelProjection> getNovels(Collection<Integer> novelIds) {
+        if (novelIds == null || novelIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Set<Integer> distinctIds = new LinkedHashSet<>(novelIds);
+        distinctIds.remove(null);
+        try {
+            return novels.getAll(distinctIds);
+        } catch (RuntimeException e) {
+            log.error("Error getting {} novels in batch: {}", distinctIds.size(), e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    public void invalidate(Integer novelId) {
+        if (novelId != null) {
+            novels.invalidate(novelId);
+        }
+    }
+
+    public void invalidateAll() {
+        novels.invalidateAll();
+    }
+
+    /**
+     * Load novels from content-service. An error response throws so that nothing is cached and a
+     * background refresh keeps the previous value.
+     */
+    private Map<Integer, NovelProjection> loadNovels(Set<? extends Integer> novelIds) {
+        ApiResponse<List<NovelDetailResponseDTO>> response =
+                contentServiceClient.getNovelsBatch(new ArrayList<>(novelIds));
+        if (response == null || response.getData() == null || response.getCode() != ErrorCode.SUCCESS.getCode()) {
+            throw new IllegalStateException("Content service returned no novel data");
+        }
+
+        Map<Integer, NovelProjection> loaded = new HashMap<>();
+        for (NovelDetailResponseDTO novel : response.getData()) {
+            if (novel != null && novel.getId() != null) {
+                loaded.put(novel.getId(), NovelProjection.of(novel));
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,139 @@
+package com.yushan.engagement_service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.yushan.engagement_service.entity.NovelRatingAggregate;
+import com.yushan.engagement_service.repository.NovelRatingAggregateRepository;
+import com.yushan.engagement_service.util.RedisUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * In-process cache of per-novel rating aggregates for the rating stats endpoint.
+ *
+ * Entries are invalidated by review writes. When called inside a transaction the entry is dropped
+ * again after commit, so a read racing the write cannot leave the pre-commit aggregate cached.
+ * After commit the invalidation is also published on RedisUtil's invalidation channel so every
+ * replica drops the novel; if the message is lost, other replicas are stale for at most
+ * cache.rating-aggregate.ttl-seconds.
+ */
+@Slf4j
+@Component
+public class NovelRatingAggregateCache {
+
+    @Autowired
+    private NovelRatingAggregateRepository novelRatingAggregateRepository;
+
+    @Autowired
+    private RedisUtil redisUtil;
+
+    @Autowired(required = false)
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.rating-aggregate.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${cache.rating-aggregate.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    // Publish and receive invalidations over Redis; off, other replicas rely on the TTL
+    @Value("${cache.rating-aggregate.broadcast-invalidations:true}")
+    private boolean broadcastInvalidations;
+
+    private LoadingCache<Integer, NovelRatingAggregate> aggregates;
+
+    @PostConstruct
+    void init() {
+        aggregates = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(novelRatingAggregateRepository::findByNovelId);
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, aggregates, "novelRatingAggregateCache");
+        }
+        if (broadcastInvalidations && listenerContainer != null) {
+            listenerContainer.addMessageListener(
+                    (message, pattern) -> evictLocal(redisUtil.invalidatedKeys(message.getBody())),
+                    new ChannelTopic(RedisUtil.INVALIDATION_CHANNEL));
+        }
+    }
+
+    public NovelRatingAggregate get(Integer novelId) {
+        return aggregates.get(novelId);
+    }
+
+    public void invalidate(Integer novelId) {
+        aggregates.invalidate(novelId);
+        afterCommit(() -> {
+            aggregates.invalidate(novelId);
+            publish(() -> redisUtil.invalidateNovelRating(novelId));
+        });
+    }
+
+    public void invalidateAll() {
+        aggregates.invalidateAll();
+        afterCommit(() -> {
+            aggregates.invalidateAll();
+            publish(redisUtil::invalidateAllNovelRatings);
+        });
+    }
+
+    /**
+     * Drop the aggregates named in an invalidation message
+     */
+    void evictLocal(Collection<String> keys) {
+        for (String key : keys) {
+            if (RedisUtil.ALL_KEYS.equals(key) || RedisUtil.allNovelRatingsKey().equals(key)) {
+                aggregates.invalidateAll();
+                return;
+            }
+            Integer novelId = RedisUtil.novelRatingId(key);
+            if (novelId != null) {
+                aggregates.invalidate(novelId);
+            }
+        }
+    }
+
+    private void publish(Runnable invalidation) {
+        if (!broadcastInvalidations) {
+            return;
+        }
+        try {
+            invalidation.run();
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish rating aggregate invalidation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Run the action after the current transaction commits, or right away outside one
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
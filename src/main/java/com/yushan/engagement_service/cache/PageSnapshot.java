@@ -0,0 +1,10 @@
+package com.yushan.engagement_service.cache;
+
+import java.util.List;
+
+/**
+ * Rows of one listing page and the total row count, as cached by ReadThroughPageCache.
+ * Viewer-specific fields (likes, ownership) and live like counts are added when the page is served.
+ */
+public record PageSnapshot<T>(List<T> rows, long totalCount) {
+}
@@ -0,0 +1,305 @@
+package com.yushan.engagement_service.cache;
+
+import com.yushan.engagement_service.dao.ProcessedEventMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory Bloom filter of idempotency keys this instance has recently seen processed.
+ *
+ * Almost every event is new, and a definite negative lets IdempotencyService skip its Redis and
+ * processed_events lookups. The filter holds idempotency.bloom.generations generations; the newest
+ * takes all writes and the oldest is dropped every rotation interval, so memory stays bounded.
+ * A generation grows by adding larger, tighter slices once full (a scalable Bloom filter). It is
+ * seeded from processed_events of the whole window on the first run, and answers "maybe" for
+ * every key until then.
+ *
+ * Keys processed by other instances, or before the window, are not in the filter, so a negative is
+ * only a hint: callers must still claim the key through processed_events before acting on it.
+ */
+@Slf4j
+@Component
+public class ProcessedKeyFilter {
+
+    @Autowired
+    private ProcessedEventMapper processedEventMapper;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${idempotency.bloom.enabled:true}")
+    private boolean enabled;
+
+    @Value("${idempotency.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${idempotency.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${idempotency.bloom.generations:4}")
+    private int generations;
+
+    @Value("${idempotency.bloom.rotation-interval-ms:21600000}")
+    private long rotationIntervalMs;
+
+    // Newest generation first
+    private volatile List<Generation> live = List.of();
+    private volatile boolean seeded;
+
+    private final AtomicLong negatives = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+    private Counter negativeChecks;
+    private Counter positiveChecks;
+    private Counter falsePositiveChecks;
+
+    @PostConstruct
+    void init() {
+        live = List.of(new Generation(expectedInsertions, falsePositiveRate));
+        if (meterRegistry != null) {
+            negativeChecks = Counter.builder("idempotency.bloom.checks").tag("result", "negative").register(meterRegistry);
+            positiveChecks = Counter.builder("idempotency.bloom.checks").tag("result", "positive").register(meterRegistry);
+            falsePositiveChecks = Counter.builder("idempotency.bloom.false-positives").register(meterRegistry);
+            // Observed rate: positives that turned out unprocessed, out of all unprocessed keys checked
+            Gauge.builder("idempotency.bloom.false-positive-rate", this, ProcessedKeyFilter::observedFalsePositiveRate)
+                    .register(meterRegistry);
+            Gauge.builder("idempotency.bloom.expected-false-positive-rate", this, ProcessedKeyFilter::expectedFalsePositiveRate)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * False only if the key has definitely not been seen processed by this instance within the window
+     */
+    public boolean mightContain(String idempotencyKey) {
+        if (!enabled || !seeded) {
+            return true;
+        }
+        long h1 = hash(idempotencyKey);
+        long h2 = secondHash(h1);
+        for (Generation generation : live) {
+            if (generation.mightContain(h1, h2)) {
+                increment(positiveChecks);
+                return true;
+            }
+        }
+        negatives.incrementAndGet();
+        increment(negativeChecks);
+        return false;
+    }
+
+    public void put(String idempotencyKey) {
+        if (!enabled) {
+            return;
+        }
+        long h1 = hash(idempotencyKey);
+        live.get(0).put(h1, secondHash(h1));
+    }
+
+    public void putAll(Collection<String> idempotencyKeys) {
+        idempotencyKeys.forEach(this::put);
+    }
+
+    /**
+     * Report keys the filter called possibly processed that were not
+     */
+    public void recordFalsePositives(int count) {
+        if (count > 0 && enabled && seeded) {
+            falsePositives.addAndGet(count);
+            if (falsePositiveChecks != null) {
+                falsePositiveChecks.increment(count);
+            }
+        }
+    }
+
+    /**
+     * Seeds the filter on the first run, then starts a new generation and drops the oldest.
+     * Read-only transaction so the seed query streams with its fetch size.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.bloom.rotation-interval-ms:21600000}")
+    @Transactional(readOnly = true)
+    public void rotate() {
+        if (!enabled) {
+            return;
+        }
+        if (!seeded) {
+            seed();
+            return;
+        }
+        List<Generation> next = new ArrayList<>(generations);
+        next.add(new Generation(expectedInsertions, falsePositiveRate));
+        next.addAll(live.subList(0, Math.min(live.size(), generations - 1)));
+        live = List.copyOf(next);
+        log.debug("Rotated processed key filter, {} generations live", live.size());
+    }
+
+    private void seed() {
+        long start = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.now().minus(Duration.ofMillis(rotationIntervalMs * generations));
+        AtomicLong loaded = new AtomicLong();
+        try {
+            processedEventMapper.selectKeysProcessedSince(since, context -> {
+                put(context.getResultObject());
+                loaded.incrementAndGet();
+            });
+        } catch (RuntimeException e) {
+            // Keep answering "maybe" and retry on the next run
+            log.warn("Failed to seed processed key filter: {}", e.getMessage());
+            return;
+        }
+        seeded = true;
+        log.info("Seeded processed key filter with {} keys in {} ms", loaded.get(), System.currentTimeMillis() - start);
+    }
+
+    double observedFalsePositiveRate() {
+        long fp = falsePositives.get();
+        long total = fp + negatives.get();
+        return total == 0 ? 0.0 : (double) fp / total;
+    }
+
+    double expectedFalsePositiveRate() {
+        // Chance that a new key matches any live slice
+        double miss = 1.0;
+        for (Generation generation : live) {
+            for (BloomFilter slice : generation.slices) {
+                miss *= 1.0 - slice.expectedFalsePositiveRate();
+            }
+        }
+        return 1.0 - miss;
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private static long hash(String key) {
+        // FNV-1a over the chars, finished with the MurmurHash3 mixer
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long secondHash(long h1) {
+        // Odd, so the probe sequence never repeats early
+        return mix(h1 ^ 0x9e3779b97f4a7c15L) | 1L;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Slices of one time window; a full slice is followed by one twice as large with half the error rate
+     */
+    private static final class Generation {
+        private final List<BloomFilter> slices = new CopyOnWriteArrayList<>();
+
+        Generation(long expectedInsertions, double falsePositiveRate) {
+            slices.add(new BloomFilter(expectedInsertions, falsePositiveRate / 2));
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (BloomFilter slice : slices) {
+                if (slice.mightContain(h1, h2)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void put(long h1, long h2) {
+            BloomFilter current = slices.get(slices.size() - 1);
+            if (current.isFull()) {
+                synchronized (this) {
+                    current = slices.get(slices.size() - 1);
+                    if (current.isFull()) {
+                        current = new BloomFilter(current.capacity * 2, current.falsePositiveRate / 2);
+                        slices.add(current);
+                    }
+                }
+            }
+            current.put(h1, h2);
+        }
+    }
+
+    /**
+     * Fixed-size Bloom filter using double hashing, safe for concurrent use
+     */
+    static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final long numBits;
+        private final int numHashes;
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final AtomicLong insertions = new AtomicLong();
+
+        BloomFilter(long capacity, double falsePositiveRate) {
+            this.capacity = Math.max(1, capacity);
+            this.falsePositiveRate = falsePositiveRate;
+            long bits = (long) Math.ceil(-this.capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64));
+            this.numBits = (long) words.length() * 64;
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / this.capacity * Math.log(2)));
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, numBits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void put(long h1, long h2) {
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, numBits);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word;
+                while (((word = words.get(index)) & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                    Thread.onSpinWait();
+                }
+            }
+            insertions.incrementAndGet();
+        }
+
+        boolean isFull() {
+            return insertions.get() >= capacity;
+        }
+
+        double expectedFalsePositiveRate() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return Math.pow((double) set / numBits, numHashes);
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.yushan.engagement_service.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yushan.engagement_service.cache.codec.JsonCodec;
+import com.yushan.engagement_service.cache.codec.Lz4Codec;
+import com.yushan.engagement_service.cache.codec.RedisValueCodec;
+import com.yushan.engagement_service.util.RedisUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Two-level read-through cache for the first pages of hot listings (comments of a chapter, reviews
+ * of a novel).
+ *
+ * L1 is a small in-heap copy of decoded pages, grouped by namespace (one chapter's or novel's
+ * pages), so a hit needs neither a Redis round trip nor deserialization. L2 is Redis, keyed by the
+ * namespace's current generation; values are typed JSON without class names, LZ4-compressed from
+ * cache.page.compress-threshold-bytes. RedisUtil publishes every bump or delete on its invalidation
+ * channel and each replica drops the namespace from L1; a page is also kept in L1 for at most
+ * cache.page.l1.ttl-seconds, which bounds staleness if a message is lost.
+ *
+ * A miss is loaded once: concurrent misses for a key on this instance wait for one loader, and
+ * across replicas the loader holds a short Redis lock while the others poll for its result. Entries
+ * are refreshed early with probability rising towards expiry, weighted by how long the page took to
+ * load (XFetch), so one request reloads a hot page while the rest keep reading it instead of all
+ * missing at once. Any Redis failure falls back to loading from the database.
+ */
+@Slf4j
+@Component
+public class ReadThroughPageCache {
+
+    @Autowired
+    private RedisUtil redisUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.page.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.page.max-pages:3}")
+    private int maxPages;
+
+    @Value("${cache.page.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${cache.page.lock-ms:2000}")
+    private long lockMs;
+
+    @Value("${cache.page.poll-ms:25}")
+    private long pollMs;
+
+    // XFetch beta; above 1 refreshes earlier
+    @Value("${cache.page.beta:1.0}")
+    private double beta;
+
+    @Value("${cache.page.l1.maximum-namespaces:2000}")
+    private long l1MaximumNamespaces;
+
+    @Value("${cache.page.l1.ttl-seconds:5}")
+    private long l1TtlSeconds;
+
+    // Page keys kept per namespace; a full bucket serves further pages from L2
+    @Value("${cache.page.l1.maximum-pages-per-namespace:64}")
+    private int l1MaximumPagesPerNamespace;
+
+    @Value("${cache.page.compress-threshold-bytes:1024}")
+    private int compressThresholdBytes;
+
+    // Namespace -> page key -> decoded entry. Invalidation replaces the whole bucket, so a load that
+    // started before it writes into a detached bucket and cannot resurrect the old page.
+    private Cache<String, ConcurrentMap<String, LocalEntry>> l1;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // Row type -> codec of the cached entries of its pages
+    private final ConcurrentMap<Class<?>, RedisValueCodec<?>> codecs = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        l1 = Caffeine.newBuilder()
+                .maximumSize(l1MaximumNamespaces)
+                .expireAfterAccess(Duration.ofSeconds(Math.max(l1TtlSeconds, 1)))
+                .build();
+        if (enabled && listenerContainer != null) {
+            listenerContainer.addMessageListener(
+                    (message, pattern) -> evictLocal(redisUtil.invalidatedKeys(message.getBody())),
+                    new ChannelTopic(RedisUtil.INVALIDATION_CHANNEL));
+        }
+        if (meterRegistry != null) {
+            // L1: share of all cached-page requests; L2: share of L1 misses
+            Gauge.builder("cache.page.hit-rate", this, ReadThroughPageCache::l1HitRate)
+                    .tag("tier", "l1").register(meterRegistry);
+            Gauge.builder("cache.page.hit-rate", this, ReadThroughPageCache::l2HitRate)
+                    .tag("tier", "l2").register(meterRegistry);
+        }
+    }
+
+    /**
+     * Get a page through the cache. Pages past cache.page.max-pages, and any page when the cache is
+     * disabled, are loaded directly.
+     *
+     * @param namespace RedisUtil namespace the page belongs to, e.g. a chapter's comments
+     * @param pageKey   identifies the page within the namespace (sort, order, page, size)
+     */
+    public <T> PageSnapshot<T> getPage(int page, String namespace, String pageKey, Class<T> rowType,
+                                       Supplier<PageSnapshot<T>> loader) {
+        if (!enabled || page >= maxPages) {
+            return loader.get();
+        }
+        return get(namespace, pageKey, codec(rowType), loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> RedisValueCodec<Entry<PageSnapshot<T>>> codec(Class<T> rowType) {
+        return (RedisValueCodec<Entry<PageSnapshot<T>>>) codecs.computeIfAbsent(rowType, type -> {
+            TypeFactory types = objectMapper.getTypeFactory();
+            JavaType entryType = types.constructParametricType(Entry.class,
+                    types.constructParametricType(PageSnapshot.class, type));
+            return new Lz4Codec<>(new JsonCodec<Entry<PageSnapshot<T>>>(objectMapper, entryType), compressThresholdBytes);
+        });
+    }
+
+    /**
+     * Run an invalidation of a namespace after the current transaction commits, so a reader cannot
+     * cache the pre-commit rows under the new generation. This replica's L1 is dropped right away
+     * rather than waiting for its own pub/sub message. Failures only leave the page stale until
+     * its TTL.
+     */
+    public void invalidateAfterCommit(String namespace, Runnable invalidation) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(namespace, invalidation);
+                }
+            });
+        } else {
+            invalidate(namespace, invalidation);
+        }
+    }
+
+    private void invalidate(String namespace, Runnable invalidation) {
+        l1.invalidate(namespace);
+        try {
+            invalidation.run();
+        } catch (RuntimeException e) {
+            log.warn("Failed to invalidate cached pages of {}: {}", namespace, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop namespaces named in an invalidation message from L1
+     */
+    void evictLocal(Collection<String> keys) {
+        if (keys.contains(RedisUtil.ALL_KEYS)) {
+            l1.invalidateAll();
+        } else {
+            l1.invalidateAll(keys);
+        }
+    }
+
+    private <T> T get(String namespace, String pageKey, RedisValueCodec<Entry<T>> codec, Supplier<T> loader) {
+        requests.increment();
+        ConcurrentMap<String, LocalEntry> bucket = l1.get(namespace, k -> new ConcurrentHashMap<>());
+        long now = System.currentTimeMillis();
+        LocalEntry local = bucket.get(pageKey);
+        if (local != null && now >= local.localExpiresAt()) {
+            bucket.remove(pageKey, local);
+        } else if (local != null) {
+            @SuppressWarnings("unchecked")
+            Entry<T> entry = (Entry<T>) local.entry();
+            if (!refreshEarly(entry)) {
+                l1Hits.increment();
+                count("l1", "hit");
+                return entry.value();
+            }
+        }
+
+        String key;
+        try {
+            key = redisUtil.versionedKey(namespace) + ":" + pageKey;
+        } catch (RuntimeException e) {
+            log.debug("Page cache unavailable, loading directly: {}", e.getMessage());
+            return loader.get();
+        }
+        Entry<T> cached = read(key, codec);
+        if (cached != null && !refreshEarly(cached)) {
+            l2Hits.increment();
+            count("l2", "hit");
+            keepLocal(bucket, pageKey, cached);
+            return cached.value();
+        }
+        count("l2", cached == null ? "miss" : "early-refresh");
+        return loadOnce(key, codec, loader, cached, bucket, pageKey);
+    }
+
+    /**
+     * XFetch: refresh when now - delta * beta * ln(random) reaches the expiry
+     */
+    private boolean refreshEarly(Entry<?> entry) {
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return System.currentTimeMillis() - entry.loadMillis() * beta * Math.log(random) >= entry.expiresAt();
+    }
+
+    /**
+     * Keep an entry in its namespace's bucket. A bucket accessed often enough never expires as a
+     * whole, so once full its expired pages are pruned, and if it is still full the page is not kept.
+     */
+    private void keepLocal(ConcurrentMap<String, LocalEntry> bucket, String pageKey, Entry<?> entry) {
+        long now = System.currentTimeMillis();
+        if (bucket.size() >= l1MaximumPagesPerNamespace && !bucket.containsKey(pageKey)) {
+            bucket.values().removeIf(local -> now >= local.localExpiresAt());
+            if (bucket.size() >= l1MaximumPagesPerNamespace) {
+                return;
+            }
+        }
+        long localExpiresAt = Math.min(entry.expiresAt(), now + l1TtlSeconds * 1000);
+        bucket.put(pageKey, new LocalEntry(entry, localExpiresAt));
+    }
+
+    int localPageCount(String namespace) {
+        ConcurrentMap<String, LocalEntry> bucket = l1.getIfPresent(namespace);
+        return bucket == null ? 0 : bucket.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T loadOnce(String key, RedisValueCodec<Entry<T>> codec, Supplier<T> loader, Entry<T> stale,
+                           ConcurrentMap<String, LocalEntry> bucket, String pageKey) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            if (stale != null) {
+                return stale.value();
+            }
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            T value = loadAcrossReplicas(key, codec, loader, stale, bucket, pageKey);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private <T> T loadAcrossReplicas(String key, RedisValueCodec<Entry<T>> codec, Supplier<T> loader, Entry<T> stale,
+                                     ConcurrentMap<String, LocalEntry> bucket, String pageKey) {
+        String lockKey = key + ":lock";
+        String token = UUID.randomUUID().toString();
+        boolean locked;
+        try {
+            locked = redisUtil.setIfAbsent(lockKey, token, Duration.ofMillis(lockMs));
+        } catch (RuntimeException e) {
+            log.debug("Page cache unavailable, loading directly: {}", e.getMessage());
+            return loader.get();
+        }
+        if (!locked) {
+            if (stale != null) {
+                return stale.value();
+            }
+            Entry<T> loaded = awaitLoad(key, codec);
+            if (loaded == null) {
+                return loader.get();
+            }
+            keepLocal(bucket, pageKey, loaded);
+            return loaded.value();
+        }
+        try {
+            long start = System.currentTimeMillis();
+            T value = loader.get();
+            long loadMillis = System.currentTimeMillis() - start;
+            Entry<T> entry = new Entry<>(value, loadMillis, System.currentTimeMillis() + ttlSeconds * 1000);
+            write(key, entry, codec);
+            keepLocal(bucket, pageKey, entry);
+            return value;
+        } finally {
+            try {
+                redisUtil.deleteIfEquals(lockKey, token);
+            } catch (RuntimeException e) {
+                // The lock expires on its own
+                log.debug("Failed to release page lock {}: {}", lockKey, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Poll for the entry another replica is loading, for at most the lock lease
+     */
+    private <T> Entry<T> awaitLoad(String key, RedisValueCodec<Entry<T>> codec) {
+        long deadline = System.currentTimeMillis() + lockMs;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(pollMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            Entry<T> entry = read(key, codec);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private <T> Entry<T> read(String key, RedisValueCodec<Entry<T>> codec) {
+        try {
+            return redisUtil.get(key, codec);
+        } catch (RuntimeException e) {
+            log.debug("Failed to read cached page {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private <T> void write(String key, Entry<T> entry, RedisValueCodec<Entry<T>> codec) {
+        try {
+            redisUtil.set(key, entry, codec, Duration.ofSeconds(ttlSeconds));
+        } catch (RuntimeException e) {
+            log.debug("Failed to cache page {}: {}", key, e.getMessage());
+        }
+    }
+
+    double l1HitRate() {
+        long total = requests.sum();
+        return total == 0 ? 0.0 : (double) l1Hits.sum() / total;
+    }
+
+    double l2HitRate() {
+        long l1Misses = requests.sum() - l1Hits.sum();
+        return l1Misses <= 0 ? 0.0 : (double) l2Hits.sum() / l1Misses;
+    }
+
+    private void count(String tier, String result) {
+        if (meterRegistry != null) {
+            Counter.builder("cache.page.requests").tag("tier", tier).tag("result", result)
+                    .register(meterRegistry).increment();
+        }
+    }
+
+    /**
+     * Cached value with the time it took to load and its logical expiry (epoch millis)
+     */
+    record Entry<T>(T value, long loadMillis, long expiresAt) {
+    }
+
+    /**
+     * L1 copy of an entry, kept until the earlier of its expiry and the L1 TTL
+     */
+    private record LocalEntry(Entry<?> entry, long localExpiresAt) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.yushan.engagement_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yushan.engagement_service.client.UserServiceClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-process cache of user profile projections (username by user ID) in front of UserServiceClient.
+ *
+ * Entries are bounded by size (Caffeine W-TinyLFU eviction) and expire after a fixed TTL.
+ * Reads use getIfPresent, which does not lock, and misses go to user-service outside the cache.
+ * Entries are invalidated when a user-updated event arrives, see UserEventListener.
+ */
+@Slf4j
+@Component
+public class UserProfileCache {
+
+    static final String UNKNOWN_USER = "Unknown User";
+
+    @Autowired
+    private UserServiceClient userServiceClient;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.user-profile.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${cache.user-profile.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private Cache<UUID, String> usernames;
+
+    @PostConstruct
+    void init() {
+        usernames = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, usernames, "userProfileCache");
+        }
+    }
+
+    /**
+     * Get username for a user, loading it from user-service on a miss
+     */
+    public String getUsername(UUID userId) {
+        if (userId == null) {
+            return userServiceClient.getUsernameById(null);
+        }
+        String username = usernames.getIfPresent(userId);
+        if (username != null) {
+            return username;
+        }
+        username = userServiceClient.getUsernameById(userId);
+        cache(userId, username);
+        return username;
+    }
+
+    /**
+     * Get usernames for a set of users, loading all misses from user-service with one batch call
+     */
+    public Map<UUID, String> getUsernames(Collection<UUID> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Set<UUID> distinctIds = new LinkedHashSet<>(userIds);
+        distinctIds.remove(null);
+
+        Map<UUID, String> result = new HashMap<>(usernames.getAllPresent(distinctIds));
+        if (result.size() == distinctIds.size()) {
+            return result;
+        }
+
+        List<UUID> misses = new ArrayList<>();
+        for (UUID userId : distinctIds) {
+            if (!result.containsKey(userId)) {
+                misses.add(userId);
+            }
+        }
+        Map<UUID, String> loaded = userServiceClient.getUsernamesByIds(misses);
+        if (loaded != null) {
+            loaded.forEach((userId, username) -> {
+                cache(userId, username);
+                result.put(userId, username);
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Drop the cached profile of a user so the next lookup reloads it
+     */
+    public void invalidate(UUID userId) {
+        if (userId != null) {
+            usernames.invalidate(userId);
+            log.debug("Invalidated cached profile for user: {}", userId);
+        }
+    }
+
+    public void invalidateAll() {
+        usernames.invalidateAll();
+    }
+
+    /**
+     * Do not cache the placeholder returned for failed or missing lookups, so a user-service
+     * outage is not remembered for the whole TTL.
+     */
+    private void cache(UUID userId, String username) {
+        if (userId != null && username != null && !UNKNOWN_USER.equals(username)) {
+            usernames.put(userId, username);
+        }
+    }
+}
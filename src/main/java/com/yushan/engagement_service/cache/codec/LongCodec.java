@@ -0,0 +1,39 @@
+package com.yushan.engagement_service.cache.codec;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Counters as ASCII decimal, the representation INCR and INCRBY read and write
+ */
+public final class LongCodec implements RedisValueCodec<Long> {
+
+    public static final LongCodec INSTANCE = new LongCodec();
+
+    private LongCodec() {
+    }
+
+    @Override
+    public byte[] encode(Long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public Long decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        // Parsed in place, without building a String
+        boolean negative = bytes[0] == '-';
+        long value = 0;
+        for (int i = negative ? 1 : 0; i < bytes.length; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new SerializationException("Not a counter: " + new String(bytes, StandardCharsets.US_ASCII));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+}
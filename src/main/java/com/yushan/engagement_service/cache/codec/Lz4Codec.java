@@ -0,0 +1,81 @@
+package com.yushan.engagement_service.cache.codec;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Arrays;
+
+/**
+ * Compresses another codec's output with LZ4 once it reaches a size threshold.
+ *
+ * Layout: one header byte, RAW followed by the value, or LZ4 followed by the uncompressed length
+ * (4 bytes, big-endian) and the compressed block. Values that do not shrink are stored raw.
+ */
+public final class Lz4Codec<T> implements RedisValueCodec<T> {
+
+    private static final byte RAW = 0;
+    private static final byte LZ4 = 1;
+    private static final int LZ4_HEADER = 5;
+
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4SafeDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().safeDecompressor();
+
+    private final RedisValueCodec<T> delegate;
+    private final int thresholdBytes;
+
+    public Lz4Codec(RedisValueCodec<T> delegate, int thresholdBytes) {
+        this.delegate = delegate;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public byte[] encode(T value) {
+        byte[] raw = delegate.encode(value);
+        if (raw.length >= thresholdBytes) {
+            byte[] out = new byte[LZ4_HEADER + COMPRESSOR.maxCompressedLength(raw.length)];
+            int compressed = COMPRESSOR.compress(raw, 0, raw.length, out, LZ4_HEADER);
+            if (LZ4_HEADER + compressed < raw.length + 1) {
+                out[0] = LZ4;
+                out[1] = (byte) (raw.length >>> 24);
+                out[2] = (byte) (raw.length >>> 16);
+                out[3] = (byte) (raw.length >>> 8);
+                out[4] = (byte) raw.length;
+                return Arrays.copyOf(out, LZ4_HEADER + compressed);
+            }
+        }
+        byte[] out = new byte[raw.length + 1];
+        out[0] = RAW;
+        System.arraycopy(raw, 0, out, 1, raw.length);
+        return out;
+    }
+
+    @Override
+    public T decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == RAW) {
+            return delegate.decode(bytes, 1, bytes.length - 1);
+        }
+        if (bytes[0] != LZ4 || bytes.length < LZ4_HEADER) {
+            throw new SerializationException("Unknown cached value format " + bytes[0]);
+        }
+        int length = (bytes[1] & 0xff) << 24 | (bytes[2] & 0xff) << 16 | (bytes[3] & 0xff) << 8 | (bytes[4] & 0xff);
+        if (length < 0) {
+            throw new SerializationException("Corrupt LZ4 header: length " + length);
+        }
+        byte[] raw = new byte[length];
+        try {
+            int restored = DECOMPRESSOR.decompress(bytes, LZ4_HEADER, bytes.length - LZ4_HEADER, raw, 0, length);
+            if (restored != length) {
+                throw new SerializationException("Truncated LZ4 value: " + restored + " of " + length + " bytes");
+            }
+        } catch (LZ4Exception e) {
+            throw new SerializationException("Corrupt LZ4 value", e);
+        }
+        return delegate.decode(raw);
+    }
+}
@@ -0,0 +1,21 @@
+package com.yushan.engagement_service.cache.codec;
+
+import java.util.Arrays;
+
+/**
+ * Typed encoding of one kind of cached value to and from the raw bytes stored in Redis.
+ * Unlike the shared RedisTemplate serializer, a codec knows its type, so no class names are stored.
+ */
+public interface RedisValueCodec<T> {
+
+    byte[] encode(T value);
+
+    T decode(byte[] bytes);
+
+    /**
+     * Decode a value stored in part of an array, e.g. after a header
+     */
+    default T decode(byte[] bytes, int offset, int length) {
+        return decode(Arrays.copyOfRange(bytes, offset, offset + length));
+    }
+}
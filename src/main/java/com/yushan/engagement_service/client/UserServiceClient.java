@@ -9,7 +9,17 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @FeignClient(name = "user-service", url = "${services.user.url:http://yushan-user-service:8081}", 
@@ -22,6 +32,9 @@ public interface UserServiceClient {
     @GetMapping("/api/v1/users/{userId}")
     ApiResponse<UserProfileResponseDTO> getUser(@PathVariable("userId") UUID userId);
 
+    @PostMapping("/api/v1/users/batch/get")
+    ApiResponse<List<UserProfileResponseDTO>> getUsersBatch(@RequestBody List<UUID> userIds);
+
     default String getUsernameById(UUID userId) {
         try {
             ApiResponse<UserProfileResponseDTO> response = getUser(userId);
@@ -35,6 +48,45 @@ public interface UserServiceClient {
         }
     }
 
+    /**
+     * Resolve usernames for a set of users with a single batch call.
+     * Users missing from the batch response resolve to "Unknown User". If the batch
+     * endpoint itself fails, each user is resolved individually so that a page still renders.
+     */
+    default Map<UUID, String> getUsernamesByIds(Collection<UUID> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        distinctIds.removeIf(Objects::isNull);
+        if (distinctIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<UUID, String> usernames = new HashMap<>();
+        try {
+            ApiResponse<List<UserProfileResponseDTO>> response = getUsersBatch(distinctIds);
+            if (response != null && response.getData() != null) {
+                for (UserProfileResponseDTO user : response.getData()) {
+                    if (user != null && user.getUuid() != null) {
+                        usernames.put(UUID.fromString(user.getUuid()), user.getUsername());
+                    }
+                }
+                for (UUID userId : distinctIds) {
+                    usernames.putIfAbsent(userId, "Unknown User");
+                }
+                return usernames;
+            }
+        } catch (Exception e) {
+            log.error("Error getting usernames for {} users in batch: {}", distinctIds.size(), e.getMessage());
+        }
+
+        for (UUID userId : distinctIds) {
+            usernames.put(userId, getUsernameById(userId));
+        }
+        return usernames;
+    }
+
 
     /**
      * Fallback class for UserServiceClient.
@@ -49,5 +101,11 @@ public interface UserServiceClient {
             logger.error("Circuit breaker opened for user-service. Falling back for getUser request with {} id.", userId);
             return ApiResponse.error(503, "User service temporarily unavailable", null);
         }
+
+        @Override
+        public ApiResponse<List<UserProfileResponseDTO>> getUsersBatch(List<UUID> userIds) {
+            logger.error("Circuit breaker opened for user-service. Falling back for getUsersBatch request with {} ids.", userIds.size());
+            return ApiResponse.error(503, "User service temporarily unavailable", null);
+        }
     }
 }
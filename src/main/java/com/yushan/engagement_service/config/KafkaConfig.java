@@ -1,10 +1,17 @@
 package com.yushan.engagement_service.config;
 
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
@@ -17,7 +24,7 @@ import java.util.Map;
  * Kafka configuration for Engagement Service
  * 
  * This configuration sets up Kafka producers for publishing engagement events
- * to Analytics, Gamification, and Content services.
+ * to Analytics, Gamification, and Content services, and the batch consumer of the vote SAGA.
  */
 @Configuration
 public class KafkaConfig {
@@ -49,6 +56,12 @@ public class KafkaConfig {
     @Value("${spring.kafka.producer.delivery-timeout-ms:120000}")
     private int deliveryTimeoutMs;
 
+    @Value("${saga.vote-creation.batch.max-poll-records:500}")
+    private int voteSagaMaxPollRecords;
+
+    @Value("${saga.vote-creation.batch.concurrency:1}")
+    private int voteSagaConcurrency;
+
     /**
      * Producer factory configuration
      */
@@ -102,4 +115,29 @@ public class KafkaConfig {
         
         return template;
     }
+
+    /**
+     * Batch listener container factory for the vote SAGA consumer.
+     * Starts from the spring.kafka.consumer settings when Kafka auto-configuration is active, and hands
+     * each poll (up to saga.vote-creation.batch.max-poll-records records) to the listener as one list.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> voteSagaBatchListenerContainerFactory(
+            ObjectProvider<KafkaProperties> kafkaProperties, ObjectProvider<SslBundles> sslBundles) {
+        Map<String, Object> configProps = new HashMap<>();
+        KafkaProperties properties = kafkaProperties.getIfAvailable();
+        if (properties != null) {
+            configProps.putAll(properties.buildConsumerProperties(sslBundles.getIfAvailable()));
+        }
+        configProps.putIfAbsent(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, voteSagaMaxPollRecords);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(configProps));
+        factory.setBatchListener(true);
+        factory.setConcurrency(voteSagaConcurrency);
+        return factory;
+    }
 }
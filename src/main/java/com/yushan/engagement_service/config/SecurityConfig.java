@@ -6,6 +6,7 @@ import com.yushan.engagement_service.security.JwtAuthenticationEntryPoint;
 import com.yushan.engagement_service.security.JwtAuthenticationFilter;
 import com.yushan.engagement_service.security.UserActivityFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -121,6 +122,17 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * UserActivityFilter runs in the security chain after authentication; keep Spring Boot from also
+     * registering it as a servlet filter, where it would run first and claim the request before the user is known
+     */
+    @Bean
+    public FilterRegistrationBean<UserActivityFilter> userActivityFilterRegistration(UserActivityFilter filter) {
+        FilterRegistrationBean<UserActivityFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
@@ -94,17 +94,18 @@ public class CommentController {
      * Get comments for a specific chapter (public)
      */
     @GetMapping("/chapter/{chapterId}")
-    @Operation(summary = "[PUBLIC] Get comments by chapter", description = "List comments for a chapter with pagination and sorting.")
+    @Operation(summary = "[PUBLIC] Get comments by chapter", description = "List comments for a chapter with pagination and sorting. Pass nextCursor back as cursor for keyset paging.")
     public ApiResponse<CommentListResponseDTO> getCommentsByChapter(
             @PathVariable Integer chapterId,
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "20") Integer size,
             @RequestParam(value = "sort", defaultValue = "createTime") String sort,
             @RequestParam(value = "order", defaultValue = "desc") String order,
+            @RequestParam(value = "cursor", required = false) String cursor,
             Authentication authentication) {
 
         UUID userId = getUserIdFromAuthenticationOrNull(authentication);
-        CommentListResponseDTO response = commentService.getCommentsByChapter(chapterId, userId, page, size, sort, order);
+        CommentListResponseDTO response = commentService.getCommentsByChapter(chapterId, userId, page, size, sort, order, cursor);
         return ApiResponse.success("Comments retrieved successfully", response);
     }
 
@@ -112,7 +113,7 @@ public class CommentController {
      * Get comments for a specific novel (public, across all chapters)
      */
     @GetMapping("/novel/{novelId}")
-    @Operation(summary = "[PUBLIC] Get comments by novel", description = "List comments across all chapters of a novel with filters.")
+    @Operation(summary = "[PUBLIC] Get comments by novel", description = "List comments across all chapters of a novel with filters. search is a full-text query; sort=relevance ranks matches. Pass nextCursor back as cursor for keyset paging.")
     public ApiResponse<CommentListResponseDTO> getCommentsByNovel(
             @PathVariable Integer novelId,
             @RequestParam(value = "page", defaultValue = "0") Integer page,
@@ -121,6 +122,7 @@ public class CommentController {
             @RequestParam(value = "order", defaultValue = "desc") String order,
             @RequestParam(value = "isSpoiler", required = false) Boolean isSpoiler,
             @RequestParam(value = "search", required = false) String search,
+            @RequestParam(value = "cursor", required = false) String cursor,
             Authentication authentication) {
 
         UUID userId = getUserIdFromAuthenticationOrNull(authentication);
@@ -133,6 +135,7 @@ public class CommentController {
                 .order(order)
                 .page(page)
                 .size(size)
+                .cursor(cursor)
                 .build();
 
         CommentListResponseDTO response = commentService.getCommentsByNovel(novelId, userId, request);
@@ -282,7 +285,7 @@ public class CommentController {
      */
     @GetMapping("/admin/search")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "[ADMIN] Search comments", description = "Advanced search for comments.")
+    @Operation(summary = "[ADMIN] Search comments", description = "Full-text search for comments. Matches come with an HTML highlight snippet; sort=relevance ranks best matches first.")
     public ApiResponse<CommentListResponseDTO> searchCommentsAdmin(
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "20") Integer size,
@@ -83,7 +83,8 @@ public class ReportController {
             @RequestParam(defaultValue = "createdAt") String sort,
             @RequestParam(defaultValue = "desc") String order,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
         
         ReportSearchRequestDTO request = new ReportSearchRequestDTO();
         request.setStatus(status);
@@ -93,6 +94,7 @@ public class ReportController {
         request.setOrder(order);
         request.setPage(page);
         request.setSize(size);
+        request.setCursor(cursor);
 
         PageResponseDTO<ReportResponseDTO> reports = reportService.getReportsForAdmin(request);
         return ApiResponse.success("Reports retrieved successfully", reports);
@@ -100,15 +100,16 @@ public class ReviewController {
      * Get reviews for a specific novel (public)
      */
     @GetMapping("/novel/{novelId}")
-    @Operation(summary = "[PUBLIC] List novel reviews", description = "List reviews for a novel with pagination and sorting.")
+    @Operation(summary = "[PUBLIC] List novel reviews", description = "List reviews for a novel with pagination and sorting. Pass nextCursor back as cursor for keyset paging.")
     public ApiResponse<PageResponseDTO<ReviewResponseDTO>> getReviewsByNovel(
             @PathVariable Integer novelId,
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "10") Integer size,
             @RequestParam(value = "sort", defaultValue = "createTime") String sort,
-            @RequestParam(value = "order", defaultValue = "desc") String order) {
+            @RequestParam(value = "order", defaultValue = "desc") String order,
+            @RequestParam(value = "cursor", required = false) String cursor) {
         
-        PageResponseDTO<ReviewResponseDTO> response = reviewService.getReviewsByNovel(novelId, page, size, sort, order);
+        PageResponseDTO<ReviewResponseDTO> response = reviewService.getReviewsByNovel(novelId, page, size, sort, order, cursor);
         return ApiResponse.success("Reviews retrieved successfully", response);
     }
 
@@ -116,7 +117,7 @@ public class ReviewController {
      * Get all reviews with filtering and pagination (public)
      */
     @GetMapping
-    @Operation(summary = "[PUBLIC] List reviews", description = "List all reviews with filters and pagination.")
+    @Operation(summary = "[PUBLIC] List reviews", description = "List all reviews with filters and pagination. search is a full-text query over title and content; sort=relevance ranks matches. Pass nextCursor back as cursor for keyset paging.")
     public ApiResponse<PageResponseDTO<ReviewResponseDTO>> getAllReviews(
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "10") Integer size,
@@ -125,10 +126,12 @@ public class ReviewController {
             @RequestParam(value = "novelId", required = false) Integer novelId,
             @RequestParam(value = "rating", required = false) Integer rating,
             @RequestParam(value = "isSpoiler", required = false) Boolean isSpoiler,
-            @RequestParam(value = "search", required = false) String search) {
+            @RequestParam(value = "search", required = false) String search,
+            @RequestParam(value = "cursor", required = false) String cursor) {
         
         ReviewSearchRequestDTO request = new ReviewSearchRequestDTO(page, size, sort, order, 
                                                                    novelId, rating, isSpoiler, search);
+        request.setCursor(cursor);
         PageResponseDTO<ReviewResponseDTO> response = reviewService.getAllReviews(request);
         return ApiResponse.success("Reviews retrieved successfully", response);
     }
@@ -202,7 +205,7 @@ public class ReviewController {
      */
     @GetMapping("/admin/all")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "[ADMIN] List all reviews", description = "Admin list with pagination and filters.")
+    @Operation(summary = "[ADMIN] List all reviews", description = "Admin list with pagination and filters. search is a full-text query; sort=relevance ranks matches.")
     public ApiResponse<PageResponseDTO<ReviewResponseDTO>> getAllReviewsAdmin(
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "10") Integer size,
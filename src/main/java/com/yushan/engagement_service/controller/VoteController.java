@@ -45,9 +45,10 @@ public class VoteController {
     public ApiResponse<PageResponseDTO<VoteUserResponseDTO>> getUserVotes(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
             Authentication authentication) {
         UUID userId = getUserIdFromAuthentication(authentication);
-        PageResponseDTO<VoteUserResponseDTO> response = voteService.getUserVotes(userId, page, size);
+        PageResponseDTO<VoteUserResponseDTO> response = voteService.getUserVotes(userId, page, size, cursor);
         return ApiResponse.success("User votes retrieved", response);
     }
 
@@ -1,6 +1,7 @@
 package com.yushan.engagement_service.dao;
 
 import com.yushan.engagement_service.dto.comment.CommentSearchRequestDTO;
+import com.yushan.engagement_service.dto.common.PageCursor;
 import com.yushan.engagement_service.entity.Comment;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -26,7 +27,7 @@ public interface CommentMapper {
     // Paginated queries
     List<Comment> selectCommentsWithPagination(CommentSearchRequestDTO searchRequest);
     List<Comment> selectCommentsByNovelWithPagination(
-            @Param("chapterIds") List<Integer> chapterIds,
+            @Param("novelId") Integer novelId,
             @Param("isSpoiler") Boolean isSpoiler,
             @Param("search") String search,
             @Param("sort") String sort,
@@ -34,17 +35,28 @@ public interface CommentMapper {
             @Param("page") int page,
             @Param("size") int size
     );
+    List<Comment> selectCommentsByNovelAfter(
+            @Param("novelId") Integer novelId,
+            @Param("isSpoiler") Boolean isSpoiler,
+            @Param("search") String search,
+            @Param("seek") PageCursor seek,
+            @Param("limit") int limit
+    );
 
     // Count queries
     long countComments(CommentSearchRequestDTO searchRequest);
     long countByChapterId(Integer chapterId);
-    long countByNovelId(List<Integer> chapterIds);
+    long countByNovelId(Integer novelId);
     long countCommentsByNovel(
-            @Param("chapterIds") List<Integer> chapterIds,
+            @Param("novelId") Integer novelId,
             @Param("isSpoiler") Boolean isSpoiler,
             @Param("search") String search
     );
 
+    // Novel ID backfill
+    List<Integer> selectChapterIdsWithoutNovel(@Param("afterChapterId") Integer afterChapterId, @Param("limit") int limit);
+    int backfillNovelId(@Param("chapterId") Integer chapterId, @Param("novelId") Integer novelId, @Param("limit") int limit);
+
     // Like count update
     int updateLikeCount(@Param("id") Integer id, @Param("increment") Integer increment);
 
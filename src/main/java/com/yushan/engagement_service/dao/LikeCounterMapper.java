@@ -0,0 +1,35 @@
+package com.yushan.engagement_service.dao;
+
+import com.yushan.engagement_service.entity.LikeCountDelta;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * Mapper for buffered like count flushes and the like_counter_checkpoint table
+ */
+@Mapper
+public interface LikeCounterMapper {
+
+    /**
+     * Add each delta to its comment's like count in a single UPDATE ... FROM (VALUES ...)
+     *
+     * @return the chapter id of every updated comment
+     */
+    List<Integer> applyCommentLikeDeltas(@Param("deltas") List<LikeCountDelta> deltas);
+
+    /**
+     * Add each delta to its review's like count in a single UPDATE ... FROM (VALUES ...)
+     *
+     * @return the novel id of every updated review
+     */
+    List<Integer> applyReviewLikeDeltas(@Param("deltas") List<LikeCountDelta> deltas);
+
+    /**
+     * Last journal segment whose deltas are applied, or null if the journal has never flushed
+     */
+    Long selectFlushedSegment(@Param("journalId") String journalId);
+
+    int upsertFlushedSegment(@Param("journalId") String journalId, @Param("segment") long segment);
+}
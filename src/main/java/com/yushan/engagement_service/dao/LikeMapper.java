@@ -0,0 +1,44 @@
+package com.yushan.engagement_service.dao;
+
+import com.yushan.engagement_service.enums.LikeTargetType;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Mapper for the comment_like and review_like ledgers
+ */
+@Mapper
+public interface LikeMapper {
+
+    /**
+     * Record a like, returns 0 if the user already likes the target
+     */
+    int insertLike(@Param("type") LikeTargetType type,
+                   @Param("targetId") Integer targetId,
+                   @Param("userId") UUID userId);
+
+    /**
+     * Remove a like, returns 0 if the user did not like the target
+     */
+    int deleteLike(@Param("type") LikeTargetType type,
+                   @Param("targetId") Integer targetId,
+                   @Param("userId") UUID userId);
+
+    /**
+     * IDs of targets the user likes, at most limit of them
+     */
+    List<Integer> selectLikedIds(@Param("type") LikeTargetType type,
+                                 @Param("userId") UUID userId,
+                                 @Param("limit") int limit);
+
+    /**
+     * Subset of the given target IDs the user likes
+     */
+    List<Integer> selectLikedAmong(@Param("type") LikeTargetType type,
+                                   @Param("userId") UUID userId,
+                                   @Param("targetIds") Collection<Integer> targetIds);
+}
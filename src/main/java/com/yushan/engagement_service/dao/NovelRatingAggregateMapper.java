@@ -0,0 +1,42 @@
+package com.yushan.engagement_service.dao;
+
+import com.yushan.engagement_service.entity.NovelRatingAggregate;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * Mapper for novel_rating_aggregate table
+ */
+@Mapper
+public interface NovelRatingAggregateMapper {
+
+    NovelRatingAggregate selectByNovelId(@Param("novelId") Integer novelId);
+
+    /**
+     * Apply a single review change to the aggregate, creating the row if needed.
+     * oldRating is null for a new review, newRating is null for a deleted review.
+     */
+    int upsertDelta(@Param("novelId") Integer novelId,
+                    @Param("oldRating") Integer oldRating,
+                    @Param("newRating") Integer newRating);
+
+    /**
+     * Recompute the aggregate of one novel from its reviews
+     */
+    int rebuildByNovelId(@Param("novelId") Integer novelId);
+
+    /**
+     * Take the transaction-scoped advisory lock of the full rebuild, false if another session holds it
+     */
+    boolean tryLockRebuildAll();
+
+    /**
+     * Recompute the aggregates of all novels that have reviews
+     */
+    int rebuildAll();
+
+    /**
+     * Reset aggregates of novels that no longer have any review
+     */
+    int resetWithoutReviews();
+}
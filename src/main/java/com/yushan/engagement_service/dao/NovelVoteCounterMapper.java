@@ -0,0 +1,34 @@
+package com.yushan.engagement_service.dao;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * Mapper for novel_vote_counter table
+ */
+@Mapper
+public interface NovelVoteCounterMapper {
+
+    /**
+     * Add delta to one counter slot of the novel, creating the slot if needed
+     */
+    int increment(@Param("novelId") Integer novelId,
+                  @Param("slot") int slot,
+                  @Param("delta") int delta);
+
+    /**
+     * Vote count of the novel: the sum of its slots
+     */
+    long sumByNovelId(@Param("novelId") Integer novelId);
+
+    /**
+     * Take the transaction-scoped advisory lock of the reconciliation, false if another session holds it
+     */
+    boolean tryLockReconcile();
+
+    /**
+     * Correct counters that differ from the vote table by adding the difference to slot 0,
+     * returns the number of novels corrected
+     */
+    int reconcileAll();
+}
@@ -0,0 +1,23 @@
+package com.yushan.engagement_service.dao;
+
+import com.yushan.engagement_service.entity.OutboxEvent;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * Mapper for the event_outbox table
+ */
+@Mapper
+public interface OutboxEventMapper {
+
+    int insert(OutboxEvent event);
+
+    /**
+     * Lock the oldest events not locked by another relay
+     */
+    List<OutboxEvent> selectBatchForUpdate(@Param("limit") int limit);
+
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
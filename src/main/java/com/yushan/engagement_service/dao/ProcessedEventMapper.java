@@ -3,6 +3,12 @@ package com.yushan.engagement_service.dao;
 import com.yushan.engagement_service.entity.ProcessedEvent;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Mapper for processed_events table to ensure idempotency
@@ -16,14 +22,51 @@ public interface ProcessedEventMapper {
     boolean existsByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
 
     /**
-     * Insert a processed event record
+     * The subset of the given idempotency keys that have been processed
+     */
+    List<String> selectExistingKeys(@Param("idempotencyKeys") Collection<String> idempotencyKeys);
+
+    /**
+     * Stream the keys processed since the given time to the handler
+     */
+    void selectKeysProcessedSince(@Param("since") LocalDateTime since, ResultHandler<String> handler);
+
+    /**
+     * Insert a processed event record unless the key exists in any partition, returns 1 if inserted
      */
     int insert(ProcessedEvent processedEvent);
 
     /**
-     * Delete old processed events (for cleanup)
+     * Insert processed event records in one statement, skipping keys that already exist
+     */
+    int insertBatch(@Param("idempotencyKeys") Collection<String> idempotencyKeys,
+                    @Param("eventType") String eventType,
+                    @Param("serviceName") String serviceName,
+                    @Param("processedAt") LocalDateTime processedAt);
+
+    /**
+     * Insert processed event records in one statement, returns the keys that were inserted
+     * (keys that already exist are skipped)
+     */
+    List<String> insertBatchReturningKeys(@Param("idempotencyKeys") Collection<String> idempotencyKeys,
+                                          @Param("eventType") String eventType,
+                                          @Param("serviceName") String serviceName,
+                                          @Param("processedAt") LocalDateTime processedAt);
+
+    /**
+     * Names of the partitions of processed_events
+     */
+    List<String> selectPartitionNames();
+
+    /**
+     * Create a partition for processed_at in [from, to)
+     */
+    void createPartition(@Param("name") String name, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Drop a partition with all its records
      */
-    int deleteOldProcessedEvents(@Param("beforeDate") java.time.LocalDateTime beforeDate);
+    void dropPartition(@Param("name") String name);
 }
 
 
@@ -4,6 +4,7 @@ import com.yushan.engagement_service.entity.Vote;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,6 +16,9 @@ public interface VoteMapper {
 
     int insertSelective(Vote record);
 
+    // Multi-row insert, fills in each vote's generated id
+    int insertBatch(List<Vote> records);
+
     Vote selectByPrimaryKey(Integer id);
 
     int updateByPrimaryKeySelective(Vote record);
@@ -31,4 +35,9 @@ public interface VoteMapper {
     long countByNovelId(@Param("novelId") Integer novelId);
 
     List<Vote> selectByUserIdWithPagination(UUID userId, int offset, int limit);
+
+    List<Vote> selectByUserIdAfter(@Param("userId") UUID userId,
+                                   @Param("cursorTime") Date cursorTime,
+                                   @Param("cursorId") Integer cursorId,
+                                   @Param("limit") int limit);
 }
\ No newline at end of file
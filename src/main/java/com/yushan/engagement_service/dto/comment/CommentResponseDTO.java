@@ -22,8 +22,18 @@ public class CommentResponseDTO {
     private Date createTime;
     private Date updateTime;
     private Boolean isOwnComment; // Whether the current user owns this comment
+    private String highlight; // Escaped HTML snippet with <mark>ed matches, only on search results
+    private Boolean isLiked; // Whether the current user likes this comment
 
     public CommentResponseDTO(Integer id, UUID userId, String username, Integer chapterId, String chapterTitle, String content, Integer likeCnt, Boolean isSpoiler, Date createTime, Date updateTime, Boolean isOwnComment) {
+        this(id, userId, username, chapterId, chapterTitle, content, likeCnt, isSpoiler, createTime, updateTime, isOwnComment, null);
+    }
+
+    public CommentResponseDTO(Integer id, UUID userId, String username, Integer chapterId, String chapterTitle, String content, Integer likeCnt, Boolean isSpoiler, Date createTime, Date updateTime, Boolean isOwnComment, String highlight) {
+        this(id, userId, username, chapterId, chapterTitle, content, likeCnt, isSpoiler, createTime, updateTime, isOwnComment, highlight, null);
+    }
+
+    public CommentResponseDTO(Integer id, UUID userId, String username, Integer chapterId, String chapterTitle, String content, Integer likeCnt, Boolean isSpoiler, Date createTime, Date updateTime, Boolean isOwnComment, String highlight, Boolean isLiked) {
         this.id = id;
         this.userId = userId;
         this.username = username;
@@ -35,6 +45,8 @@ public class CommentResponseDTO {
         this.createTime = createTime != null ? new Date(createTime.getTime()) : null;
         this.updateTime = updateTime != null ? new Date(updateTime.getTime()) : null;
         this.isOwnComment = isOwnComment;
+        this.highlight = highlight;
+        this.isLiked = isLiked;
     }
 
     public Date getCreateTime() {
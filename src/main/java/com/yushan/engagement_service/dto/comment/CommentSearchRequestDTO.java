@@ -1,5 +1,6 @@
 package com.yushan.engagement_service.dto.comment;
 
+import com.yushan.engagement_service.dto.common.PageCursor;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.AllArgsConstructor;
@@ -32,4 +33,10 @@ public class CommentSearchRequestDTO {
     @Min(value = 1, message = "size must be at least 1")
     @Max(value = 100, message = "size must be at most 100")
     private int size = 20;
+
+    // Keyset pagination: opaque cursor from a previous page; when set, page is ignored
+    private String cursor;
+
+    // Decoded cursor the query seeks past (set by the service)
+    private PageCursor seek;
 }
@@ -0,0 +1,103 @@
+package com.yushan.engagement_service.dto.common;
+
+import com.yushan.engagement_service.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque keyset pagination cursor: the sort field and direction plus the (sort key, id) of the
+ * last row returned. Listings that receive a cursor seek past that row instead of using OFFSET,
+ * so every page costs the same regardless of depth.
+ *
+ * Timestamp sort keys are stored as epoch milliseconds.
+ */
+public final class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String sort;
+    private final String order;
+    private final long key;
+    private final int id;
+
+    private PageCursor(String sort, String order, long key, int id) {
+        this.sort = sort;
+        this.order = order;
+        this.key = key;
+        this.id = id;
+    }
+
+    public static PageCursor of(String sort, String order, long key, int id) {
+        return new PageCursor(sort, "asc".equalsIgnoreCase(order) ? "asc" : "desc", key, id);
+    }
+
+    /**
+     * Encode a cursor pointing after the given row, or null if the row has no sort key
+     */
+    public static String encode(String sort, String order, Date time, Integer id) {
+        if (time == null || id == null) {
+            return null;
+        }
+        return of(sort, order, time.getTime(), id).encode();
+    }
+
+    public static String encode(String sort, String order, Integer key, Integer id) {
+        if (key == null || id == null) {
+            return null;
+        }
+        return of(sort, order, key, id).encode();
+    }
+
+    /**
+     * Decode a cursor received from a client. Only the given sort fields are accepted.
+     */
+    public static PageCursor decode(String cursor, String... allowedSorts) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\" + SEPARATOR, -1);
+            if (parts.length != 4
+                    || !Arrays.asList(allowedSorts).contains(parts[0])
+                    || !("asc".equals(parts[1]) || "desc".equals(parts[1]))) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return new PageCursor(parts[0], parts[1], Long.parseLong(parts[2]), Integer.parseInt(parts[3]));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new ValidationException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = sort + SEPARATOR + order + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public String getOrder() {
+        return order;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public Date getKeyAsTime() {
+        return new Date(key);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Row-value comparison operator for the seek predicate, e.g. (create_time, id) &lt; (?, ?)
+     */
+    public String getComparator() {
+        return "asc".equals(order) ? ">" : "<";
+    }
+}
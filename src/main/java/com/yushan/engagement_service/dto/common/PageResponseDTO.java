@@ -5,6 +5,7 @@ import java.util.List;
 /**
  * Generic pagination response DTO.
  * Contains paginated data with metadata.
+ * In cursor (keyset) mode totals are not computed; nextCursor points at the following page.
  */
 public class PageResponseDTO<T> {
     private List<T> content;
@@ -16,6 +17,7 @@ public class PageResponseDTO<T> {
     private boolean last;
     private boolean hasNext;
     private boolean hasPrevious;
+    private String nextCursor;
     
     // Constructors
     public PageResponseDTO() {
@@ -37,6 +39,19 @@ public class PageResponseDTO<T> {
         return new PageResponseDTO<>(content, totalElements, currentPage, size);
     }
     
+    /**
+     * Page returned in cursor mode, where the total count is not computed
+     */
+    public static <T> PageResponseDTO<T> ofCursor(List<T> content, int size, String nextCursor) {
+        PageResponseDTO<T> page = new PageResponseDTO<>();
+        page.setContent(content);
+        page.setSize(size);
+        page.setNextCursor(nextCursor);
+        page.setHasNext(nextCursor != null);
+        page.setLast(nextCursor == null);
+        return page;
+    }
+    
     // Getters and Setters
     public List<T> getContent() {
         return content != null ? new java.util.ArrayList<>(content) : new java.util.ArrayList<>();
@@ -109,4 +124,12 @@ public class PageResponseDTO<T> {
     public void setHasPrevious(boolean hasPrevious) {
         this.hasPrevious = hasPrevious;
     }
-}
\ No newline at end of file
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
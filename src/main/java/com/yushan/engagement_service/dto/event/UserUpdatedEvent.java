@@ -0,0 +1,32 @@
+package com.yushan.engagement_service.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * User Updated Event
+ * Published by User Service when a user's profile (username, avatar, status) changes
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserUpdatedEvent {
+
+    @JsonProperty("userId")
+    private UUID userId;
+
+    @JsonProperty("username")
+    private String username;
+
+    @JsonProperty("timestamp")
+    private LocalDateTime timestamp;
+}
@@ -1,5 +1,6 @@
 package com.yushan.engagement_service.dto.report;
 
+import com.yushan.engagement_service.dto.common.PageCursor;
 import lombok.Data;
 
 @Data
@@ -11,4 +12,10 @@ public class ReportSearchRequestDTO {
     private String order = "desc";
     private int page = 0;
     private int size = 10;
+
+    // Keyset pagination: opaque cursor from a previous page; when set, page is ignored
+    private String cursor;
+
+    // Decoded cursor the query seeks past (set by the service)
+    private PageCursor seek;
 }
\ No newline at end of file
@@ -20,6 +20,8 @@ public class ReviewResponseDTO {
     private Boolean isSpoiler;
     private Date createTime;
     private Date updateTime;
+    private String highlight; // Escaped HTML snippet with <mark>ed matches, only on search results
+    private Boolean isLiked; // Whether the current user likes this review, only on like/unlike responses
 
     public Date getCreateTime() {
         return createTime == null ? null : new Date(createTime.getTime());
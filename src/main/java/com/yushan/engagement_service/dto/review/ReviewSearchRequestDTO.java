@@ -1,5 +1,6 @@
 package com.yushan.engagement_service.dto.review;
 
+import com.yushan.engagement_service.dto.common.PageCursor;
 import lombok.Data;
 
 @Data
@@ -13,6 +14,12 @@ public class ReviewSearchRequestDTO {
     private Boolean isSpoiler;
     private String search;
 
+    // Keyset pagination: opaque cursor from a previous page; when set, page is ignored
+    private String cursor;
+
+    // Decoded cursor the query seeks past (set by the service)
+    private PageCursor seek;
+
     public ReviewSearchRequestDTO() {
     }
 
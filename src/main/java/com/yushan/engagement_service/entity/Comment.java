@@ -10,6 +10,8 @@ public class Comment {
 
     private Integer chapterId;
 
+    private Integer novelId;
+
     private String content;
 
     private Integer likeCnt;
@@ -20,10 +22,18 @@ public class Comment {
 
     private Date updateTime;
 
+    // Search snippet with matched terms marked; only set on full-text search results, not persisted
+    private String highlight;
+
     public Comment(Integer id, UUID userId, Integer chapterId, String content, Integer likeCnt, Boolean isSpoiler, Date createTime, Date updateTime) {
+        this(id, userId, chapterId, null, content, likeCnt, isSpoiler, createTime, updateTime);
+    }
+
+    public Comment(Integer id, UUID userId, Integer chapterId, Integer novelId, String content, Integer likeCnt, Boolean isSpoiler, Date createTime, Date updateTime) {
         this.id = id;
         this.userId = userId;
         this.chapterId = chapterId;
+        this.novelId = novelId;
         this.content = content;
         this.likeCnt = likeCnt;
         this.isSpoiler = isSpoiler;
@@ -59,6 +69,14 @@ public class Comment {
         this.chapterId = chapterId;
     }
 
+    public Integer getNovelId() {
+        return novelId;
+    }
+
+    public void setNovelId(Integer novelId) {
+        this.novelId = novelId;
+    }
+
     public String getContent() {
         return content;
     }
@@ -99,6 +117,14 @@ public class Comment {
         this.updateTime = updateTime != null ? new Date(updateTime.getTime()) : null;
     }
 
+    public String getHighlight() {
+        return highlight;
+    }
+
+    public void setHighlight(String highlight) {
+        this.highlight = highlight;
+    }
+
     // ==================== Business Logic Methods ====================
 
     /**
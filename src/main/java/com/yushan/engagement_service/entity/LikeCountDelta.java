@@ -0,0 +1,34 @@
+package com.yushan.engagement_service.entity;
+
+/**
+ * Net like count change of one comment or review, applied by a buffer flush
+ */
+public class LikeCountDelta {
+
+    private Integer id;
+    private Long delta;
+
+    public LikeCountDelta() {
+    }
+
+    public LikeCountDelta(Integer id, Long delta) {
+        this.id = id;
+        this.delta = delta;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Long getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Long delta) {
+        this.delta = delta;
+    }
+}
@@ -0,0 +1,124 @@
+package com.yushan.engagement_service.entity;
+
+import java.util.Date;
+
+/**
+ * Per-novel rating aggregate: rating sum, review count and per-star histogram.
+ * Maintained incrementally by review writes instead of being recomputed from every review.
+ */
+public class NovelRatingAggregate {
+
+    private Integer novelId;
+    private Long ratingSum;
+    private Integer reviewCount;
+    private Integer rating1Count;
+    private Integer rating2Count;
+    private Integer rating3Count;
+    private Integer rating4Count;
+    private Integer rating5Count;
+    private Date updateTime;
+
+    public NovelRatingAggregate() {
+    }
+
+    /**
+     * Empty aggregate for a novel without reviews
+     */
+    public static NovelRatingAggregate empty(Integer novelId) {
+        NovelRatingAggregate aggregate = new NovelRatingAggregate();
+        aggregate.setNovelId(novelId);
+        aggregate.setRatingSum(0L);
+        aggregate.setReviewCount(0);
+        aggregate.setRating1Count(0);
+        aggregate.setRating2Count(0);
+        aggregate.setRating3Count(0);
+        aggregate.setRating4Count(0);
+        aggregate.setRating5Count(0);
+        return aggregate;
+    }
+
+    public Integer getNovelId() {
+        return novelId;
+    }
+
+    public void setNovelId(Integer novelId) {
+        this.novelId = novelId;
+    }
+
+    public Long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(Long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public Integer getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(Integer reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public Integer getRating1Count() {
+        return rating1Count;
+    }
+
+    public void setRating1Count(Integer rating1Count) {
+        this.rating1Count = rating1Count;
+    }
+
+    public Integer getRating2Count() {
+        return rating2Count;
+    }
+
+    public void setRating2Count(Integer rating2Count) {
+        this.rating2Count = rating2Count;
+    }
+
+    public Integer getRating3Count() {
+        return rating3Count;
+    }
+
+    public void setRating3Count(Integer rating3Count) {
+        this.rating3Count = rating3Count;
+    }
+
+    public Integer getRating4Count() {
+        return rating4Count;
+    }
+
+    public void setRating4Count(Integer rating4Count) {
+        this.rating4Count = rating4Count;
+    }
+
+    public Integer getRating5Count() {
+        return rating5Count;
+    }
+
+    public void setRating5Count(Integer rating5Count) {
+        this.rating5Count = rating5Count;
+    }
+
+    public Date getUpdateTime() {
+        return updateTime != null ? new Date(updateTime.getTime()) : null;
+    }
+
+    public void setUpdateTime(Date updateTime) {
+        this.updateTime = updateTime != null ? new Date(updateTime.getTime()) : null;
+    }
+
+    // ==================== Business Logic Methods ====================
+
+    /**
+     * Average rating rounded to 1 decimal place, 0.0 when the novel has no reviews
+     */
+    public float getAverageRating() {
+        if (reviewCount == null || reviewCount <= 0 || ratingSum == null) {
+            return 0.0f;
+        }
+        float avgRating = (float) ((double) ratingSum / reviewCount);
+        return Math.round(avgRating * 10.0f) / 10.0f;
+    }
+}
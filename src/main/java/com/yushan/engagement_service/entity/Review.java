@@ -26,6 +26,9 @@ public class Review {
 
     private Date updateTime;
 
+    // Search snippet with matched terms marked; only set on full-text search results, not persisted
+    private String highlight;
+
     public Review(Integer id, UUID uuid, UUID userId, Integer novelId, Integer rating, String title, String content, Integer likeCnt, Boolean isSpoiler, Date createTime, Date updateTime) {
         this.id = id;
         this.uuid = uuid;
@@ -132,6 +135,14 @@ public class Review {
         this.updateTime = updateTime != null ? new Date(updateTime.getTime()) : null;
     }
 
+    public String getHighlight() {
+        return highlight;
+    }
+
+    public void setHighlight(String highlight) {
+        this.highlight = highlight;
+    }
+
     // ==================== Business Logic Methods ====================
 
     /**
@@ -0,0 +1,28 @@
+package com.yushan.engagement_service.enums;
+
+/**
+ * Kind of content a like is applied to. The code is the stable value written to the like journal.
+ */
+public enum LikeTargetType {
+    COMMENT((byte) 1),
+    REVIEW((byte) 2);
+
+    private final byte code;
+
+    LikeTargetType(byte code) {
+        this.code = code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static LikeTargetType fromCode(byte code) {
+        for (LikeTargetType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
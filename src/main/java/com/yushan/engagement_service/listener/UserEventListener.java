@@ -0,0 +1,47 @@
+package com.yushan.engagement_service.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yushan.engagement_service.cache.UserProfileCache;
+import com.yushan.engagement_service.dto.event.UserUpdatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * User Event Listener for Engagement Service
+ * Keeps the local user profile cache in sync with changes made in User Service
+ */
+@Slf4j
+@Component
+public class UserEventListener {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    /**
+     * Invalidate the cached profile of an updated user.
+     * Every instance holds its own cache, so each one consumes the topic with its own group id. The id
+     * is stable across restarts of the instance (user-cache.instance-id), so restarts and deploys reuse
+     * the instance's group instead of leaving an abandoned one on the broker for each run.
+     */
+    @KafkaListener(topics = "${spring.kafka.consumer.topic.user-updated-events:user-updated-events}",
+            groupId = "engagement-service-user-cache-${user-cache.instance-id:local}",
+            properties = "auto.offset.reset=latest")
+    public void handleUserUpdated(@Payload String eventJson) {
+        try {
+            UserUpdatedEvent event = objectMapper.readValue(eventJson, UserUpdatedEvent.class);
+            if (event.getUserId() == null) {
+                log.warn("Received UserUpdatedEvent without userId: {}", eventJson);
+                return;
+            }
+            userProfileCache.invalidate(event.getUserId());
+        } catch (Exception e) {
+            log.error("Error processing UserUpdatedEvent: {}", eventJson, e);
+        }
+    }
+}
@@ -2,17 +2,17 @@ package com.yushan.engagement_service.listener;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yushan.engagement_service.dto.event.VoteSagaYuanReservedEvent;
-import com.yushan.engagement_service.dto.event.VoteSagaVoteCreatedEvent;
 import com.yushan.engagement_service.dto.event.VoteSagaFailedEvent;
 import com.yushan.engagement_service.dto.event.VoteSagaCompensateYuanEvent;
-import com.yushan.engagement_service.dto.common.ApiResponse;
-import com.yushan.engagement_service.dto.novel.NovelDetailResponseDTO;
 import com.yushan.engagement_service.entity.Vote;
 import com.yushan.engagement_service.exception.ValidationException;
 import com.yushan.engagement_service.repository.VoteRepository;
-import com.yushan.engagement_service.client.ContentServiceClient;
+import com.yushan.engagement_service.cache.NovelProjection;
+import com.yushan.engagement_service.cache.NovelProjectionCache;
 import com.yushan.engagement_service.service.IdempotencyService;
 import com.yushan.engagement_service.service.KafkaEventProducerService;
+import com.yushan.engagement_service.service.NovelVoteCounterService;
+import com.yushan.engagement_service.service.VoteSagaService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -20,6 +20,10 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Vote SAGA Listener for Engagement Service
@@ -32,6 +36,9 @@ public class VoteSagaListener {
     @Autowired
     private VoteRepository voteRepository;
 
+    @Autowired
+    private NovelVoteCounterService novelVoteCounterService;
+
     @Autowired
     private KafkaTemplate<String, Object> kafkaTemplate;
 
@@ -45,69 +52,36 @@ public class VoteSagaListener {
     private KafkaEventProducerService kafkaEventProducerService;
 
     @Autowired
-    private ContentServiceClient contentServiceClient;
+    private NovelProjectionCache novelProjectionCache;
+
+    @Autowired
+    private VoteSagaService voteSagaService;
 
     private static final String SAGA_TOPIC_YUAN_RESERVED = "vote-saga.yuan-reserved";
-    private static final String SAGA_TOPIC_VOTE_CREATED = "vote-saga.vote-created";
     private static final String SAGA_TOPIC_FAILED = "vote-saga.failed";
     private static final String SAGA_TOPIC_COMPENSATE = "vote-saga.compensate-yuan";
 
     /**
      * Step 2: Yuan Reserved - Create Vote
-     * Listens to vote-saga.yuan-reserved topic
+     * Listens to vote-saga.yuan-reserved topic one record at a time when batch mode is disabled
      */
-    @KafkaListener(topics = SAGA_TOPIC_YUAN_RESERVED, groupId = "engagement-service-vote-saga")
+    @KafkaListener(topics = SAGA_TOPIC_YUAN_RESERVED, groupId = "engagement-service-vote-saga",
+            autoStartup = "#{!${saga.vote-creation.batch.enabled:true}}")
     public void handleVoteSagaYuanReserved(@Payload String eventJson) {
         try {
             log.info("Received VoteSagaYuanReservedEvent: {}", eventJson);
             
             VoteSagaYuanReservedEvent event = objectMapper.readValue(eventJson, VoteSagaYuanReservedEvent.class);
-            
-            // Idempotency check
-            String idempotencyKey = "idempotency:vote-saga-create:" + event.getSagaId();
-            if (idempotencyService.isProcessed(idempotencyKey, "VoteSagaCreate")) {
+
+            // Claim, validate, insert the vote and publish its events in one transaction
+            Integer voteId = voteSagaService.createVote(event);
+            if (voteId == null) {
                 log.info("VoteSagaYuanReservedEvent already processed, skipping: sagaId={}", event.getSagaId());
                 return;
             }
 
-            // Validate novel exists (defensive validation)
-            try {
-                ApiResponse<NovelDetailResponseDTO> novelResp = 
-                    contentServiceClient.getNovelById(event.getNovelId());
-                if (novelResp == null || novelResp.getData() == null) {
-                    throw new ValidationException("Novel does not exist: " + event.getNovelId());
-                }
-                // Author cannot vote own novel (defensive check)
-                if (novelResp.getData().getAuthorId() != null && 
-                    novelResp.getData().getAuthorId().equals(event.getUserId())) {
-                    throw new ValidationException("Cannot vote your own novel");
-                }
-            } catch (ValidationException e) {
-                throw e;
-            } catch (Exception e) {
-                log.error("Failed to validate novel: {}", event.getNovelId(), e);
-                throw new ValidationException("Failed to validate novel: " + e.getMessage());
-            }
-            
-            // Create vote
-            Vote vote = new Vote();
-            vote.setUserId(event.getUserId());
-            vote.setNovelId(event.getNovelId());
-            vote.initializeAsNew();
-            voteRepository.save(vote);
-            
-            // Calculate vote count
-            Integer voteCount = (int) voteRepository.countByNovelId(event.getNovelId());
-            
-            // Publish vote created event
-            publishVoteCreatedEvent(event, vote.getId(), voteCount);
-            
-            // Mark as processed
-            idempotencyService.markAsProcessed(idempotencyKey, "VoteSagaCreate");
-            
-            log.info("Successfully created vote in SAGA: sagaId={}, voteId={}", 
-                    event.getSagaId(), vote.getId());
-                    
+            log.info("Successfully created vote in SAGA: sagaId={}, voteId={}", event.getSagaId(), voteId);
+
         } catch (ValidationException e) {
             log.error("Validation failed for VoteSagaYuanReservedEvent: {}", eventJson, e);
             handleSagaFailure(eventJson, e.getMessage());
@@ -117,6 +91,77 @@ public class VoteSagaListener {
         }
     }
 
+    /**
+     * Step 2, batch mode: create the votes of a whole poll at once.
+     * Records are deduplicated by sagaId, checked for idempotency and validated together, then all
+     * votes are claimed and inserted in one transaction and each novel gets one vote count update.
+     * Records that fail validation are compensated individually; if the batch transaction fails, the
+     * records are retried one by one so only the failing ones are compensated.
+     */
+    @KafkaListener(topics = SAGA_TOPIC_YUAN_RESERVED, groupId = "engagement-service-vote-saga",
+            containerFactory = "voteSagaBatchListenerContainerFactory",
+            autoStartup = "${saga.vote-creation.batch.enabled:true}")
+    public void handleVoteSagaYuanReservedBatch(@Payload List<String> eventJsons) {
+        log.info("Received batch of {} VoteSagaYuanReservedEvents", eventJsons.size());
+
+        // Parse and deduplicate by sagaId, keeping the first record of each saga
+        Map<String, SagaRecord> records = new LinkedHashMap<>();
+        for (String eventJson : eventJsons) {
+            try {
+                VoteSagaYuanReservedEvent event = objectMapper.readValue(eventJson, VoteSagaYuanReservedEvent.class);
+                if (records.putIfAbsent(VoteSagaService.idempotencyKey(event.getSagaId()), new SagaRecord(eventJson, event)) != null) {
+                    log.info("Duplicate VoteSagaYuanReservedEvent in batch, skipping: sagaId={}", event.getSagaId());
+                }
+            } catch (Exception e) {
+                log.error("Error processing VoteSagaYuanReservedEvent: {}", eventJson, e);
+                handleSagaFailure(eventJson, "Failed to create vote: " + e.getMessage());
+            }
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+
+        // Idempotency check for the whole batch
+        try {
+            records.keySet().removeAll(idempotencyService.findProcessed(records.keySet(), VoteSagaService.EVENT_TYPE));
+        } catch (Exception e) {
+            log.warn("Batch idempotency check failed, processing {} records one by one: {}", records.size(), e.getMessage());
+            records.values().forEach(record -> handleVoteSagaYuanReserved(record.json()));
+            return;
+        }
+
+        // Validate against novels resolved in one batch lookup
+        List<Integer> novelIds = new ArrayList<>();
+        records.values().forEach(record -> novelIds.add(record.event().getNovelId()));
+        Map<Integer, NovelProjection> novels = novelProjectionCache.getNovels(novelIds);
+        List<SagaRecord> valid = new ArrayList<>();
+        for (SagaRecord record : records.values()) {
+            try {
+                voteSagaService.validateNovel(record.event(), novels.get(record.event().getNovelId()));
+                valid.add(record);
+            } catch (ValidationException e) {
+                log.error("Validation failed for VoteSagaYuanReservedEvent: {}", record.json(), e);
+                handleSagaFailure(record.json(), e.getMessage());
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // Claim and insert all votes and bump the counters in one transaction
+        List<VoteSagaYuanReservedEvent> events = new ArrayList<>(valid.size());
+        valid.forEach(record -> events.add(record.event()));
+        List<String> created;
+        try {
+            created = voteSagaService.createVotes(events);
+        } catch (Exception e) {
+            log.warn("Batch vote insert failed, processing {} records one by one: {}", valid.size(), e.getMessage());
+            valid.forEach(record -> handleVoteSagaYuanReserved(record.json()));
+            return;
+        }
+        log.info("Successfully created {} votes in SAGA batch of {} records", created.size(), eventJsons.size());
+    }
+
     /**
      * Handle SAGA failure - Delete vote if created and trigger compensation
      * NOTE: With balance check at reserve time, votes will not be created if balance is insufficient.
@@ -131,8 +176,8 @@ public class VoteSagaListener {
             VoteSagaFailedEvent event = objectMapper.readValue(eventJson, VoteSagaFailedEvent.class);
             
             // Check if vote was created using IdempotencyService
-            String idempotencyKey = "idempotency:vote-saga-create:" + event.getSagaId();
-            if (idempotencyService.isProcessed(idempotencyKey, "VoteSagaCreate")) {
+            String idempotencyKey = VoteSagaService.idempotencyKey(event.getSagaId());
+            if (idempotencyService.isProcessed(idempotencyKey, VoteSagaService.EVENT_TYPE)) {
                 log.warn("Vote was created before SAGA failed, deleting vote as compensation: sagaId={}", event.getSagaId());
                 
                 // Delete vote as compensation (rollback)
@@ -140,12 +185,11 @@ public class VoteSagaListener {
                     try {
                         Vote vote = voteRepository.findByUserAndNovel(event.getUserId(), event.getNovelId());
                         if (vote != null) {
-                            voteRepository.delete(vote.getId());
+                            Integer voteCount = (int) novelVoteCounterService.removeVote(vote);
                             log.info("Successfully deleted vote as compensation: sagaId={}, voteId={}, userId={}, novelId={}", 
                                     event.getSagaId(), vote.getId(), event.getUserId(), event.getNovelId());
                             
                             // Update vote count for content service
-                            Integer voteCount = (int) voteRepository.countByNovelId(event.getNovelId());
                             kafkaEventProducerService.publishNovelVoteCountUpdateEvent(event.getNovelId(), voteCount);
                         } else {
                             log.warn("Vote not found for compensation: userId={}, novelId={}, sagaId={}", 
@@ -167,35 +211,6 @@ public class VoteSagaListener {
         }
     }
 
-    /**
-     * Publish vote created event
-     */
-    private void publishVoteCreatedEvent(VoteSagaYuanReservedEvent yuanReservedEvent, Integer voteId, Integer voteCount) {
-        try {
-            VoteSagaVoteCreatedEvent event = VoteSagaVoteCreatedEvent.builder()
-                    .sagaId(yuanReservedEvent.getSagaId())
-                    .userId(yuanReservedEvent.getUserId())
-                    .novelId(yuanReservedEvent.getNovelId())
-                    .voteId(voteId)
-                    .reservationId(yuanReservedEvent.getReservationId())
-                    .timestamp(LocalDateTime.now())
-                    .build();
-            
-            // Publish to SAGA topic
-            String eventJson = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send(SAGA_TOPIC_VOTE_CREATED, yuanReservedEvent.getSagaId(), eventJson);
-            log.info("Published VoteSagaVoteCreatedEvent: sagaId={}, voteId={}", 
-                    yuanReservedEvent.getSagaId(), voteId);
-            
-            // Also publish vote count update event (for content service)
-            kafkaEventProducerService.publishNovelVoteCountUpdateEvent(yuanReservedEvent.getNovelId(), voteCount);
-            
-        } catch (Exception e) {
-            log.error("Failed to publish VoteSagaVoteCreatedEvent: sagaId={}", yuanReservedEvent.getSagaId(), e);
-            throw new RuntimeException("Failed to publish vote created event", e);
-        }
-    }
-
     /**
      * Handle SAGA failure
      */
@@ -231,5 +246,6 @@ public class VoteSagaListener {
         }
     }
 
+    private record SagaRecord(String json, VoteSagaYuanReservedEvent event) {
+    }
 }
-
@@ -1,6 +1,7 @@
 package com.yushan.engagement_service.repository;
 
 import com.yushan.engagement_service.dto.comment.CommentSearchRequestDTO;
+import com.yushan.engagement_service.dto.common.PageCursor;
 import com.yushan.engagement_service.entity.Comment;
 
 import java.util.List;
@@ -30,7 +31,7 @@ public interface CommentRepository {
     List<Comment> findCommentsWithPagination(CommentSearchRequestDTO searchRequest);
     
     List<Comment> findCommentsByNovelWithPagination(
-            List<Integer> chapterIds,
+            Integer novelId,
             Boolean isSpoiler,
             String search,
             String sort,
@@ -39,19 +40,41 @@ public interface CommentRepository {
             int size
     );
     
+    /**
+     * Keyset page of a novel's comments after the cursor row, sorted as encoded in the cursor
+     */
+    List<Comment> findCommentsByNovelAfter(
+            Integer novelId,
+            Boolean isSpoiler,
+            String search,
+            PageCursor seek,
+            int limit
+    );
+    
     // Count queries
     long countComments(CommentSearchRequestDTO searchRequest);
     
     long countByChapterId(Integer chapterId);
     
-    long countByNovelId(List<Integer> chapterIds);
+    long countByNovelId(Integer novelId);
     
     long countCommentsByNovel(
-            List<Integer> chapterIds,
+            Integer novelId,
             Boolean isSpoiler,
             String search
     );
     
+    // Novel ID backfill
+    /**
+     * Chapters after the given chapter ID whose comments still have no novel ID, in chapter order
+     */
+    List<Integer> findChapterIdsWithoutNovel(Integer afterChapterId, int limit);
+    
+    /**
+     * Set the novel ID on up to limit comments of the chapter that have none; returns the rows updated
+     */
+    int backfillNovelId(Integer chapterId, Integer novelId, int limit);
+    
     // Like count update
     void updateLikeCount(Integer id, Integer increment);
     
@@ -0,0 +1,27 @@
+package com.yushan.engagement_service.repository;
+
+import com.yushan.engagement_service.entity.LikeCountDelta;
+import com.yushan.engagement_service.enums.LikeTargetType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Repository interface for flushing buffered like counts.
+ */
+public interface LikeCounterRepository {
+
+    /**
+     * Last journal segment applied for the given journal, or null if it has never flushed
+     */
+    Long findFlushedSegment(String journalId);
+
+    /**
+     * Apply the deltas and advance the journal checkpoint to the given segment in one transaction
+     *
+     * @return per content type, the chapters (comments) or novels (reviews) whose rows changed
+     */
+    Map<LikeTargetType, Set<Integer>> applyDeltas(String journalId, long segment,
+                                                  Map<LikeTargetType, List<LikeCountDelta>> deltas);
+}
@@ -0,0 +1,33 @@
+package com.yushan.engagement_service.repository;
+
+import com.yushan.engagement_service.enums.LikeTargetType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for the per-user like ledger.
+ */
+public interface LikeRepository {
+
+    /**
+     * Record a like, returns false if the user already likes the target
+     */
+    boolean addLike(LikeTargetType type, Integer targetId, UUID userId);
+
+    /**
+     * Remove a like, returns false if the user did not like the target
+     */
+    boolean removeLike(LikeTargetType type, Integer targetId, UUID userId);
+
+    /**
+     * IDs of targets the user likes, at most limit of them
+     */
+    List<Integer> findLikedIds(LikeTargetType type, UUID userId, int limit);
+
+    /**
+     * Subset of the given target IDs the user likes
+     */
+    List<Integer> findLikedAmong(LikeTargetType type, UUID userId, Collection<Integer> targetIds);
+}
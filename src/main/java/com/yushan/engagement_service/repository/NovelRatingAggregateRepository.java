@@ -0,0 +1,33 @@
+package com.yushan.engagement_service.repository;
+
+import com.yushan.engagement_service.entity.NovelRatingAggregate;
+
+/**
+ * Repository interface for the per-novel rating aggregate.
+ */
+public interface NovelRatingAggregateRepository {
+
+    NovelRatingAggregate findByNovelId(Integer novelId);
+
+    /**
+     * Apply one review change and return the updated aggregate.
+     * oldRating is null for a created review, newRating is null for a deleted review.
+     */
+    NovelRatingAggregate applyRatingChange(Integer novelId, Integer oldRating, Integer newRating);
+
+    /**
+     * Recompute one novel's aggregate from its reviews and return it
+     */
+    NovelRatingAggregate rebuild(Integer novelId);
+
+    /**
+     * Lock out other instances' full rebuilds until the current transaction ends,
+     * false if one is already running
+     */
+    boolean tryLockRebuildAll();
+
+    /**
+     * Recompute every aggregate from the review table, returns the number of rows written
+     */
+    int rebuildAll();
+}
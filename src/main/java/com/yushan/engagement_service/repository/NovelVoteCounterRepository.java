@@ -0,0 +1,25 @@
+package com.yushan.engagement_service.repository;
+
+/**
+ * Repository interface for the per-novel vote counter.
+ */
+public interface NovelVoteCounterRepository {
+
+    /**
+     * Add delta to the given counter slot of the novel
+     */
+    void increment(Integer novelId, int slot, int delta);
+
+    long countByNovelId(Integer novelId);
+
+    /**
+     * Lock out other instances' reconciliations until the current transaction ends,
+     * false if one is already running
+     */
+    boolean tryLockReconcile();
+
+    /**
+     * Correct every novel's counter against the vote table, returns the number of novels corrected
+     */
+    int reconcileAll();
+}
@@ -0,0 +1,21 @@
+package com.yushan.engagement_service.repository;
+
+import com.yushan.engagement_service.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Repository interface for the transactional event outbox.
+ */
+public interface OutboxRepository {
+
+    void save(OutboxEvent event);
+
+    /**
+     * Lock up to limit of the oldest pending events, skipping events locked by another relay.
+     * Must be called in a transaction; the locks are held until it ends.
+     */
+    List<OutboxEvent> lockBatch(int limit);
+
+    void deleteAll(List<Long> ids);
+}
@@ -2,6 +2,7 @@ package com.yushan.engagement_service.repository;
 
 import com.yushan.engagement_service.entity.Vote;
 
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,6 +17,9 @@ public interface VoteRepository {
     
     Vote save(Vote vote);
     
+    // Insert new votes in one statement, assigning their ids
+    void insertAll(List<Vote> votes);
+    
     void delete(Integer id);
     
     // Find by foreign keys
@@ -30,5 +34,8 @@ public interface VoteRepository {
     
     // Paginated queries
     List<Vote> findByUserIdWithPagination(UUID userId, int offset, int limit);
+    
+    // Keyset query: votes created before the cursor row, newest first
+    List<Vote> findByUserIdAfter(UUID userId, Date cursorTime, Integer cursorId, int limit);
 }
 
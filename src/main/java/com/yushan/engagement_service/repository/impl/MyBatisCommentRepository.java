@@ -2,6 +2,7 @@ package com.yushan.engagement_service.repository.impl;
 
 import com.yushan.engagement_service.dao.CommentMapper;
 import com.yushan.engagement_service.dto.comment.CommentSearchRequestDTO;
+import com.yushan.engagement_service.dto.common.PageCursor;
 import com.yushan.engagement_service.entity.Comment;
 import com.yushan.engagement_service.repository.CommentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -63,7 +64,7 @@ public class MyBatisCommentRepository implements CommentRepository {
     
     @Override
     public List<Comment> findCommentsByNovelWithPagination(
-            List<Integer> chapterIds,
+            Integer novelId,
             Boolean isSpoiler,
             String search,
             String sort,
@@ -72,10 +73,21 @@ public class MyBatisCommentRepository implements CommentRepository {
             int size
     ) {
         return commentMapper.selectCommentsByNovelWithPagination(
-                chapterIds, isSpoiler, search, sort, order, page, size
+                novelId, isSpoiler, search, sort, order, page, size
         );
     }
     
+    @Override
+    public List<Comment> findCommentsByNovelAfter(
+            Integer novelId,
+            Boolean isSpoiler,
+            String search,
+            PageCursor seek,
+            int limit
+    ) {
+        return commentMapper.selectCommentsByNovelAfter(novelId, isSpoiler, search, seek, limit);
+    }
+    
     @Override
     public long countComments(CommentSearchRequestDTO searchRequest) {
         return commentMapper.countComments(searchRequest);
@@ -87,17 +99,27 @@ public class MyBatisCommentRepository implements CommentRepository {
     }
     
     @Override
-    public long countByNovelId(List<Integer> chapterIds) {
-        return commentMapper.countByNovelId(chapterIds);
+    public long countByNovelId(Integer novelId) {
+        return commentMapper.countByNovelId(novelId);
     }
     
     @Override
     public long countCommentsByNovel(
-            List<Integer> chapterIds,
+            Integer novelId,
             Boolean isSpoiler,
             String search
     ) {
-        return commentMapper.countCommentsByNovel(chapterIds, isSpoiler, search);
+        return commentMapper.countCommentsByNovel(novelId, isSpoiler, search);
+    }
+    
+    @Override
+    public List<Integer> findChapterIdsWithoutNovel(Integer afterChapterId, int limit) {
+        return commentMapper.selectChapterIdsWithoutNovel(afterChapterId, limit);
+    }
+    
+    @Override
+    public int backfillNovelId(Integer chapterId, Integer novelId, int limit) {
+        return commentMapper.backfillNovelId(chapterId, novelId, limit);
     }
     
     @Override
@@ -0,0 +1,57 @@
+package com.yushan.engagement_service.repository.impl;
+
+import com.yushan.engagement_service.dao.LikeCounterMapper;
+import com.yushan.engagement_service.entity.LikeCountDelta;
+import com.yushan.engagement_service.enums.LikeTargetType;
+import com.yushan.engagement_service.repository.LikeCounterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * MyBatis implementation of LikeCounterRepository.
+ */
+@Repository
+public class MyBatisLikeCounterRepository implements LikeCounterRepository {
+
+    @Autowired
+    private LikeCounterMapper likeCounterMapper;
+
+    @Value("${like-buffer.flush-chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Override
+    public Long findFlushedSegment(String journalId) {
+        return likeCounterMapper.selectFlushedSegment(journalId);
+    }
+
+    @Override
+    @Transactional
+    public Map<LikeTargetType, Set<Integer>> applyDeltas(String journalId, long segment,
+                                                         Map<LikeTargetType, List<LikeCountDelta>> deltas) {
+        Map<LikeTargetType, Set<Integer>> parents = new EnumMap<>(LikeTargetType.class);
+        for (Map.Entry<LikeTargetType, List<LikeCountDelta>> entry : deltas.entrySet()) {
+            List<LikeCountDelta> rows = entry.getValue();
+            Set<Integer> parentIds = parents.computeIfAbsent(entry.getKey(), type -> new HashSet<>());
+            // Chunk very large flushes to keep the statement's bind parameter count bounded
+            for (int from = 0; from < rows.size(); from += chunkSize) {
+                List<LikeCountDelta> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+                if (entry.getKey() == LikeTargetType.COMMENT) {
+                    parentIds.addAll(likeCounterMapper.applyCommentLikeDeltas(chunk));
+                } else {
+                    parentIds.addAll(likeCounterMapper.applyReviewLikeDeltas(chunk));
+                }
+            }
+            parentIds.remove(null);
+        }
+        likeCounterMapper.upsertFlushedSegment(journalId, segment);
+        return parents;
+    }
+}
@@ -0,0 +1,45 @@
+package com.yushan.engagement_service.repository.impl;
+
+import com.yushan.engagement_service.dao.LikeMapper;
+import com.yushan.engagement_service.enums.LikeTargetType;
+import com.yushan.engagement_service.repository.LikeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * MyBatis implementation of LikeRepository.
+ */
+@Repository
+public class MyBatisLikeRepository implements LikeRepository {
+
+    @Autowired
+    private LikeMapper likeMapper;
+
+    @Override
+    public boolean addLike(LikeTargetType type, Integer targetId, UUID userId) {
+        return likeMapper.insertLike(type, targetId, userId) > 0;
+    }
+
+    @Override
+    public boolean removeLike(LikeTargetType type, Integer targetId, UUID userId) {
+        return likeMapper.deleteLike(type, targetId, userId) > 0;
+    }
+
+    @Override
+    public List<Integer> findLikedIds(LikeTargetType type, UUID userId, int limit) {
+        return likeMapper.selectLikedIds(type, userId, limit);
+    }
+
+    @Override
+    public List<Integer> findLikedAmong(LikeTargetType type, UUID userId, Collection<Integer> targetIds) {
+        if (targetIds == null || targetIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return likeMapper.selectLikedAmong(type, userId, targetIds);
+    }
+}
@@ -0,0 +1,46 @@
+package com.yushan.engagement_service.repository.impl;
+
+import com.yushan.engagement_service.dao.NovelRatingAggregateMapper;
+import com.yushan.engagement_service.entity.NovelRatingAggregate;
+import com.yushan.engagement_service.repository.NovelRatingAggregateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+/**
+ * MyBatis implementation of NovelRatingAggregateRepository.
+ */
+@Repository
+public class MyBatisNovelRatingAggregateRepository implements NovelRatingAggregateRepository {
+
+    @Autowired
+    private NovelRatingAggregateMapper novelRatingAggregateMapper;
+
+    @Override
+    public NovelRatingAggregate findByNovelId(Integer novelId) {
+        NovelRatingAggregate aggregate = novelRatingAggregateMapper.selectByNovelId(novelId);
+        return aggregate != null ? aggregate : NovelRatingAggregate.empty(novelId);
+    }
+
+    @Override
+    public NovelRatingAggregate applyRatingChange(Integer novelId, Integer oldRating, Integer newRating) {
+        // The upsert holds the row lock until commit, so the read-back sees this transaction's totals
+        novelRatingAggregateMapper.upsertDelta(novelId, oldRating, newRating);
+        return findByNovelId(novelId);
+    }
+
+    @Override
+    public NovelRatingAggregate rebuild(Integer novelId) {
+        novelRatingAggregateMapper.rebuildByNovelId(novelId);
+        return findByNovelId(novelId);
+    }
+
+    @Override
+    public boolean tryLockRebuildAll() {
+        return novelRatingAggregateMapper.tryLockRebuildAll();
+    }
+
+    @Override
+    public int rebuildAll() {
+        return novelRatingAggregateMapper.rebuildAll() + novelRatingAggregateMapper.resetWithoutReviews();
+    }
+}
@@ -0,0 +1,36 @@
+package com.yushan.engagement_service.repository.impl;
+
+import com.yushan.engagement_service.dao.NovelVoteCounterMapper;
+import com.yushan.engagement_service.repository.NovelVoteCounterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+/**
+ * MyBatis implementation of NovelVoteCounterRepository.
+ */
+@Repository
+public class MyBatisNovelVoteCounterRepository implements NovelVoteCounterRepository {
+
+    @Autowired
+    private NovelVoteCounterMapper novelVoteCounterMapper;
+
+    @Override
+    public void increment(Integer novelId, int slot, int delta) {
+        novelVoteCounterMapper.increment(novelId, slot, delta);
+    }
+
+    @Override
+    public long countByNovelId(Integer novelId) {
+        return novelVoteCounterMapper.sumByNovelId(novelId);
+    }
+
+    @Override
+    public boolean tryLockReconcile() {
+        return novelVoteCounterMapper.tryLockReconcile();
+    }
+
+    @Override
+    public int reconcileAll() {
+        return novelVoteCounterMapper.reconcileAll();
+    }
+}
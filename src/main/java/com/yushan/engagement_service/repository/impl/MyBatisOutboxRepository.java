@@ -0,0 +1,36 @@
+package com.yushan.engagement_service.repository.impl;
+
+import com.yushan.engagement_service.dao.OutboxEventMapper;
+import com.yushan.engagement_service.entity.OutboxEvent;
+import com.yushan.engagement_service.repository.OutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * MyBatis implementation of OutboxRepository.
+ */
+@Repository
+public class MyBatisOutboxRepository implements OutboxRepository {
+
+    @Autowired
+    private OutboxEventMapper outboxEventMapper;
+
+    @Override
+    public void save(OutboxEvent event) {
+        outboxEventMapper.insert(event);
+    }
+
+    @Override
+    public List<OutboxEvent> lockBatch(int limit) {
+        return outboxEventMapper.selectBatchForUpdate(limit);
+    }
+
+    @Override
+    public void deleteAll(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            outboxEventMapper.deleteByIds(ids);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.yushan.engagement_service.repository.VoteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
@@ -35,6 +36,13 @@ public class MyBatisVoteRepository implements VoteRepository {
         return vote;
     }
     
+    @Override
+    public void insertAll(List<Vote> votes) {
+        if (!votes.isEmpty()) {
+            voteMapper.insertBatch(votes);
+        }
+    }
+    
     @Override
     public void delete(Integer id) {
         voteMapper.deleteByPrimaryKey(id);
@@ -64,5 +72,10 @@ public class MyBatisVoteRepository implements VoteRepository {
     public List<Vote> findByUserIdWithPagination(UUID userId, int offset, int limit) {
         return voteMapper.selectByUserIdWithPagination(userId, offset, limit);
     }
+    
+    @Override
+    public List<Vote> findByUserIdAfter(UUID userId, Date cursorTime, Integer cursorId, int limit) {
+        return voteMapper.selectByUserIdAfter(userId, cursorTime, cursorId, limit);
+    }
 }
 
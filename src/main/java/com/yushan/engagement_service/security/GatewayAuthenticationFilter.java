@@ -1,6 +1,9 @@
 package com.yushan.engagement_service.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.yushan.engagement_service.util.HmacUtil;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,6 +18,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * Gateway Authentication Filter
@@ -28,6 +32,10 @@ import java.io.IOException;
  * 4. Set authentication in SecurityContext
  * 
  * This filter replaces JWT validation - all JWT validation is done at Gateway level.
+ *
+ * A client sends the same signed headers on every request until the gateway re-signs them, so
+ * verified signatures are remembered for gateway.hmac.verified-cache.ttl-seconds and a repeat
+ * only costs a lookup and a constant-time comparison. The timestamp is still checked each time.
  */
 @Component
 public class GatewayAuthenticationFilter extends OncePerRequestFilter {
@@ -39,6 +47,23 @@ public class GatewayAuthenticationFilter extends OncePerRequestFilter {
     @Value("${gateway.hmac.secret:${GATEWAY_HMAC_SECRET:yushan-gateway-hmac-secret-key-for-request-signature-2024}}")
     private String hmacSecret;
 
+    @Value("${gateway.hmac.verified-cache.maximum-size:10000}")
+    private long verifiedCacheMaximumSize;
+
+    @Value("${gateway.hmac.verified-cache.ttl-seconds:30}")
+    private long verifiedCacheTtlSeconds;
+
+    // Signed headers (userId, email, role, timestamp) -> signature verified for them
+    private Cache<SignedHeaders, String> verifiedSignatures;
+
+    @PostConstruct
+    void init() {
+        verifiedSignatures = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaximumSize)
+                .expireAfterWrite(Duration.ofSeconds(verifiedCacheTtlSeconds))
+                .build();
+    }
+
     /**
      * Filter method that processes each request
      * 
@@ -78,7 +103,7 @@ public class GatewayAuthenticationFilter extends OncePerRequestFilter {
                     long timestamp = Long.parseLong(timestampStr);
                     
                     // Verify HMAC signature
-                    if (!HmacUtil.verifySignature(userId, email, role, timestamp, signature, hmacSecret)) {
+                    if (!isSignatureValid(userId, email, role, timestamp, signature)) {
                         logger.warn("Gateway-validated request with invalid HMAC signature from IP: " + 
                                    request.getRemoteAddr() + " for path: " + request.getRequestURI());
                         response.setStatus(HttpStatus.FORBIDDEN.value());
@@ -154,6 +179,25 @@ public class GatewayAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Verify the gateway signature, skipping the HMAC for a signature already verified for the
+     * same headers
+     */
+    boolean isSignatureValid(String userId, String email, String role, long timestamp, String signature) {
+        if (!HmacUtil.isTimestampValid(timestamp)) {
+            return false;
+        }
+        SignedHeaders headers = new SignedHeaders(userId, email, role, timestamp);
+        if (HmacUtil.constantTimeEquals(verifiedSignatures.getIfPresent(headers), signature)) {
+            return true;
+        }
+        if (!HmacUtil.verifySignature(userId, email, role, timestamp, signature, hmacSecret)) {
+            return false;
+        }
+        verifiedSignatures.put(headers, signature);
+        return true;
+    }
+
     /**
      * Check if the request should be filtered
      * Skip filtering for certain paths (like health checks)
@@ -172,5 +216,7 @@ public class GatewayAuthenticationFilter extends OncePerRequestFilter {
                // Skip OPTIONS requests (CORS preflight)
                "OPTIONS".equals(method);
     }
-}
 
+    private record SignedHeaders(String userId, String email, String role, long timestamp) {
+    }
+}
@@ -1,7 +1,6 @@
 package com.yushan.engagement_service.security;
 
-import com.yushan.engagement_service.dto.event.UserActivityEvent;
-import com.yushan.engagement_service.service.KafkaEventProducerService;
+import com.yushan.engagement_service.service.UserActivityTracker;
 import com.yushan.engagement_service.util.SecurityUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,54 +8,37 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * Records authenticated requests as user activity. Runs inside the security filter chain only
+ * (see SecurityConfig), after authentication has set the current user.
+ */
 @Slf4j
 @Component
-@Order(1)
 public class UserActivityFilter extends OncePerRequestFilter {
 
     @Autowired
-    private KafkaEventProducerService kafkaEventProducerService;
+    private UserActivityTracker userActivityTracker;
 
     @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) 
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        
+
         try {
-            log.info("UserActivityFilter triggered for: {}", request.getRequestURI());
-            
             // Only track authenticated requests
             if (isAuthenticatedRequest(request)) {
-                log.info("Request is authenticated");
                 UUID userId = SecurityUtils.getCurrentUserId();
-                log.info("User ID from SecurityUtils: {}", userId);
-                
                 if (userId != null) {
-                    UserActivityEvent event = new UserActivityEvent(
-                            userId,
-                            "engagement-service",
-                            request.getRequestURI(),
-                            request.getMethod(),
-                            LocalDateTime.now()
-                    );
-                    
-                    kafkaEventProducerService.publishUserActivityEvent(event);
-                    log.info("Tracked user activity: userId={}, endpoint={}", userId, request.getRequestURI());
-                } else {
-                    log.warn("User ID is null");
+                    userActivityTracker.recordActivity(userId, request.getRequestURI(), request.getMethod());
                 }
-            } else {
-                log.info("Request is not authenticated");
             }
         } catch (Exception e) {
-            log.warn("Failed to track user activity: {}", e.getMessage());
+            log.debug("Failed to track user activity: {}", e.getMessage());
         }
 
         filterChain.doFilter(request, response);
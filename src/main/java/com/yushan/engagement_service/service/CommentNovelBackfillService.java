@@ -0,0 +1,96 @@
+package com.yushan.engagement_service.service;
+
+import com.yushan.engagement_service.cache.ChapterMetadata;
+import com.yushan.engagement_service.cache.ChapterMetadataCache;
+import com.yushan.engagement_service.repository.CommentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backfills comment.novel_id for comments written before the column existed.
+ *
+ * The chapter-to-novel mapping lives in content-service, so rows are filled from the application:
+ * chapters still missing a novel ID are walked in chapter order, resolved in bulk through the chapter
+ * cache, and their comments updated in small batches, each its own short statement so live writes
+ * are never blocked for long. Chapters content-service does not know are skipped and retried on the
+ * next run. Once every row is filled a run costs one query against a partial index.
+ */
+@Slf4j
+@Service
+public class CommentNovelBackfillService {
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ChapterMetadataCache chapterMetadataCache;
+
+    @Value("${comment.novel-backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${comment.novel-backfill.chapter-batch-size:200}")
+    private int chapterBatchSize;
+
+    @Value("${comment.novel-backfill.row-batch-size:1000}")
+    private int rowBatchSize;
+
+    @Scheduled(initialDelayString = "${comment.novel-backfill.initial-delay-ms:30000}",
+            fixedDelayString = "${comment.novel-backfill.delay-ms:300000}")
+    public void scheduledBackfill() {
+        if (enabled) {
+            backfill();
+        }
+    }
+
+    /**
+     * Run one pass over all chapters with comments missing a novel ID
+     *
+     * @return number of comments updated
+     */
+    public int backfill() {
+        long start = System.currentTimeMillis();
+        int updated = 0;
+        Integer afterChapterId = 0;
+        List<Integer> chapterIds;
+        do {
+            chapterIds = commentRepository.findChapterIdsWithoutNovel(afterChapterId, chapterBatchSize);
+            if (chapterIds.isEmpty()) {
+                break;
+            }
+            Map<Integer, ChapterMetadata> chapters = chapterMetadataCache.getChapters(chapterIds);
+            if (chapters.isEmpty()) {
+                // content-service unavailable or none of the chapters exist; retry on the next run
+                log.warn("Comment novel backfill could not resolve chapters {}..{}",
+                        chapterIds.get(0), chapterIds.get(chapterIds.size() - 1));
+            }
+            for (Integer chapterId : chapterIds) {
+                ChapterMetadata chapter = chapters.get(chapterId);
+                if (chapter != null && chapter.novelId() != null) {
+                    updated += backfillChapter(chapterId, chapter.novelId());
+                }
+            }
+            afterChapterId = chapterIds.get(chapterIds.size() - 1);
+        } while (chapterIds.size() == chapterBatchSize);
+
+        if (updated > 0) {
+            log.info("Backfilled novel_id on {} comments in {} ms", updated, System.currentTimeMillis() - start);
+        }
+        return updated;
+    }
+
+    private int backfillChapter(Integer chapterId, Integer novelId) {
+        int total = 0;
+        int rows;
+        do {
+            rows = commentRepository.backfillNovelId(chapterId, novelId, rowBatchSize);
+            total += rows;
+        } while (rows == rowBatchSize);
+        return total;
+    }
+}
@@ -1,32 +1,55 @@
 package com.yushan.engagement_service.service;
 
-import com.yushan.engagement_service.client.ContentServiceClient;
-import com.yushan.engagement_service.client.UserServiceClient;
+import com.yushan.engagement_service.cache.ChapterMetadata;
+import com.yushan.engagement_service.cache.ChapterMetadataCache;
+import com.yushan.engagement_service.cache.LikeMembershipCache;
+import com.yushan.engagement_service.cache.PageSnapshot;
+import com.yushan.engagement_service.cache.ReadThroughPageCache;
+import com.yushan.engagement_service.cache.UserProfileCache;
 import com.yushan.engagement_service.repository.CommentRepository;
+import com.yushan.engagement_service.repository.LikeRepository;
 import com.yushan.engagement_service.dto.comment.*;
-import com.yushan.engagement_service.dto.chapter.ChapterDetailResponseDTO;
+import com.yushan.engagement_service.dto.common.PageCursor;
 import com.yushan.engagement_service.entity.Comment;
+import com.yushan.engagement_service.enums.LikeTargetType;
 import com.yushan.engagement_service.exception.ResourceNotFoundException;
+import com.yushan.engagement_service.util.RedisUtil;
+import com.yushan.engagement_service.util.SearchHighlightUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 public class CommentService {
 
+    private static final String[] COMMENT_CURSOR_SORTS = {"createTime", "likeCnt"};
+
     @Autowired
     private CommentRepository commentRepository;
 
     @Autowired
-    private ContentServiceClient contentServiceClient;
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private ChapterMetadataCache chapterMetadataCache;
+
+    @Autowired
+    private LikeRepository likeRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private LikeMembershipCache likeMembershipCache;
+
+    @Autowired
+    private LikeCounterService likeCounterService;
 
     @Autowired
     private KafkaEventProducerService kafkaEventProducerService;
@@ -34,6 +57,12 @@ public class CommentService {
     @Autowired
     private TransactionAwareKafkaPublisher transactionAwareKafkaPublisher;
 
+    @Autowired
+    private ReadThroughPageCache pageCache;
+
+    @Autowired
+    private RedisUtil redisUtil;
+
     /**
      * Create a new comment
      * Users can only have one comment per chapter
@@ -41,7 +70,8 @@ public class CommentService {
     @Transactional
     public CommentResponseDTO createComment(UUID userId, CommentCreateRequestDTO request) {
         // Check if chapter exists via content service
-        if (!contentServiceClient.chapterExists(request.getChapterId())) {
+        ChapterMetadata chapter = chapterMetadataCache.getChapter(request.getChapterId());
+        if (chapter == null || !chapter.valid()) {
             throw new ResourceNotFoundException("Chapter not found");
         }
 
@@ -55,11 +85,13 @@ public class CommentService {
         Comment comment = new Comment();
         comment.setUserId(userId);
         comment.setChapterId(request.getChapterId());
+        comment.setNovelId(chapter.novelId());
         comment.setContent(request.getContent().trim());
         comment.setSpoilerStatus(request.getIsSpoiler());
         comment.initializeAsNew();
 
         commentRepository.save(comment);
+        invalidateChapterPages(comment);
 
         // Publish Kafka event for gamification AFTER transaction commit
         final Integer finalCommentId = comment.getId();
@@ -77,7 +109,8 @@ public class CommentService {
             );
         });
 
-        return toResponseDTO(comment, userId);
+        // A new comment has no likes yet
+        return toResponseDTO(comment, userId, false);
     }
 
      /**
@@ -114,6 +147,7 @@ public class CommentService {
 
         if (hasChanges) {
             commentRepository.save(existingComment);
+            invalidateChapterPages(existingComment);
         }
 
         return toResponseDTO(existingComment, userId);
@@ -136,6 +170,7 @@ public class CommentService {
         }
 
         commentRepository.delete(commentId);
+        invalidateChapterPages(comment);
         return true;
     }
 
@@ -155,8 +190,17 @@ public class CommentService {
      */
     public CommentListResponseDTO getCommentsByChapter(Integer chapterId, UUID currentUserId,
                                                        int page, int size, String sort, String order) {
+        return getCommentsByChapter(chapterId, currentUserId, page, size, sort, order, null);
+    }
+
+    /**
+     * Get comments for a specific chapter, by offset or, when a cursor is given, by keyset seek
+     */
+    public CommentListResponseDTO getCommentsByChapter(Integer chapterId, UUID currentUserId,
+                                                       int page, int size, String sort, String order,
+                                                       String cursor) {
         // Check if chapter exists via content service
-        if (!contentServiceClient.chapterExists(chapterId)) {
+        if (!chapterMetadataCache.chapterExists(chapterId)) {
             throw new ResourceNotFoundException("Chapter not found");
         }
 
@@ -164,7 +208,9 @@ public class CommentService {
         if (page < 0) page = 0;
         if (size <= 0) size = 20;
         if (size > 100) size = 100;
-        if (sort == null || sort.trim().isEmpty()) sort = "createTime";
+        // Sorts the listing does not support fall back to createTime in the mapper; normalising them
+        // here also keeps arbitrary values out of the page cache keys
+        if (sort == null || !Arrays.asList(COMMENT_CURSOR_SORTS).contains(sort)) sort = "createTime";
         if (order == null || (!order.equalsIgnoreCase("asc") && !order.equalsIgnoreCase("desc"))) {
             order = "desc";
         }
@@ -177,12 +223,24 @@ public class CommentService {
                 .size(size)
                 .build();
 
-        List<Comment> comments = commentRepository.findCommentsWithPagination(request);
-        long totalCount = commentRepository.countComments(request);
+        if (cursor != null && !cursor.isEmpty()) {
+            PageCursor seek = PageCursor.decode(cursor, COMMENT_CURSOR_SORTS);
+            request.setSort(seek.getSort());
+            request.setOrder(seek.getOrder());
+            request.setSeek(seek);
+            return toCursorPage(commentRepository.findCommentsWithPagination(request), size, seek, currentUserId);
+        }
 
-        List<CommentResponseDTO> commentDTOs = comments.stream()
-                .map(c -> toResponseDTO(c, currentUserId))
-                .collect(Collectors.toList());
+        // The first pages are shared by every viewer; likes and ownership are resolved per viewer below
+        String pageKey = String.join(":", sort, order.toLowerCase(), String.valueOf(page), String.valueOf(size));
+        PageSnapshot<Comment> snapshot = pageCache.getPage(page,
+                RedisUtil.chapterCommentsNamespace(chapterId), pageKey, Comment.class,
+                () -> new PageSnapshot<>(commentRepository.findCommentsWithPagination(request),
+                        commentRepository.countComments(request)));
+        List<Comment> comments = snapshot.rows();
+        long totalCount = snapshot.totalCount();
+
+        List<CommentResponseDTO> commentDTOs = toResponseDTOs(comments, currentUserId);
 
         int totalPages = (int) Math.ceil((double) totalCount / size);
 
@@ -192,11 +250,13 @@ public class CommentService {
                 .totalPages(totalPages)
                 .currentPage(page)
                 .pageSize(size)
+                .nextCursor(page + 1 < totalPages ? nextCursor(comments, sort, order) : null)
                 .build();
     }
 
     /**
-     * Get comments for a specific novel with pagination (across all chapters)
+     * Get comments for a specific novel with pagination (across all chapters).
+     * Filters on the comment's own novel_id, so no chapter list is fetched from content-service.
      */
     public CommentListResponseDTO getCommentsByNovel(Integer novelId, UUID currentUserId,
                                                      CommentSearchRequestDTO request) {
@@ -217,21 +277,15 @@ public class CommentService {
             request.setOrder("desc");
         }
 
-        // Get chapter IDs for this novel from content service
-        List<Integer> chapterIds = contentServiceClient.getChapterIdsByNovelId(novelId);
-        if (chapterIds.isEmpty()) {
-            // No chapters found, return empty result
-            return CommentListResponseDTO.builder()
-                    .comments(new ArrayList<>())
-                    .totalCount(0L)
-                    .totalPages(0)
-                    .currentPage(request.getPage())
-                    .pageSize(request.getSize())
-                    .build();
+        if (request.getCursor() != null && !request.getCursor().isEmpty()) {
+            PageCursor seek = PageCursor.decode(request.getCursor(), COMMENT_CURSOR_SORTS);
+            List<Comment> comments = commentRepository.findCommentsByNovelAfter(
+                    novelId, request.getIsSpoiler(), request.getSearch(), seek, request.getSize() + 1);
+            return toCursorPage(comments, request.getSize(), seek, currentUserId);
         }
 
         List<Comment> comments = commentRepository.findCommentsByNovelWithPagination(
-                chapterIds,
+                novelId,
                 request.getIsSpoiler(),
                 request.getSearch(),
                 request.getSort(),
@@ -241,14 +295,12 @@ public class CommentService {
         );
 
         long totalCount = commentRepository.countCommentsByNovel(
-                chapterIds,
+                novelId,
                 request.getIsSpoiler(),
                 request.getSearch()
         );
 
-        List<CommentResponseDTO> commentDTOs = comments.stream()
-                .map(c -> toResponseDTO(c, currentUserId))
-                .collect(Collectors.toList());
+        List<CommentResponseDTO> commentDTOs = toResponseDTOs(comments, currentUserId);
 
         int totalPages = (int) Math.ceil((double) totalCount / request.getSize());
 
@@ -258,9 +310,39 @@ public class CommentService {
                 .totalPages(totalPages)
                 .currentPage(request.getPage())
                 .pageSize(request.getSize())
+                .nextCursor(request.getPage() + 1 < totalPages
+                        ? nextCursor(comments, request.getSort(), request.getOrder()) : null)
                 .build();
     }
 
+    /**
+     * Build a keyset page from rows fetched with one extra row; totals are not computed in cursor mode
+     */
+    private CommentListResponseDTO toCursorPage(List<Comment> rows, int size, PageCursor seek, UUID currentUserId) {
+        boolean hasNext = rows.size() > size;
+        List<Comment> comments = hasNext ? rows.subList(0, size) : rows;
+        return CommentListResponseDTO.builder()
+                .comments(toResponseDTOs(comments, currentUserId))
+                .pageSize(size)
+                .nextCursor(hasNext ? nextCursor(comments, seek.getSort(), seek.getOrder()) : null)
+                .build();
+    }
+
+    /**
+     * Cursor pointing after the last comment of a page, in the page's sort order.
+     * Relevance-ranked pages have no cursor.
+     */
+    private String nextCursor(List<Comment> comments, String sort, String order) {
+        if (comments.isEmpty() || "relevance".equals(sort)) {
+            return null;
+        }
+        Comment last = comments.get(comments.size() - 1);
+        if ("likeCnt".equals(sort)) {
+            return PageCursor.encode("likeCnt", order, last.getLikeCnt(), last.getId());
+        }
+        return PageCursor.encode("createTime", order, last.getCreateTime(), last.getId());
+    }
+
     /**
      * Get all comments with pagination and filtering
      */
@@ -279,9 +361,7 @@ public class CommentService {
         List<Comment> comments = commentRepository.findCommentsWithPagination(request);
         long totalCount = commentRepository.countComments(request);
 
-        List<CommentResponseDTO> commentDTOs = comments.stream()
-                .map(c -> toResponseDTO(c, currentUserId))
-                .collect(Collectors.toList());
+        List<CommentResponseDTO> commentDTOs = toResponseDTOs(comments, currentUserId);
 
         int totalPages = (int) Math.ceil((double) totalCount / request.getSize());
 
@@ -299,30 +379,32 @@ public class CommentService {
      */
     public List<CommentResponseDTO> getUserComments(UUID userId) {
         List<Comment> comments = commentRepository.findByUserId(userId);
-        return comments.stream()
-                .map(c -> toResponseDTO(c, userId))
-                .collect(Collectors.toList());
+        return toResponseDTOs(comments, userId);
     }
 
     /**
-     * Toggle like on a comment (increment like count)
-     * In a real application, you would need a separate table to track user likes
+     * Like or unlike a comment. Idempotent: the like ledger records one like per user, and the
+     * count only changes when the ledger does. Count changes are buffered by LikeCounterService.
      */
-    @Transactional
     public CommentResponseDTO toggleLike(Integer commentId, UUID currentUserId, boolean isLiking) {
         Comment comment = commentRepository.findById(commentId);
         if (comment == null) {
             throw new ResourceNotFoundException("Comment not found");
         }
 
-        // Increment or decrement like count
-        int increment = isLiking ? 1 : -1;
-        commentRepository.updateLikeCount(commentId, increment);
-
-        // Fetch updated comment
-        comment = commentRepository.findById(commentId);
+        boolean changed = isLiking
+                ? likeRepository.addLike(LikeTargetType.COMMENT, commentId, currentUserId)
+                : likeRepository.removeLike(LikeTargetType.COMMENT, commentId, currentUserId);
+        if (changed) {
+            likeCounterService.increment(LikeTargetType.COMMENT, commentId, isLiking ? 1 : -1);
+        }
+        if (isLiking) {
+            likeMembershipCache.recordLike(LikeTargetType.COMMENT, currentUserId, commentId);
+        } else {
+            likeMembershipCache.recordUnlike(LikeTargetType.COMMENT, currentUserId, commentId);
+        }
 
-        return toResponseDTO(comment, currentUserId);
+        return toResponseDTO(comment, currentUserId, isLiking);
     }
 
     /**
@@ -337,7 +419,7 @@ public class CommentService {
      */
     public CommentStatisticsDTO getChapterCommentStats(Integer chapterId) {
         // Check if chapter exists via content service
-        if (!contentServiceClient.chapterExists(chapterId)) {
+        if (!chapterMetadataCache.chapterExists(chapterId)) {
             throw new ResourceNotFoundException("Chapter not found");
         }
 
@@ -345,7 +427,7 @@ public class CommentService {
 
         CommentStatisticsDTO stats = CommentStatisticsDTO.builder()
                 .chapterId(chapterId)
-                .chapterTitle(contentServiceClient.getChapter(chapterId).getTitle())
+                .chapterTitle(chapterMetadataCache.getChapter(chapterId).title())
                 .totalComments((long) comments.size())
                 .build();
 
@@ -399,6 +481,7 @@ public class CommentService {
             Comment comment = commentRepository.findById(commentId);
             if (comment != null) {
                 commentRepository.delete(commentId);
+                invalidateChapterPages(comment);
                 deletedCount++;
             }
         }
@@ -406,34 +489,85 @@ public class CommentService {
         return deletedCount;
     }
 
+    /**
+     * Drop the cached comment pages of the comment's chapter once the change commits
+     */
+    private void invalidateChapterPages(Comment comment) {
+        Integer commentId = comment.getId();
+        Integer chapterId = comment.getChapterId();
+        pageCache.invalidateAfterCommit(RedisUtil.chapterCommentsNamespace(chapterId),
+                () -> redisUtil.invalidateCommentCaches(commentId, chapterId));
+    }
+
     /**
      * Convert Comment entity to CommentResponseDTO
      */
     private CommentResponseDTO toResponseDTO(Comment comment, UUID currentUserId) {
+        boolean liked = likeMembershipCache
+                .likedAmong(LikeTargetType.COMMENT, currentUserId, Collections.singletonList(comment.getId()))
+                .contains(comment.getId());
+        return toResponseDTO(comment, currentUserId, liked);
+    }
+
+    private CommentResponseDTO toResponseDTO(Comment comment, UUID currentUserId, boolean liked) {
+        // Get username from UserService
+        String username;
+        try {
+            username = userProfileCache.getUsername(comment.getUserId());
+        } catch (Exception e) {
+            username = null;
+        }
+        return toResponseDTO(comment, currentUserId, username,
+                chapterMetadataCache.getChapter(comment.getChapterId()), liked);
+    }
+
+    /**
+     * Convert a page of comments, resolving all authors with one user-service call,
+     * all chapters with one content-service call and the viewer's likes with one Redis call
+     * instead of one call per row.
+     */
+    private List<CommentResponseDTO> toResponseDTOs(List<Comment> comments, UUID currentUserId) {
+        if (comments.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<UUID, String> usernames;
+        try {
+            usernames = userProfileCache.getUsernames(
+                    comments.stream().map(Comment::getUserId).collect(Collectors.toSet()));
+        } catch (Exception e) {
+            usernames = Collections.emptyMap();
+        }
+        Map<UUID, String> resolved = usernames != null ? usernames : Collections.emptyMap();
+        Map<Integer, ChapterMetadata> chapters = chapterMetadataCache.getChapters(
+                comments.stream().map(Comment::getChapterId).collect(Collectors.toSet()));
+        Set<Integer> liked = likeMembershipCache.likedAmong(LikeTargetType.COMMENT, currentUserId,
+                comments.stream().map(Comment::getId).collect(Collectors.toList()));
+        return comments.stream()
+                .map(c -> toResponseDTO(c, currentUserId, resolved.get(c.getUserId()), chapters.get(c.getChapterId()),
+                        liked.contains(c.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private CommentResponseDTO toResponseDTO(Comment comment, UUID currentUserId, String username,
+                                             ChapterMetadata chapter, boolean liked) {
         CommentResponseDTO dto = CommentResponseDTO.builder()
                 .id(comment.getId())
                 .userId(comment.getUserId())
                 .chapterId(comment.getChapterId())
                 .content(comment.getContent())
-                .likeCnt(comment.getLikeCnt())
+                .likeCnt(likeCounterService.currentCount(LikeTargetType.COMMENT, comment.getId(), comment.getLikeCnt()))
                 .isSpoiler(comment.getIsSpoiler())
                 .createTime(comment.getCreateTime())
                 .updateTime(comment.getUpdateTime())
                 .isOwnComment(currentUserId != null && currentUserId.equals(comment.getUserId()))
+                .highlight(SearchHighlightUtil.toHtml(comment.getHighlight()))
+                .isLiked(liked)
                 .build();
 
-        // Get username from UserService
-        try {
-            String username = userServiceClient.getUsernameById(comment.getUserId());
-            dto.setUsername(username);
-        } catch (Exception e) {
-            dto.setUsername(null);
-        }
+        dto.setUsername(username);
 
-        // Get chapter title from ChapterMapper
-        ChapterDetailResponseDTO chapter = contentServiceClient.getChapter(comment.getChapterId());
         if (chapter != null) {
-            dto.setChapterTitle(chapter.getTitle());
+            dto.setChapterTitle(chapter.title());
         } else {
             dto.setChapterTitle("Chapter not found");
         }
@@ -473,7 +607,7 @@ public class CommentService {
         // Get most active user
         Comment mostActiveUserComment = commentRepository.selectMostActiveUser();
         if (mostActiveUserComment != null) {
-            String username = userServiceClient.getUsernameById(mostActiveUserComment.getUserId());
+            String username = userProfileCache.getUsername(mostActiveUserComment.getUserId());
             stats.setMostActiveUsername(username != null ? username : "Unknown");
             stats.setMostActiveUserCommentCount(
                     commentRepository.countCommentsByUser(mostActiveUserComment.getUserId())
@@ -484,9 +618,9 @@ public class CommentService {
         Comment mostCommentedChapterComment = commentRepository.selectMostCommentedChapter();
         if (mostCommentedChapterComment != null) {
             stats.setMostCommentedChapterId(mostCommentedChapterComment.getChapterId());
-            ChapterDetailResponseDTO chapter = contentServiceClient.getChapter(mostCommentedChapterComment.getChapterId());
+            ChapterMetadata chapter = chapterMetadataCache.getChapter(mostCommentedChapterComment.getChapterId());
             if (chapter != null) {
-                stats.setMostCommentedChapterTitle(chapter.getTitle());
+                stats.setMostCommentedChapterTitle(chapter.title());
             }
             stats.setMostCommentedChapterCount(
                     commentRepository.countByChapterId(mostCommentedChapterComment.getChapterId())
@@ -506,6 +640,7 @@ public class CommentService {
 
         for (Comment comment : userComments) {
             commentRepository.delete(comment.getId());
+            invalidateChapterPages(comment);
             deletedCount++;
         }
 
@@ -522,6 +657,7 @@ public class CommentService {
 
         for (Comment comment : chapterComments) {
             commentRepository.delete(comment.getId());
+            invalidateChapterPages(comment);
             deletedCount++;
         }
 
@@ -544,6 +680,7 @@ public class CommentService {
             if (comment != null) {
                 comment.setSpoilerStatus(request.getIsSpoiler());
                 commentRepository.save(comment);
+                invalidateChapterPages(comment);
                 updatedCount++;
             }
         }
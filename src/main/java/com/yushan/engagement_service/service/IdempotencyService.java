@@ -1,15 +1,33 @@
 package com.yushan.engagement_service.service;
 
+import com.yushan.engagement_service.cache.ProcessedKeyFilter;
 import com.yushan.engagement_service.dao.ProcessedEventMapper;
 import com.yushan.engagement_service.entity.ProcessedEvent;
 import com.yushan.engagement_service.util.RedisUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.DayOfWeek;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Hybrid idempotency service: Redis (fast) + Database (persistent)
@@ -19,6 +37,14 @@ import java.time.LocalDateTime;
  * 2. If Redis not found → Check Database (persistent)
  * 3. If Database not found → Process event + Save both Redis + Database
  * 4. If Database found → Skip + Backfill Redis cache
+ *
+ * tryClaim / tryClaimAll replace the check-then-mark pair with one atomic claim: a Redis script
+ * rejects keys already marked processed in one round trip, and the processed_events insert decides
+ * between concurrent consumers.
+ *
+ * Keys the in-memory ProcessedKeyFilter has definitely not seen skip the Redis lookups, and the
+ * database lookup of findProcessed. The filter only knows this instance's keys, so it never
+ * replaces the claim.
  */
 @Slf4j
 @Service
@@ -30,8 +56,24 @@ public class IdempotencyService {
     @Autowired
     private ProcessedEventMapper processedEventMapper;
 
+    @Autowired
+    private ProcessedKeyFilter processedKeyFilter;
+
     private static final Duration REDIS_TTL = Duration.ofDays(7); // Keep in Redis for 7 days
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(5); // Redis claim while the owner processes
+    private static final String PROCESSED = "processed";
+    private static final String CLAIMED = "claimed";
     private static final String SERVICE_NAME = "engagement-service";
+    private static final Pattern PARTITION_NAME = Pattern.compile("processed_events_p(\\d{8})");
+
+    @Value("${idempotency.retention.enabled:true}")
+    private boolean retentionEnabled;
+
+    @Value("${idempotency.retention.days:14}")
+    private int retentionDays;
+
+    @Value("${idempotency.retention.partitions-ahead:4}")
+    private int partitionWeeksAhead;
 
     /**
      * Check if an event has already been processed (hybrid: Redis + Database)
@@ -53,12 +95,54 @@ public class IdempotencyService {
             log.debug("Event already processed (Database): {}", idempotencyKey);
             // Backfill Redis cache for faster future checks
             redisUtil.set(idempotencyKey, "processed", REDIS_TTL);
+            processedKeyFilter.put(idempotencyKey);
             return true;
         }
 
         return false;
     }
 
+    /**
+     * Batch variant of isProcessed: one Redis round trip for all keys, then one database query for the misses
+     *
+     * @return the keys that have already been processed
+     */
+    public Set<String> findProcessed(Collection<String> idempotencyKeys, String eventType) {
+        if (idempotencyKeys == null || idempotencyKeys.isEmpty()) {
+            return Collections.emptySet();
+        }
+        // Keys the filter has definitely not seen skip both stores
+        List<String> keys = new ArrayList<>();
+        for (String idempotencyKey : new LinkedHashSet<>(idempotencyKeys)) {
+            if (processedKeyFilter.mightContain(idempotencyKey)) {
+                keys.add(idempotencyKey);
+            }
+        }
+        if (keys.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> processed = new HashSet<>();
+        List<Object> cached = redisUtil.multiGet(keys);
+        List<String> misses = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (cached != null && cached.get(i) != null) {
+                processed.add(keys.get(i));
+            } else {
+                misses.add(keys.get(i));
+            }
+        }
+        if (!misses.isEmpty()) {
+            List<String> inDb = processedEventMapper.selectExistingKeys(misses);
+            if (!inDb.isEmpty()) {
+                log.debug("{} {} events already processed (Database)", inDb.size(), eventType);
+                redisUtil.setAll(inDb, "processed", REDIS_TTL);
+                processed.addAll(inDb);
+            }
+        }
+        processedKeyFilter.recordFalsePositives(keys.size() - processed.size());
+        return processed;
+    }
+
     /**
      * Mark an event as processed (save to both Redis and Database)
      * 
@@ -80,6 +164,7 @@ public class IdempotencyService {
         event.setEventData(eventData);
         
         int result = processedEventMapper.insert(event);
+        processedKeyFilter.put(idempotencyKey);
         if (result > 0) {
             log.debug("Marked event as processed (both Redis and Database): {}", idempotencyKey);
         } else {
@@ -95,15 +180,194 @@ public class IdempotencyService {
     }
 
     /**
-     * Cleanup old processed events (older than specified days)
-     * Should be called periodically via scheduled job
+     * Mark several events as processed with one database insert and one pipelined Redis write
      */
     @Transactional
+    public void markAllAsProcessed(Collection<String> idempotencyKeys, String eventType) {
+        if (idempotencyKeys == null || idempotencyKeys.isEmpty()) {
+            return;
+        }
+        redisUtil.setAll(idempotencyKeys, "processed", REDIS_TTL);
+
+        int inserted = processedEventMapper.insertBatch(idempotencyKeys, eventType, SERVICE_NAME, LocalDateTime.now());
+        processedKeyFilter.putAll(idempotencyKeys);
+        log.debug("Marked {} events as processed ({} new in Database)", idempotencyKeys.size(), inserted);
+    }
+
+    /**
+     * Atomically claim an event for processing.
+     *
+     * One Redis script call returns the key's current value or leases it as claimed; a key already
+     * marked processed is rejected there. Otherwise the processed_events insert is authoritative: it
+     * waits for a concurrent uncommitted claim of the same key, so exactly one caller wins. Inside a
+     * transaction the claim commits or rolls back with the caller's work; Redis is marked processed
+     * after commit and released on rollback.
+     *
+     * @return true if the caller owns the event and must process it, false if it was already processed
+     */
+    public boolean tryClaim(String idempotencyKey, String eventType) {
+        Object current = null;
+        boolean maybeProcessed = processedKeyFilter.mightContain(idempotencyKey);
+        if (maybeProcessed) {
+            try {
+                current = redisUtil.claim(idempotencyKey, CLAIMED, CLAIM_LEASE);
+            } catch (Exception e) {
+                log.warn("Redis claim failed, falling back to database: {}", e.getMessage());
+            }
+        }
+        if (PROCESSED.equals(current)) {
+            log.debug("Event already processed (Redis cache): {}", idempotencyKey);
+            return false;
+        }
+
+        ProcessedEvent event = new ProcessedEvent(idempotencyKey, eventType, SERVICE_NAME, LocalDateTime.now(), null);
+        processedKeyFilter.put(idempotencyKey);
+        if (processedEventMapper.insert(event) == 0) {
+            log.debug("Event already processed (Database): {}", idempotencyKey);
+            markInRedis(List.of(idempotencyKey));
+            return false;
+        }
+        if (maybeProcessed) {
+            processedKeyFilter.recordFalsePositives(1);
+        }
+        completeClaims(List.of(idempotencyKey));
+        return true;
+    }
+
+    /**
+     * Batch variant of tryClaim: one pipelined Redis round trip and one database insert for all keys
+     *
+     * @return the keys the caller owns and must process
+     */
+    public Set<String> tryClaimAll(Collection<String> idempotencyKeys, String eventType) {
+        if (idempotencyKeys == null || idempotencyKeys.isEmpty()) {
+            return Collections.emptySet();
+        }
+        // Keys the filter has definitely not seen go straight to the insert
+        List<String> candidates = new ArrayList<>();
+        List<String> maybeProcessed = new ArrayList<>();
+        for (String idempotencyKey : new LinkedHashSet<>(idempotencyKeys)) {
+            if (processedKeyFilter.mightContain(idempotencyKey)) {
+                maybeProcessed.add(idempotencyKey);
+            } else {
+                candidates.add(idempotencyKey);
+            }
+        }
+        if (!maybeProcessed.isEmpty()) {
+            try {
+                List<Object> current = redisUtil.claimAll(maybeProcessed, CLAIMED, CLAIM_LEASE);
+                for (int i = 0; i < maybeProcessed.size(); i++) {
+                    if (!PROCESSED.equals(current.get(i))) {
+                        candidates.add(maybeProcessed.get(i));
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Redis claim failed, falling back to database: {}", e.getMessage());
+                candidates.addAll(maybeProcessed);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        processedKeyFilter.putAll(candidates);
+        Set<String> claimed = new LinkedHashSet<>(processedEventMapper.insertBatchReturningKeys(
+                candidates, eventType, SERVICE_NAME, LocalDateTime.now()));
+        if (claimed.size() < candidates.size()) {
+            List<String> processed = new ArrayList<>(candidates);
+            processed.removeAll(claimed);
+            log.debug("{} {} events already processed (Database)", processed.size(), eventType);
+            markInRedis(processed);
+        }
+        if (!claimed.isEmpty()) {
+            Set<String> filterPositives = new HashSet<>(maybeProcessed);
+            processedKeyFilter.recordFalsePositives((int) claimed.stream().filter(filterPositives::contains).count());
+            completeClaims(claimed);
+        }
+        return claimed;
+    }
+
+    /**
+     * Mark won claims processed in Redis once they are durable, or release them if the transaction rolls back
+     */
+    private void completeClaims(Collection<String> idempotencyKeys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markInRedis(idempotencyKeys);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    markInRedis(idempotencyKeys);
+                } else {
+                    try {
+                        redisUtil.delete(new HashSet<>(idempotencyKeys));
+                    } catch (Exception e) {
+                        // The lease expires on its own and the database has no claim row
+                        log.warn("Failed to release {} Redis claims: {}", idempotencyKeys.size(), e.getMessage());
+                    }
+                }
+            }
+        });
+    }
+
+    private void markInRedis(Collection<String> idempotencyKeys) {
+        try {
+            redisUtil.setAll(idempotencyKeys, PROCESSED, REDIS_TTL);
+        } catch (Exception e) {
+            log.warn("Failed to mark {} events processed in Redis: {}", idempotencyKeys.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Partition maintenance: create the weekly partitions of processed_events ahead of time and
+     * drop the ones past the retention. Also runs at startup, so a stopped scheduler cannot leave
+     * inserts without a partition.
+     */
+    @Scheduled(initialDelayString = "${idempotency.retention.initial-delay-ms:0}",
+            fixedDelayString = "${idempotency.retention.interval-ms:21600000}")
+    public void maintainPartitions() {
+        if (!retentionEnabled) {
+            return;
+        }
+        try {
+            LocalDate week = weekStart(LocalDate.now());
+            for (int i = 0; i <= partitionWeeksAhead; i++) {
+                processedEventMapper.createPartition(partitionName(week), week, week.plusWeeks(1));
+                week = week.plusWeeks(1);
+            }
+            cleanupOldProcessedEvents(retentionDays);
+        } catch (Exception e) {
+            log.error("Failed to maintain processed_events partitions", e);
+        }
+    }
+
+    /**
+     * Cleanup old processed events: drop the weekly partitions whose records are all older than
+     * daysToKeep days. Metadata-only, no rows are deleted and nothing is left for autovacuum.
+     */
     public void cleanupOldProcessedEvents(int daysToKeep) {
-        LocalDateTime beforeDate = LocalDateTime.now().minusDays(daysToKeep);
-        int deleted = processedEventMapper.deleteOldProcessedEvents(beforeDate);
-        log.info("Cleaned up {} old processed events (older than {} days)", deleted, daysToKeep);
+        LocalDate cutoff = LocalDate.now().minusDays(daysToKeep);
+        int dropped = 0;
+        for (String name : processedEventMapper.selectPartitionNames()) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()
+                    && !LocalDate.parse(matcher.group(1), DateTimeFormatter.BASIC_ISO_DATE).plusWeeks(1).isAfter(cutoff)) {
+                processedEventMapper.dropPartition(name);
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            log.info("Dropped {} processed_events partitions older than {} days", dropped, daysToKeep);
+        }
     }
-}
 
+    static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
 
+    static String partitionName(LocalDate weekStart) {
+        return "processed_events_p" + weekStart.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+}
@@ -6,15 +6,26 @@ import com.yushan.engagement_service.dto.event.NovelVoteCountUpdateEvent;
 import com.yushan.engagement_service.dto.event.ReviewCreatedEvent;
 import com.yushan.engagement_service.dto.event.UserActivityEvent;
 import com.yushan.engagement_service.dto.event.VoteCreatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Kafka event producer service for publishing engagement events
@@ -24,6 +35,12 @@ import java.util.concurrent.CompletableFuture;
  * - Gamification Service: Award points and unlock achievements
  * - Content Service: Update engagement counts
  * - User Service: Update user activity feeds
+ *
+ * Novel rating and vote count updates are state, not history: only the latest per novel matters to
+ * content-service. They are coalesced per novel: outside a transaction they are emitted once per
+ * kafka.coalesce.window-ms; inside one with the outbox on, only the latest per novel is written to
+ * the outbox just before commit, and the relay then keeps the latest per novel of each batch
+ * (outbox.relay.compacted). kafka.coalesce.merged and emitted cover both paths.
  */
 @Slf4j
 @Service
@@ -32,6 +49,9 @@ public class KafkaEventProducerService {
     @Autowired
     private KafkaTemplate<String, Object> kafkaTemplate;
 
+    @Autowired
+    private OutboxService outboxService;
+
     @Value("${spring.kafka.producer.topic.comment-events:comment-events}")
     private String commentEventsTopic;
 
@@ -50,10 +70,32 @@ public class KafkaEventProducerService {
     @Value("${spring.application.name:engagement-service}")
     private String serviceName;
 
+    @Value("${kafka.coalesce.enabled:true}")
+    private boolean coalesceEnabled;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final CoalescingBuffer<NovelRatingUpdateEvent> ratingUpdates = new CoalescingBuffer<>();
+    private final CoalescingBuffer<NovelVoteCountUpdateEvent> voteCountUpdates = new CoalescingBuffer<>();
+
+    @PostConstruct
+    void initMetrics() {
+        if (meterRegistry != null) {
+            ratingUpdates.bindMetrics(meterRegistry, "novel-rating");
+            voteCountUpdates.bindMetrics(meterRegistry, "novel-vote-count");
+        }
+    }
+
     /**
-     * Generic method to publish events to Kafka
+     * Generic method to publish events to Kafka.
+     * Inside a transaction the event goes to the outbox and is published once the transaction commits.
      */
     private void publishEvent(String topic, String key, Object event) {
+        if (outboxService.isActive()) {
+            outboxService.enqueue(topic, key, event);
+            return;
+        }
         CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(topic, key, event);
         
         future.whenComplete((result, ex) -> {
@@ -127,7 +169,7 @@ public class KafkaEventProducerService {
     public void publishUserActivityEvent(UserActivityEvent event) {
         try {
             publishEvent("active", event.userId().toString(), event);
-            log.info("Published user activity event for user: {}, service: {}, endpoint: {}", 
+            log.debug("Published user activity event for user: {}, service: {}, endpoint: {}", 
                      event.userId(), event.serviceName(), event.endpoint());
         } catch (Exception e) {
             log.error("Failed to publish user activity event for user: {}", event.userId(), e);
@@ -136,7 +178,7 @@ public class KafkaEventProducerService {
 
     /**
      * Publish novel rating update event
-     * Published when reviews are created, updated, or deleted
+     * Published when reviews are created, updated, or deleted; coalesced per novel within the window
      */
     public void publishNovelRatingUpdateEvent(Integer novelId, Float avgRating, Integer reviewCount) {
         try {
@@ -151,6 +193,15 @@ public class KafkaEventProducerService {
                     .idempotencyKey(idempotencyKey)
                     .build();
             
+            if (coalesceEnabled) {
+                if (outboxService.isActive()) {
+                    offerInTransaction(ratingUpdates, novelId, event,
+                            latest -> outboxService.enqueue(novelRatingEventsTopic, latest.getNovelId().toString(), latest));
+                } else {
+                    ratingUpdates.offer(novelId, event);
+                }
+                return;
+            }
             publishEvent(novelRatingEventsTopic, novelId.toString(), event);
             log.info("Published NOVEL_RATING_UPDATE event for novel ID: {}, avgRating: {}, reviewCount: {}", 
                     novelId, avgRating, reviewCount);
@@ -161,7 +212,7 @@ public class KafkaEventProducerService {
 
     /**
      * Publish novel vote count update event
-     * Published when votes are created or deleted
+     * Published when votes are created or deleted; coalesced per novel within the window
      */
     public void publishNovelVoteCountUpdateEvent(Integer novelId, Integer voteCount) {
         try {
@@ -175,6 +226,15 @@ public class KafkaEventProducerService {
                     .idempotencyKey(idempotencyKey)
                     .build();
             
+            if (coalesceEnabled) {
+                if (outboxService.isActive()) {
+                    offerInTransaction(voteCountUpdates, novelId, event,
+                            latest -> outboxService.enqueue(novelVoteCountEventsTopic, latest.getNovelId().toString(), latest));
+                } else {
+                    voteCountUpdates.offer(novelId, event);
+                }
+                return;
+            }
             publishEvent(novelVoteCountEventsTopic, novelId.toString(), event);
             log.info("Published NOVEL_VOTE_COUNT_UPDATE event for novel ID: {}, voteCount: {}", 
                     novelId, voteCount);
@@ -183,6 +243,51 @@ public class KafkaEventProducerService {
         }
     }
 
+    /**
+     * Emit the latest pending rating and vote count update of every novel.
+     * Runs once per coalescing window and on shutdown.
+     */
+    @Scheduled(fixedDelayString = "${kafka.coalesce.window-ms:250}")
+    public void flushCoalescedEvents() {
+        int ratings = ratingUpdates.drain(event -> publishEvent(novelRatingEventsTopic, event.getNovelId().toString(), event));
+        int voteCounts = voteCountUpdates.drain(event -> publishEvent(novelVoteCountEventsTopic, event.getNovelId().toString(), event));
+        if (ratings > 0 || voteCounts > 0) {
+            log.info("Published coalesced NOVEL_RATING_UPDATE events for {} novels and NOVEL_VOTE_COUNT_UPDATE events for {} novels",
+                    ratings, voteCounts);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushCoalescedEvents();
+    }
+
+    /**
+     * Coalesce an update per novel within the current transaction and write the latest of each
+     * novel to the outbox just before commit. A failed write fails the commit, as enqueue does.
+     */
+    private <E> void offerInTransaction(CoalescingBuffer<E> window, Integer novelId, E event, Consumer<E> enqueue) {
+        @SuppressWarnings("unchecked")
+        CoalescingBuffer<E> scoped = (CoalescingBuffer<E>) TransactionSynchronizationManager.getResource(window);
+        if (scoped == null) {
+            CoalescingBuffer<E> created = window.scoped();
+            TransactionSynchronizationManager.bindResource(window, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    created.drainOrFail(enqueue);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(window);
+                }
+            });
+            scoped = created;
+        }
+        scoped.offer(novelId, event);
+    }
+
     /**
      * Publish Vote SAGA Start Event
      * Published when starting vote creation SAGA
@@ -204,4 +309,81 @@ public class KafkaEventProducerService {
             throw new RuntimeException("Failed to publish Vote SAGA start event", e);
         }
     }
+
+    /**
+     * Publish Vote SAGA vote created event
+     * The SAGA topics carry the event as a JSON string
+     */
+    public void publishVoteSagaVoteCreatedEvent(String sagaId, String eventJson) {
+        publishEvent("vote-saga.vote-created", sagaId, eventJson);
+    }
+
+    /**
+     * Latest pending event per novel. An event offered while an older one for the same novel is still
+     * pending replaces it, and is counted as merged.
+     */
+    static final class CoalescingBuffer<E> {
+
+        private final ConcurrentHashMap<Integer, E> pending = new ConcurrentHashMap<>();
+        private Counter merged;
+        private Counter emitted;
+
+        void bindMetrics(MeterRegistry registry, String eventName) {
+            Gauge.builder("kafka.coalesce.pending", pending, Map::size).tag("event", eventName).register(registry);
+            merged = Counter.builder("kafka.coalesce.merged").tag("event", eventName).register(registry);
+            emitted = Counter.builder("kafka.coalesce.emitted").tag("event", eventName).register(registry);
+        }
+
+        /**
+         * Empty buffer sharing this one's merged and emitted counters, e.g. for one transaction
+         */
+        CoalescingBuffer<E> scoped() {
+            CoalescingBuffer<E> scoped = new CoalescingBuffer<>();
+            scoped.merged = merged;
+            scoped.emitted = emitted;
+            return scoped;
+        }
+
+        void offer(Integer novelId, E event) {
+            if (pending.put(novelId, event) != null && merged != null) {
+                merged.increment();
+            }
+        }
+
+        int drain(Consumer<E> publisher) {
+            int count = 0;
+            for (Integer novelId : pending.keySet()) {
+                // remove() hands each pending event to exactly one drain, even if a flush runs concurrently
+                E event = pending.remove(novelId);
+                if (event == null) {
+                    continue;
+                }
+                try {
+                    publisher.accept(event);
+                    count++;
+                } catch (RuntimeException e) {
+                    log.error("Failed to publish coalesced event for novel ID: {}", novelId, e);
+                }
+            }
+            if (emitted != null) {
+                emitted.increment(count);
+            }
+            return count;
+        }
+
+        /**
+         * Like drain, but the first failure propagates to the caller
+         */
+        void drainOrFail(Consumer<E> publisher) {
+            for (Integer novelId : pending.keySet()) {
+                E event = pending.remove(novelId);
+                if (event != null) {
+                    publisher.accept(event);
+                    if (emitted != null) {
+                        emitted.increment();
+                    }
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,184 @@
+package com.yushan.engagement_service.service;
+
+import com.yushan.engagement_service.cache.LikeCounterBuffer;
+import com.yushan.engagement_service.cache.LikeCounterJournal;
+import com.yushan.engagement_service.cache.ReadThroughPageCache;
+import com.yushan.engagement_service.enums.LikeTargetType;
+import com.yushan.engagement_service.repository.LikeCounterRepository;
+import com.yushan.engagement_service.util.RedisUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Write-behind like counts for comments and reviews.
+ *
+ * Likes are journaled locally and added to an in-memory buffer instead of updating the row, and the
+ * buffer is flushed on a short interval with one batched UPDATE per content type. The flushed deltas
+ * and the journal checkpoint commit in the same transaction, so after a crash only segments past the
+ * checkpoint are replayed and every like is applied exactly once. Reads add the pending delta to the
+ * stored count so users see their own like immediately.
+ *
+ * The buffer and journal are per instance: each instance needs its own persistent journal directory,
+ * and a like is visible in other instances' counts after the next flush.
+ *
+ * Cached listing pages hold the stored count of their rows, so a flush bumps the page cache
+ * namespace of every chapter and novel it touched; otherwise a page cached before the flush would
+ * show the count without the flushed delta once it is no longer pending.
+ */
+@Slf4j
+@Service
+public class LikeCounterService {
+
+    @Autowired
+    private LikeCounterRepository likeCounterRepository;
+
+    @Autowired
+    private ReadThroughPageCache pageCache;
+
+    @Autowired
+    private RedisUtil redisUtil;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${like-buffer.journal.dir:data/like-journal}")
+    private String journalDir;
+
+    @Value("${like-buffer.journal.fsync:false}")
+    private boolean fsync;
+
+    private LikeCounterJournal journal;
+    private LikeCounterBuffer buffer;
+    private volatile boolean recovered;
+    private Counter flushFailures;
+
+    @PostConstruct
+    void init() {
+        journal = new LikeCounterJournal(Paths.get(journalDir), fsync);
+        List<Long> existing = journal.segments();
+        // Segment numbers keep increasing across restarts so they stay above the stored checkpoint
+        long firstSegment = existing.isEmpty() ? 1L : existing.get(existing.size() - 1) + 1;
+        recovered = existing.isEmpty();
+        buffer = new LikeCounterBuffer(journal, firstSegment);
+        if (meterRegistry != null) {
+            Gauge.builder("like.buffer.pending", buffer, LikeCounterBuffer::size).register(meterRegistry);
+            flushFailures = Counter.builder("like.buffer.flush.failures").register(meterRegistry);
+        }
+    }
+
+    /**
+     * Buffer a like (+1) or unlike (-1)
+     */
+    public void increment(LikeTargetType type, Integer id, int delta) {
+        buffer.add(type, id, delta);
+    }
+
+    /**
+     * Stored like count plus the delta not yet flushed by this instance
+     */
+    public int currentCount(LikeTargetType type, Integer id, Integer storedCount) {
+        int stored = storedCount != null ? storedCount : 0;
+        if (id == null) {
+            return stored;
+        }
+        return (int) (stored + buffer.pending(type, id));
+    }
+
+    /**
+     * Flush buffered deltas to the database. A failed flush keeps the deltas for the next run.
+     */
+    @Scheduled(fixedDelayString = "${like-buffer.flush-interval-ms:500}")
+    public synchronized void flush() {
+        if (!recovered && !recover()) {
+            return;
+        }
+        if (buffer.size() == 0) {
+            return;
+        }
+        LikeCounterBuffer.Batch batch = buffer.rotate();
+        Map<LikeTargetType, Set<Integer>> parents = Map.of();
+        if (!batch.isEmpty()) {
+            try {
+                parents = likeCounterRepository.applyDeltas(journal.getJournalId(), batch.segment(), batch.deltas());
+            } catch (RuntimeException e) {
+                // The batch stays sealed and pending, and the next rotate drains it again
+                if (flushFailures != null) {
+                    flushFailures.increment();
+                }
+                log.warn("Like counter flush of {} rows failed, retrying on next run: {}", batch.size(), e.getMessage());
+                return;
+            }
+        }
+        // Before complete, so a page reloaded meanwhile over-counts briefly rather than under-counts
+        invalidatePages(parents);
+        buffer.complete(batch);
+        deleteFlushedSegments(batch.segment());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+        buffer.close();
+    }
+
+    private void invalidatePages(Map<LikeTargetType, Set<Integer>> parents) {
+        for (Integer chapterId : parents.getOrDefault(LikeTargetType.COMMENT, Set.of())) {
+            invalidatePages(RedisUtil.chapterCommentsNamespace(chapterId));
+        }
+        for (Integer novelId : parents.getOrDefault(LikeTargetType.REVIEW, Set.of())) {
+            invalidatePages(RedisUtil.novelReviewsNamespace(novelId));
+        }
+    }
+
+    private void invalidatePages(String namespace) {
+        pageCache.invalidateAfterCommit(namespace, () -> redisUtil.bumpGeneration(namespace));
+    }
+
+    /**
+     * Replay journal segments left by a previous run that are past the database checkpoint
+     */
+    private boolean recover() {
+        Long checkpoint;
+        try {
+            checkpoint = likeCounterRepository.findFlushedSegment(journal.getJournalId());
+        } catch (RuntimeException e) {
+            log.warn("Like counter journal recovery postponed, cannot read checkpoint: {}", e.getMessage());
+            return false;
+        }
+        long flushed = checkpoint != null ? checkpoint : 0L;
+        int replayed = 0;
+        for (Long segment : journal.segments()) {
+            if (segment > flushed && segment < buffer.currentSegment()) {
+                journal.replay(segment, buffer::merge);
+                replayed++;
+            }
+        }
+        deleteFlushedSegments(flushed);
+        recovered = true;
+        log.info("Like counter journal {} recovered: checkpoint {}, {} segments replayed",
+                journal.getJournalId(), flushed, replayed);
+        return true;
+    }
+
+    private void deleteFlushedSegments(long segment) {
+        try {
+            journal.deleteUpTo(segment);
+        } catch (RuntimeException e) {
+            // Harmless: segments at or below the checkpoint are skipped on replay
+            log.warn("Could not delete flushed like counter journal segments: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.yushan.engagement_service.service;
+
+import com.yushan.engagement_service.cache.NovelRatingAggregateCache;
+import com.yushan.engagement_service.entity.NovelRatingAggregate;
+import com.yushan.engagement_service.repository.NovelRatingAggregateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains the per-novel rating aggregate and publishes NovelRatingUpdateEvent from it.
+ *
+ * Review writes apply a delta to a single aggregate row, so the cost of a write does not depend on
+ * how many reviews the novel has. The repair job recomputes all aggregates from the review table.
+ */
+@Slf4j
+@Service
+public class NovelRatingAggregateService {
+
+    @Autowired
+    private NovelRatingAggregateRepository novelRatingAggregateRepository;
+
+    @Autowired
+    private NovelRatingAggregateCache novelRatingAggregateCache;
+
+    @Autowired
+    private KafkaEventProducerService kafkaEventProducerService;
+
+    @Autowired
+    private TransactionAwareKafkaPublisher transactionAwareKafkaPublisher;
+
+    /**
+     * Apply a review change to the novel's aggregate and publish the new rating after commit.
+     * oldRating is null for a created review, newRating is null for a deleted review.
+     */
+    @Transactional
+    public NovelRatingAggregate recordRatingChange(Integer novelId, Integer oldRating, Integer newRating) {
+        NovelRatingAggregate aggregate =
+                novelRatingAggregateRepository.applyRatingChange(novelId, oldRating, newRating);
+        novelRatingAggregateCache.invalidate(novelId);
+        publishRatingUpdate(aggregate);
+        return aggregate;
+    }
+
+    /**
+     * Get the novel's aggregate, served from the local cache between review writes
+     */
+    public NovelRatingAggregate getAggregate(Integer novelId) {
+        return novelRatingAggregateCache.get(novelId);
+    }
+
+    /**
+     * Rebuild one novel's aggregate from its reviews and publish the result
+     */
+    @Transactional
+    public NovelRatingAggregate rebuild(Integer novelId) {
+        NovelRatingAggregate aggregate = novelRatingAggregateRepository.rebuild(novelId);
+        novelRatingAggregateCache.invalidate(novelId);
+        publishRatingUpdate(aggregate);
+        return aggregate;
+    }
+
+    /**
+     * Repair job: recompute every aggregate from the review table to correct any drift.
+     * Scheduled off-peak; set rating-aggregate.repair.cron to "-" to disable. Every instance fires
+     * at the same time, and only the one that gets the advisory lock rebuilds.
+     */
+    @Scheduled(cron = "${rating-aggregate.repair.cron:0 30 3 * * *}")
+    @Transactional
+    public void rebuildAll() {
+        if (!novelRatingAggregateRepository.tryLockRebuildAll()) {
+            log.info("Rating aggregate rebuild is running on another instance, skipping");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int rows = novelRatingAggregateRepository.rebuildAll();
+        novelRatingAggregateCache.invalidateAll();
+        log.info("Rebuilt {} novel rating aggregates in {} ms", rows, System.currentTimeMillis() - start);
+    }
+
+    private void publishRatingUpdate(NovelRatingAggregate aggregate) {
+        final Integer novelId = aggregate.getNovelId();
+        final Float avgRating = aggregate.getAverageRating();
+        final Integer reviewCount = aggregate.getReviewCount();
+        transactionAwareKafkaPublisher.publishAfterCommit(() -> {
+            kafkaEventProducerService.publishNovelRatingUpdateEvent(novelId, avgRating, reviewCount);
+        });
+    }
+}
@@ -0,0 +1,115 @@
+package com.yushan.engagement_service.service;
+
+import com.yushan.engagement_service.entity.Vote;
+import com.yushan.engagement_service.repository.NovelVoteCounterRepository;
+import com.yushan.engagement_service.repository.VoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Maintains the per-novel vote counter alongside the vote table.
+ *
+ * Vote writes add to one of vote-counter.slots rows of the novel in the same transaction as the
+ * vote insert, so reading a novel's vote count no longer counts its vote rows. The reconciliation
+ * job corrects any drift against the vote table.
+ */
+@Slf4j
+@Service
+public class NovelVoteCounterService {
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private NovelVoteCounterRepository novelVoteCounterRepository;
+
+    @Value("${vote-counter.slots:4}")
+    private int slots;
+
+    /**
+     * Insert the vote and count it, returns the novel's vote count including it
+     */
+    @Transactional
+    public long recordVote(Vote vote) {
+        voteRepository.save(vote);
+        novelVoteCounterRepository.increment(vote.getNovelId(), nextSlot(), 1);
+        return novelVoteCounterRepository.countByNovelId(vote.getNovelId());
+    }
+
+    /**
+     * Insert a batch of votes with one statement and add each novel's share to its counter,
+     * returns the vote count of every novel in the batch
+     */
+    @Transactional
+    public Map<Integer, Long> recordVotes(List<Vote> votes) {
+        if (votes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        voteRepository.insertAll(votes);
+        // Sorted so concurrent batches lock counter rows in the same order
+        Map<Integer, Integer> votesPerNovel = new TreeMap<>();
+        for (Vote vote : votes) {
+            votesPerNovel.merge(vote.getNovelId(), 1, Integer::sum);
+        }
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        votesPerNovel.forEach((novelId, added) -> {
+            novelVoteCounterRepository.increment(novelId, nextSlot(), added);
+            counts.put(novelId, novelVoteCounterRepository.countByNovelId(novelId));
+        });
+        return counts;
+    }
+
+    /**
+     * Delete the vote and uncount it, returns the novel's remaining vote count
+     */
+    @Transactional
+    public long removeVote(Vote vote) {
+        voteRepository.delete(vote.getId());
+        novelVoteCounterRepository.increment(vote.getNovelId(), nextSlot(), -1);
+        return novelVoteCounterRepository.countByNovelId(vote.getNovelId());
+    }
+
+    public long getVoteCount(Integer novelId) {
+        return novelVoteCounterRepository.countByNovelId(novelId);
+    }
+
+    /**
+     * Reconciliation job: correct every novel's counter against the vote table.
+     * Scheduled off-peak; set vote-counter.reconcile.cron to "-" to disable.
+     *
+     * Every instance fires at the same time. The correction is added rather than assigned, so two
+     * runs from the same snapshot would apply it twice; only the instance that gets the advisory
+     * lock runs, and the statement after it sees any correction committed before it.
+     */
+    @Scheduled(cron = "${vote-counter.reconcile.cron:0 0 4 * * *}")
+    @Transactional
+    public int reconcileAll() {
+        if (!novelVoteCounterRepository.tryLockReconcile()) {
+            log.info("Vote counter reconciliation is running on another instance, skipping");
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        int corrected = novelVoteCounterRepository.reconcileAll();
+        if (corrected > 0) {
+            log.warn("Corrected vote counters of {} novels in {} ms", corrected, System.currentTimeMillis() - start);
+        } else {
+            log.info("Vote counters match the vote table ({} ms)", System.currentTimeMillis() - start);
+        }
+        return corrected;
+    }
+
+    private int nextSlot() {
+        return slots > 1 ? ThreadLocalRandom.current().nextInt(slots) : 0;
+    }
+}
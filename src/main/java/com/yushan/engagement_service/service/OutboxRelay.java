@@ -0,0 +1,69 @@
+package com.yushan.engagement_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background relay of the event outbox to Kafka.
+ *
+ * Each run drains up to outbox.relay.max-batches-per-run batches, one transaction per batch. Relays
+ * on several instances share the work, since each batch is claimed with FOR UPDATE SKIP LOCKED.
+ * Events of one key stay in order within an instance; with several instances draining concurrently,
+ * events of the same key in different batches may be published out of order.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    private Counter failures;
+
+    @PostConstruct
+    void initMetrics() {
+        if (meterRegistry != null) {
+            failures = Counter.builder("outbox.relay.failures").register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int relayed;
+            try {
+                relayed = outboxService.relayBatch(batchSize);
+            } catch (RuntimeException e) {
+                if (failures != null) {
+                    failures.increment();
+                }
+                log.warn("Outbox relay failed, retrying on next run: {}", e.getMessage());
+                return;
+            }
+            if (relayed < batchSize) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.yushan.engagement_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yushan.engagement_service.entity.OutboxEvent;
+import com.yushan.engagement_service.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Transactional outbox for Kafka events.
+ *
+ * Inside a transaction, events are written to the event_outbox table together with the data that
+ * produced them, so an event exists if and only if its write commits, and a slow or unavailable broker
+ * no longer delays or loses it. OutboxRelay publishes the table in id order in the background.
+ */
+@Slf4j
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    // State topics: only the latest event per key in a batch is published
+    @Value("${outbox.relay.compact-topics:novel-rating-events,novel-vote-count-events}")
+    private Set<String> compactTopics = Collections.emptySet();
+
+    // Same settings as the KafkaTemplate's JsonSerializer, so relayed events match directly sent ones
+    private final ObjectMapper payloadMapper = JacksonUtils.enhancedObjectMapper();
+
+    private Counter published;
+    private Counter compacted;
+
+    @PostConstruct
+    void initMetrics() {
+        if (meterRegistry != null) {
+            published = Counter.builder("outbox.relay.published").register(meterRegistry);
+            compacted = Counter.builder("outbox.relay.compacted").register(meterRegistry);
+        }
+    }
+
+    /**
+     * Whether events published now go to the outbox: enabled and inside a transaction
+     */
+    public boolean isActive() {
+        return enabled && TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    /**
+     * Write an event to the outbox in the current transaction. If that fails the transaction is
+     * marked rollback-only, so the business write never commits without its event.
+     */
+    public void enqueue(String topic, String key, Object event) {
+        try {
+            outboxRepository.save(new OutboxEvent(topic, key, payloadMapper.writeValueAsString(event)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            markRollbackOnly();
+            throw new IllegalStateException("Failed to write event to outbox for topic " + topic, e);
+        }
+    }
+
+    /**
+     * Publish the oldest batch of outbox events not claimed by another relay and delete them.
+     * Waits for the broker to acknowledge the whole batch; on any failure the transaction rolls back
+     * and the batch is retried later, so delivery is at least once.
+     *
+     * @return number of outbox rows consumed
+     */
+    @Transactional
+    public int relayBatch(int limit) {
+        List<OutboxEvent> batch = outboxRepository.lockBatch(limit);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<OutboxEvent> toPublish = compact(batch);
+        List<CompletableFuture<?>> sends = new ArrayList<>(toPublish.size());
+        for (OutboxEvent event : toPublish) {
+            JsonNode payload;
+            try {
+                payload = payloadMapper.readTree(event.getPayload());
+            } catch (JsonProcessingException e) {
+                // Cannot be published ever; drop it rather than block the outbox
+                log.error("Dropping unreadable outbox event {} for topic {}", event.getId(), event.getTopic(), e);
+                continue;
+            }
+            sends.add(kafkaTemplate.send(event.getTopic(), event.getEventKey(), payload));
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while relaying outbox events", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to relay " + sends.size() + " outbox events", e);
+        }
+
+        List<Long> ids = new ArrayList<>(batch.size());
+        batch.forEach(event -> ids.add(event.getId()));
+        outboxRepository.deleteAll(ids);
+        if (published != null) {
+            published.increment(sends.size());
+            compacted.increment(batch.size() - toPublish.size());
+        }
+        return batch.size();
+    }
+
+    /**
+     * Keep every event of ordinary topics and the last event per key of compacted topics, in id order
+     */
+    private List<OutboxEvent> compact(List<OutboxEvent> batch) {
+        if (compactTopics.isEmpty()) {
+            return batch;
+        }
+        Set<String> seen = new HashSet<>();
+        List<OutboxEvent> kept = new ArrayList<>(batch.size());
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            OutboxEvent event = batch.get(i);
+            if (!compactTopics.contains(event.getTopic()) || seen.add(event.getTopic() + '\u0000' + event.getEventKey())) {
+                kept.add(event);
+            }
+        }
+        Collections.reverse(kept);
+        return kept;
+    }
+
+    private static void markRollbackOnly() {
+        try {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        } catch (NoTransactionException e) {
+            // Not in a declarative transaction; the exception is all we can report
+        }
+    }
+}
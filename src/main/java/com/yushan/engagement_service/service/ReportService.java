@@ -1,12 +1,12 @@
 package com.yushan.engagement_service.service;
 
-import com.yushan.engagement_service.client.ContentServiceClient;
-import com.yushan.engagement_service.client.UserServiceClient;
+import com.yushan.engagement_service.cache.NovelProjection;
+import com.yushan.engagement_service.cache.NovelProjectionCache;
+import com.yushan.engagement_service.cache.UserProfileCache;
 import com.yushan.engagement_service.repository.ReportRepository;
 import com.yushan.engagement_service.repository.CommentRepository;
-import com.yushan.engagement_service.dto.common.ApiResponse;
+import com.yushan.engagement_service.dto.common.PageCursor;
 import com.yushan.engagement_service.dto.common.PageResponseDTO;
-import com.yushan.engagement_service.dto.novel.NovelDetailResponseDTO;
 import com.yushan.engagement_service.dto.report.ReportCreateRequestDTO;
 import com.yushan.engagement_service.dto.report.ReportResolutionRequestDTO;
 import com.yushan.engagement_service.dto.report.ReportResponseDTO;
@@ -20,7 +20,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -31,10 +36,10 @@ public class ReportService {
     private ReportRepository reportRepository;
 
     @Autowired
-    private ContentServiceClient contentServiceClient;
+    private NovelProjectionCache novelProjectionCache;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserProfileCache userProfileCache;
 
     @Autowired
     private CommentRepository commentRepository;
@@ -44,20 +49,14 @@ public class ReportService {
      */
     @Transactional
     public ReportResponseDTO createNovelReport(UUID reporterId, Integer novelId, ReportCreateRequestDTO request) {
-        // Validate novel exists via content service
-        NovelDetailResponseDTO novel = null;
-        try {
-            ApiResponse<NovelDetailResponseDTO> novelResp = contentServiceClient.getNovelById(novelId);
-            if (novelResp == null || novelResp.getData() == null) {
-                throw new ResourceNotFoundException("Novel not found");
-            }
-            novel = novelResp.getData();
-        } catch (Exception e) {
+        // Validate novel exists via the shared novel cache
+        NovelProjection novel = novelProjectionCache.getNovel(novelId);
+        if (novel == null) {
             throw new ResourceNotFoundException("Novel not found");
         }
 
         // Check if user is trying to report their own novel
-        if (novel.getAuthorId() != null && novel.getAuthorId().equals(reporterId)) {
+        if (novel.authorId() != null && novel.authorId().equals(reporterId)) {
             throw new ValidationException("You cannot report your own novel");
         }
 
@@ -131,14 +130,51 @@ public class ReportService {
      * Get reports for admin dashboard with pagination and filtering
      */
     public PageResponseDTO<ReportResponseDTO> getReportsForAdmin(ReportSearchRequestDTO request) {
+        if (request.getCursor() != null && !request.getCursor().isEmpty()) {
+            // Keyset mode: seek past the cursor row and skip the total count
+            PageCursor seek = PageCursor.decode(request.getCursor(), "createdAt");
+            request.setSort(seek.getSort());
+            request.setOrder(seek.getOrder());
+            request.setSeek(seek);
+
+            List<Report> rows = reportRepository.findReportsWithPagination(request);
+            boolean hasNext = rows.size() > request.getSize();
+            List<Report> reports = hasNext ? rows.subList(0, request.getSize()) : rows;
+            String nextCursor = hasNext ? nextCursor(reports, seek.getOrder()) : null;
+            return PageResponseDTO.ofCursor(toReportResponseDTOs(reports), request.getSize(), nextCursor);
+        }
+
         List<Report> reports = reportRepository.findReportsWithPagination(request);
         long totalElements = reportRepository.countReports(request);
 
-        List<ReportResponseDTO> reportDTOs = reports.stream()
-                .map(this::toReportResponseDTO)
-                .collect(Collectors.toList());
+        List<ReportResponseDTO> reportDTOs = toReportResponseDTOs(reports);
+
+        PageResponseDTO<ReportResponseDTO> response =
+                PageResponseDTO.of(reportDTOs, totalElements, request.getPage(), request.getSize());
+        if (response.isHasNext() && !isStatusSort(request)) {
+            String order = "createdAt".equals(request.getSort()) && "asc".equals(request.getOrder()) ? "asc" : "desc";
+            response.setNextCursor(nextCursor(reports, order));
+        }
+        return response;
+    }
 
-        return PageResponseDTO.of(reportDTOs, totalElements, request.getPage(), request.getSize());
+    /**
+     * Status sorts are not keyset-paginated; every other combination is served as a created_at sort
+     */
+    private boolean isStatusSort(ReportSearchRequestDTO request) {
+        return "status".equals(request.getSort())
+                && ("asc".equals(request.getOrder()) || "desc".equals(request.getOrder()));
+    }
+
+    /**
+     * Cursor pointing after the last report of a page sorted by creation time
+     */
+    private String nextCursor(List<Report> reports, String order) {
+        if (reports.isEmpty()) {
+            return null;
+        }
+        Report last = reports.get(reports.size() - 1);
+        return PageCursor.encode("createdAt", order, last.getCreatedAt(), last.getId());
     }
 
     /**
@@ -185,15 +221,70 @@ public class ReportService {
      */
     public List<ReportResponseDTO> getReportsByReporter(UUID reporterId) {
         List<Report> reports = reportRepository.findReportsByReporterId(reporterId);
+        return toReportResponseDTOs(reports);
+    }
+
+    /**
+     * Convert Report entity to ReportResponseDTO
+     */
+    private ReportResponseDTO toReportResponseDTO(Report report, NovelProjection novel, Comment comment) {
+        if (novel == null && "NOVEL".equals(report.getContentType())) {
+            // If novel is not passed but content type is NOVEL, fetch it
+            novel = novelProjectionCache.getNovel(report.getContentId());
+        }
+        return toReportResponseDTO(report, novel, comment, null);
+    }
+
+    /**
+     * Convert a page of reports, resolving reporter and resolver usernames with one
+     * user-service call and reported novels with one content-service call.
+     */
+    private List<ReportResponseDTO> toReportResponseDTOs(List<Report> reports) {
+        if (reports.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<UUID> userIds = new HashSet<>();
+        for (Report report : reports) {
+            userIds.add(report.getReporterId());
+            if (report.getResolvedBy() != null) {
+                userIds.add(report.getResolvedBy());
+            }
+        }
+        Map<UUID, String> usernames;
+        try {
+            usernames = userProfileCache.getUsernames(userIds);
+        } catch (Exception e) {
+            usernames = Collections.emptyMap();
+        }
+        Map<UUID, String> resolved = usernames != null ? usernames : Collections.emptyMap();
+        Map<Integer, NovelProjection> novels = novelProjectionCache.getNovels(reports.stream()
+                .filter(report -> "NOVEL".equals(report.getContentType()))
+                .map(Report::getContentId)
+                .collect(Collectors.toSet()));
         return reports.stream()
-                .map(report -> toReportResponseDTO(report, null, null))
+                .map(report -> toReportResponseDTO(report,
+                        "NOVEL".equals(report.getContentType()) ? novels.get(report.getContentId()) : null,
+                        null, resolved))
                 .collect(Collectors.toList());
     }
 
     /**
-     * Convert Report entity to ReportResponseDTO
+     * Resolve a username from a pre-fetched map, or from UserService when no map is given
      */
-    private ReportResponseDTO toReportResponseDTO(Report report, NovelDetailResponseDTO novel, Comment comment) {
+    private String resolveUsername(UUID userId, Map<UUID, String> usernames) {
+        if (usernames != null) {
+            return usernames.get(userId);
+        }
+        try {
+            return userProfileCache.getUsername(userId);
+        } catch (Exception e) {
+            // User might be deleted, set username as null
+            return null;
+        }
+    }
+
+    private ReportResponseDTO toReportResponseDTO(Report report, NovelProjection novel, Comment comment,
+                                                  Map<UUID, String> usernames) {
         ReportResponseDTO dto = new ReportResponseDTO();
         dto.setId(report.getId());
         dto.setUuid(report.getUuid());
@@ -209,46 +300,21 @@ public class ReportService {
         dto.setContentId(report.getContentId());
 
         // Get reporter username
-        try {
-            String username = userServiceClient.getUsernameById(report.getReporterId());
-            dto.setReporterUsername(username);
-        } catch (Exception e) {
-            // User might be deleted, set username as null
-            dto.setReporterUsername(null);
-        }
+        dto.setReporterUsername(resolveUsername(report.getReporterId(), usernames));
 
         // Get resolved by username
         if (report.getResolvedBy() != null) {
-            try {
-                String username = userServiceClient.getUsernameById(report.getResolvedBy());
-                dto.setResolvedByUsername(username);
-            } catch (Exception e) {
-                // Admin might be deleted, set username as null
-                dto.setResolvedByUsername(null);
-            }
+            dto.setResolvedByUsername(resolveUsername(report.getResolvedBy(), usernames));
         }
 
         // Set related content info
         if (novel != null) {
-            dto.setNovelId(novel.getId());
-            dto.setNovelTitle(novel.getTitle());
+            dto.setNovelId(novel.id());
+            dto.setNovelTitle(novel.title());
         } else if ("NOVEL".equals(report.getContentType())) {
-            // If novel is not passed but content type is NOVEL, fetch it
-            try {
-                ApiResponse<NovelDetailResponseDTO> novelResp = contentServiceClient.getNovelById(report.getContentId());
-                if (novelResp != null && novelResp.getData() != null) {
-                    NovelDetailResponseDTO novelDetail = novelResp.getData();
-                    dto.setNovelId(novelDetail.getId());
-                    dto.setNovelTitle(novelDetail.getTitle());
-                } else {
-                    dto.setNovelId(report.getContentId());
-                    dto.setNovelTitle("Deleted Novel");
-                }
-            } catch (Exception e) {
-                // Novel might be deleted
-                dto.setNovelId(report.getContentId());
-                dto.setNovelTitle("Deleted Novel");
-            }
+            // Novel might be deleted
+            dto.setNovelId(report.getContentId());
+            dto.setNovelTitle("Deleted Novel");
         }
 
         if (comment != null) {
@@ -268,11 +334,4 @@ public class ReportService {
 
         return dto;
     }
-
-    /**
-     * Convert Report entity to ReportResponseDTO (without related content)
-     */
-    private ReportResponseDTO toReportResponseDTO(Report report) {
-        return toReportResponseDTO(report, null, null);
-    }
 }
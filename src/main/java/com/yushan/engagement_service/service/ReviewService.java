@@ -1,34 +1,60 @@
 package com.yushan.engagement_service.service;
 
+import com.yushan.engagement_service.repository.LikeRepository;
 import com.yushan.engagement_service.repository.ReviewRepository;
 import com.yushan.engagement_service.dto.review.*;
 import com.yushan.engagement_service.dto.common.*;
-import com.yushan.engagement_service.dto.novel.NovelDetailResponseDTO;
 import com.yushan.engagement_service.dto.review.NovelRatingStatsDTO;
+import com.yushan.engagement_service.entity.NovelRatingAggregate;
 import com.yushan.engagement_service.entity.Review;
+import com.yushan.engagement_service.enums.LikeTargetType;
 import com.yushan.engagement_service.exception.ResourceNotFoundException;
+import com.yushan.engagement_service.util.RedisUtil;
+import com.yushan.engagement_service.util.SearchHighlightUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-import com.yushan.engagement_service.client.ContentServiceClient;
-import com.yushan.engagement_service.client.UserServiceClient;
+import com.yushan.engagement_service.cache.NovelProjection;
+import com.yushan.engagement_service.cache.LikeMembershipCache;
+import com.yushan.engagement_service.cache.NovelProjectionCache;
+import com.yushan.engagement_service.cache.PageSnapshot;
+import com.yushan.engagement_service.cache.ReadThroughPageCache;
+import com.yushan.engagement_service.cache.UserProfileCache;
 
 @Service
 public class ReviewService {
 
+    private static final String[] REVIEW_CURSOR_SORTS = {"createTime", "likeCnt", "rating"};
+
     @Autowired
     private ReviewRepository reviewRepository;
 
     @Autowired
-    private ContentServiceClient contentServiceClient;
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private NovelProjectionCache novelProjectionCache;
+
+    @Autowired
+    private NovelRatingAggregateService novelRatingAggregateService;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private LikeMembershipCache likeMembershipCache;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private LikeCounterService likeCounterService;
 
     @Autowired
     private KafkaEventProducerService kafkaEventProducerService;
@@ -36,14 +62,19 @@ public class ReviewService {
     @Autowired
     private TransactionAwareKafkaPublisher transactionAwareKafkaPublisher;
 
+    @Autowired
+    private ReadThroughPageCache pageCache;
+
+    @Autowired
+    private RedisUtil redisUtil;
+
     /**
      * Create a new review
      * Checks if user already reviewed the novel
      */
     @Transactional
     public ReviewResponseDTO createReview(UUID userId, ReviewCreateRequestDTO request) {
-        ApiResponse<NovelDetailResponseDTO> novelResp = contentServiceClient.getNovelById(request.getNovelId());
-        if (novelResp == null || novelResp.getData() == null) {
+        if (novelProjectionCache.getNovel(request.getNovelId()) == null) {
             throw new ResourceNotFoundException("Novel does not exist: " + request.getNovelId());
         }
 
@@ -65,9 +96,10 @@ public class ReviewService {
         review.initializeAsNew();
 
         reviewRepository.save(review);
+        invalidateNovelPages(review);
 
         // Update novel rating and review count
-        updateNovelRatingAndCount(request.getNovelId());
+        novelRatingAggregateService.recordRatingChange(request.getNovelId(), null, request.getRating());
 
         // Publish Kafka event for gamification AFTER transaction commit
         final Integer finalReviewId = review.getId();
@@ -111,6 +143,7 @@ public class ReviewService {
         // Update fields if provided
         boolean hasChanges = false;
         boolean ratingChanged = false;
+        Integer oldRating = existingReview.getRating();
         
         if (request.getRating() != null && !request.getRating().equals(existingReview.getRating())) {
             existingReview.updateRating(request.getRating());
@@ -132,10 +165,12 @@ public class ReviewService {
 
         if (hasChanges) {
             reviewRepository.save(existingReview);
+            invalidateNovelPages(existingReview);
 
             // Only update novel rating if rating changed
             if (ratingChanged) {
-                updateNovelRatingAndCount(existingReview.getNovelId());
+                novelRatingAggregateService.recordRatingChange(
+                        existingReview.getNovelId(), oldRating, existingReview.getRating());
             }
         }
 
@@ -160,9 +195,10 @@ public class ReviewService {
 
         Integer novelId = review.getNovelId();
         reviewRepository.delete(reviewId);
+        invalidateNovelPages(review);
 
         // Update novel rating and review count
-        updateNovelRatingAndCount(novelId);
+        novelRatingAggregateService.recordRatingChange(novelId, review.getRating(), null);
         return true;
     }
 
@@ -181,24 +217,36 @@ public class ReviewService {
      * Get reviews for a specific novel with pagination
      */
     public PageResponseDTO<ReviewResponseDTO> getReviewsByNovel(Integer novelId, int page, int size, String sort, String order) {
+        return getReviewsByNovel(novelId, page, size, sort, order, null);
+    }
+
+    /**
+     * Get reviews for a specific novel, by offset or, when a cursor is given, by keyset seek
+     */
+    public PageResponseDTO<ReviewResponseDTO> getReviewsByNovel(Integer novelId, int page, int size, String sort, String order,
+                                                                String cursor) {
         // Validate and set defaults
         if (page < 0) page = 0;
         if (size <= 0) size = 10;
         if (size > 100) size = 100;
-        if (sort == null || sort.trim().isEmpty()) sort = "createTime";
+        // Sorts the listing does not support fall back to createTime in the mapper; normalising them
+        // here also keeps arbitrary values out of the page cache keys
+        if (sort == null || !Arrays.asList(REVIEW_CURSOR_SORTS).contains(sort)) sort = "createTime";
         if (order == null || (!order.equalsIgnoreCase("asc") && !order.equalsIgnoreCase("desc"))) {
             order = "desc";
         }
 
         ReviewSearchRequestDTO request = new ReviewSearchRequestDTO(page, size, sort, order, novelId, null, null, null);
-        List<Review> reviews = reviewRepository.findReviewsWithPagination(request);
-        long totalElements = reviewRepository.countReviews(request);
-
-        List<ReviewResponseDTO> reviewDTOs = reviews.stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+        request.setCursor(cursor);
+        if (cursor != null && !cursor.isEmpty()) {
+            return findReviewPage(request);
+        }
 
-        return new PageResponseDTO<>(reviewDTOs, totalElements, page, size);
+        String pageKey = String.join(":", sort, order.toLowerCase(), String.valueOf(page), String.valueOf(size));
+        PageSnapshot<Review> snapshot = pageCache.getPage(page,
+                RedisUtil.novelReviewsNamespace(novelId), pageKey, Review.class,
+                () -> loadReviewPage(request));
+        return toOffsetPage(request, snapshot);
     }
 
     /**
@@ -222,35 +270,99 @@ public class ReviewService {
             request.setOrder("desc");
         }
 
-        List<Review> reviews = reviewRepository.findReviewsWithPagination(request);
-        long totalElements = reviewRepository.countReviews(request);
+        return findReviewPage(request);
+    }
 
-        List<ReviewResponseDTO> reviewDTOs = reviews.stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+    /**
+     * Run a validated review search. With a cursor the query seeks past the cursor row and the
+     * total count is skipped; otherwise it pages by offset and returns a cursor for the next page.
+     */
+    private PageResponseDTO<ReviewResponseDTO> findReviewPage(ReviewSearchRequestDTO request) {
+        if (request.getCursor() != null && !request.getCursor().isEmpty()) {
+            PageCursor seek = PageCursor.decode(request.getCursor(), REVIEW_CURSOR_SORTS);
+            request.setSort(seek.getSort());
+            request.setOrder(seek.getOrder());
+            request.setSeek(seek);
+
+            List<Review> rows = reviewRepository.findReviewsWithPagination(request);
+            boolean hasNext = rows.size() > request.getSize();
+            List<Review> reviews = hasNext ? rows.subList(0, request.getSize()) : rows;
+            String nextCursor = hasNext ? nextCursor(reviews, seek.getSort(), seek.getOrder()) : null;
+            return PageResponseDTO.ofCursor(toResponseDTOs(reviews), request.getSize(), nextCursor);
+        }
+
+        return toOffsetPage(request, loadReviewPage(request));
+    }
 
-        return new PageResponseDTO<>(reviewDTOs, totalElements, request.getPage(), request.getSize());
+    private PageSnapshot<Review> loadReviewPage(ReviewSearchRequestDTO request) {
+        return new PageSnapshot<>(reviewRepository.findReviewsWithPagination(request), reviewRepository.countReviews(request));
+    }
+
+    private PageResponseDTO<ReviewResponseDTO> toOffsetPage(ReviewSearchRequestDTO request, PageSnapshot<Review> snapshot) {
+        List<Review> reviews = snapshot.rows();
+        List<ReviewResponseDTO> reviewDTOs = toResponseDTOs(reviews);
+
+        PageResponseDTO<ReviewResponseDTO> response =
+                new PageResponseDTO<>(reviewDTOs, snapshot.totalCount(), request.getPage(), request.getSize());
+        if (response.isHasNext()) {
+            response.setNextCursor(nextCursor(reviews, request.getSort(), request.getOrder()));
+        }
+        return response;
     }
 
     /**
-     * Toggle like on a review (increment or decrement like count)
-     * In a real application, you would need a separate table to track user likes
+     * Drop the cached review pages of the review's novel once the change commits
+     */
+    private void invalidateNovelPages(Review review) {
+        Integer reviewId = review.getId();
+        Integer novelId = review.getNovelId();
+        pageCache.invalidateAfterCommit(RedisUtil.novelReviewsNamespace(novelId),
+                () -> redisUtil.invalidateReviewCaches(reviewId, novelId));
+    }
+
+    /**
+     * Cursor pointing after the last review of a page, in the page's sort order.
+     * Relevance-ranked pages have no cursor.
+     */
+    private String nextCursor(List<Review> reviews, String sort, String order) {
+        if (reviews.isEmpty() || "relevance".equals(sort)) {
+            return null;
+        }
+        Review last = reviews.get(reviews.size() - 1);
+        if ("rating".equals(sort)) {
+            return PageCursor.encode("rating", order, last.getRating(), last.getId());
+        }
+        if ("likeCnt".equals(sort)) {
+            return PageCursor.encode("likeCnt", order, last.getLikeCnt(), last.getId());
+        }
+        return PageCursor.encode("createTime", order, last.getCreateTime(), last.getId());
+    }
+
+    /**
+     * Like or unlike a review. Idempotent: the like ledger records one like per user, and the
+     * count only changes when the ledger does. Count changes are buffered by LikeCounterService.
      */
-    @Transactional
     public ReviewResponseDTO toggleLike(Integer reviewId, UUID currentUserId, boolean isLiking) {
         Review review = reviewRepository.findById(reviewId);
         if (review == null) {
             throw new ResourceNotFoundException("Review not found");
         }
 
-        // Increment or decrement like count
-        int increment = isLiking ? 1 : -1;
-        reviewRepository.updateLikeCount(reviewId, increment);
-
-        // Fetch updated review
-        review = reviewRepository.findById(reviewId);
+        boolean changed = isLiking
+                ? likeRepository.addLike(LikeTargetType.REVIEW, reviewId, currentUserId)
+                : likeRepository.removeLike(LikeTargetType.REVIEW, reviewId, currentUserId);
+        if (changed) {
+            likeCounterService.increment(LikeTargetType.REVIEW, reviewId, isLiking ? 1 : -1);
+        }
+        if (isLiking) {
+            likeMembershipCache.recordLike(LikeTargetType.REVIEW, currentUserId, reviewId);
+        } else {
+            likeMembershipCache.recordUnlike(LikeTargetType.REVIEW, currentUserId, reviewId);
+        }
 
-        return toResponseDTO(review);
+        ReviewResponseDTO dto = toResponseDTO(review);
+        dto.setIsLiked(isLiking);
+        return dto;
     }
 
     /**
@@ -258,9 +370,7 @@ public class ReviewService {
      */
     public List<ReviewResponseDTO> getUserReviews(UUID userId) {
         List<Review> reviews = reviewRepository.findByUserId(userId);
-        return reviews.stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(reviews);
     }
 
     /**
@@ -287,6 +397,40 @@ public class ReviewService {
      * Convert Review entity to ReviewResponseDTO
      */
     private ReviewResponseDTO toResponseDTO(Review review) {
+        // Get username from UserProfileCache
+        String username;
+        try {
+            username = userProfileCache.getUsername(review.getUserId());
+        } catch (Exception e) {
+            username = null;
+        }
+        return toResponseDTO(review, username, novelProjectionCache.getNovel(review.getNovelId()));
+    }
+
+    /**
+     * Convert a page of reviews, resolving all authors with one user-service call
+     * and all novels with one content-service call instead of one call per row.
+     */
+    private List<ReviewResponseDTO> toResponseDTOs(List<Review> reviews) {
+        if (reviews.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<UUID, String> usernames;
+        try {
+            usernames = userProfileCache.getUsernames(
+                    reviews.stream().map(Review::getUserId).collect(Collectors.toSet()));
+        } catch (Exception e) {
+            usernames = Collections.emptyMap();
+        }
+        Map<UUID, String> resolved = usernames != null ? usernames : Collections.emptyMap();
+        Map<Integer, NovelProjection> novels = novelProjectionCache.getNovels(
+                reviews.stream().map(Review::getNovelId).collect(Collectors.toSet()));
+        return reviews.stream()
+                .map(r -> toResponseDTO(r, resolved.get(r.getUserId()), novels.get(r.getNovelId())))
+                .collect(Collectors.toList());
+    }
+
+    private ReviewResponseDTO toResponseDTO(Review review, String username, NovelProjection novel) {
         ReviewResponseDTO dto = new ReviewResponseDTO();
         dto.setId(review.getId());
         dto.setUuid(review.getUuid());
@@ -295,106 +439,49 @@ public class ReviewService {
         dto.setRating(review.getRating());
         dto.setTitle(review.getTitle());
         dto.setContent(review.getContent());
-        dto.setLikeCnt(review.getLikeCnt());
+        dto.setLikeCnt(likeCounterService.currentCount(LikeTargetType.REVIEW, review.getId(), review.getLikeCnt()));
         dto.setIsSpoiler(review.getIsSpoiler());
         dto.setCreateTime(review.getCreateTime());
         dto.setUpdateTime(review.getUpdateTime());
-
-        // Get username from UserServiceClient
-        try {
-            String username = userServiceClient.getUsernameById(review.getUserId());
-            dto.setUsername(username);
-        } catch (Exception e) {
-            dto.setUsername(null);
-        }
+        dto.setHighlight(SearchHighlightUtil.toHtml(review.getHighlight()));
+        dto.setUsername(username);
         
-        // Get novel title from ContentServiceClient
-        try {
-            ApiResponse<NovelDetailResponseDTO> novelDetail = contentServiceClient.getNovelById(review.getNovelId());
-            dto.setNovelTitle(novelDetail.getData().getTitle());
-        } catch (ResourceNotFoundException e) {
-            dto.setNovelTitle("Novel not found");
-        } catch (Exception e) {
-            dto.setNovelTitle(null);
-        }
+        // Novel title from NovelProjectionCache
+        dto.setNovelTitle(novel != null ? novel.title() : null);
         
         return dto;
     }
 
-    /**
-     * Update novel's average rating and review count
-     * This method calculates the statistics and publishes Kafka event
-     */
-    private void updateNovelRatingAndCount(Integer novelId) {
-        // Get all reviews for this novel
-        List<Review> reviews = reviewRepository.findByNovelId(novelId);
-        
-        float avgRating;
-        int reviewCount;
-        
-        if (reviews.isEmpty()) {
-            // No reviews, set to default values
-            avgRating = 0.0f;
-            reviewCount = 0;
-        } else {
-            // Calculate average rating
-            double totalRating = reviews.stream()
-                    .mapToInt(Review::getRating)
-                    .sum();
-            avgRating = (float) (totalRating / reviews.size());
-            
-            // Round to 1 decimal place
-            avgRating = Math.round(avgRating * 10.0f) / 10.0f;
-            reviewCount = reviews.size();
-        }
-        
-        // Publish Kafka event AFTER transaction commit
-        final Integer finalNovelId = novelId;
-        final Float finalAvgRating = avgRating;
-        final Integer finalReviewCount = reviewCount;
-        transactionAwareKafkaPublisher.publishAfterCommit(() -> {
-            kafkaEventProducerService.publishNovelRatingUpdateEvent(finalNovelId, finalAvgRating, finalReviewCount);
-        });
-    }
-
     /**
      * Get detailed novel rating statistics
+     * Served from the persisted rating aggregate instead of scanning the novel's reviews
      */
     public NovelRatingStatsDTO getNovelRatingStats(Integer novelId) {
-        // Get novel basic info through contentServiceClient
-        ApiResponse<NovelDetailResponseDTO> novelDetail = contentServiceClient.getNovelById(novelId);
+        NovelRatingAggregate aggregate = novelRatingAggregateService.getAggregate(novelId);
+        NovelProjection novel = novelProjectionCache.getNovel(novelId);
 
-        List<Review> reviews = reviewRepository.findByNovelId(novelId);
-        
         NovelRatingStatsDTO stats = new NovelRatingStatsDTO();
         stats.setNovelId(novelId);
-        stats.setNovelTitle(novelDetail.getData().getTitle());
-        stats.setTotalReviews(reviews.size());
-        stats.setAverageRating(novelDetail.getData().getAvgRating());
+        stats.setNovelTitle(novel != null ? novel.title() : null);
+        stats.setTotalReviews(aggregate.getReviewCount());
+        stats.setAverageRating(aggregate.getAverageRating());
         
-        if (!reviews.isEmpty()) {
-            // Calculate rating distribution
-            long rating5 = reviews.stream().mapToInt(r -> r.getRating() == 5 ? 1 : 0).sum();
-            long rating4 = reviews.stream().mapToInt(r -> r.getRating() == 4 ? 1 : 0).sum();
-            long rating3 = reviews.stream().mapToInt(r -> r.getRating() == 3 ? 1 : 0).sum();
-            long rating2 = reviews.stream().mapToInt(r -> r.getRating() == 2 ? 1 : 0).sum();
-            long rating1 = reviews.stream().mapToInt(r -> r.getRating() == 1 ? 1 : 0).sum();
-            
-            stats.setRating5Count((int) rating5);
-            stats.setRating4Count((int) rating4);
-            stats.setRating3Count((int) rating3);
-            stats.setRating2Count((int) rating2);
-            stats.setRating1Count((int) rating1);
+        int total = aggregate.getReviewCount();
+        if (total > 0) {
+            stats.setRating5Count(aggregate.getRating5Count());
+            stats.setRating4Count(aggregate.getRating4Count());
+            stats.setRating3Count(aggregate.getRating3Count());
+            stats.setRating2Count(aggregate.getRating2Count());
+            stats.setRating1Count(aggregate.getRating1Count());
             
             // Calculate percentages
-            int total = reviews.size();
-            stats.setRating5Percentage((float) rating5 / total * 100);
-            stats.setRating4Percentage((float) rating4 / total * 100);
-            stats.setRating3Percentage((float) rating3 / total * 100);
-            stats.setRating2Percentage((float) rating2 / total * 100);
-            stats.setRating1Percentage((float) rating1 / total * 100);
+            stats.setRating5Percentage((float) aggregate.getRating5Count() / total * 100);
+            stats.setRating4Percentage((float) aggregate.getRating4Count() / total * 100);
+            stats.setRating3Percentage((float) aggregate.getRating3Count() / total * 100);
+            stats.setRating2Percentage((float) aggregate.getRating2Count() / total * 100);
+            stats.setRating1Percentage((float) aggregate.getRating1Count() / total * 100);
         }
         
         return stats;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.yushan.engagement_service.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
@@ -10,11 +11,16 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
  * 
  * This ensures that Kafka events are only published if the database transaction
  * successfully commits, preventing inconsistencies between database state and event consumers.
+ * With the outbox enabled the events are written to the outbox within the transaction and
+ * relayed after commit; otherwise they are sent from an afterCommit callback.
  */
 @Slf4j
 @Component
 public class TransactionAwareKafkaPublisher {
 
+    @Autowired
+    private OutboxService outboxService;
+
     /**
      * Schedule a Kafka event to be published AFTER the current transaction commits.
      * If there's no active transaction, the event is published immediately.
@@ -22,7 +28,10 @@ public class TransactionAwareKafkaPublisher {
      * @param publishAction The action to publish the Kafka event
      */
     public void publishAfterCommit(Runnable publishAction) {
-        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+        if (outboxService.isActive()) {
+            // Events go to the outbox as part of this transaction; a failure must roll it back
+            publishAction.run();
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()) {
             // Register callback to run AFTER transaction commit
             TransactionSynchronizationManager.registerSynchronization(
                 new TransactionSynchronization() {
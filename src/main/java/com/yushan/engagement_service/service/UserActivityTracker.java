@@ -0,0 +1,91 @@
+package com.yushan.engagement_service.service;
+
+import com.yushan.engagement_service.dto.event.UserActivityEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregates authenticated requests into per-user activity.
+ *
+ * Consumers of the active topic only need to know that a user was active in this service at roughly
+ * a given time, so requests just overwrite the user's last-seen entry in memory and one event per
+ * active user is published per user-activity.flush-interval-ms, instead of one per request.
+ */
+@Slf4j
+@Service
+public class UserActivityTracker {
+
+    private static final String SERVICE_NAME = "engagement-service";
+
+    @Autowired
+    private KafkaEventProducerService kafkaEventProducerService;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<UUID, UserActivityEvent> lastSeen = new ConcurrentHashMap<>();
+    private Counter recorded;
+    private Counter published;
+
+    @PostConstruct
+    void initMetrics() {
+        if (meterRegistry != null) {
+            Gauge.builder("user.activity.pending", lastSeen, Map::size).register(meterRegistry);
+            recorded = Counter.builder("user.activity.recorded").register(meterRegistry);
+            published = Counter.builder("user.activity.published").register(meterRegistry);
+        }
+    }
+
+    /**
+     * Remember the user's latest request
+     */
+    public void recordActivity(UUID userId, String endpoint, String method) {
+        lastSeen.put(userId, new UserActivityEvent(userId, SERVICE_NAME, endpoint, method, LocalDateTime.now()));
+        if (recorded != null) {
+            recorded.increment();
+        }
+    }
+
+    /**
+     * Publish one event per user active since the last flush
+     */
+    @Scheduled(fixedDelayString = "${user-activity.flush-interval-ms:60000}")
+    public void flush() {
+        int count = 0;
+        for (UUID userId : lastSeen.keySet()) {
+            UserActivityEvent event = lastSeen.remove(userId);
+            if (event == null) {
+                continue;
+            }
+            try {
+                kafkaEventProducerService.publishUserActivityEvent(event);
+                count++;
+            } catch (RuntimeException e) {
+                log.warn("Failed to publish user activity for user {}: {}", userId, e.getMessage());
+            }
+        }
+        if (count > 0) {
+            if (published != null) {
+                published.increment(count);
+            }
+            log.debug("Published activity of {} users", count);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
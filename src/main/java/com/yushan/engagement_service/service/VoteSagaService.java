@@ -0,0 +1,168 @@
+package com.yushan.engagement_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yushan.engagement_service.cache.NovelProjection;
+import com.yushan.engagement_service.cache.NovelProjectionCache;
+import com.yushan.engagement_service.dto.event.VoteSagaVoteCreatedEvent;
+import com.yushan.engagement_service.dto.event.VoteSagaYuanReservedEvent;
+import com.yushan.engagement_service.entity.Vote;
+import com.yushan.engagement_service.exception.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vote creation step of the vote SAGA.
+ *
+ * The idempotency claim, the vote insert and the SAGA events share one transaction, so a
+ * redelivered record is either skipped because its vote committed, or processed again because
+ * nothing did. Concurrent consumers of the same record are serialized by the claim.
+ */
+@Slf4j
+@Service
+public class VoteSagaService {
+
+    public static final String EVENT_TYPE = "VoteSagaCreate";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private NovelVoteCounterService novelVoteCounterService;
+
+    @Autowired
+    private NovelProjectionCache novelProjectionCache;
+
+    @Autowired
+    private KafkaEventProducerService kafkaEventProducerService;
+
+    @Autowired
+    private TransactionAwareKafkaPublisher transactionAwareKafkaPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Create the vote of one yuan-reserved record
+     *
+     * @return the vote id, or null if the SAGA was already processed
+     * @throws ValidationException if the vote is not allowed; nothing is kept and the caller compensates
+     */
+    @Transactional
+    public Integer createVote(VoteSagaYuanReservedEvent event) {
+        if (!idempotencyService.tryClaim(idempotencyKey(event.getSagaId()), EVENT_TYPE)) {
+            return null;
+        }
+
+        // Validate novel exists (defensive validation)
+        NovelProjection novel;
+        try {
+            novel = novelProjectionCache.getNovel(event.getNovelId());
+        } catch (Exception e) {
+            log.error("Failed to validate novel: {}", event.getNovelId(), e);
+            throw new ValidationException("Failed to validate novel: " + e.getMessage());
+        }
+        validateNovel(event, novel);
+
+        Vote vote = newVote(event);
+        int voteCount = (int) novelVoteCounterService.recordVote(vote);
+        transactionAwareKafkaPublisher.publishAfterCommit(() -> {
+            publishVoteCreatedEvent(event, vote.getId());
+            kafkaEventProducerService.publishNovelVoteCountUpdateEvent(event.getNovelId(), voteCount);
+        });
+        return vote.getId();
+    }
+
+    /**
+     * Create the votes of already validated records with one claim, one vote insert and one vote
+     * count update per novel. Records whose SAGA was already processed are skipped.
+     *
+     * @return the sagaIds whose votes were created
+     */
+    @Transactional
+    public List<String> createVotes(List<VoteSagaYuanReservedEvent> events) {
+        List<String> keys = new ArrayList<>(events.size());
+        events.forEach(event -> keys.add(idempotencyKey(event.getSagaId())));
+        Set<String> claimed = idempotencyService.tryClaimAll(keys, EVENT_TYPE);
+
+        List<VoteSagaYuanReservedEvent> toCreate = new ArrayList<>(claimed.size());
+        List<Vote> votes = new ArrayList<>(claimed.size());
+        for (VoteSagaYuanReservedEvent event : events) {
+            if (claimed.contains(idempotencyKey(event.getSagaId()))) {
+                toCreate.add(event);
+                votes.add(newVote(event));
+            }
+        }
+        if (votes.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Long> voteCounts = novelVoteCounterService.recordVotes(votes);
+        transactionAwareKafkaPublisher.publishAfterCommit(() -> {
+            for (int i = 0; i < toCreate.size(); i++) {
+                publishVoteCreatedEvent(toCreate.get(i), votes.get(i).getId());
+            }
+            // One vote count update per novel instead of one per vote
+            voteCounts.forEach((novelId, voteCount) ->
+                    kafkaEventProducerService.publishNovelVoteCountUpdateEvent(novelId, voteCount.intValue()));
+        });
+
+        List<String> sagaIds = new ArrayList<>(toCreate.size());
+        toCreate.forEach(event -> sagaIds.add(event.getSagaId()));
+        return sagaIds;
+    }
+
+    /**
+     * Defensive validation of the voted novel
+     */
+    public void validateNovel(VoteSagaYuanReservedEvent event, NovelProjection novel) {
+        if (novel == null) {
+            throw new ValidationException("Novel does not exist: " + event.getNovelId());
+        }
+        // Author cannot vote own novel (defensive check)
+        if (novel.authorId() != null && novel.authorId().equals(event.getUserId())) {
+            throw new ValidationException("Cannot vote your own novel");
+        }
+    }
+
+    public static String idempotencyKey(String sagaId) {
+        return "idempotency:vote-saga-create:" + sagaId;
+    }
+
+    private static Vote newVote(VoteSagaYuanReservedEvent event) {
+        Vote vote = new Vote();
+        vote.setUserId(event.getUserId());
+        vote.setNovelId(event.getNovelId());
+        vote.initializeAsNew();
+        return vote;
+    }
+
+    /**
+     * Publish the vote created event to the SAGA topic
+     */
+    private void publishVoteCreatedEvent(VoteSagaYuanReservedEvent yuanReservedEvent, Integer voteId) {
+        VoteSagaVoteCreatedEvent event = VoteSagaVoteCreatedEvent.builder()
+                .sagaId(yuanReservedEvent.getSagaId())
+                .userId(yuanReservedEvent.getUserId())
+                .novelId(yuanReservedEvent.getNovelId())
+                .voteId(voteId)
+                .reservationId(yuanReservedEvent.getReservationId())
+                .timestamp(LocalDateTime.now())
+                .build();
+        try {
+            kafkaEventProducerService.publishVoteSagaVoteCreatedEvent(
+                    yuanReservedEvent.getSagaId(), objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize vote created event", e);
+        }
+        log.info("Published VoteSagaVoteCreatedEvent: sagaId={}, voteId={}", yuanReservedEvent.getSagaId(), voteId);
+    }
+}
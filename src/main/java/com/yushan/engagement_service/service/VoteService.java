@@ -1,14 +1,15 @@
 package com.yushan.engagement_service.service;
 
+import com.yushan.engagement_service.cache.NovelProjection;
+import com.yushan.engagement_service.cache.NovelProjectionCache;
 import com.yushan.engagement_service.repository.VoteRepository;
+import com.yushan.engagement_service.dto.common.PageCursor;
 import com.yushan.engagement_service.dto.common.PageResponseDTO;
 import com.yushan.engagement_service.dto.common.ApiResponse;
 import com.yushan.engagement_service.dto.vote.VoteResponseDTO;
 import com.yushan.engagement_service.dto.vote.VoteUserResponseDTO;
 import com.yushan.engagement_service.entity.Vote;
-import com.yushan.engagement_service.client.ContentServiceClient;
 import com.yushan.engagement_service.client.GamificationServiceClient;
-import com.yushan.engagement_service.dto.novel.NovelDetailResponseDTO;
 import com.yushan.engagement_service.dto.gamification.VoteCheckResponseDTO;
 import com.yushan.engagement_service.exception.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,7 +29,10 @@ public class VoteService {
     private VoteRepository voteRepository;
 
     @Autowired
-    private ContentServiceClient contentServiceClient;
+    private NovelVoteCounterService novelVoteCounterService;
+
+    @Autowired
+    private NovelProjectionCache novelProjectionCache;
 
     @Autowired
     private GamificationServiceClient gamificationServiceClient;
@@ -59,15 +63,14 @@ public class VoteService {
      * Create vote using SAGA pattern (distributed transaction)
      */
     private VoteResponseDTO createVoteWithSaga(Integer novelId, UUID userId) {
-        // Validate novel exists and get authorId via content service
-        ApiResponse<NovelDetailResponseDTO> novelResp = contentServiceClient.getNovelById(novelId);
-        if (novelResp == null || novelResp.getData() == null) {
+        // Validate novel exists and get authorId via the shared novel cache
+        NovelProjection novel = novelProjectionCache.getNovel(novelId);
+        if (novel == null) {
             throw new ValidationException("Novel does not exist: " + novelId);
         }
-        NovelDetailResponseDTO novel = novelResp.getData();
 
         // Author cannot vote own novel
-        if (novel.getAuthorId() != null && novel.getAuthorId().equals(userId)) {
+        if (novel.authorId() != null && novel.authorId().equals(userId)) {
             throw new ValidationException("Cannot vote your own novel");
         }
 
@@ -99,7 +102,7 @@ public class VoteService {
         // Return optimistic response (vote creation happens asynchronously)
         // Note: In a real production system, you might want to wait for confirmation
         // or return a pending status and poll for completion
-        Integer currentVoteCount = (int) voteRepository.countByNovelId(novelId);
+        Integer currentVoteCount = (int) novelVoteCounterService.getVoteCount(novelId);
         
         // Note: remainedYuan is not available immediately in SAGA flow
         // It will be updated after Yuan reservation
@@ -111,15 +114,14 @@ public class VoteService {
      */
     @Transactional
     public VoteResponseDTO createVoteLegacy(Integer novelId, UUID userId) {
-        // Validate novel exists and get authorId via content service
-        ApiResponse<NovelDetailResponseDTO> novelResp = contentServiceClient.getNovelById(novelId);
-        if (novelResp == null || novelResp.getData() == null) {
+        // Validate novel exists and get authorId via the shared novel cache
+        NovelProjection novel = novelProjectionCache.getNovel(novelId);
+        if (novel == null) {
             throw new ValidationException("Novel does not exist: " + novelId);
         }
-        NovelDetailResponseDTO novel = novelResp.getData();
 
         // Author cannot vote own novel
-        if (novel.getAuthorId() != null && novel.getAuthorId().equals(userId)) {
+        if (novel.authorId() != null && novel.authorId().equals(userId)) {
             throw new ValidationException("Cannot vote your own novel");
         }
 
@@ -149,10 +151,10 @@ public class VoteService {
         vote.setUserId(userId);
         vote.setNovelId(novelId);
         vote.initializeAsNew();
-        voteRepository.save(vote);
-       
-        // Calculate vote count from local DB (engagement-service is source of truth)
-        Integer voteCount = (int) voteRepository.countByNovelId(novelId);
+
+        // Insert the vote and bump the novel's vote counter in this transaction
+        // (engagement-service is source of truth)
+        Integer voteCount = (int) novelVoteCounterService.recordVote(vote);
         
         // Publish Kafka events AFTER transaction commit
         final Integer finalNovelId = novelId;
@@ -171,6 +173,22 @@ public class VoteService {
     }
 
     public PageResponseDTO<VoteUserResponseDTO> getUserVotes(UUID userId, int page, int size) {
+        return getUserVotes(userId, page, size, null);
+    }
+
+    /**
+     * Get a user's votes, newest first, by offset or, when a cursor is given, by keyset seek
+     */
+    public PageResponseDTO<VoteUserResponseDTO> getUserVotes(UUID userId, int page, int size, String cursor) {
+        if (cursor != null && !cursor.isEmpty()) {
+            // Keyset mode: seek past the cursor row and skip the total count
+            PageCursor seek = PageCursor.decode(cursor, "createTime");
+            List<Vote> rows = voteRepository.findByUserIdAfter(userId, seek.getKeyAsTime(), seek.getId(), size + 1);
+            boolean hasNext = rows.size() > size;
+            List<Vote> votes = hasNext ? rows.subList(0, size) : rows;
+            return PageResponseDTO.ofCursor(toVoteDTOs(votes), size, hasNext ? nextCursor(votes) : null);
+        }
+
         int offset = page * size;
         long totalElements = voteRepository.countByUserId(userId);
 
@@ -183,35 +201,46 @@ public class VoteService {
             return new PageResponseDTO<>(Collections.emptyList(), totalElements, page, size);
         }
 
+        PageResponseDTO<VoteUserResponseDTO> response = new PageResponseDTO<>(toVoteDTOs(votes), totalElements, page, size);
+        if (response.isHasNext()) {
+            response.setNextCursor(nextCursor(votes));
+        }
+        return response;
+    }
+
+    private List<VoteUserResponseDTO> toVoteDTOs(List<Vote> votes) {
+        if (votes.isEmpty()) {
+            return Collections.emptyList();
+        }
         List<Integer> novelIds = votes.stream()
                 .map(Vote::getNovelId)
                 .distinct()
                 .collect(Collectors.toList());
 
-        // Get novels from content service
-        ApiResponse<List<NovelDetailResponseDTO>> novelResponse = contentServiceClient.getNovelsBatch(novelIds);
-        final Map<Integer, NovelDetailResponseDTO> novelMap;
-        if (novelResponse != null && novelResponse.getData() != null) {
-            novelMap = novelResponse.getData().stream()
-                    .collect(Collectors.toMap(NovelDetailResponseDTO::getId, novel -> novel));
-        } else {
-            novelMap = new HashMap<>();
-        }
+        // Get novels from the shared novel cache (misses are loaded with one batch call)
+        final Map<Integer, NovelProjection> novelMap = novelProjectionCache.getNovels(novelIds);
 
-        List<VoteUserResponseDTO> dtos = votes.stream()
+        return votes.stream()
                 .map(vote -> {
-                    NovelDetailResponseDTO novel = novelMap.get(vote.getNovelId());
+                    NovelProjection novel = novelMap.get(vote.getNovelId());
                     return convertToDTO(vote, novel);
                 })
                 .collect(Collectors.toList());
-        return new PageResponseDTO<>(dtos, totalElements, page, size);
     }
 
-    private VoteUserResponseDTO convertToDTO(Vote vote, NovelDetailResponseDTO novel) {
+    /**
+     * Cursor pointing after the last (oldest) vote of a page
+     */
+    private String nextCursor(List<Vote> votes) {
+        Vote last = votes.get(votes.size() - 1);
+        return PageCursor.encode("createTime", "desc", last.getCreateTime(), last.getId());
+    }
+
+    private VoteUserResponseDTO convertToDTO(Vote vote, NovelProjection novel) {
         VoteUserResponseDTO dto = new VoteUserResponseDTO();
         dto.setId(vote.getId());
         dto.setNovelId(vote.getNovelId());
-        dto.setNovelTitle(novel != null ? novel.getTitle() : "Novel not found");
+        dto.setNovelTitle(novel != null ? novel.title() : "Novel not found");
         dto.setVotedTime(convertToLocalDateTime(vote.getCreateTime()));
 
         return dto;
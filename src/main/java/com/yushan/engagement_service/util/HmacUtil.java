@@ -1,26 +1,34 @@
 package com.yushan.engagement_service.util;
 
 import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Base64;
 
 /**
  * HMAC Utility for verifying gateway-validated requests
- * 
+ *
  * This utility verifies HMAC signatures to ensure requests
  * are actually from the API Gateway and not forged by attackers.
+ *
+ * Every request is verified, so each thread keeps its own Mac, initialized once with the secret,
+ * and builds the message and expected signature in reusable buffers: a verification allocates
+ * nothing once the buffers have grown to fit.
  */
 public class HmacUtil {
 
     private static final String HMAC_ALGORITHM = "HmacSHA256";
     private static final long TIMESTAMP_TOLERANCE_MS = 5 * 60 * 1000; // 5 minutes
 
+    private static final ThreadLocal<Signer> SIGNERS = new ThreadLocal<>();
+
     /**
      * Verify HMAC signature from gateway
-     * 
+     *
      * @param userId User ID
      * @param email User email
      * @param role User role
@@ -29,29 +37,31 @@ public class HmacUtil {
      * @param secret Shared secret key
      * @return true if signature is valid, false otherwise
      */
-    public static boolean verifySignature(String userId, String email, String role, long timestamp, 
+    public static boolean verifySignature(String userId, String email, String role, long timestamp,
                                           String signature, String secret) {
         try {
-            // Check timestamp to prevent replay attacks (allow 5 minutes tolerance)
-            long currentTime = System.currentTimeMillis();
-            long timeDiff = Math.abs(currentTime - timestamp);
-            if (timeDiff > TIMESTAMP_TOLERANCE_MS) {
-                return false; // Timestamp too old or too far in future
+            if (!isTimestampValid(timestamp) || signature == null) {
+                return false;
             }
-
-            // Generate expected signature
-            String expectedSignature = generateSignature(userId, email, role, timestamp, secret);
-            
-            // Use constant-time comparison to prevent timing attacks
-            return constantTimeEquals(expectedSignature, signature);
+            return signer(secret).verify(userId, email, role, timestamp, signature);
         } catch (Exception e) {
             return false;
         }
     }
 
     /**
-     * Generate HMAC signature (for verification)
-     * 
+     * Check timestamp to prevent replay attacks (allow 5 minutes tolerance)
+     *
+     * @param timestamp Request timestamp (milliseconds)
+     * @return true if the timestamp is neither too old nor too far in the future
+     */
+    public static boolean isTimestampValid(long timestamp) {
+        return Math.abs(System.currentTimeMillis() - timestamp) <= TIMESTAMP_TOLERANCE_MS;
+    }
+
+    /**
+     * Generate HMAC signature
+     *
      * @param userId User ID
      * @param email User email
      * @param role User role
@@ -61,43 +71,170 @@ public class HmacUtil {
      * @throws NoSuchAlgorithmException if HMAC algorithm not available
      * @throws InvalidKeyException if secret key is invalid
      */
-    private static String generateSignature(String userId, String email, String role, long timestamp, String secret) 
+    public static String generateSignature(String userId, String email, String role, long timestamp, String secret)
             throws NoSuchAlgorithmException, InvalidKeyException {
-        
-        // Create message to sign: userId|email|role|timestamp
-        String message = String.format("%s|%s|%s|%d", userId, email, role != null ? role : "USER", timestamp);
-        
-        // Generate HMAC
-        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
-        SecretKeySpec secretKeySpec = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
-        mac.init(secretKeySpec);
-        
-        byte[] hmacBytes = mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
-        
-        // Return Base64-encoded signature
-        return Base64.getEncoder().encodeToString(hmacBytes);
+        try {
+            Signer signer = signer(secret);
+            int length = signer.sign(userId, email, role, timestamp);
+            return new String(signer.expected, 0, length, StandardCharsets.US_ASCII);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
      * Constant-time string comparison to prevent timing attacks
-     * 
+     *
      * @param a First string
      * @param b Second string
      * @return true if strings are equal, false otherwise
      */
-    private static boolean constantTimeEquals(String a, String b) {
+    public static boolean constantTimeEquals(String a, String b) {
         if (a == null || b == null) {
             return false;
         }
         if (a.length() != b.length()) {
             return false;
         }
-        
+
         int result = 0;
         for (int i = 0; i < a.length(); i++) {
             result |= a.charAt(i) ^ b.charAt(i);
         }
         return result == 0;
     }
-}
 
+    private static Signer signer(String secret) throws NoSuchAlgorithmException, InvalidKeyException {
+        Signer signer = SIGNERS.get();
+        if (signer == null) {
+            signer = new Signer();
+            SIGNERS.set(signer);
+        }
+        signer.init(secret);
+        return signer;
+    }
+
+    /**
+     * Per-thread Mac with its key and the buffers a signature is built in
+     */
+    private static final class Signer {
+
+        private final Mac mac;
+        private final byte[] digest;
+        // Base64 of the digest, as sent by the gateway
+        private final byte[] expected;
+        private byte[] message = new byte[256];
+        private int length;
+        private String secret;
+
+        Signer() throws NoSuchAlgorithmException {
+            mac = Mac.getInstance(HMAC_ALGORITHM);
+            digest = new byte[mac.getMacLength()];
+            expected = new byte[(digest.length + 2) / 3 * 4];
+        }
+
+        void init(String secret) throws InvalidKeyException {
+            // Usually the same String instance on every call, so equals returns at the identity check
+            if (!secret.equals(this.secret)) {
+                mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+                this.secret = secret;
+            }
+        }
+
+        boolean verify(String userId, String email, String role, long timestamp, String signature)
+                throws ShortBufferException {
+            int expectedLength = sign(userId, email, role, timestamp);
+            if (signature.length() != expectedLength) {
+                return false;
+            }
+            // Constant-time comparison to prevent timing attacks
+            int result = 0;
+            for (int i = 0; i < expectedLength; i++) {
+                result |= signature.charAt(i) ^ expected[i];
+            }
+            return result == 0;
+        }
+
+        /**
+         * Sign userId|email|role|timestamp into expected, returning the Base64 length
+         */
+        int sign(String userId, String email, String role, long timestamp) throws ShortBufferException {
+            length = 0;
+            append(String.valueOf(userId));
+            append('|');
+            append(String.valueOf(email));
+            append('|');
+            append(role != null ? role : "USER");
+            append('|');
+            append(timestamp);
+            mac.update(message, 0, length);
+            mac.doFinal(digest, 0);
+            return Base64.getEncoder().encode(digest, expected);
+        }
+
+        /**
+         * Append a string as UTF-8, encoding unpaired surrogates as '?' like String.getBytes
+         */
+        private void append(String value) {
+            ensureCapacity(value.length() * 3);
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    message[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    message[length++] = (byte) (0xc0 | c >> 6);
+                    message[length++] = (byte) (0x80 | c & 0x3f);
+                } else if (Character.isSurrogate(c)) {
+                    if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                            && Character.isLowSurrogate(value.charAt(i + 1))) {
+                        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                        message[length++] = (byte) (0xf0 | codePoint >> 18);
+                        message[length++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                        message[length++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                        message[length++] = (byte) (0x80 | codePoint & 0x3f);
+                    } else {
+                        message[length++] = '?';
+                    }
+                } else {
+                    message[length++] = (byte) (0xe0 | c >> 12);
+                    message[length++] = (byte) (0x80 | c >> 6 & 0x3f);
+                    message[length++] = (byte) (0x80 | c & 0x3f);
+                }
+            }
+        }
+
+        private void append(char c) {
+            ensureCapacity(1);
+            message[length++] = (byte) c;
+        }
+
+        /**
+         * Append a long in decimal, as %d formats it
+         */
+        private void append(long value) {
+            ensureCapacity(20);
+            if (value < 0) {
+                message[length++] = '-';
+            } else {
+                value = -value;
+            }
+            // Digits are produced from the negative value, so Long.MIN_VALUE does not overflow
+            int start = length;
+            do {
+                message[length++] = (byte) ('0' - value % 10);
+                value /= 10;
+            } while (value != 0);
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                byte digit = message[i];
+                message[i] = message[j];
+                message[j] = digit;
+            }
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > message.length) {
+                message = Arrays.copyOf(message, Math.max(message.length * 2, length + extra));
+            }
+        }
+    }
+}
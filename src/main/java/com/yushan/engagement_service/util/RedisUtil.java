@@ -1,29 +1,90 @@
 package com.yushan.engagement_service.util;
 
+import com.yushan.engagement_service.cache.codec.LongCodec;
+import com.yushan.engagement_service.cache.codec.RedisValueCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Redis utility class for caching engagement-related data.
  * Provides methods for caching comments, reviews, votes and related queries.
+ *
+ * List caches (comments of a chapter, reviews of a novel, votes of a novel or user, engagement
+ * stats of an entity) live in versioned namespaces: each scope has a generation counter under
+ * "ns:" and its cache keys embed the current generation. Invalidating a scope is one INCR of its
+ * counter; entries of older generations are never read again and expire with their TTL.
+ *
+ * Deleting a cache key or bumping a generation is also published on INVALIDATION_CHANNEL, so
+ * replicas can drop their in-heap copies (see ReadThroughPageCache).
  */
 @Component
 public class RedisUtil {
 
+    /**
+     * Pub/sub channel carrying the list of cache keys or namespaces that were deleted or bumped
+     */
+    public static final String INVALIDATION_CHANNEL = "cache:invalidate";
+
+    /**
+     * Invalidation message entry meaning every cache was cleared
+     */
+    public static final String ALL_KEYS = "*";
+
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Autowired
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+
     // Cache key prefixes
     private static final String COMMENT_PREFIX = "comment:";
     private static final String REVIEW_PREFIX = "review:";
     private static final String VOTE_PREFIX = "vote:";
     private static final String LIKE_PREFIX = "like:";
     private static final String ENGAGEMENT_PREFIX = "engagement:";
+    private static final String NAMESPACE_PREFIX = "ns:";
+    private static final String NOVEL_RATING_PREFIX = REVIEW_PREFIX + "rating:";
+    private static final List<String> CACHE_PREFIXES = List.of(
+            COMMENT_PREFIX, REVIEW_PREFIX, VOTE_PREFIX, LIKE_PREFIX, ENGAGEMENT_PREFIX, NAMESPACE_PREFIX);
+
+    private static final byte[] CLAIM_SCRIPT = (
+            "local v = redis.call('get', KEYS[1]) "
+            + "if v then return v end "
+            + "redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[2]) "
+            + "return false").getBytes(StandardCharsets.UTF_8);
+
+    // Bump a namespace generation. A counter that expired restarts from the current time rather
+    // than from 1, so it never returns to a generation whose entries may still be cached.
+    private static final RedisScript<Long> BUMP_GENERATION = new DefaultRedisScript<>(
+            "local v = redis.call('incr', KEYS[1]) "
+            + "if v == 1 then v = tonumber(ARGV[1]) redis.call('set', KEYS[1], v) end "
+            + "redis.call('pexpire', KEYS[1], ARGV[2]) "
+            + "return v",
+            Long.class);
+
+    private static final RedisScript<Long> DELETE_IF_EQUALS = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0",
+            Long.class);
+
+    private static final int SCAN_BATCH_SIZE = 500;
 
     // Cache TTL constants
     private static final Duration COMMENT_CACHE_TTL = Duration.ofHours(1);
@@ -31,6 +92,8 @@ public class RedisUtil {
     private static final Duration VOTE_CACHE_TTL = Duration.ofHours(1);
     private static final Duration LIKE_CACHE_TTL = Duration.ofMinutes(30);
     private static final Duration ENGAGEMENT_CACHE_TTL = Duration.ofMinutes(15);
+    // Longer than every cache TTL, so a generation outlives the entries written under it
+    private static final Duration GENERATION_TTL = Duration.ofDays(1);
 
     /**
      * Set a key-value pair with TTL
@@ -53,6 +116,87 @@ public class RedisUtil {
         return redisTemplate.opsForValue().get(key);
     }
 
+    /**
+     * Set a value encoded with a typed codec, with TTL
+     */
+    public <T> void set(String key, T value, RedisValueCodec<T> codec, Duration ttl) {
+        binaryRedisTemplate.opsForValue().set(key, codec.encode(value), ttl);
+    }
+
+    /**
+     * Get a value encoded with a typed codec, null if the key is missing
+     */
+    public <T> T get(String key, RedisValueCodec<T> codec) {
+        byte[] bytes = binaryRedisTemplate.opsForValue().get(key);
+        return bytes != null ? codec.decode(bytes) : null;
+    }
+
+    /**
+     * Get the values of several keys in one round trip, null for missing keys
+     */
+    public List<Object> multiGet(List<String> keys) {
+        return redisTemplate.opsForValue().multiGet(keys);
+    }
+
+    /**
+     * Set several keys to the same value with TTL in one pipelined round trip
+     */
+    public void setAll(Collection<String> keys, Object value, Duration ttl) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (String key : keys) {
+                    ops.opsForValue().set(key, value, ttl);
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Claim a key: return its current value if it exists, otherwise set it to claimValue with the lease
+     * as TTL and return null. Atomic, one round trip.
+     */
+    public Object claim(String key, Object claimValue, Duration lease) {
+        List<Object> results = claimAll(List.of(key), claimValue, lease);
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    /**
+     * Pipelined claim of several keys, one result per key in order (null where the key was claimed)
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object> claimAll(List<String> keys, Object claimValue, Duration lease) {
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        byte[] value = valueSerializer.serialize(claimValue);
+        byte[] leaseMillis = String.valueOf(lease.toMillis()).getBytes(StandardCharsets.UTF_8);
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.scriptingCommands().eval(CLAIM_SCRIPT, ReturnType.VALUE, 1,
+                        keySerializer.serialize(key), value, leaseMillis);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Set a key only if it does not exist, with TTL. True if it was set.
+     */
+    public boolean setIfAbsent(String key, Object value, Duration ttl) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, ttl));
+    }
+
+    /**
+     * Delete a key only if it still holds the given value, e.g. to release a lock held by this caller
+     */
+    public boolean deleteIfEquals(String key, Object value) {
+        Long deleted = redisTemplate.execute(DELETE_IF_EQUALS, List.of(key), value);
+        return deleted != null && deleted > 0;
+    }
+
     /**
      * Get value by key with type casting
      */
@@ -70,6 +214,7 @@ public class RedisUtil {
      */
     public void delete(String key) {
         redisTemplate.delete(key);
+        publishInvalidation(List.of(key));
     }
 
     /**
@@ -77,6 +222,7 @@ public class RedisUtil {
      */
     public void delete(Set<String> keys) {
         redisTemplate.delete(keys);
+        publishInvalidation(keys);
     }
 
     /**
@@ -114,6 +260,101 @@ public class RedisUtil {
         return redisTemplate.keys(pattern);
     }
 
+    // Versioned namespaces
+
+    /**
+     * Current generation of a namespace, 0 if it was never invalidated
+     */
+    public long generation(String namespace) {
+        Long generation = get(NAMESPACE_PREFIX + namespace, LongCodec.INSTANCE);
+        return generation != null ? generation : 0L;
+    }
+
+    /**
+     * Invalidate every entry of a namespace with a single INCR of its generation
+     */
+    public Long bumpGeneration(String namespace) {
+        Long generation = redisTemplate.execute(BUMP_GENERATION, List.of(NAMESPACE_PREFIX + namespace),
+                System.currentTimeMillis(), GENERATION_TTL.toMillis());
+        publishInvalidation(List.of(namespace));
+        return generation;
+    }
+
+    /**
+     * Cache key of a namespace at its current generation
+     */
+    public String versionedKey(String namespace) {
+        return namespace + ":v" + generation(namespace);
+    }
+
+    /**
+     * Invalidation key of a novel's rating aggregate. The aggregates are only cached in heap
+     * (NovelRatingAggregateCache), so nothing is stored or deleted in Redis under it.
+     */
+    public static String novelRatingKey(Integer novelId) {
+        return NOVEL_RATING_PREFIX + novelId;
+    }
+
+    /**
+     * Invalidation key of every novel's rating aggregate
+     */
+    public static String allNovelRatingsKey() {
+        return NOVEL_RATING_PREFIX + ALL_KEYS;
+    }
+
+    /**
+     * Novel named by a rating aggregate invalidation key, or null for any other key
+     */
+    public static Integer novelRatingId(String key) {
+        if (!key.startsWith(NOVEL_RATING_PREFIX)) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(key.substring(NOVEL_RATING_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Tell every replica to drop its cached rating aggregate of the novel
+     */
+    public void invalidateNovelRating(Integer novelId) {
+        publishInvalidation(List.of(novelRatingKey(novelId)));
+    }
+
+    /**
+     * Tell every replica to drop all cached rating aggregates
+     */
+    public void invalidateAllNovelRatings() {
+        publishInvalidation(List.of(allNovelRatingsKey()));
+    }
+
+    /**
+     * Keys or namespaces carried by a message on INVALIDATION_CHANNEL
+     */
+    @SuppressWarnings("unchecked")
+    public Collection<String> invalidatedKeys(byte[] message) {
+        Object keys = redisTemplate.getValueSerializer().deserialize(message);
+        return keys instanceof Collection<?> ? (Collection<String>) keys : List.of();
+    }
+
+    /**
+     * Tell every replica that these cache keys or namespaces changed. Keys outside the cache
+     * prefixes (e.g. idempotency markers) are not cached in heap and are not published.
+     */
+    private void publishInvalidation(Collection<String> keys) {
+        List<String> cacheKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            if (ALL_KEYS.equals(key) || CACHE_PREFIXES.stream().anyMatch(key::startsWith)) {
+                cacheKeys.add(key);
+            }
+        }
+        if (!cacheKeys.isEmpty()) {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, cacheKeys);
+        }
+    }
+
     // Comment-specific cache methods
 
     /**
@@ -144,7 +385,7 @@ public class RedisUtil {
      * Cache comments for a chapter
      */
     public void cacheChapterComments(Integer chapterId, Object commentsData) {
-        String key = COMMENT_PREFIX + "chapter:" + chapterId;
+        String key = versionedKey(chapterCommentsNamespace(chapterId));
         set(key, commentsData, COMMENT_CACHE_TTL);
     }
 
@@ -152,10 +393,17 @@ public class RedisUtil {
      * Get cached comments for a chapter
      */
     public Object getCachedChapterComments(Integer chapterId) {
-        String key = COMMENT_PREFIX + "chapter:" + chapterId;
+        String key = versionedKey(chapterCommentsNamespace(chapterId));
         return get(key);
     }
 
+    /**
+     * Namespace of the cached comment lists of a chapter
+     */
+    public static String chapterCommentsNamespace(Integer chapterId) {
+        return COMMENT_PREFIX + "chapter:" + chapterId;
+    }
+
     /**
      * Delete comment cache
      */
@@ -194,7 +442,7 @@ public class RedisUtil {
      * Cache reviews for a novel
      */
     public void cacheNovelReviews(Integer novelId, Object reviewsData) {
-        String key = REVIEW_PREFIX + "novel:" + novelId;
+        String key = versionedKey(novelReviewsNamespace(novelId));
         set(key, reviewsData, REVIEW_CACHE_TTL);
     }
 
@@ -202,10 +450,17 @@ public class RedisUtil {
      * Get cached reviews for a novel
      */
     public Object getCachedNovelReviews(Integer novelId) {
-        String key = REVIEW_PREFIX + "novel:" + novelId;
+        String key = versionedKey(novelReviewsNamespace(novelId));
         return get(key);
     }
 
+    /**
+     * Namespace of the cached review lists of a novel
+     */
+    public static String novelReviewsNamespace(Integer novelId) {
+        return REVIEW_PREFIX + "novel:" + novelId;
+    }
+
     /**
      * Delete review cache
      */
@@ -236,7 +491,7 @@ public class RedisUtil {
      * Cache votes for a novel
      */
     public void cacheNovelVotes(Integer novelId, Object votesData) {
-        String key = VOTE_PREFIX + "novel:" + novelId;
+        String key = versionedKey(VOTE_PREFIX + "novel:" + novelId);
         set(key, votesData, VOTE_CACHE_TTL);
     }
 
@@ -244,7 +499,7 @@ public class RedisUtil {
      * Get cached votes for a novel
      */
     public Object getCachedNovelVotes(Integer novelId) {
-        String key = VOTE_PREFIX + "novel:" + novelId;
+        String key = versionedKey(VOTE_PREFIX + "novel:" + novelId);
         return get(key);
     }
 
@@ -252,7 +507,7 @@ public class RedisUtil {
      * Cache user votes
      */
     public void cacheUserVotes(String userId, Object votesData) {
-        String key = VOTE_PREFIX + "user:" + userId;
+        String key = versionedKey(VOTE_PREFIX + "user:" + userId);
         set(key, votesData, VOTE_CACHE_TTL);
     }
 
@@ -260,7 +515,7 @@ public class RedisUtil {
      * Get cached user votes
      */
     public Object getCachedUserVotes(String userId) {
-        String key = VOTE_PREFIX + "user:" + userId;
+        String key = versionedKey(VOTE_PREFIX + "user:" + userId);
         return get(key);
     }
 
@@ -308,7 +563,7 @@ public class RedisUtil {
      * Cache engagement statistics
      */
     public void cacheEngagementStats(String entityType, Integer entityId, Object statsData) {
-        String key = ENGAGEMENT_PREFIX + entityType + ":" + entityId;
+        String key = versionedKey(ENGAGEMENT_PREFIX + entityType + ":" + entityId);
         set(key, statsData, ENGAGEMENT_CACHE_TTL);
     }
 
@@ -316,71 +571,64 @@ public class RedisUtil {
      * Get cached engagement statistics
      */
     public Object getCachedEngagementStats(String entityType, Integer entityId) {
-        String key = ENGAGEMENT_PREFIX + entityType + ":" + entityId;
+        String key = versionedKey(ENGAGEMENT_PREFIX + entityType + ":" + entityId);
         return get(key);
     }
 
     // Cache invalidation methods
 
     /**
-     * Invalidate all comment-related caches
+     * Invalidate a comment and the comment lists of its chapter
      */
-    public void invalidateCommentCaches(Integer commentId) {
+    public void invalidateCommentCaches(Integer commentId, Integer chapterId) {
         deleteCommentCache(commentId);
-        
-        // Invalidate chapter comment caches
-        Set<String> commentKeys = keys(COMMENT_PREFIX + "chapter:*");
-        if (!commentKeys.isEmpty()) {
-            delete(commentKeys);
-        }
+        bumpGeneration(chapterCommentsNamespace(chapterId));
     }
 
     /**
-     * Invalidate all review-related caches
+     * Invalidate a review and the review lists of its novel
      */
-    public void invalidateReviewCaches(Integer reviewId) {
+    public void invalidateReviewCaches(Integer reviewId, Integer novelId) {
         deleteReviewCache(reviewId);
-        
-        // Invalidate novel review caches
-        Set<String> reviewKeys = keys(REVIEW_PREFIX + "novel:*");
-        if (!reviewKeys.isEmpty()) {
-            delete(reviewKeys);
-        }
+        bumpGeneration(novelReviewsNamespace(novelId));
     }
 
     /**
-     * Invalidate all vote-related caches
+     * Invalidate the vote lists of a novel and of the voting user
      */
-    public void invalidateVoteCaches(Integer novelId) {
-        Set<String> voteKeys = keys(VOTE_PREFIX + "novel:" + novelId);
-        if (!voteKeys.isEmpty()) {
-            delete(voteKeys);
-        }
-        
-        // Invalidate user vote caches
-        Set<String> userVoteKeys = keys(VOTE_PREFIX + "user:*");
-        if (!userVoteKeys.isEmpty()) {
-            delete(userVoteKeys);
-        }
+    public void invalidateVoteCaches(Integer novelId, String userId) {
+        bumpGeneration(VOTE_PREFIX + "novel:" + novelId);
+        bumpGeneration(VOTE_PREFIX + "user:" + userId);
     }
 
     /**
-     * Invalidate all engagement caches
+     * Invalidate the engagement statistics of one entity
      */
-    public void invalidateEngagementCaches() {
-        Set<String> engagementKeys = keys(ENGAGEMENT_PREFIX + "*");
-        if (!engagementKeys.isEmpty()) {
-            delete(engagementKeys);
-        }
+    public void invalidateEngagementCaches(String entityType, Integer entityId) {
+        bumpGeneration(ENGAGEMENT_PREFIX + entityType + ":" + entityId);
     }
 
     /**
-     * Clear all caches (use with caution)
+     * Clear all caches (use with caution). Walks each cache prefix with SCAN and unlinks the keys in
+     * batches, so Redis is never blocked; keys outside the cache prefixes are left alone.
      */
     public void clearAllCaches() {
-        Set<String> allKeys = keys("*");
-        if (!allKeys.isEmpty()) {
-            delete(allKeys);
+        ScanOptions.ScanOptionsBuilder options = ScanOptions.scanOptions().count(SCAN_BATCH_SIZE);
+        for (String prefix : CACHE_PREFIXES) {
+            List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+            try (Cursor<String> cursor = redisTemplate.scan(options.match(prefix + "*").build())) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() == SCAN_BATCH_SIZE) {
+                        redisTemplate.unlink(batch);
+                        batch = new ArrayList<>(SCAN_BATCH_SIZE);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                redisTemplate.unlink(batch);
+            }
         }
+        publishInvalidation(List.of(ALL_KEYS));
     }
 }
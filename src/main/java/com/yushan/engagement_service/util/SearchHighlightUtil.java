@@ -0,0 +1,37 @@
+package com.yushan.engagement_service.util;
+
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Turns full-text search snippets into safe HTML.
+ *
+ * The mappers ask ts_headline to wrap matched terms in STX/ETX control characters rather than
+ * HTML tags, because the snippet is user-written text. The snippet is HTML-escaped first and
+ * only then are the markers replaced with mark elements.
+ */
+public class SearchHighlightUtil {
+
+    public static final char MATCH_START = '\u0002';
+    public static final char MATCH_END = '\u0003';
+
+    private static final String MARK_OPEN = "<mark>";
+    private static final String MARK_CLOSE = "</mark>";
+
+    private SearchHighlightUtil() {
+    }
+
+    /**
+     * Convert a raw ts_headline snippet to escaped HTML with matches in mark elements
+     *
+     * @param snippet Snippet from the database, may be null
+     * @return HTML snippet, or null if there was no snippet
+     */
+    public static String toHtml(String snippet) {
+        if (snippet == null || snippet.isEmpty()) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(snippet)
+                .replace(String.valueOf(MATCH_START), MARK_OPEN)
+                .replace(String.valueOf(MATCH_END), MARK_CLOSE);
+    }
+}
@@ -0,0 +1,20 @@
+-- Per-novel vote counter maintained by vote writes
+-- Each novel's count is spread over a few slots: a vote adds 1 to a random slot in the same
+-- transaction as the vote insert, so concurrent votes on a popular novel rarely wait on the same
+-- row lock, and reading the count sums at most the configured number of slots instead of
+-- counting every vote row.
+
+CREATE TABLE IF NOT EXISTS novel_vote_counter (
+    novel_id INTEGER NOT NULL,
+    slot SMALLINT NOT NULL,
+    vote_count BIGINT NOT NULL DEFAULT 0,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (novel_id, slot)
+);
+
+-- Backfill from existing votes into slot 0
+INSERT INTO novel_vote_counter (novel_id, slot, vote_count)
+SELECT novel_id, 0, COUNT(*)
+FROM vote
+GROUP BY novel_id
+ON CONFLICT (novel_id, slot) DO NOTHING;
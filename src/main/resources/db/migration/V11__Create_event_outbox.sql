@@ -0,0 +1,12 @@
+-- Transactional outbox for Kafka events
+-- Events are inserted in the same transaction as the comment, review or vote that produced them, and a
+-- background relay publishes them in id order and deletes them. Relays on several instances claim
+-- disjoint batches with FOR UPDATE SKIP LOCKED.
+
+CREATE TABLE IF NOT EXISTS event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    event_key VARCHAR(255),
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,69 @@
+-- Partition processed_events by week of processed_at
+-- Retention drops whole weekly partitions, a metadata-only operation, instead of deleting rows;
+-- IdempotencyService creates partitions ahead of time and drops expired ones.
+-- A partitioned table's primary key must include processed_at, so idempotency_key alone is no
+-- longer unique. Claims go through claim_processed_events, which serializes claimers of a key with
+-- a transaction-scoped advisory lock and then looks the key up in every partition (one index probe
+-- per live partition).
+
+ALTER TABLE processed_events RENAME TO processed_events_legacy;
+ALTER TABLE processed_events_legacy RENAME CONSTRAINT processed_events_pkey TO processed_events_legacy_pkey;
+DROP INDEX IF EXISTS idx_processed_events_processed_at;
+DROP INDEX IF EXISTS idx_processed_events_event_type_service;
+
+CREATE TABLE processed_events (
+    idempotency_key VARCHAR(255) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    service_name VARCHAR(50) NOT NULL,
+    processed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    event_data TEXT,
+    PRIMARY KEY (idempotency_key, processed_at)
+) PARTITION BY RANGE (processed_at);
+
+CREATE INDEX IF NOT EXISTS idx_processed_events_event_type_service ON processed_events (event_type, service_name);
+
+-- Weekly partitions (Monday to Monday) from two weeks back to four weeks ahead
+DO $$
+DECLARE
+    week_start DATE := date_trunc('week', CURRENT_DATE - 14)::date;
+BEGIN
+    WHILE week_start <= CURRENT_DATE + 28 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF processed_events FOR VALUES FROM (%L) TO (%L)',
+                'processed_events_p' || to_char(week_start, 'YYYYMMDD'), week_start, week_start + 7);
+        week_start := week_start + 7;
+    END LOOP;
+END $$;
+
+-- Keep the records still within the default retention
+INSERT INTO processed_events (idempotency_key, event_type, service_name, processed_at, event_data)
+SELECT idempotency_key, event_type, service_name, processed_at, event_data
+FROM processed_events_legacy
+WHERE processed_at >= date_trunc('week', CURRENT_DATE - 14)::date
+  AND processed_at < date_trunc('week', CURRENT_DATE + 28)::date + 7;
+
+DROP TABLE processed_events_legacy;
+
+-- Claim idempotency keys: insert the keys no partition has yet and return them.
+-- Keys are locked in sorted order so concurrent batches cannot deadlock; each statement of this
+-- volatile function takes a new snapshot, so a claim committed while waiting for the lock is seen.
+CREATE OR REPLACE FUNCTION claim_processed_events(
+    p_keys TEXT[],
+    p_event_type TEXT,
+    p_service_name TEXT,
+    p_processed_at TIMESTAMP,
+    p_event_data TEXT
+) RETURNS SETOF TEXT
+LANGUAGE plpgsql VOLATILE AS $$
+DECLARE
+    claim_key TEXT;
+BEGIN
+    FOR claim_key IN SELECT DISTINCT k FROM unnest(p_keys) AS k ORDER BY k LOOP
+        -- 1885: lock class reserved for processed_events claims
+        PERFORM pg_advisory_xact_lock(1885, hashtext(claim_key));
+        IF NOT EXISTS (SELECT 1 FROM processed_events WHERE idempotency_key = claim_key) THEN
+            INSERT INTO processed_events (idempotency_key, event_type, service_name, processed_at, event_data)
+            VALUES (claim_key, p_event_type, p_service_name, p_processed_at, p_event_data);
+            RETURN NEXT claim_key;
+        END IF;
+    END LOOP;
+END $$;
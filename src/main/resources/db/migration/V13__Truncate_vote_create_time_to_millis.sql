@@ -0,0 +1,11 @@
+-- Vote timestamps used to be written by NOW(), with microsecond precision, while the keyset cursor
+-- of a user's votes (VoteMapper.selectByUserIdAfter) carries java.util.Date milliseconds. Seeking
+-- from a truncated cursor skipped every row of the same millisecond with a later microsecond.
+-- Votes are now timestamped in Java like comments and reviews; bring existing rows and the column
+-- default to the same precision.
+
+UPDATE vote
+SET create_time = date_trunc('milliseconds', create_time)
+WHERE create_time <> date_trunc('milliseconds', create_time);
+
+ALTER TABLE vote ALTER COLUMN create_time SET DEFAULT date_trunc('milliseconds', CURRENT_TIMESTAMP);
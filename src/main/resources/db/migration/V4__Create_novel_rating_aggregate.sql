@@ -0,0 +1,32 @@
+-- Per-novel rating aggregate maintained incrementally by review writes
+-- Holds the rating sum, review count and per-star histogram so that rating updates
+-- do not need to scan every review of a novel
+
+CREATE TABLE IF NOT EXISTS novel_rating_aggregate (
+    novel_id INTEGER PRIMARY KEY,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    review_count INTEGER NOT NULL DEFAULT 0,
+    rating1_count INTEGER NOT NULL DEFAULT 0,
+    rating2_count INTEGER NOT NULL DEFAULT 0,
+    rating3_count INTEGER NOT NULL DEFAULT 0,
+    rating4_count INTEGER NOT NULL DEFAULT 0,
+    rating5_count INTEGER NOT NULL DEFAULT 0,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Backfill from existing reviews
+INSERT INTO novel_rating_aggregate (
+    novel_id, rating_sum, review_count,
+    rating1_count, rating2_count, rating3_count, rating4_count, rating5_count
+)
+SELECT novel_id,
+       SUM(rating),
+       COUNT(*),
+       COUNT(*) FILTER (WHERE rating = 1),
+       COUNT(*) FILTER (WHERE rating = 2),
+       COUNT(*) FILTER (WHERE rating = 3),
+       COUNT(*) FILTER (WHERE rating = 4),
+       COUNT(*) FILTER (WHERE rating = 5)
+FROM review
+GROUP BY novel_id
+ON CONFLICT (novel_id) DO NOTHING;
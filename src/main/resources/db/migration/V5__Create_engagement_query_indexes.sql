@@ -0,0 +1,66 @@
+-- Secondary indexes for the comment, review, vote and report queries in the MyBatis mappers
+-- Built CONCURRENTLY so that applying the migration on a live database does not block writes.
+-- CREATE INDEX CONCURRENTLY cannot run inside a transaction; see the matching .sql.conf file.
+-- Listing indexes end in id because every paginated query orders by (sort key, id) and the
+-- keyset cursors seek on that pair.
+
+-- Comment: chapter listings sorted by time or likes (CommentMapper.selectCommentsWithPagination,
+-- selectCommentsByNovel*, selectByChapterId, countByChapterId, countCommentsByNovel)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comment_chapter_create_time
+    ON comment (chapter_id, create_time, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comment_chapter_like_cnt
+    ON comment (chapter_id, like_cnt, id);
+
+-- Comment: per-user history, counts and duplicate checks (selectByUserId, countCommentsByUser,
+-- existsByUserAndChapter, user filter of selectCommentsWithPagination)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comment_user_create_time
+    ON comment (user_id, create_time, id);
+
+-- Comment: unfiltered admin listing and recent-activity counts
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comment_create_time
+    ON comment (create_time, id);
+
+-- Review: novel listings sorted by time, likes or rating (ReviewMapper.selectReviewsWithPagination,
+-- countReviews, selectByNovelId). The rating index also covers the rating filter and the
+-- per-novel rating aggregate rebuild. Lookups by user are served by unique_user_novel_review.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_review_novel_create_time
+    ON review (novel_id, create_time, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_review_novel_like_cnt
+    ON review (novel_id, like_cnt, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_review_novel_rating
+    ON review (novel_id, rating, id);
+
+-- Review: unfiltered listing and lookups by public UUID
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_review_create_time
+    ON review (create_time, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_review_uuid
+    ON review (uuid);
+
+-- Vote: per-user history and counts (VoteMapper.selectByUserId*, countByUserId, selectByUserAndNovel)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vote_user_create_time
+    ON vote (user_id, create_time, id);
+
+-- Vote: per-novel counts, answered by an index-only scan (countByNovelId)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vote_novel_id
+    ON vote (novel_id);
+
+-- Report: reports against a novel or comment (ReportMapper.selectReportsByNovelId,
+-- selectReportsByCommentId)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_report_content_created_at
+    ON report (content_type, content_id, created_at);
+
+-- Report: reporter history and the duplicate-report check (selectReportsByReporterId,
+-- existsReportByUserAndContent)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_report_reporter_content
+    ON report (reporter_id, content_type, content_id);
+
+-- Report: admin queue filtered by status or listed by creation time (selectReportsWithPagination,
+-- countReports)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_report_status_created_at
+    ON report (status, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_report_created_at
+    ON report (created_at, id);
+
+-- Report: lookups by public UUID
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_report_uuid
+    ON report (uuid);
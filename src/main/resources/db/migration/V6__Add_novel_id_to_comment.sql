@@ -0,0 +1,19 @@
+-- Denormalize novel_id onto comment so novel-wide listings filter on one indexed column instead of
+-- an IN-list of every chapter ID fetched from content-service.
+-- The column starts out nullable: chapter-to-novel mapping lives in content-service, so existing
+-- rows are backfilled in batches by CommentNovelBackfillService after deploy. New comments are
+-- written with novel_id set.
+-- Runs outside a transaction (see the matching .sql.conf) so the indexes can be built CONCURRENTLY.
+
+-- Nullable column without a default: metadata-only change, no table rewrite
+ALTER TABLE comment ADD COLUMN IF NOT EXISTS novel_id INTEGER;
+
+-- Novel listings sorted by time or likes (CommentMapper.selectCommentsByNovel*, countCommentsByNovel)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comment_novel_create_time
+    ON comment (novel_id, create_time, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comment_novel_like_cnt
+    ON comment (novel_id, like_cnt, id);
+
+-- Backfill scan: chapters whose comments still have no novel_id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comment_backfill_chapter
+    ON comment (chapter_id) WHERE novel_id IS NULL;
@@ -0,0 +1,22 @@
+-- Full-text search over comment content and review title/content
+-- Replaces the content LIKE '%term%' filters, which scan the whole table on every search, with
+-- generated tsvector columns backed by GIN indexes. Queries must use the same 'english' text search
+-- configuration (see the Search_Query fragments in CommentMapper.xml and ReviewMapper.xml).
+-- Adding a STORED generated column rewrites the table once under an exclusive lock; run this
+-- migration in a maintenance window on large tables. The GIN indexes are then built CONCURRENTLY,
+-- which is why the script runs outside a transaction (see the matching .sql.conf).
+
+ALTER TABLE comment ADD COLUMN IF NOT EXISTS content_tsv tsvector
+    GENERATED ALWAYS AS (to_tsvector('english', coalesce(content, ''))) STORED;
+
+-- Title matches rank above content matches
+ALTER TABLE review ADD COLUMN IF NOT EXISTS search_tsv tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(content, '')), 'B')
+    ) STORED;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comment_content_tsv
+    ON comment USING GIN (content_tsv);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_review_search_tsv
+    ON review USING GIN (search_tsv);
@@ -0,0 +1,11 @@
+-- Checkpoint of the write-behind like counter journal
+-- Each service instance journals buffered like deltas to numbered local segment files and, in the
+-- same transaction that adds a flushed segment's deltas to comment/review like_cnt, records the
+-- segment number here. On restart only segments after the checkpoint are replayed, so a delta is
+-- applied exactly once even if the instance crashes between the database commit and deleting the file.
+
+CREATE TABLE IF NOT EXISTS like_counter_checkpoint (
+    journal_id VARCHAR(64) PRIMARY KEY,
+    flushed_segment BIGINT NOT NULL,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
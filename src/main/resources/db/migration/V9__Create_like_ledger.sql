@@ -0,0 +1,22 @@
+-- Per-user like ledger for comments and reviews
+-- One row per (target, user) makes like/unlike idempotent: a repeated like inserts nothing and
+-- does not change like_cnt. The (user_id, target) index serves "which of these did the viewer like"
+-- lookups and loading a viewer's likes into the Redis membership cache.
+
+CREATE TABLE IF NOT EXISTS comment_like (
+    comment_id INTEGER NOT NULL REFERENCES comment(id) ON DELETE CASCADE,
+    user_id UUID NOT NULL,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (comment_id, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_comment_like_user ON comment_like (user_id, comment_id);
+
+CREATE TABLE IF NOT EXISTS review_like (
+    review_id INTEGER NOT NULL REFERENCES review(id) ON DELETE CASCADE,
+    user_id UUID NOT NULL,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (review_id, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_review_like_user ON review_like (user_id, review_id);
@@ -0,0 +1,150 @@
+package com.yushan.engagement_service.cache;
+
+import com.yushan.engagement_service.client.ContentServiceClient;
+import com.yushan.engagement_service.dto.chapter.ChapterDetailResponseDTO;
+import com.yushan.engagement_service.dto.common.ApiResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChapterMetadataCacheTest {
+
+    @Mock
+    private ContentServiceClient contentServiceClient;
+
+    @InjectMocks
+    private ChapterMetadataCache chapterMetadataCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(chapterMetadataCache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(chapterMetadataCache, "ttlSeconds", 600L);
+        ReflectionTestUtils.setField(chapterMetadataCache, "negativeTtlSeconds", 30L);
+        chapterMetadataCache.init();
+    }
+
+    @Test
+    void getChapter_ShouldLoadOnceAndServeFromCache() {
+        when(contentServiceClient.getChaptersBatch(List.of(1))).thenReturn(ApiResponse.success(List.of(chapter(1, 10))));
+
+        ChapterMetadata first = chapterMetadataCache.getChapter(1);
+        ChapterMetadata second = chapterMetadataCache.getChapter(1);
+
+        assertNotNull(first);
+        assertEquals("Chapter 1", first.title());
+        assertEquals(10, first.novelId());
+        assertTrue(first.valid());
+        assertSame(first, second);
+        verify(contentServiceClient, times(1)).getChaptersBatch(anyList());
+    }
+
+    @Test
+    void chapterExists_WithUnknownChapter_ShouldCacheNegativeResult() {
+        when(contentServiceClient.getChaptersBatch(List.of(999))).thenReturn(ApiResponse.success(Collections.emptyList()));
+
+        assertFalse(chapterMetadataCache.chapterExists(999));
+        assertFalse(chapterMetadataCache.chapterExists(999));
+        assertNull(chapterMetadataCache.getChapter(999));
+
+        verify(contentServiceClient, times(1)).getChaptersBatch(anyList());
+    }
+
+    @Test
+    void chapterExists_WithInvalidChapter_ShouldReturnFalse() {
+        ChapterDetailResponseDTO invalid = chapter(2, 10);
+        invalid.setIsValid(false);
+        when(contentServiceClient.getChaptersBatch(List.of(2))).thenReturn(ApiResponse.success(List.of(invalid)));
+
+        assertFalse(chapterMetadataCache.chapterExists(2));
+        assertNotNull(chapterMetadataCache.getChapter(2));
+    }
+
+    @Test
+    void getChapter_WhenContentServiceUnavailable_ShouldNotCacheFailure() {
+        when(contentServiceClient.getChaptersBatch(List.of(1)))
+                .thenReturn(ApiResponse.error(503, "Content service temporarily unavailable", Collections.emptyList()))
+                .thenReturn(ApiResponse.success(List.of(chapter(1, 10))));
+
+        assertNull(chapterMetadataCache.getChapter(1));
+        assertNotNull(chapterMetadataCache.getChapter(1));
+
+        verify(contentServiceClient, times(2)).getChaptersBatch(anyList());
+    }
+
+    @Test
+    void getChapters_ShouldLoadAllMissesInOneBatch() {
+        when(contentServiceClient.getChaptersBatch(List.of(1))).thenReturn(ApiResponse.success(List.of(chapter(1, 10))));
+        chapterMetadataCache.getChapter(1);
+        when(contentServiceClient.getChaptersBatch(anyList())).thenAnswer(invocation -> {
+            List<Integer> ids = invocation.getArgument(0);
+            List<ChapterDetailResponseDTO> chapters = new ArrayList<>();
+            for (Integer id : ids) {
+                if (id != 3) {
+                    chapters.add(chapter(id, 10));
+                }
+            }
+            return ApiResponse.success(chapters);
+        });
+
+        Map<Integer, ChapterMetadata> result = chapterMetadataCache.getChapters(Arrays.asList(1, 2, 3, 2, null));
+
+        assertEquals(2, result.size());
+        assertEquals("Chapter 1", result.get(1).title());
+        assertEquals("Chapter 2", result.get(2).title());
+        assertFalse(result.containsKey(3));
+        verify(contentServiceClient, times(2)).getChaptersBatch(anyList());
+    }
+
+    @Test
+    void repeatedRequests_ShouldCollapseContentServiceCalls() {
+        when(contentServiceClient.getChaptersBatch(anyList())).thenAnswer(invocation -> {
+            List<Integer> ids = invocation.getArgument(0);
+            List<ChapterDetailResponseDTO> chapters = new ArrayList<>();
+            for (Integer id : ids) {
+                if (id <= 20) {
+                    chapters.add(chapter(id, 10));
+                }
+            }
+            return ApiResponse.success(chapters);
+        });
+
+        // 200 requests, each checking one chapter and rendering a page spanning 20 chapters;
+        // every tenth request probes a chapter that does not exist.
+        List<Integer> pageChapterIds = new ArrayList<>();
+        for (int id = 1; id <= 20; id++) {
+            pageChapterIds.add(id);
+        }
+        for (int request = 0; request < 200; request++) {
+            int chapterId = request % 10 == 0 ? 404 : (request % 20) + 1;
+            chapterMetadataCache.chapterExists(chapterId);
+            chapterMetadataCache.getChapters(pageChapterIds);
+        }
+
+        // Without the cache this workload makes 200 single lookups plus 200 x 20 per-row lookups
+        verify(contentServiceClient, atMost(3)).getChaptersBatch(anyList());
+    }
+
+    private ChapterDetailResponseDTO chapter(Integer id, Integer novelId) {
+        ChapterDetailResponseDTO chapter = new ChapterDetailResponseDTO();
+        chapter.setId(id);
+        chapter.setNovelId(novelId);
+        chapter.setTitle("Chapter " + id);
+        chapter.setIsValid(true);
+        return chapter;
+    }
+}
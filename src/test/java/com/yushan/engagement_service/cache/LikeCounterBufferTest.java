@@ -0,0 +1,185 @@
+package com.yushan.engagement_service.cache;
+
+import com.yushan.engagement_service.entity.LikeCountDelta;
+import com.yushan.engagement_service.enums.LikeTargetType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LikeCounterBufferTest {
+
+    @TempDir
+    Path journalDir;
+
+    private LikeCounterJournal journal;
+    private LikeCounterBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        journal = new LikeCounterJournal(journalDir, false);
+        buffer = new LikeCounterBuffer(journal, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.close();
+    }
+
+    @Test
+    void add_ShouldAccumulatePerTargetAndType() {
+        buffer.add(LikeTargetType.COMMENT, 1, 1);
+        buffer.add(LikeTargetType.COMMENT, 1, 1);
+        buffer.add(LikeTargetType.COMMENT, 2, -1);
+        buffer.add(LikeTargetType.REVIEW, 1, 1);
+
+        assertEquals(2, buffer.pending(LikeTargetType.COMMENT, 1));
+        assertEquals(-1, buffer.pending(LikeTargetType.COMMENT, 2));
+        assertEquals(1, buffer.pending(LikeTargetType.REVIEW, 1));
+        assertEquals(0, buffer.pending(LikeTargetType.REVIEW, 2));
+        assertEquals(3, buffer.size());
+    }
+
+    @Test
+    void rotate_ShouldDrainNonZeroDeltasSortedByIdAndOpenNextSegment() {
+        buffer.add(LikeTargetType.COMMENT, 7, 1);
+        buffer.add(LikeTargetType.COMMENT, 3, 1);
+        buffer.add(LikeTargetType.COMMENT, 5, 1);
+        buffer.add(LikeTargetType.COMMENT, 5, -1);
+
+        LikeCounterBuffer.Batch batch = buffer.rotate();
+
+        assertEquals(1, batch.segment());
+        List<LikeCountDelta> comments = batch.deltas().get(LikeTargetType.COMMENT);
+        assertEquals(List.of(3, 7), comments.stream().map(LikeCountDelta::getId).toList());
+        assertTrue(batch.deltas().get(LikeTargetType.REVIEW).isEmpty());
+        assertEquals(2, buffer.currentSegment());
+        assertEquals(List.of(1L, 2L), journal.segments());
+    }
+
+    @Test
+    void pending_WhileBatchIsFlushing_ShouldStillCountIt() {
+        buffer.add(LikeTargetType.COMMENT, 1, 1);
+        LikeCounterBuffer.Batch batch = buffer.rotate();
+        buffer.add(LikeTargetType.COMMENT, 1, 1);
+
+        assertEquals(2, buffer.pending(LikeTargetType.COMMENT, 1));
+
+        buffer.complete(batch);
+        assertEquals(1, buffer.pending(LikeTargetType.COMMENT, 1));
+    }
+
+    @Test
+    void rotate_AfterFailedFlush_ShouldDrainTheUncommittedBatchAgain() {
+        buffer.add(LikeTargetType.REVIEW, 4, 1);
+        buffer.rotate();
+        // The flush failed: the batch was never completed
+        buffer.add(LikeTargetType.REVIEW, 4, 1);
+
+        assertEquals(2, buffer.pending(LikeTargetType.REVIEW, 4));
+        assertEquals(2, buffer.size());
+        LikeCounterBuffer.Batch retry = buffer.rotate();
+        assertEquals(2L, retry.deltas().get(LikeTargetType.REVIEW).get(0).getDelta());
+        assertEquals(2, retry.segment());
+
+        buffer.complete(retry);
+        assertEquals(0, buffer.pending(LikeTargetType.REVIEW, 4));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void pending_DuringRotations_ShouldNeverCountAGenerationTwiceOrMissIt() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            buffer.add(LikeTargetType.COMMENT, 1, 1);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                seen.add(buffer.pending(LikeTargetType.COMMENT, 1));
+            }
+        });
+        reader.start();
+        try {
+            // Never completed, so every rotation keeps the same 100 likes pending
+            for (int i = 0; i < 500; i++) {
+                buffer.rotate();
+            }
+        } finally {
+            running.set(false);
+            reader.join();
+        }
+
+        assertEquals(Set.of(100L), seen);
+    }
+
+    @Test
+    void complete_ShouldStopCountingTheBatchAtOnce() {
+        // Reads add pending() to the stored count; once the batch is committed the stored count
+        // includes it, so it must leave pending() in the same call
+        buffer.add(LikeTargetType.COMMENT, 1, 1);
+        LikeCounterBuffer.Batch batch = buffer.rotate();
+        buffer.add(LikeTargetType.COMMENT, 1, 1);
+        long storedAfterCommit = 1;
+
+        assertEquals(3, storedAfterCommit + buffer.pending(LikeTargetType.COMMENT, 1),
+                "between the commit and complete() the batch is counted twice");
+        buffer.complete(batch);
+        assertEquals(2, storedAfterCommit + buffer.pending(LikeTargetType.COMMENT, 1));
+    }
+
+    @Test
+    void journal_ShouldReplayEveryAppendedDelta() {
+        buffer.add(LikeTargetType.COMMENT, 1, 1);
+        buffer.add(LikeTargetType.COMMENT, 1, 1);
+        buffer.add(LikeTargetType.REVIEW, 9, -1);
+        buffer.rotate();
+
+        Map<String, Integer> replayed = replay(1);
+
+        assertEquals(Map.of("COMMENT:1", 2, "REVIEW:9", -1), replayed);
+    }
+
+    @Test
+    void journal_WithTruncatedTailRecord_ShouldIgnoreIt() throws IOException {
+        buffer.add(LikeTargetType.COMMENT, 1, 1);
+        buffer.rotate();
+        // A crash in the middle of a write leaves part of a record behind
+        Files.write(journalDir.resolve("segment-1.log"), new byte[]{1, 0, 0},
+                StandardOpenOption.APPEND);
+
+        assertEquals(Map.of("COMMENT:1", 1), replay(1));
+    }
+
+    @Test
+    void journal_ShouldKeepItsIdAcrossReopenAndDeleteFlushedSegments() {
+        buffer.add(LikeTargetType.COMMENT, 1, 1);
+        buffer.rotate();
+        buffer.rotate();
+
+        LikeCounterJournal reopened = new LikeCounterJournal(journalDir, false);
+        assertEquals(journal.getJournalId(), reopened.getJournalId());
+
+        reopened.deleteUpTo(2);
+        assertEquals(List.of(3L), reopened.segments());
+    }
+
+    private Map<String, Integer> replay(long segment) {
+        Map<String, Integer> replayed = new HashMap<>();
+        journal.replay(segment, (type, id, delta) -> replayed.merge(type + ":" + id, delta, Integer::sum));
+        return replayed;
+    }
+}
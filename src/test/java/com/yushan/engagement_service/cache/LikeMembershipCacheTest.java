@@ -0,0 +1,182 @@
+package com.yushan.engagement_service.cache;
+
+import com.yushan.engagement_service.enums.LikeTargetType;
+import com.yushan.engagement_service.repository.LikeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LikeMembershipCacheTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private SetOperations<String, Object> setOperations;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @InjectMocks
+    private LikeMembershipCache likeMembershipCache;
+
+    private UUID userId;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(likeMembershipCache, "ttlSeconds", 1800L);
+        ReflectionTestUtils.setField(likeMembershipCache, "maxSetSize", 3);
+        userId = UUID.randomUUID();
+        key = "like:member:comment:{" + userId + "}";
+    }
+
+    @Test
+    void likedAmong_WithLoadedSet_ShouldAnswerPageWithOneRedisCall() {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.isMember(key, 0, -1, 1, 2, 3)).thenReturn(membership(true, false, false, true, false));
+
+        Set<Integer> liked = likeMembershipCache.likedAmong(LikeTargetType.COMMENT, userId, List.of(1, 2, 3));
+
+        assertEquals(Set.of(2), liked);
+        verify(setOperations, times(1)).isMember(eq(key), any(Object[].class));
+        verifyNoInteractions(likeRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void likedAmong_WithMissingSet_ShouldLoadLedgerOnceIntoRedis() {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(setOperations.isMember(key, 0, -1, 1, 2)).thenReturn(membership(false, false, false, false));
+        when(valueOperations.get(key + ":ver")).thenReturn(3);
+        when(likeRepository.findLikedIds(LikeTargetType.COMMENT, userId, 4)).thenReturn(List.of(1, 7));
+
+        Set<Integer> liked = likeMembershipCache.likedAmong(LikeTargetType.COMMENT, userId, List.of(1, 2));
+
+        assertEquals(Set.of(1), liked);
+        String loadKey = loadKey();
+        verify(setOperations).add(loadKey, 0, 1, 7);
+        verify(redisTemplate).expire(loadKey, Duration.ofMinutes(1));
+        // Moved into place only if no like write bumped the version past 3
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(key, key + ":ver", loadKey)),
+                eq(3L), eq(1_800_000L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void likedAmong_WithTooManyLikesToCache_ShouldCacheOversizeMarkerAndQueryLedgerForPage() {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(setOperations.isMember(key, 0, -1, 1)).thenReturn(membership(false, false, false));
+        when(likeRepository.findLikedIds(LikeTargetType.COMMENT, userId, 4)).thenReturn(List.of(1, 2, 3, 4));
+        when(likeRepository.findLikedAmong(LikeTargetType.COMMENT, userId, List.of(1))).thenReturn(List.of(1));
+
+        assertEquals(Set.of(1), likeMembershipCache.likedAmong(LikeTargetType.COMMENT, userId, List.of(1)));
+        String loadKey = loadKey();
+        verify(setOperations).add(loadKey, -1);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(key, key + ":ver", loadKey)),
+                eq(0L), eq(1_800_000L));
+    }
+
+    @Test
+    void likedAmong_WithOversizeMarker_ShouldGoStraightToTheLedger() {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.isMember(key, 0, -1, 1)).thenReturn(membership(false, true, false));
+        when(likeRepository.findLikedAmong(LikeTargetType.COMMENT, userId, List.of(1))).thenReturn(List.of(1));
+
+        assertEquals(Set.of(1), likeMembershipCache.likedAmong(LikeTargetType.COMMENT, userId, List.of(1)));
+        verify(likeRepository, never()).findLikedIds(any(), any(), anyInt());
+        verify(setOperations, never()).add(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void likedAmong_WhenRedisUnavailable_ShouldFallBackToLedger() {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.isMember(eq(key), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        when(likeRepository.findLikedAmong(LikeTargetType.COMMENT, userId, List.of(5, 6))).thenReturn(List.of(6));
+
+        assertEquals(Set.of(6), likeMembershipCache.likedAmong(LikeTargetType.COMMENT, userId, List.of(5, 6, 5)));
+    }
+
+    @Test
+    void likedAmong_WithoutViewer_ShouldNotLookUp() {
+        assertTrue(likeMembershipCache.likedAmong(LikeTargetType.COMMENT, null, List.of(1)).isEmpty());
+        assertTrue(likeMembershipCache.likedAmong(LikeTargetType.COMMENT, userId, Collections.emptyList()).isEmpty());
+        verifyNoInteractions(redisTemplate, likeRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordLike_ShouldOnlyAddToLoadedSet() {
+        likeMembershipCache.recordLike(LikeTargetType.COMMENT, userId, 9);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(key, key + ":ver")), eq(9), eq(3_600_000L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordLike_WhenRedisFails_ShouldEvictSet() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        likeMembershipCache.recordLike(LikeTargetType.COMMENT, userId, 9);
+
+        verify(redisTemplate).delete(key);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordUnlike_ShouldRemoveFromSetAndBumpVersion() {
+        String reviewKey = "like:member:review:{" + userId + "}";
+
+        likeMembershipCache.recordUnlike(LikeTargetType.REVIEW, userId, 4);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(reviewKey, reviewKey + ":ver")),
+                eq(4), eq(3_600_000L));
+    }
+
+    private String loadKey() {
+        ArgumentCaptor<String> loadKey = ArgumentCaptor.forClass(String.class);
+        verify(setOperations).add(loadKey.capture(), any(Object[].class));
+        assertTrue(loadKey.getValue().startsWith(key + ":load:"));
+        return loadKey.getValue();
+    }
+
+    private static Map<Object, Boolean> membership(boolean loaded, boolean oversize, Boolean... members) {
+        Map<Object, Boolean> result = new LinkedHashMap<>();
+        result.put(0, loaded);
+        result.put(-1, oversize);
+        for (int i = 0; i < members.length; i++) {
+            result.put(i + 1, members[i]);
+        }
+        return result;
+    }
+}
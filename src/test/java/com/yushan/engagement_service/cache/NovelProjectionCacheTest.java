@@ -0,0 +1,153 @@
+package com.yushan.engagement_service.cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.yushan.engagement_service.client.ContentServiceClient;
+import com.yushan.engagement_service.dto.common.ApiResponse;
+import com.yushan.engagement_service.dto.novel.NovelDetailResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NovelProjectionCacheTest {
+
+    @Mock
+    private ContentServiceClient contentServiceClient;
+
+    @InjectMocks
+    private NovelProjectionCache novelProjectionCache;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private UUID authorId;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(novelProjectionCache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(novelProjectionCache, "refreshSeconds", 120L);
+        ReflectionTestUtils.setField(novelProjectionCache, "ttlSeconds", 600L);
+        ReflectionTestUtils.setField(novelProjectionCache, "ticker", (Ticker) nanos::get);
+        novelProjectionCache.init();
+        authorId = UUID.randomUUID();
+    }
+
+    @Test
+    void getNovel_ShouldLoadOnceAndServeFromCache() {
+        when(contentServiceClient.getNovelsBatch(List.of(1))).thenReturn(ApiResponse.success(List.of(novel(1, "Novel 1"))));
+
+        NovelProjection first = novelProjectionCache.getNovel(1);
+        NovelProjection second = novelProjectionCache.getNovel(1);
+
+        assertNotNull(first);
+        assertEquals("Novel 1", first.title());
+        assertEquals(authorId, first.authorId());
+        assertEquals("PUBLISHED", first.status());
+        assertSame(first, second);
+        verify(contentServiceClient, times(1)).getNovelsBatch(anyList());
+        verify(contentServiceClient, never()).getNovelById(anyInt());
+    }
+
+    @Test
+    void getNovel_WithUnknownNovel_ShouldReturnNull() {
+        when(contentServiceClient.getNovelsBatch(List.of(999))).thenReturn(ApiResponse.success(Collections.emptyList()));
+
+        assertNull(novelProjectionCache.getNovel(999));
+    }
+
+    @Test
+    void getNovel_WhenContentServiceUnavailable_ShouldNotCacheFailure() {
+        when(contentServiceClient.getNovelsBatch(List.of(1)))
+                .thenReturn(ApiResponse.error(503, "Content service temporarily unavailable", Collections.emptyList()))
+                .thenReturn(ApiResponse.success(List.of(novel(1, "Novel 1"))));
+
+        assertNull(novelProjectionCache.getNovel(1));
+        assertNotNull(novelProjectionCache.getNovel(1));
+
+        verify(contentServiceClient, times(2)).getNovelsBatch(anyList());
+    }
+
+    @Test
+    void getNovels_ShouldLoadAllMissesInOneBatch() {
+        when(contentServiceClient.getNovelsBatch(anyList())).thenAnswer(invocation -> {
+            List<Integer> ids = invocation.getArgument(0);
+            List<NovelDetailResponseDTO> novels = new ArrayList<>();
+            for (Integer id : ids) {
+                if (id != 3) {
+                    novels.add(novel(id, "Novel " + id));
+                }
+            }
+            return ApiResponse.success(novels);
+        });
+
+        Map<Integer, NovelProjection> result = novelProjectionCache.getNovels(Arrays.asList(1, 2, 3, 2, null));
+
+        assertEquals(2, result.size());
+        assertEquals("Novel 1", result.get(1).title());
+        assertEquals("Novel 2", result.get(2).title());
+        assertFalse(result.containsKey(3));
+        verify(contentServiceClient, times(1)).getNovelsBatch(anyList());
+    }
+
+    @Test
+    void getNovel_AfterRefreshInterval_ShouldServeCurrentValueAndRefreshInBackground() {
+        when(contentServiceClient.getNovelsBatch(List.of(1)))
+                .thenReturn(ApiResponse.success(List.of(novel(1, "Old title"))))
+                .thenReturn(ApiResponse.success(List.of(novel(1, "New title"))));
+        assertEquals("Old title", novelProjectionCache.getNovel(1).title());
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(121));
+
+        // The read that triggers the refresh is served from the cache instead of waiting for a miss
+        assertNotNull(novelProjectionCache.getNovel(1));
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> "New title".equals(novelProjectionCache.getNovel(1).title()));
+        verify(contentServiceClient, times(2)).getNovelsBatch(anyList());
+    }
+
+    @Test
+    void repeatedVoteChecks_ShouldCollapseContentServiceCalls() {
+        when(contentServiceClient.getNovelsBatch(anyList())).thenAnswer(invocation -> {
+            List<Integer> ids = invocation.getArgument(0);
+            List<NovelDetailResponseDTO> novels = new ArrayList<>();
+            for (Integer id : ids) {
+                novels.add(novel(id, "Novel " + id));
+            }
+            return ApiResponse.success(novels);
+        });
+
+        // 500 votes spread over 10 hot novels; each vote used to call getNovelById twice
+        for (int vote = 0; vote < 500; vote++) {
+            novelProjectionCache.getNovel(vote % 10 + 1);
+            novelProjectionCache.getNovel(vote % 10 + 1);
+        }
+
+        verify(contentServiceClient, times(10)).getNovelsBatch(anyList());
+    }
+
+    private NovelDetailResponseDTO novel(Integer id, String title) {
+        NovelDetailResponseDTO novel = new NovelDetailResponseDTO();
+        novel.setId(id);
+        novel.setTitle(title);
+        novel.setAuthorId(authorId);
+        novel.setStatus("PUBLISHED");
+        return novel;
+    }
+}
@@ -0,0 +1,145 @@
+package com.yushan.engagement_service.cache;
+
+import com.yushan.engagement_service.entity.NovelRatingAggregate;
+import com.yushan.engagement_service.repository.NovelRatingAggregateRepository;
+import com.yushan.engagement_service.util.RedisUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NovelRatingAggregateCacheTest {
+
+    @Mock
+    private NovelRatingAggregateRepository novelRatingAggregateRepository;
+
+    @Mock
+    private RedisUtil redisUtil;
+
+    @InjectMocks
+    private NovelRatingAggregateCache novelRatingAggregateCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(novelRatingAggregateCache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(novelRatingAggregateCache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(novelRatingAggregateCache, "broadcastInvalidations", true);
+        novelRatingAggregateCache.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndServeFromCache() {
+        when(novelRatingAggregateRepository.findByNovelId(1)).thenReturn(NovelRatingAggregate.empty(1));
+
+        NovelRatingAggregate first = novelRatingAggregateCache.get(1);
+        NovelRatingAggregate second = novelRatingAggregateCache.get(1);
+
+        assertSame(first, second);
+        verify(novelRatingAggregateRepository, times(1)).findByNovelId(1);
+    }
+
+    @Test
+    void invalidate_ShouldReloadOnNextRead() {
+        when(novelRatingAggregateRepository.findByNovelId(1)).thenReturn(NovelRatingAggregate.empty(1));
+        novelRatingAggregateCache.get(1);
+
+        novelRatingAggregateCache.invalidate(1);
+        novelRatingAggregateCache.get(1);
+
+        verify(novelRatingAggregateRepository, times(2)).findByNovelId(1);
+    }
+
+    @Test
+    void invalidate_InsideTransaction_ShouldDropEntryCachedBeforeCommit() {
+        NovelRatingAggregate stale = NovelRatingAggregate.empty(1);
+        NovelRatingAggregate committed = NovelRatingAggregate.empty(1);
+        committed.setReviewCount(1);
+        when(novelRatingAggregateRepository.findByNovelId(1)).thenReturn(stale).thenReturn(committed);
+
+        TransactionSynchronizationManager.initSynchronization();
+        novelRatingAggregateCache.invalidate(1);
+        // A concurrent reader caches the pre-commit row between the write and the commit
+        assertSame(stale, novelRatingAggregateCache.get(1));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        assertSame(committed, novelRatingAggregateCache.get(1));
+    }
+
+    @Test
+    void invalidate_InsideTransaction_ShouldTellOtherReplicasOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        novelRatingAggregateCache.invalidate(1);
+        verifyNoInteractions(redisUtil);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        verify(redisUtil).invalidateNovelRating(1);
+    }
+
+    @Test
+    void invalidate_WhenPublishFails_ShouldStillDropTheLocalEntry() {
+        when(novelRatingAggregateRepository.findByNovelId(1)).thenReturn(NovelRatingAggregate.empty(1));
+        doThrow(new RedisConnectionFailureException("down")).when(redisUtil).invalidateNovelRating(1);
+        novelRatingAggregateCache.get(1);
+
+        novelRatingAggregateCache.invalidate(1);
+        novelRatingAggregateCache.get(1);
+
+        verify(novelRatingAggregateRepository, times(2)).findByNovelId(1);
+    }
+
+    @Test
+    void evictLocal_WithAnotherReplicasInvalidation_ShouldReloadOnlyThatNovel() {
+        when(novelRatingAggregateRepository.findByNovelId(anyInt()))
+                .thenAnswer(invocation -> NovelRatingAggregate.empty(invocation.getArgument(0)));
+        novelRatingAggregateCache.get(1);
+        novelRatingAggregateCache.get(2);
+
+        novelRatingAggregateCache.evictLocal(List.of(RedisUtil.novelRatingKey(1), "review:novel:2:v3"));
+        novelRatingAggregateCache.get(1);
+        novelRatingAggregateCache.get(2);
+
+        verify(novelRatingAggregateRepository, times(2)).findByNovelId(1);
+        verify(novelRatingAggregateRepository, times(1)).findByNovelId(2);
+    }
+
+    @Test
+    void evictLocal_WithAllRatingsKey_ShouldReloadEveryNovel() {
+        when(novelRatingAggregateRepository.findByNovelId(anyInt()))
+                .thenAnswer(invocation -> NovelRatingAggregate.empty(invocation.getArgument(0)));
+        novelRatingAggregateCache.get(1);
+        novelRatingAggregateCache.get(2);
+
+        novelRatingAggregateCache.evictLocal(List.of(RedisUtil.allNovelRatingsKey()));
+        novelRatingAggregateCache.get(1);
+        novelRatingAggregateCache.get(2);
+
+        verify(novelRatingAggregateRepository, times(2)).findByNovelId(1);
+        verify(novelRatingAggregateRepository, times(2)).findByNovelId(2);
+    }
+}
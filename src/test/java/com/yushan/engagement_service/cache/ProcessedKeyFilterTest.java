@@ -0,0 +1,139 @@
+package com.yushan.engagement_service.cache;
+
+import com.yushan.engagement_service.dao.ProcessedEventMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessedKeyFilterTest {
+
+    @Mock
+    private ProcessedEventMapper processedEventMapper;
+
+    @InjectMocks
+    private ProcessedKeyFilter filter;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "expectedInsertions", 10_000L);
+        ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(filter, "generations", 3);
+        ReflectionTestUtils.setField(filter, "rotationIntervalMs", 3_600_000L);
+        filter.init();
+    }
+
+    @Test
+    void mightContain_BeforeSeeding_ShouldAnswerMaybe() {
+        assertTrue(filter.mightContain("never-seen"));
+    }
+
+    @Test
+    void rotate_FirstRun_ShouldSeedFromRecentProcessedEvents() {
+        seed("seeded-1", "seeded-2");
+
+        assertTrue(filter.mightContain("seeded-1"));
+        assertTrue(filter.mightContain("seeded-2"));
+        assertFalse(filter.mightContain("never-seen"));
+        verify(processedEventMapper).selectKeysProcessedSince(
+                argThat(since -> since.isAfter(LocalDateTime.now().minusHours(3).minusMinutes(1))
+                        && since.isBefore(LocalDateTime.now().minusHours(3).plusMinutes(1))), any());
+    }
+
+    @Test
+    void rotate_WhenSeedingFails_ShouldKeepAnsweringMaybeAndRetry() {
+        doThrow(new RuntimeException("db down")).when(processedEventMapper).selectKeysProcessedSince(any(), any());
+        filter.rotate();
+        assertTrue(filter.mightContain("never-seen"));
+
+        seed();
+        assertFalse(filter.mightContain("never-seen"));
+    }
+
+    @Test
+    void put_ShouldNeverProduceFalseNegativesAndStayNearTheTargetRate() {
+        seed();
+        // Five times the expected insertions, so the generation has to grow
+        for (int i = 0; i < 50_000; i++) {
+            filter.put("idempotency:vote-saga-create:" + i);
+        }
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(filter.mightContain("idempotency:vote-saga-create:" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("idempotency:other:" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1_000, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.01);
+    }
+
+    @Test
+    void rotate_ShouldForgetKeysOlderThanTheWindow() {
+        seed();
+        filter.put("old");
+
+        filter.rotate();
+        filter.rotate();
+        assertTrue(filter.mightContain("old"));
+
+        filter.rotate();
+        assertFalse(filter.mightContain("old"));
+    }
+
+    @Test
+    void recordFalsePositives_ShouldExportObservedRate() {
+        seed();
+        for (int i = 0; i < 9; i++) {
+            filter.mightContain("new-" + i);
+        }
+        filter.recordFalsePositives(1);
+
+        assertEquals(0.1, meterRegistry.get("idempotency.bloom.false-positive-rate").gauge().value(), 1e-9);
+        assertEquals(9.0, meterRegistry.get("idempotency.bloom.checks").tag("result", "negative").counter().count());
+        assertEquals(1.0, meterRegistry.get("idempotency.bloom.false-positives").counter().count());
+    }
+
+    @Test
+    void disabled_ShouldAlwaysAnswerMaybe() {
+        ReflectionTestUtils.setField(filter, "enabled", false);
+        filter.rotate();
+
+        assertTrue(filter.mightContain("never-seen"));
+        verifyNoInteractions(processedEventMapper);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void seed(String... keys) {
+        doAnswer(invocation -> {
+            ResultHandler<String> handler = invocation.getArgument(1);
+            DefaultResultContext<String> context = new DefaultResultContext<>();
+            for (String key : keys) {
+                context.nextResultObject(key);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(processedEventMapper).selectKeysProcessedSince(any(), any());
+        filter.rotate();
+    }
+}
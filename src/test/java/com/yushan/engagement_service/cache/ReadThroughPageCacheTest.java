@@ -0,0 +1,362 @@
+package com.yushan.engagement_service.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yushan.engagement_service.cache.codec.JsonCodec;
+import com.yushan.engagement_service.cache.codec.Lz4Codec;
+import com.yushan.engagement_service.cache.codec.RedisValueCodec;
+import com.yushan.engagement_service.entity.Comment;
+import com.yushan.engagement_service.util.RedisUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadThroughPageCacheTest {
+
+    private static final String NAMESPACE = "comment:chapter:1";
+    private static final String PAGE = "createTime:desc:0:20";
+    private static final String KEY = NAMESPACE + ":v0:" + PAGE;
+
+    @Mock
+    private RedisUtil redisUtil;
+
+    @InjectMocks
+    private ReadThroughPageCache pageCache;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // Stands in for Redis
+    private final Map<String, Object> store = new ConcurrentHashMap<>();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(pageCache, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(pageCache, "enabled", true);
+        ReflectionTestUtils.setField(pageCache, "maxPages", 3);
+        ReflectionTestUtils.setField(pageCache, "ttlSeconds", 30L);
+        ReflectionTestUtils.setField(pageCache, "lockMs", 500L);
+        ReflectionTestUtils.setField(pageCache, "pollMs", 10L);
+        ReflectionTestUtils.setField(pageCache, "beta", 1.0);
+        ReflectionTestUtils.setField(pageCache, "l1MaximumNamespaces", 100L);
+        ReflectionTestUtils.setField(pageCache, "l1TtlSeconds", 5L);
+        ReflectionTestUtils.setField(pageCache, "l1MaximumPagesPerNamespace", 64);
+        // Small enough that cached pages are stored compressed
+        ReflectionTestUtils.setField(pageCache, "compressThresholdBytes", 64);
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(pageCache, "meterRegistry", meterRegistry);
+        pageCache.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getPage_MissThenHit_ShouldLoadOnceAndServeTheCachedRows() {
+        backWithMap();
+
+        PageSnapshot<Comment> first = get(0, loader("first"));
+        PageSnapshot<Comment> second = get(0, loader("second"));
+
+        assertEquals(1, loads.get());
+        assertEquals("first", first.rows().get(0).getContent());
+        assertEquals("first", second.rows().get(0).getContent());
+        assertEquals(41L, second.totalCount());
+        assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000001"), second.rows().get(0).getUserId());
+        verify(redisUtil).set(eq(KEY), any(ReadThroughPageCache.Entry.class), any(RedisValueCodec.class), eq(Duration.ofSeconds(30)));
+        assertFalse(store.containsKey(KEY + ":lock"), "lock released");
+    }
+
+    @Test
+    void getPage_PastTheCachedPages_ShouldLoadDirectly() {
+        get(3, loader("deep"));
+
+        assertEquals(1, loads.get());
+        verifyNoInteractions(redisUtil);
+    }
+
+    @Test
+    void getPage_WhenDisabled_ShouldLoadDirectly() {
+        ReflectionTestUtils.setField(pageCache, "enabled", false);
+
+        get(0, loader("rows"));
+
+        verifyNoInteractions(redisUtil);
+    }
+
+    @Test
+    void getPage_ConcurrentMisses_ShouldRunOneLoader() throws Exception {
+        backWithMap();
+        Supplier<PageSnapshot<Comment>> slowLoader = () -> {
+            sleep(200);
+            return loader("rows").get();
+        };
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PageSnapshot<Comment>>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return get(0, slowLoader);
+            }));
+        }
+        start.countDown();
+        for (Future<PageSnapshot<Comment>> result : results) {
+            assertEquals("rows", result.get(5, TimeUnit.SECONDS).rows().get(0).getContent());
+        }
+        executor.shutdown();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getPage_WhenAnotherReplicaHoldsTheLock_ShouldWaitForItsResult() throws Exception {
+        backWithMap();
+        store.put(KEY + ":lock", "other-replica");
+        ReadThroughPageCache.Entry<PageSnapshot<Comment>> loadedElsewhere = new ReadThroughPageCache.Entry<>(
+                snapshot("elsewhere"), 10, System.currentTimeMillis() + 30_000);
+        when(redisUtil.get(eq(KEY), any(RedisValueCodec.class))).thenReturn(null, null, loadedElsewhere);
+
+        PageSnapshot<Comment> page = get(0, loader("here"));
+
+        assertEquals("elsewhere", page.rows().get(0).getContent());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void getPage_WhenTheLockHolderNeverWrites_ShouldLoadAfterTheLease() {
+        backWithMap();
+        store.put(KEY + ":lock", "other-replica");
+
+        PageSnapshot<Comment> page = get(0, loader("here"));
+
+        assertEquals("here", page.rows().get(0).getContent());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getPage_AtExpiry_ShouldRefreshEarly() throws Exception {
+        backWithMap();
+        store.put(KEY, encode(new ReadThroughPageCache.Entry<>(
+                snapshot("old"), 50, System.currentTimeMillis())));
+
+        PageSnapshot<Comment> page = get(0, loader("new"));
+
+        assertEquals("new", page.rows().get(0).getContent());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getPage_EarlyRefreshWhileAnotherReplicaRefreshes_ShouldServeTheCachedRows() throws Exception {
+        backWithMap();
+        store.put(KEY, encode(new ReadThroughPageCache.Entry<>(
+                snapshot("old"), 50, System.currentTimeMillis())));
+        store.put(KEY + ":lock", "other-replica");
+
+        PageSnapshot<Comment> page = get(0, loader("new"));
+
+        assertEquals("old", page.rows().get(0).getContent());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void getPage_WhenRedisIsDown_ShouldLoadFromTheDatabase() {
+        when(redisUtil.versionedKey(NAMESPACE)).thenThrow(new RedisConnectionFailureException("down"));
+
+        PageSnapshot<Comment> page = get(0, loader("rows"));
+
+        assertEquals("rows", page.rows().get(0).getContent());
+    }
+
+    @Test
+    void getPage_L1Hit_ShouldNotTouchRedis() {
+        backWithMap();
+
+        get(0, loader("rows"));
+        clearInvocations(redisUtil);
+        PageSnapshot<Comment> page = get(0, loader("other"));
+
+        assertEquals("rows", page.rows().get(0).getContent());
+        verifyNoInteractions(redisUtil);
+        assertEquals(0.5, meterRegistry.get("cache.page.hit-rate").tag("tier", "l1").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void getPage_ManyPageKeysInOneNamespace_ShouldKeepAtMostTheLimitInL1() {
+        backWithMap();
+        ReflectionTestUtils.setField(pageCache, "l1MaximumPagesPerNamespace", 4);
+
+        for (int size = 1; size <= 10; size++) {
+            PageSnapshot<Comment> page = pageCache.getPage(0, NAMESPACE, "createTime:desc:0:" + size,
+                    Comment.class, loader("size-" + size));
+            assertEquals("size-" + size, page.rows().get(0).getContent());
+        }
+
+        assertEquals(4, pageCache.localPageCount(NAMESPACE));
+        clearInvocations(redisUtil);
+        get(0, loader("other"));
+        verify(redisUtil).versionedKey(NAMESPACE);
+    }
+
+    @Test
+    void getPage_WhenTheBucketIsFullOfExpiredPages_ShouldPruneThem() {
+        backWithMap();
+        ReflectionTestUtils.setField(pageCache, "l1MaximumPagesPerNamespace", 4);
+        ReflectionTestUtils.setField(pageCache, "l1TtlSeconds", 0L);
+
+        for (int size = 1; size <= 10; size++) {
+            pageCache.getPage(0, NAMESPACE, "createTime:desc:0:" + size, Comment.class, loader("rows"));
+            sleep(2);
+        }
+
+        // Pages 5 and 9 found the bucket full of expired pages, pruned them and were kept
+        assertEquals(2, pageCache.localPageCount(NAMESPACE));
+    }
+
+    @Test
+    void getPage_AfterInvalidationMessage_ShouldReadL2Again() throws Exception {
+        backWithMap();
+        get(0, loader("rows"));
+
+        pageCache.evictLocal(List.of(NAMESPACE));
+        store.put(KEY, encode(new ReadThroughPageCache.Entry<>(
+                snapshot("from-l2"), 10, System.currentTimeMillis() + 30_000)));
+        PageSnapshot<Comment> page = get(0, loader("other"));
+
+        assertEquals("from-l2", page.rows().get(0).getContent());
+        // Both requests missed L1; the second found the page in L2
+        assertEquals(0.5, meterRegistry.get("cache.page.hit-rate").tag("tier", "l2").gauge().value(), 1e-9);
+        assertEquals(1.0, meterRegistry.get("cache.page.requests").tag("tier", "l2").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void getPage_InvalidatedWhileLoading_ShouldNotKeepTheLoadedPageInL1() {
+        backWithMap();
+        get(0, () -> {
+            pageCache.evictLocal(List.of(NAMESPACE));
+            return loader("before-invalidation").get();
+        });
+        store.clear();
+
+        PageSnapshot<Comment> page = get(0, loader("after"));
+
+        assertEquals("after", page.rows().get(0).getContent());
+    }
+
+    @Test
+    void evictLocal_AllKeys_ShouldClearEveryNamespace() {
+        backWithMap();
+        get(0, loader("rows"));
+        store.clear();
+
+        pageCache.evictLocal(List.of(RedisUtil.ALL_KEYS));
+
+        assertEquals("fresh", get(0, loader("fresh")).rows().get(0).getContent());
+    }
+
+    @Test
+    void invalidateAfterCommit_InTransaction_ShouldRunOnlyOnCommit() {
+        backWithMap();
+        get(0, loader("rows"));
+        store.clear();
+        TransactionSynchronizationManager.initSynchronization();
+        AtomicInteger invalidations = new AtomicInteger();
+
+        pageCache.invalidateAfterCommit(NAMESPACE, invalidations::incrementAndGet);
+        assertEquals(0, invalidations.get());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, invalidations.get());
+        assertEquals("fresh", get(0, loader("fresh")).rows().get(0).getContent(), "L1 dropped on this replica");
+    }
+
+    private PageSnapshot<Comment> get(int page, Supplier<PageSnapshot<Comment>> loader) {
+        return pageCache.getPage(page, NAMESPACE, PAGE, Comment.class, loader);
+    }
+
+    private Supplier<PageSnapshot<Comment>> loader(String content) {
+        return () -> {
+            loads.incrementAndGet();
+            return snapshot(content);
+        };
+    }
+
+    private static PageSnapshot<Comment> snapshot(String content) {
+        Comment comment = new Comment(1, UUID.fromString("00000000-0000-0000-0000-000000000001"), 1, 10,
+                content, 3, false, new Date(), new Date());
+        return new PageSnapshot<>(List.of(comment), 41L);
+    }
+
+    private byte[] encode(ReadThroughPageCache.Entry<PageSnapshot<Comment>> entry) {
+        JavaType type = objectMapper.getTypeFactory().constructParametricType(ReadThroughPageCache.Entry.class,
+                objectMapper.getTypeFactory().constructParametricType(PageSnapshot.class, Comment.class));
+        return new Lz4Codec<ReadThroughPageCache.Entry<PageSnapshot<Comment>>>(
+                new JsonCodec<>(objectMapper, type), 1024).encode(entry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void backWithMap() {
+        lenient().when(redisUtil.versionedKey(anyString())).thenAnswer(invocation -> invocation.getArgument(0) + ":v0");
+        // Values go through the cache's codec, as they would on their way to and from Redis
+        lenient().when(redisUtil.get(anyString(), any(RedisValueCodec.class))).thenAnswer(invocation -> {
+            Object bytes = store.get(invocation.<String>getArgument(0));
+            return bytes != null ? invocation.<RedisValueCodec<?>>getArgument(1).decode((byte[]) bytes) : null;
+        });
+        lenient().doAnswer(invocation -> store.put(invocation.getArgument(0),
+                        invocation.<RedisValueCodec<Object>>getArgument(2).encode(invocation.getArgument(1))))
+                .when(redisUtil).set(anyString(), any(), any(RedisValueCodec.class), any(Duration.class));
+        lenient().when(redisUtil.setIfAbsent(anyString(), any(), any()))
+                .thenAnswer(invocation -> store.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null);
+        lenient().when(redisUtil.deleteIfEquals(anyString(), any()))
+                .thenAnswer(invocation -> store.remove(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
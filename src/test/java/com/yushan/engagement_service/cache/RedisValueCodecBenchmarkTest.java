@@ -0,0 +1,148 @@
+package com.yushan.engagement_service.cache;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.yushan.engagement_service.cache.codec.JsonCodec;
+import com.yushan.engagement_service.cache.codec.LongCodec;
+import com.yushan.engagement_service.cache.codec.Lz4Codec;
+import com.yushan.engagement_service.cache.codec.RedisValueCodec;
+import com.yushan.engagement_service.entity.Comment;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the encodings of a cached first page of 20 comments, and of a generation counter:
+ * the default-typed JSON serializer of the shared RedisTemplate (the page wrapped as a JSON
+ * string, as the page cache stored it before) against the typed codecs. Runs in process against
+ * byte arrays, so it measures encoding only, not Redis round trips; timings are indicative and
+ * only sizes are asserted.
+ */
+@Tag("benchmark")
+public class RedisValueCodecBenchmarkTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 20_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void typedCodecs_ShouldStoreFewerBytesThanDefaultTypedJson() throws Exception {
+        Jackson2JsonRedisSerializer<Object> templateSerializer = templateSerializer();
+        JavaType entryType = objectMapper.getTypeFactory().constructParametricType(ReadThroughPageCache.Entry.class,
+                objectMapper.getTypeFactory().constructParametricType(PageSnapshot.class, Comment.class));
+        JsonCodec<ReadThroughPageCache.Entry<PageSnapshot<Comment>>> json = new JsonCodec<>(objectMapper, entryType);
+        Lz4Codec<ReadThroughPageCache.Entry<PageSnapshot<Comment>>> lz4 = new Lz4Codec<>(json, 1024);
+        ReadThroughPageCache.Entry<PageSnapshot<Comment>> entry = new ReadThroughPageCache.Entry<>(page(), 12, 1_760_000_000_000L);
+
+        RedisValueCodec<ReadThroughPageCache.Entry<PageSnapshot<Comment>>> previous = new RedisValueCodec<>() {
+            @Override
+            public byte[] encode(ReadThroughPageCache.Entry<PageSnapshot<Comment>> value) {
+                try {
+                    return templateSerializer.serialize(objectMapper.writeValueAsString(value));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public ReadThroughPageCache.Entry<PageSnapshot<Comment>> decode(byte[] bytes) {
+                try {
+                    return objectMapper.readValue((String) templateSerializer.deserialize(bytes), entryType);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+
+        System.out.println("value               | encoding            | bytes | ser ns/op | deser ns/op");
+        int previousBytes = run("page of " + PAGE_SIZE + " comments", "typed JSON template", previous, entry,
+                decoded -> decoded.value().rows().size());
+        int jsonBytes = run("page of " + PAGE_SIZE + " comments", "JsonCodec", json, entry,
+                decoded -> decoded.value().rows().size());
+        int lz4Bytes = run("page of " + PAGE_SIZE + " comments", "JsonCodec + LZ4", lz4, entry,
+                decoded -> decoded.value().rows().size());
+
+        RedisValueCodec<Long> templateLong = new RedisValueCodec<>() {
+            @Override
+            public byte[] encode(Long value) {
+                return templateSerializer.serialize(value);
+            }
+
+            @Override
+            public Long decode(byte[] bytes) {
+                return ((Number) templateSerializer.deserialize(bytes)).longValue();
+            }
+        };
+        int templateLongBytes = run("generation counter", "typed JSON template", templateLong, 1_760_000_000_123L, counter -> counter > 0 ? 1 : 0);
+        int longBytes = run("generation counter", "LongCodec", LongCodec.INSTANCE, 1_760_000_000_123L, counter -> counter > 0 ? 1 : 0);
+
+        assertTrue(jsonBytes < previousBytes, "typed JSON should drop the string escaping of the previous layout");
+        assertTrue(lz4Bytes < jsonBytes, "a page of comments should compress");
+        assertEquals(templateLongBytes, longBytes, "counters keep the decimal form INCR writes");
+        ReadThroughPageCache.Entry<PageSnapshot<Comment>> decoded = lz4.decode(lz4.encode(entry));
+        assertEquals(137L, decoded.value().totalCount());
+        assertEquals(entry.value().rows().get(19).getContent(), decoded.value().rows().get(19).getContent());
+    }
+
+    private static <T> int run(String value, String encoding, RedisValueCodec<T> codec, T sample,
+                               Function<T, Integer> use) {
+        byte[] bytes = codec.encode(sample);
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += codec.encode(sample).length;
+            sink += use.apply(codec.decode(bytes));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += codec.encode(sample).length;
+        }
+        long serNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += use.apply(codec.decode(bytes));
+        }
+        long deserNanos = System.nanoTime() - start;
+        System.out.printf("%-19s | %-19s | %5d | %9d | %11d%n", value, encoding, bytes.length,
+                serNanos / ITERATIONS, deserNanos / ITERATIONS);
+        assertTrue(sink > 0);
+        return bytes.length;
+    }
+
+    private static Jackson2JsonRedisSerializer<Object> templateSerializer() {
+        // As configured in RedisConfig
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        objectMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL);
+        return new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
+    }
+
+    private static PageSnapshot<Comment> page() {
+        String[] bodies = {
+                "Finally the \"truth\" about the sect master comes out, what a chapter!",
+                "I did not expect the tournament arc to end like this.",
+                "Translator notes were really helpful, thanks for the update.",
+                "The pacing feels slower than the last volume but the payoff is worth it."
+        };
+        Date now = new Date(1_760_000_000_000L);
+        List<Comment> rows = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            rows.add(new Comment(1000 + i, new UUID(0L, i), 7, 42, bodies[i % bodies.length], i * 3, i % 7 == 0, now, now));
+        }
+        return new PageSnapshot<>(rows, 137L);
+    }
+}
@@ -0,0 +1,120 @@
+package com.yushan.engagement_service.cache;
+
+import com.yushan.engagement_service.client.UserServiceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserProfileCacheTest {
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @InjectMocks
+    private UserProfileCache userProfileCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(userProfileCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(userProfileCache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(userProfileCache, "ttlSeconds", 600L);
+        userProfileCache.init();
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void getUsername_ShouldLoadOnceAndServeFromCache() {
+        when(userServiceClient.getUsernameById(userId)).thenReturn("testuser");
+
+        assertEquals("testuser", userProfileCache.getUsername(userId));
+        assertEquals("testuser", userProfileCache.getUsername(userId));
+
+        verify(userServiceClient, times(1)).getUsernameById(userId);
+    }
+
+    @Test
+    void getUsername_ShouldNotCacheUnknownUser() {
+        when(userServiceClient.getUsernameById(userId)).thenReturn(UserProfileCache.UNKNOWN_USER);
+
+        assertEquals(UserProfileCache.UNKNOWN_USER, userProfileCache.getUsername(userId));
+        assertEquals(UserProfileCache.UNKNOWN_USER, userProfileCache.getUsername(userId));
+
+        verify(userServiceClient, times(2)).getUsernameById(userId);
+    }
+
+    @Test
+    void getUsernames_ShouldBatchLoadOnlyMisses() {
+        UUID cachedId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        when(userServiceClient.getUsernameById(cachedId)).thenReturn("cached");
+        userProfileCache.getUsername(cachedId);
+        when(userServiceClient.getUsernamesByIds(anyCollection())).thenReturn(Map.of(missingId, "loaded"));
+
+        Map<UUID, String> result = userProfileCache.getUsernames(Arrays.asList(cachedId, missingId, cachedId, null));
+
+        assertEquals(2, result.size());
+        assertEquals("cached", result.get(cachedId));
+        assertEquals("loaded", result.get(missingId));
+        verify(userServiceClient).getUsernamesByIds(List.of(missingId));
+    }
+
+    @Test
+    void getUsernames_WithAllCached_ShouldNotCallUserService() {
+        when(userServiceClient.getUsernamesByIds(anyCollection())).thenReturn(Map.of(userId, "testuser"));
+        userProfileCache.getUsernames(Collections.singletonList(userId));
+
+        Map<UUID, String> result = userProfileCache.getUsernames(Collections.singletonList(userId));
+
+        assertEquals("testuser", result.get(userId));
+        verify(userServiceClient, times(1)).getUsernamesByIds(anyCollection());
+    }
+
+    @Test
+    void getUsernames_WithEmptyInput_ShouldReturnEmptyMap() {
+        assertTrue(userProfileCache.getUsernames(Collections.emptyList()).isEmpty());
+        assertTrue(userProfileCache.getUsernames(null).isEmpty());
+        verifyNoInteractions(userServiceClient);
+    }
+
+    @Test
+    void invalidate_ShouldForceReload() {
+        when(userServiceClient.getUsernameById(userId)).thenReturn("oldname", "newname");
+
+        assertEquals("oldname", userProfileCache.getUsername(userId));
+        userProfileCache.invalidate(userId);
+
+        assertEquals("newname", userProfileCache.getUsername(userId));
+    }
+
+    @Test
+    void metrics_ShouldBeRegisteredWithMeterRegistry() {
+        when(userServiceClient.getUsernameById(userId)).thenReturn("testuser");
+        userProfileCache.getUsername(userId);
+        userProfileCache.getUsername(userId);
+
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "userProfileCache").tag("result", "hit").functionCounter());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userProfileCache").tag("result", "hit")
+                .functionCounter().count());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", "userProfileCache").functionCounter());
+    }
+}
@@ -0,0 +1,35 @@
+package com.yushan.engagement_service.cache.codec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongCodecTest {
+
+    @Test
+    void encode_ShouldWriteTheDecimalFormIncrReads() {
+        assertArrayEquals("1760000000000".getBytes(StandardCharsets.US_ASCII), LongCodec.INSTANCE.encode(1760000000000L));
+    }
+
+    @Test
+    void decode_ShouldReadCountersWrittenByIncr() {
+        assertEquals(12L, LongCodec.INSTANCE.decode("12".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(-3L, LongCodec.INSTANCE.decode("-3".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(Long.MAX_VALUE, LongCodec.INSTANCE.decode(LongCodec.INSTANCE.encode(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void decode_WhenMissing_ShouldReturnNull() {
+        assertNull(LongCodec.INSTANCE.decode(null));
+        assertNull(LongCodec.INSTANCE.decode(new byte[0]));
+    }
+
+    @Test
+    void decode_WhenNotANumber_ShouldThrow() {
+        assertThrows(SerializationException.class,
+                () -> LongCodec.INSTANCE.decode("\"12\"".getBytes(StandardCharsets.US_ASCII)));
+    }
+}
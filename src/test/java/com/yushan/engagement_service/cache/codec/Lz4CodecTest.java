@@ -0,0 +1,57 @@
+package com.yushan.engagement_service.cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Lz4CodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Lz4Codec<List<String>> codec = new Lz4Codec<>(new JsonCodec<>(objectMapper,
+            objectMapper.getTypeFactory().constructCollectionType(List.class, String.class)), 64);
+
+    @Test
+    void encode_BelowThreshold_ShouldStoreRaw() {
+        byte[] bytes = codec.encode(List.of("a", "b"));
+
+        assertEquals(0, bytes[0]);
+        assertEquals("[\"a\",\"b\"]", new String(bytes, 1, bytes.length - 1));
+        assertEquals(List.of("a", "b"), codec.decode(bytes));
+    }
+
+    @Test
+    void encode_AboveThreshold_ShouldCompressAndRoundTrip() {
+        List<String> value = Collections.nCopies(50, "a repeated comment body");
+
+        byte[] bytes = codec.encode(value);
+
+        assertEquals(1, bytes[0]);
+        assertTrue(bytes.length < objectMapper.valueToTree(value).toString().length() / 4);
+        assertEquals(value, codec.decode(bytes));
+    }
+
+    @Test
+    void decode_WhenHeaderIsUnknown_ShouldThrow() {
+        // A value written by the default-typed JSON serializer starts with '['
+        assertThrows(SerializationException.class, () -> codec.decode("[\"java.util.ArrayList\",[]]".getBytes()));
+    }
+
+    @Test
+    void decode_WhenBlockIsTruncated_ShouldThrow() {
+        byte[] bytes = codec.encode(Collections.nCopies(50, "a repeated comment body"));
+
+        assertThrows(SerializationException.class, () -> codec.decode(Arrays.copyOf(bytes, bytes.length - 3)));
+    }
+
+    @Test
+    void decode_WhenMissing_ShouldReturnNull() {
+        assertNull(codec.decode(null));
+    }
+}
@@ -10,8 +10,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -225,6 +231,11 @@ class UserServiceClientTest {
             public ApiResponse<UserProfileResponseDTO> getUser(UUID userId) {
                 return userProfileResponse;
             }
+
+            @Override
+            public ApiResponse<List<UserProfileResponseDTO>> getUsersBatch(List<UUID> userIds) {
+                return null;
+            }
         };
 
         // When
@@ -243,6 +254,11 @@ class UserServiceClientTest {
             public ApiResponse<UserProfileResponseDTO> getUser(UUID userId) {
                 return null;
             }
+
+            @Override
+            public ApiResponse<List<UserProfileResponseDTO>> getUsersBatch(List<UUID> userIds) {
+                return null;
+            }
         };
 
         // When
@@ -261,6 +277,11 @@ class UserServiceClientTest {
             public ApiResponse<UserProfileResponseDTO> getUser(UUID userId) {
                 return emptyResponse;
             }
+
+            @Override
+            public ApiResponse<List<UserProfileResponseDTO>> getUsersBatch(List<UUID> userIds) {
+                return null;
+            }
         };
 
         // When
@@ -278,6 +299,11 @@ class UserServiceClientTest {
             public ApiResponse<UserProfileResponseDTO> getUser(UUID userId) {
                 throw new RuntimeException("Service error");
             }
+
+            @Override
+            public ApiResponse<List<UserProfileResponseDTO>> getUsersBatch(List<UUID> userIds) {
+                return null;
+            }
         };
 
         // When
@@ -296,6 +322,11 @@ class UserServiceClientTest {
             public ApiResponse<UserProfileResponseDTO> getUser(UUID userId) {
                 return userProfileResponse;
             }
+
+            @Override
+            public ApiResponse<List<UserProfileResponseDTO>> getUsersBatch(List<UUID> userIds) {
+                return null;
+            }
         };
 
         // When
@@ -304,4 +335,89 @@ class UserServiceClientTest {
         // Then
         assertNull(result);
     }
+
+    @Test
+    void testGetUsernamesByIds_DefaultMethod_SingleBatchCall() {
+        // Given
+        UUID anotherUserId = UUID.randomUUID();
+        UUID missingUserId = UUID.randomUUID();
+        UserProfileResponseDTO anotherProfile = new UserProfileResponseDTO();
+        anotherProfile.setUuid(anotherUserId.toString());
+        anotherProfile.setUsername("anotheruser");
+        AtomicInteger batchCalls = new AtomicInteger();
+        AtomicInteger singleCalls = new AtomicInteger();
+        List<List<UUID>> requestedIds = new ArrayList<>();
+        UserServiceClient client = new UserServiceClient() {
+            @Override
+            public ApiResponse<UserProfileResponseDTO> getUser(UUID userId) {
+                singleCalls.incrementAndGet();
+                return userProfileResponse;
+            }
+
+            @Override
+            public ApiResponse<List<UserProfileResponseDTO>> getUsersBatch(List<UUID> userIds) {
+                batchCalls.incrementAndGet();
+                requestedIds.add(userIds);
+                return ApiResponse.success("Success", Arrays.asList(testUserProfile, anotherProfile));
+            }
+        };
+
+        // When
+        Map<UUID, String> result = client.getUsernamesByIds(
+                Arrays.asList(testUserId, anotherUserId, testUserId, null, missingUserId));
+
+        // Then
+        assertEquals(1, batchCalls.get());
+        assertEquals(0, singleCalls.get());
+        assertEquals(Arrays.asList(testUserId, anotherUserId, missingUserId), requestedIds.get(0));
+        assertEquals(3, result.size());
+        assertEquals("testuser", result.get(testUserId));
+        assertEquals("anotheruser", result.get(anotherUserId));
+        assertEquals("Unknown User", result.get(missingUserId));
+    }
+
+    @Test
+    void testGetUsernamesByIds_DefaultMethod_BatchFailureFallsBackToSingleLookups() {
+        // Given
+        AtomicInteger singleCalls = new AtomicInteger();
+        UserServiceClient client = new UserServiceClient() {
+            @Override
+            public ApiResponse<UserProfileResponseDTO> getUser(UUID userId) {
+                singleCalls.incrementAndGet();
+                return userProfileResponse;
+            }
+
+            @Override
+            public ApiResponse<List<UserProfileResponseDTO>> getUsersBatch(List<UUID> userIds) {
+                throw new RuntimeException("Batch endpoint unavailable");
+            }
+        };
+
+        // When
+        Map<UUID, String> result = client.getUsernamesByIds(Collections.singletonList(testUserId));
+
+        // Then
+        assertEquals(1, singleCalls.get());
+        assertEquals("testuser", result.get(testUserId));
+    }
+
+    @Test
+    void testGetUsernamesByIds_DefaultMethod_EmptyInput() {
+        // Given
+        UserServiceClient client = new UserServiceClient() {
+            @Override
+            public ApiResponse<UserProfileResponseDTO> getUser(UUID userId) {
+                throw new AssertionError("should not be called");
+            }
+
+            @Override
+            public ApiResponse<List<UserProfileResponseDTO>> getUsersBatch(List<UUID> userIds) {
+                throw new AssertionError("should not be called");
+            }
+        };
+
+        // When / Then
+        assertTrue(client.getUsernamesByIds(Collections.emptyList()).isEmpty());
+        assertTrue(client.getUsernamesByIds(null).isEmpty());
+    }
 }
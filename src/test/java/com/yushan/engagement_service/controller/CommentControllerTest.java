@@ -203,7 +203,7 @@ class CommentControllerTest {
         mockResponse.setCurrentPage(0);
         mockResponse.setPageSize(10);
 
-        when(commentService.getCommentsByChapter(eq(testChapterId), eq(testUserId), eq(0), eq(10), eq("createTime"), eq("desc")))
+        when(commentService.getCommentsByChapter(eq(testChapterId), eq(testUserId), eq(0), eq(10), eq("createTime"), eq("desc"), isNull()))
                 .thenReturn(mockResponse);
 
         // Execute & Verify
@@ -30,6 +30,7 @@ import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -190,7 +191,7 @@ class ReviewControllerTest {
         mockPageResponse.setTotalElements(1L);
         mockPageResponse.setTotalPages(1);
         
-        when(reviewService.getReviewsByNovel(eq(testNovelId), eq(0), eq(10), eq("createTime"), eq("desc")))
+        when(reviewService.getReviewsByNovel(eq(testNovelId), eq(0), eq(10), eq("createTime"), eq("desc"), isNull()))
                 .thenReturn(mockPageResponse);
 
         // Execute & Verify
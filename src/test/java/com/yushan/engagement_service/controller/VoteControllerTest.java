@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -105,7 +106,7 @@ class VoteControllerTest {
         mockPageResponse.setTotalPages(1);
         
         when(authentication.getPrincipal()).thenReturn(customUserDetails);
-        when(voteService.getUserVotes(eq(testUserId), eq(page), eq(size))).thenReturn(mockPageResponse);
+        when(voteService.getUserVotes(eq(testUserId), eq(page), eq(size), isNull())).thenReturn(mockPageResponse);
         
         // Use @Autowired MockMvc instead
 
@@ -157,7 +158,7 @@ class VoteControllerTest {
         mockPageResponse.setTotalPages(0);
         
         when(authentication.getPrincipal()).thenReturn(customUserDetails);
-        when(voteService.getUserVotes(eq(testUserId), eq(0), eq(20))).thenReturn(mockPageResponse);
+        when(voteService.getUserVotes(eq(testUserId), eq(0), eq(20), isNull())).thenReturn(mockPageResponse);
         
         // Use @Autowired MockMvc instead
 
@@ -203,7 +204,7 @@ class VoteControllerTest {
         mockPageResponse.setTotalPages(0);
         
         when(authentication.getPrincipal()).thenReturn(customUserDetails);
-        when(voteService.getUserVotes(eq(testUserId), eq(0), eq(20))).thenReturn(mockPageResponse);
+        when(voteService.getUserVotes(eq(testUserId), eq(0), eq(20), isNull())).thenReturn(mockPageResponse);
         
         // Use @Autowired MockMvc instead
 
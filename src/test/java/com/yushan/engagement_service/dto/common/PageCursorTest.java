@@ -0,0 +1,63 @@
+package com.yushan.engagement_service.dto.common;
+
+import com.yushan.engagement_service.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void encodeAndDecode_ShouldRoundTrip() {
+        Date time = new Date(1_700_000_000_123L);
+
+        String encoded = PageCursor.encode("createTime", "DESC", time, 42);
+        PageCursor cursor = PageCursor.decode(encoded, "createTime", "likeCnt");
+
+        assertEquals("createTime", cursor.getSort());
+        assertEquals("desc", cursor.getOrder());
+        assertEquals(time, cursor.getKeyAsTime());
+        assertEquals(42, cursor.getId());
+        assertEquals("<", cursor.getComparator());
+    }
+
+    @Test
+    void encode_ShouldBeUrlSafeWithoutPadding() {
+        String encoded = PageCursor.encode("likeCnt", "asc", 7, 3);
+
+        assertFalse(encoded.contains("="));
+        assertFalse(encoded.contains("+"));
+        assertFalse(encoded.contains("/"));
+        assertEquals(">", PageCursor.decode(encoded, "likeCnt").getComparator());
+    }
+
+    @Test
+    void encode_WithMissingSortKey_ShouldReturnNull() {
+        assertNull(PageCursor.encode("createTime", "desc", (Date) null, 1));
+        assertNull(PageCursor.encode("likeCnt", "desc", (Integer) null, 1));
+        assertNull(PageCursor.encode("likeCnt", "desc", 5, null));
+    }
+
+    @Test
+    void decode_WithUnsupportedSort_ShouldThrow() {
+        String encoded = PageCursor.encode("status", "asc", 1, 1);
+
+        assertThrows(ValidationException.class, () -> PageCursor.decode(encoded, "createdAt"));
+    }
+
+    @Test
+    void decode_WithMalformedCursor_ShouldThrow() {
+        String badOrder = Base64.getUrlEncoder().encodeToString(
+                "createTime|sideways|1|1".getBytes(StandardCharsets.UTF_8));
+        String badNumber = Base64.getUrlEncoder().encodeToString(
+                "createTime|desc|abc|1".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(ValidationException.class, () -> PageCursor.decode("not base64!", "createTime"));
+        assertThrows(ValidationException.class, () -> PageCursor.decode(badOrder, "createTime"));
+        assertThrows(ValidationException.class, () -> PageCursor.decode(badNumber, "createTime"));
+    }
+}
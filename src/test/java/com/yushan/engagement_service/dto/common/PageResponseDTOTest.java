@@ -279,4 +279,25 @@ class PageResponseDTOTest {
             return value != null ? value.hashCode() : 0;
         }
     }
+
+    @Test
+    void ofCursor_ShouldExposeNextCursorWithoutTotals() {
+        PageResponseDTO<String> page = PageResponseDTO.ofCursor(java.util.List.of("a", "b"), 2, "next");
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(2, page.getSize());
+        assertEquals("next", page.getNextCursor());
+        assertTrue(page.isHasNext());
+        assertFalse(page.isLast());
+        assertEquals(0, page.getTotalElements());
+    }
+
+    @Test
+    void ofCursor_OnLastPage_ShouldHaveNoNextCursor() {
+        PageResponseDTO<String> page = PageResponseDTO.ofCursor(java.util.List.of("a"), 2, null);
+
+        assertNull(page.getNextCursor());
+        assertFalse(page.isHasNext());
+        assertTrue(page.isLast());
+    }
 }
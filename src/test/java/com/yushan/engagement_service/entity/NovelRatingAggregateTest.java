@@ -0,0 +1,51 @@
+package com.yushan.engagement_service.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NovelRatingAggregateTest {
+
+    @Test
+    void testEmpty() {
+        NovelRatingAggregate aggregate = NovelRatingAggregate.empty(7);
+
+        assertEquals(7, aggregate.getNovelId());
+        assertEquals(0L, aggregate.getRatingSum());
+        assertEquals(0, aggregate.getReviewCount());
+        assertEquals(0, aggregate.getRating1Count());
+        assertEquals(0, aggregate.getRating5Count());
+        assertEquals(0.0f, aggregate.getAverageRating());
+    }
+
+    @Test
+    void testGetAverageRating_ShouldRoundToOneDecimal() {
+        NovelRatingAggregate aggregate = NovelRatingAggregate.empty(1);
+        aggregate.setRatingSum(14L);
+        aggregate.setReviewCount(3);
+
+        assertEquals(4.7f, aggregate.getAverageRating());
+    }
+
+    @Test
+    void testGetAverageRating_WithLargeCounts() {
+        NovelRatingAggregate aggregate = NovelRatingAggregate.empty(1);
+        aggregate.setRatingSum(4_500_000L);
+        aggregate.setReviewCount(1_000_000);
+
+        assertEquals(4.5f, aggregate.getAverageRating());
+    }
+
+    @Test
+    void testUpdateTimeIsDefensivelyCopied() {
+        NovelRatingAggregate aggregate = new NovelRatingAggregate();
+        Date now = new Date();
+        aggregate.setUpdateTime(now);
+        now.setTime(0L);
+
+        assertNotEquals(0L, aggregate.getUpdateTime().getTime());
+        assertNotSame(aggregate.getUpdateTime(), aggregate.getUpdateTime());
+    }
+}
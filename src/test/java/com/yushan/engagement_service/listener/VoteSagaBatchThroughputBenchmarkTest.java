@@ -0,0 +1,226 @@
+package com.yushan.engagement_service.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yushan.engagement_service.cache.NovelProjection;
+import com.yushan.engagement_service.cache.NovelProjectionCache;
+import com.yushan.engagement_service.dto.event.VoteSagaYuanReservedEvent;
+import com.yushan.engagement_service.entity.Vote;
+import com.yushan.engagement_service.service.IdempotencyService;
+import com.yushan.engagement_service.service.KafkaEventProducerService;
+import com.yushan.engagement_service.service.NovelVoteCounterService;
+import com.yushan.engagement_service.service.TransactionAwareKafkaPublisher;
+import com.yushan.engagement_service.service.VoteSagaService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares the vote SAGA consumer processing a burst of yuan-reserved records one at a time versus
+ * one poll batch at a time, on a few hot novels.
+ * Redis and the database are replaced by in-process stand-ins that charge a fixed latency per round trip.
+ */
+@Tag("benchmark")
+public class VoteSagaBatchThroughputBenchmarkTest {
+
+    private static final int SINGLE_RECORDS = 500;
+    private static final int BATCH_RECORDS = 5_000;
+    private static final int POLL_SIZE = 500;
+    private static final int HOT_NOVELS = 5;
+    private static final long SIMULATED_ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(250);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void batchMode_ShouldNeedTenTimesFewerRoundTripsPerRecord() throws Exception {
+        StandInStore store = new StandInStore();
+        VoteSagaListener listener = listener(store);
+
+        List<String> singleRecords = records("single", SINGLE_RECORDS);
+        long singleStart = System.nanoTime();
+        for (String record : singleRecords) {
+            listener.handleVoteSagaYuanReserved(record);
+        }
+        long singleNanos = System.nanoTime() - singleStart;
+        int singleRoundTrips = store.roundTrips.getAndSet(0);
+        assertEquals(SINGLE_RECORDS, store.votes.size());
+
+        List<String> batchRecords = records("batch", BATCH_RECORDS);
+        long batchStart = System.nanoTime();
+        for (int i = 0; i < batchRecords.size(); i += POLL_SIZE) {
+            listener.handleVoteSagaYuanReservedBatch(batchRecords.subList(i, i + POLL_SIZE));
+        }
+        long batchNanos = System.nanoTime() - batchStart;
+        int batchRoundTrips = store.roundTrips.get();
+
+        double singleRate = SINGLE_RECORDS * 1e9 / singleNanos;
+        double batchRate = BATCH_RECORDS * 1e9 / batchNanos;
+        System.out.println("mode    | records |     ms | records/sec | round trips");
+        System.out.printf("single  | %7d | %6d | %11.0f | %11d%n",
+                SINGLE_RECORDS, singleNanos / 1_000_000, singleRate, singleRoundTrips);
+        System.out.printf("batch   | %7d | %6d | %11.0f | %11d%n",
+                BATCH_RECORDS, batchNanos / 1_000_000, batchRate, batchRoundTrips);
+
+        // Every record produced exactly one vote and was claimed
+        assertEquals(SINGLE_RECORDS + BATCH_RECORDS, store.votes.size());
+        assertEquals(SINGLE_RECORDS + BATCH_RECORDS, store.processed.size());
+        assertEquals(SINGLE_RECORDS + BATCH_RECORDS,
+                store.counters.values().stream().mapToLong(Long::longValue).sum());
+        // Round trips are what the simulated latency charges for, and unlike time they are deterministic
+        assertTrue((long) batchRoundTrips * SINGLE_RECORDS * 10 <= (long) singleRoundTrips * BATCH_RECORDS,
+                "single: " + singleRoundTrips + " round trips, batch: " + batchRoundTrips + " round trips");
+    }
+
+    private VoteSagaListener listener(StandInStore store) {
+        NovelProjectionCache novelProjectionCache = mock(NovelProjectionCache.class);
+        Map<Integer, NovelProjection> novels = new LinkedHashMap<>();
+        for (int id = 1; id <= HOT_NOVELS; id++) {
+            novels.put(id, new NovelProjection(id, "Novel " + id, UUID.randomUUID(), "PUBLISHED"));
+        }
+        when(novelProjectionCache.getNovel(anyInt())).thenAnswer(invocation -> novels.get(invocation.getArgument(0)));
+        when(novelProjectionCache.getNovels(anyCollection())).thenReturn(novels);
+
+        IdempotencyService idempotencyService = new StandInIdempotencyService(store);
+        VoteSagaService voteSagaService = new VoteSagaService();
+        ReflectionTestUtils.setField(voteSagaService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(voteSagaService, "idempotencyService", idempotencyService);
+        ReflectionTestUtils.setField(voteSagaService, "novelVoteCounterService", new StandInVoteCounterService(store));
+        ReflectionTestUtils.setField(voteSagaService, "novelProjectionCache", novelProjectionCache);
+        // Kafka sends are asynchronous and batched by the producer; they are not charged a round trip
+        ReflectionTestUtils.setField(voteSagaService, "kafkaEventProducerService", mock(KafkaEventProducerService.class));
+        ReflectionTestUtils.setField(voteSagaService, "transactionAwareKafkaPublisher", mock(TransactionAwareKafkaPublisher.class));
+
+        VoteSagaListener listener = new VoteSagaListener();
+        ReflectionTestUtils.setField(listener, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(listener, "idempotencyService", idempotencyService);
+        ReflectionTestUtils.setField(listener, "novelProjectionCache", novelProjectionCache);
+        ReflectionTestUtils.setField(listener, "voteSagaService", voteSagaService);
+        ReflectionTestUtils.setField(listener, "kafkaTemplate", mock(KafkaTemplate.class));
+        return listener;
+    }
+
+    private List<String> records(String prefix, int count) throws Exception {
+        List<String> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(objectMapper.writeValueAsString(VoteSagaYuanReservedEvent.builder()
+                    .sagaId(prefix + "-" + i)
+                    .userId(UUID.randomUUID())
+                    .novelId(1 + i % HOT_NOVELS)
+                    .reservationId(UUID.randomUUID())
+                    .build()));
+        }
+        return records;
+    }
+
+    /**
+     * Stand-in for Redis plus the vote, novel_vote_counter and processed_events tables
+     */
+    private static final class StandInStore {
+        private final AtomicInteger roundTrips = new AtomicInteger();
+        private final List<Vote> votes = new ArrayList<>();
+        private final Map<Integer, Long> counters = new LinkedHashMap<>();
+        private final Set<String> processed = new HashSet<>();
+
+        void roundTrip() {
+            roundTrips.incrementAndGet();
+            LockSupport.parkNanos(SIMULATED_ROUND_TRIP_NANOS);
+        }
+
+        void insertVote(Vote vote) {
+            vote.setId(votes.size() + 1);
+            votes.add(vote);
+        }
+    }
+
+    private static final class StandInIdempotencyService extends IdempotencyService {
+        private final StandInStore store;
+
+        StandInIdempotencyService(StandInStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public boolean tryClaim(String idempotencyKey, String eventType) {
+            store.roundTrip(); // Redis claim script
+            store.roundTrip(); // INSERT ... ON CONFLICT DO NOTHING, committed with the vote
+            store.roundTrip(); // Redis SET processed after commit
+            return store.processed.add(idempotencyKey);
+        }
+
+        @Override
+        public Set<String> findProcessed(Collection<String> idempotencyKeys, String eventType) {
+            store.roundTrip(); // Redis MGET
+            store.roundTrip(); // SELECT ... IN on processed_events
+            Set<String> found = new HashSet<>(idempotencyKeys);
+            found.retainAll(store.processed);
+            return found;
+        }
+
+        @Override
+        public Set<String> tryClaimAll(Collection<String> idempotencyKeys, String eventType) {
+            store.roundTrip(); // pipelined Redis claim scripts
+            store.roundTrip(); // multi-row INSERT ... RETURNING, committed with the votes
+            store.roundTrip(); // pipelined Redis SETs after commit
+            Set<String> claimed = new LinkedHashSet<>();
+            for (String idempotencyKey : idempotencyKeys) {
+                if (store.processed.add(idempotencyKey)) {
+                    claimed.add(idempotencyKey);
+                }
+            }
+            return claimed;
+        }
+    }
+
+    private static final class StandInVoteCounterService extends NovelVoteCounterService {
+        private final StandInStore store;
+
+        StandInVoteCounterService(StandInStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public long recordVote(Vote vote) {
+            store.roundTrip(); // INSERT vote
+            store.insertVote(vote);
+            store.roundTrip(); // counter upsert
+            long count = store.counters.merge(vote.getNovelId(), 1L, Long::sum);
+            store.roundTrip(); // counter sum
+            store.roundTrip(); // commit
+            return count;
+        }
+
+        @Override
+        public Map<Integer, Long> recordVotes(List<Vote> votes) {
+            store.roundTrip(); // multi-row INSERT
+            Map<Integer, Long> counts = new LinkedHashMap<>();
+            for (Vote vote : votes) {
+                store.insertVote(vote);
+                counts.merge(vote.getNovelId(), 1L, Long::sum);
+            }
+            counts.replaceAll((novelId, added) -> {
+                store.roundTrip(); // counter upsert
+                store.roundTrip(); // counter sum
+                return store.counters.merge(novelId, added, Long::sum);
+            });
+            store.roundTrip(); // commit
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.yushan.engagement_service.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yushan.engagement_service.cache.NovelProjection;
+import com.yushan.engagement_service.cache.NovelProjectionCache;
+import com.yushan.engagement_service.dto.event.VoteSagaCompensateYuanEvent;
+import com.yushan.engagement_service.dto.event.VoteSagaYuanReservedEvent;
+import com.yushan.engagement_service.exception.ValidationException;
+import com.yushan.engagement_service.repository.VoteRepository;
+import com.yushan.engagement_service.service.IdempotencyService;
+import com.yushan.engagement_service.service.KafkaEventProducerService;
+import com.yushan.engagement_service.service.NovelVoteCounterService;
+import com.yushan.engagement_service.service.VoteSagaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VoteSagaListenerTest {
+
+    private static final String KEY_PREFIX = "idempotency:vote-saga-create:";
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    @Mock
+    private NovelVoteCounterService novelVoteCounterService;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private KafkaEventProducerService kafkaEventProducerService;
+
+    @Mock
+    private NovelProjectionCache novelProjectionCache;
+
+    @Mock
+    private VoteSagaService voteSagaService;
+
+    @InjectMocks
+    private VoteSagaListener voteSagaListener;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final UUID authorId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(voteSagaListener, "objectMapper", objectMapper);
+        lenient().when(novelProjectionCache.getNovels(anyCollection())).thenReturn(Map.of(
+                1, new NovelProjection(1, "Novel 1", authorId, "PUBLISHED"),
+                2, new NovelProjection(2, "Novel 2", authorId, "PUBLISHED")));
+        lenient().doCallRealMethod().when(voteSagaService).validateNovel(any(), any());
+    }
+
+    @Test
+    void single_ShouldCreateVoteThroughSagaService() throws Exception {
+        when(voteSagaService.createVote(any(VoteSagaYuanReservedEvent.class))).thenReturn(10);
+
+        voteSagaListener.handleVoteSagaYuanReserved(json("s1", UUID.randomUUID(), 1));
+
+        verify(voteSagaService).createVote(argThat(event -> "s1".equals(event.getSagaId())));
+        verifyNoInteractions(kafkaTemplate, idempotencyService);
+    }
+
+    @Test
+    void single_AlreadyProcessed_ShouldNotCompensate() throws Exception {
+        when(voteSagaService.createVote(any(VoteSagaYuanReservedEvent.class))).thenReturn(null);
+
+        voteSagaListener.handleVoteSagaYuanReserved(json("s1", UUID.randomUUID(), 1));
+
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void single_ValidationFailure_ShouldCompensate() throws Exception {
+        when(voteSagaService.createVote(any(VoteSagaYuanReservedEvent.class)))
+                .thenThrow(new ValidationException("Novel does not exist: 99"));
+
+        voteSagaListener.handleVoteSagaYuanReserved(json("s1", UUID.randomUUID(), 99));
+
+        verify(kafkaTemplate).send(eq("vote-saga.compensate-yuan"), eq("s1"), any(VoteSagaCompensateYuanEvent.class));
+        verify(kafkaTemplate).send(eq("vote-saga.failed"), eq("s1"), any());
+    }
+
+    @Test
+    void batch_ShouldCreateAllVotesInOneCall() throws Exception {
+        when(idempotencyService.findProcessed(anyCollection(), eq("VoteSagaCreate"))).thenReturn(Collections.emptySet());
+        when(voteSagaService.createVotes(anyList())).thenReturn(List.of("s1", "s2", "s3"));
+
+        voteSagaListener.handleVoteSagaYuanReservedBatch(List.of(
+                json("s1", UUID.randomUUID(), 1), json("s2", UUID.randomUUID(), 1), json("s3", UUID.randomUUID(), 2)));
+
+        ArgumentCaptor<List<VoteSagaYuanReservedEvent>> events = eventListCaptor();
+        verify(voteSagaService).createVotes(events.capture());
+        assertEquals(3, events.getValue().size());
+        verify(voteSagaService, never()).createVote(any());
+        verify(novelProjectionCache, never()).getNovel(any());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void batch_ShouldSkipDuplicateAndAlreadyProcessedSagas() throws Exception {
+        when(idempotencyService.findProcessed(anyCollection(), eq("VoteSagaCreate"))).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(0);
+            assertEquals(2, keys.size());
+            return Set.of(KEY_PREFIX + "s2");
+        });
+        when(voteSagaService.createVotes(anyList())).thenReturn(List.of("s1"));
+        UUID userId = UUID.randomUUID();
+
+        voteSagaListener.handleVoteSagaYuanReservedBatch(List.of(
+                json("s1", userId, 1), json("s1", userId, 1), json("s2", UUID.randomUUID(), 1)));
+
+        ArgumentCaptor<List<VoteSagaYuanReservedEvent>> events = eventListCaptor();
+        verify(voteSagaService).createVotes(events.capture());
+        assertEquals(1, events.getValue().size());
+        assertEquals(userId, events.getValue().get(0).getUserId());
+    }
+
+    @Test
+    void batch_InvalidRecords_ShouldBeCompensatedWithoutFailingTheRest() throws Exception {
+        when(idempotencyService.findProcessed(anyCollection(), anyString())).thenReturn(Collections.emptySet());
+        when(voteSagaService.createVotes(anyList())).thenReturn(List.of("ok"));
+
+        voteSagaListener.handleVoteSagaYuanReservedBatch(List.of(
+                "not json",
+                json("missing-novel", UUID.randomUUID(), 99),
+                json("own-novel", authorId, 2),
+                json("ok", UUID.randomUUID(), 1)));
+
+        ArgumentCaptor<List<VoteSagaYuanReservedEvent>> events = eventListCaptor();
+        verify(voteSagaService).createVotes(events.capture());
+        assertEquals(1, events.getValue().size());
+        assertEquals(1, events.getValue().get(0).getNovelId());
+        verify(kafkaTemplate).send(eq("vote-saga.compensate-yuan"), eq("missing-novel"), any(VoteSagaCompensateYuanEvent.class));
+        verify(kafkaTemplate).send(eq("vote-saga.compensate-yuan"), eq("own-novel"), any(VoteSagaCompensateYuanEvent.class));
+        verify(kafkaTemplate, times(2)).send(eq("vote-saga.failed"), anyString(), any());
+        verify(kafkaTemplate, never()).send(eq("vote-saga.compensate-yuan"), eq("ok"), any());
+    }
+
+    @Test
+    void batch_WhenBatchTransactionFails_ShouldRetryRecordsOneByOneAndCompensateOnlyFailures() throws Exception {
+        when(idempotencyService.findProcessed(anyCollection(), anyString())).thenReturn(Collections.emptySet());
+        when(voteSagaService.createVotes(anyList())).thenThrow(new RuntimeException("batch insert failed"));
+        when(voteSagaService.createVote(any(VoteSagaYuanReservedEvent.class))).thenAnswer(invocation -> {
+            VoteSagaYuanReservedEvent event = invocation.getArgument(0);
+            if (event.getNovelId() == 2) {
+                throw new RuntimeException("insert failed");
+            }
+            return 10;
+        });
+
+        voteSagaListener.handleVoteSagaYuanReservedBatch(List.of(
+                json("s1", UUID.randomUUID(), 1), json("s2", UUID.randomUUID(), 2)));
+
+        verify(voteSagaService, times(2)).createVote(any(VoteSagaYuanReservedEvent.class));
+        verify(kafkaTemplate).send(eq("vote-saga.compensate-yuan"), eq("s2"), any(VoteSagaCompensateYuanEvent.class));
+        verify(kafkaTemplate, never()).send(eq("vote-saga.compensate-yuan"), eq("s1"), any());
+    }
+
+    @Test
+    void batch_WhenAllRecordsAlreadyProcessed_ShouldNotTouchTheDatabase() throws Exception {
+        when(idempotencyService.findProcessed(anyCollection(), anyString())).thenReturn(Set.of(KEY_PREFIX + "s1"));
+
+        voteSagaListener.handleVoteSagaYuanReservedBatch(List.of(json("s1", UUID.randomUUID(), 1)));
+
+        verify(voteSagaService, never()).createVotes(anyList());
+        verifyNoInteractions(novelVoteCounterService, kafkaTemplate, kafkaEventProducerService);
+    }
+
+    private String json(String sagaId, UUID userId, Integer novelId) throws Exception {
+        return objectMapper.writeValueAsString(VoteSagaYuanReservedEvent.builder()
+                .sagaId(sagaId)
+                .userId(userId)
+                .novelId(novelId)
+                .reservationId(UUID.randomUUID())
+                .build());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<VoteSagaYuanReservedEvent>> eventListCaptor() {
+        return ArgumentCaptor.forClass((Class<List<VoteSagaYuanReservedEvent>>) (Class<?>) List.class);
+    }
+}
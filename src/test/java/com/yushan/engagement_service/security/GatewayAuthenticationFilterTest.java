@@ -0,0 +1,113 @@
+package com.yushan.engagement_service.security;
+
+import com.yushan.engagement_service.util.HmacUtil;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GatewayAuthenticationFilterTest {
+
+    private static final String SECRET = "test-gateway-secret";
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private FilterChain filterChain;
+
+    @InjectMocks
+    private GatewayAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        ReflectionTestUtils.setField(filter, "hmacSecret", SECRET);
+        ReflectionTestUtils.setField(filter, "verifiedCacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(filter, "verifiedCacheTtlSeconds", 30L);
+        filter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilterInternal_WithValidSignature_ShouldAuthenticate() throws Exception {
+        long now = System.currentTimeMillis();
+        gatewayHeaders("USER", now, HmacUtil.generateSignature("user-1", "a@example.com", "USER", now, SECRET));
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_WithForgedRole_ShouldReject() throws Exception {
+        long now = System.currentTimeMillis();
+        gatewayHeaders("ADMIN", now, HmacUtil.generateSignature("user-1", "a@example.com", "USER", now, SECRET));
+        when(response.getWriter()).thenReturn(new PrintWriter(new StringWriter()));
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(response).setStatus(403);
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void isSignatureValid_ShouldServeRepeatsFromTheVerifiedCache() throws Exception {
+        long now = System.currentTimeMillis();
+        String signature = HmacUtil.generateSignature("user-1", "a@example.com", "USER", now, SECRET);
+        assertTrue(filter.isSignatureValid("user-1", "a@example.com", "USER", now, signature));
+
+        // With another secret only a cache hit can still accept the signature
+        ReflectionTestUtils.setField(filter, "hmacSecret", "rotated-secret");
+
+        assertTrue(filter.isSignatureValid("user-1", "a@example.com", "USER", now, signature));
+        assertFalse(filter.isSignatureValid("user-1", "a@example.com", "ADMIN", now, signature));
+        assertFalse(filter.isSignatureValid("user-1", "a@example.com", "USER", now, signature.replace(signature.charAt(0), '#')));
+    }
+
+    @Test
+    void isSignatureValid_ShouldNotCacheFailures() throws Exception {
+        long now = System.currentTimeMillis();
+        String signature = HmacUtil.generateSignature("user-1", "a@example.com", "USER", now, "rotated-secret");
+        assertFalse(filter.isSignatureValid("user-1", "a@example.com", "USER", now, signature));
+
+        ReflectionTestUtils.setField(filter, "hmacSecret", "rotated-secret");
+
+        assertTrue(filter.isSignatureValid("user-1", "a@example.com", "USER", now, signature));
+    }
+
+    private void gatewayHeaders(String role, long timestamp, String signature) {
+        when(request.getHeader("X-Gateway-Validated")).thenReturn("true");
+        when(request.getHeader("X-User-Id")).thenReturn("user-1");
+        when(request.getHeader("X-User-Email")).thenReturn("a@example.com");
+        when(request.getHeader("X-User-Username")).thenReturn("reader");
+        when(request.getHeader("X-User-Role")).thenReturn(role);
+        when(request.getHeader("X-User-Status")).thenReturn(null);
+        when(request.getHeader("X-Gateway-Timestamp")).thenReturn(Long.toString(timestamp));
+        when(request.getHeader("X-Gateway-Signature")).thenReturn(signature);
+    }
+}
@@ -0,0 +1,95 @@
+package com.yushan.engagement_service.security;
+
+import com.yushan.engagement_service.util.HmacUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares time and allocation per gateway signature verification: the previous HmacUtil
+ * (Mac.getInstance, SecretKeySpec, String.format and Base64 strings on every call), the
+ * per-thread Mac with reusable buffers, and a repeat served from the filter's verified cache.
+ * Single-threaded and in process, so timings are indicative; only allocation is asserted.
+ */
+@Tag("benchmark")
+public class GatewaySignatureBenchmarkTest {
+
+    private static final String SECRET = "yushan-gateway-hmac-secret-key-for-request-signature-2024";
+    private static final String USER_ID = "2f1c6c9e-6f0a-4a57-9d8e-0d4f2f0b9a11";
+    private static final String EMAIL = "reader@example.com";
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    @FunctionalInterface
+    private interface Verification {
+        boolean verify(long timestamp, String signature) throws Exception;
+    }
+
+    @Test
+    void threadLocalMac_ShouldAllocateLessPerVerification() throws Exception {
+        long timestamp = System.currentTimeMillis();
+        String signature = HmacUtil.generateSignature(USER_ID, EMAIL, "USER", timestamp, SECRET);
+
+        GatewayAuthenticationFilter filter = new GatewayAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "hmacSecret", SECRET);
+        ReflectionTestUtils.setField(filter, "verifiedCacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(filter, "verifiedCacheTtlSeconds", 30L);
+        filter.init();
+
+        System.out.println("verification            | ns/op | bytes/op");
+        long previousBytes = run("previous HmacUtil", timestamp, signature,
+                GatewaySignatureBenchmarkTest::previousVerify);
+        long threadLocalBytes = run("thread-local Mac", timestamp, signature,
+                (ts, sig) -> HmacUtil.verifySignature(USER_ID, EMAIL, "USER", ts, sig, SECRET));
+        long cachedBytes = run("verified cache hit", timestamp, signature,
+                (ts, sig) -> filter.isSignatureValid(USER_ID, EMAIL, "USER", ts, sig));
+
+        assertTrue(threadLocalBytes * 10 < previousBytes, "reusable buffers should avoid most allocation");
+        assertTrue(cachedBytes < previousBytes, "a cache hit should allocate less than a fresh Mac");
+    }
+
+    private static long run(String name, long timestamp, String signature, Verification verification) throws Exception {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        for (int i = 0; i < WARMUP; i++) {
+            assertTrue(verification.verify(timestamp, signature));
+        }
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        int verified = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            if (verification.verify(timestamp, signature)) {
+                verified++;
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = (threads.getThreadAllocatedBytes(threadId) - bytesBefore) / ITERATIONS;
+        System.out.printf("%-23s | %5d | %8d%n", name, nanos / ITERATIONS, bytes);
+        assertEquals(ITERATIONS, verified);
+        return bytes;
+    }
+
+    /**
+     * HmacUtil.verifySignature before the per-thread Mac
+     */
+    private static boolean previousVerify(long timestamp, String signature) throws Exception {
+        if (Math.abs(System.currentTimeMillis() - timestamp) > 5 * 60 * 1000) {
+            return false;
+        }
+        String message = String.format("%s|%s|%s|%d", USER_ID, EMAIL, "USER", timestamp);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String expected = Base64.getEncoder().encodeToString(mac.doFinal(message.getBytes(StandardCharsets.UTF_8)));
+        return HmacUtil.constantTimeEquals(expected, signature);
+    }
+}
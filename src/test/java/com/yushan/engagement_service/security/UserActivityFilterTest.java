@@ -1,7 +1,6 @@
 package com.yushan.engagement_service.security;
 
-import com.yushan.engagement_service.dto.event.UserActivityEvent;
-import com.yushan.engagement_service.service.KafkaEventProducerService;
+import com.yushan.engagement_service.service.UserActivityTracker;
 import com.yushan.engagement_service.util.SecurityUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -24,7 +23,7 @@ import static org.mockito.Mockito.*;
 class UserActivityFilterTest {
 
     @Mock
-    private KafkaEventProducerService kafkaEventProducerService;
+    private UserActivityTracker userActivityTracker;
 
     @Mock
     private HttpServletRequest request;
@@ -44,7 +43,7 @@ class UserActivityFilterTest {
     }
 
     @Test
-    void doFilterInternal_WithAuthenticatedRequest_ShouldPublishUserActivityEvent() throws ServletException, IOException {
+    void doFilterInternal_WithAuthenticatedRequest_ShouldRecordUserActivity() throws ServletException, IOException {
         // Arrange
         UUID userId = UUID.randomUUID();
         when(request.getHeader("Authorization")).thenReturn("Bearer valid-token");
@@ -58,19 +57,13 @@ class UserActivityFilterTest {
             filter.doFilterInternal(request, response, filterChain);
 
             // Assert
-            verify(kafkaEventProducerService).publishUserActivityEvent(argThat(event -> 
-                event.userId().equals(userId) &&
-                event.serviceName().equals("engagement-service") &&
-                event.endpoint().equals("/api/v1/test") &&
-                event.method().equals("GET") &&
-                event.timestamp() != null
-            ));
+            verify(userActivityTracker).recordActivity(userId, "/api/v1/test", "GET");
             verify(filterChain).doFilter(request, response);
         }
     }
 
     @Test
-    void doFilterInternal_WithNonAuthenticatedRequest_ShouldNotPublishEvent() throws ServletException, IOException {
+    void doFilterInternal_WithNonAuthenticatedRequest_ShouldNotRecordActivity() throws ServletException, IOException {
         // Arrange
         when(request.getHeader("Authorization")).thenReturn(null);
 
@@ -78,12 +71,12 @@ class UserActivityFilterTest {
         filter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        verify(kafkaEventProducerService, never()).publishUserActivityEvent(any(UserActivityEvent.class));
+        verify(userActivityTracker, never()).recordActivity(any(), any(), any());
         verify(filterChain).doFilter(request, response);
     }
 
     @Test
-    void doFilterInternal_WithInvalidAuthHeader_ShouldNotPublishEvent() throws ServletException, IOException {
+    void doFilterInternal_WithInvalidAuthHeader_ShouldNotRecordActivity() throws ServletException, IOException {
         // Arrange
         when(request.getHeader("Authorization")).thenReturn("Basic dXNlcjpwYXNz");
 
@@ -91,12 +84,12 @@ class UserActivityFilterTest {
         filter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        verify(kafkaEventProducerService, never()).publishUserActivityEvent(any(UserActivityEvent.class));
+        verify(userActivityTracker, never()).recordActivity(any(), any(), any());
         verify(filterChain).doFilter(request, response);
     }
 
     @Test
-    void doFilterInternal_WithNullUserId_ShouldNotPublishEvent() throws ServletException, IOException {
+    void doFilterInternal_WithNullUserId_ShouldNotRecordActivity() throws ServletException, IOException {
         // Arrange
         when(request.getHeader("Authorization")).thenReturn("Bearer valid-token");
 
@@ -107,13 +100,13 @@ class UserActivityFilterTest {
             filter.doFilterInternal(request, response, filterChain);
 
             // Assert
-            verify(kafkaEventProducerService, never()).publishUserActivityEvent(any(UserActivityEvent.class));
+            verify(userActivityTracker, never()).recordActivity(any(), any(), any());
             verify(filterChain).doFilter(request, response);
         }
     }
 
     @Test
-    void doFilterInternal_WithKafkaServiceException_ShouldContinueFilterChain() throws ServletException, IOException {
+    void doFilterInternal_WithTrackerException_ShouldContinueFilterChain() throws ServletException, IOException {
         // Arrange
         UUID userId = UUID.randomUUID();
         when(request.getHeader("Authorization")).thenReturn("Bearer valid-token");
@@ -122,8 +115,8 @@ class UserActivityFilterTest {
 
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(userId);
-            doThrow(new RuntimeException("Kafka error")).when(kafkaEventProducerService)
-                .publishUserActivityEvent(any(UserActivityEvent.class));
+            doThrow(new RuntimeException("Tracker error")).when(userActivityTracker)
+                .recordActivity(any(), any(), any());
 
             // Act
             filter.doFilterInternal(request, response, filterChain);
@@ -145,13 +138,13 @@ class UserActivityFilterTest {
             filter.doFilterInternal(request, response, filterChain);
 
             // Assert
-            verify(kafkaEventProducerService, never()).publishUserActivityEvent(any(UserActivityEvent.class));
+            verify(userActivityTracker, never()).recordActivity(any(), any(), any());
             verify(filterChain).doFilter(request, response);
         }
     }
 
     @Test
-    void doFilterInternal_WithPostRequest_ShouldPublishCorrectEvent() throws ServletException, IOException {
+    void doFilterInternal_WithPostRequest_ShouldRecordEndpointAndMethod() throws ServletException, IOException {
         // Arrange
         UUID userId = UUID.randomUUID();
         when(request.getHeader("Authorization")).thenReturn("Bearer valid-token");
@@ -165,18 +158,13 @@ class UserActivityFilterTest {
             filter.doFilterInternal(request, response, filterChain);
 
             // Assert
-            verify(kafkaEventProducerService).publishUserActivityEvent(argThat(event -> 
-                event.userId().equals(userId) &&
-                event.serviceName().equals("engagement-service") &&
-                event.endpoint().equals("/api/v1/comments") &&
-                event.method().equals("POST")
-            ));
+            verify(userActivityTracker).recordActivity(userId, "/api/v1/comments", "POST");
             verify(filterChain).doFilter(request, response);
         }
     }
 
     @Test
-    void doFilterInternal_WithPutRequest_ShouldPublishCorrectEvent() throws ServletException, IOException {
+    void doFilterInternal_WithPutRequest_ShouldRecordEndpointAndMethod() throws ServletException, IOException {
         // Arrange
         UUID userId = UUID.randomUUID();
         when(request.getHeader("Authorization")).thenReturn("Bearer valid-token");
@@ -190,18 +178,13 @@ class UserActivityFilterTest {
             filter.doFilterInternal(request, response, filterChain);
 
             // Assert
-            verify(kafkaEventProducerService).publishUserActivityEvent(argThat(event -> 
-                event.userId().equals(userId) &&
-                event.serviceName().equals("engagement-service") &&
-                event.endpoint().equals("/api/v1/reviews/123") &&
-                event.method().equals("PUT")
-            ));
+            verify(userActivityTracker).recordActivity(userId, "/api/v1/reviews/123", "PUT");
             verify(filterChain).doFilter(request, response);
         }
     }
 
     @Test
-    void doFilterInternal_WithDeleteRequest_ShouldPublishCorrectEvent() throws ServletException, IOException {
+    void doFilterInternal_WithDeleteRequest_ShouldRecordEndpointAndMethod() throws ServletException, IOException {
         // Arrange
         UUID userId = UUID.randomUUID();
         when(request.getHeader("Authorization")).thenReturn("Bearer valid-token");
@@ -215,12 +198,7 @@ class UserActivityFilterTest {
             filter.doFilterInternal(request, response, filterChain);
 
             // Assert
-            verify(kafkaEventProducerService).publishUserActivityEvent(argThat(event -> 
-                event.userId().equals(userId) &&
-                event.serviceName().equals("engagement-service") &&
-                event.endpoint().equals("/api/v1/comments/456") &&
-                event.method().equals("DELETE")
-            ));
+            verify(userActivityTracker).recordActivity(userId, "/api/v1/comments/456", "DELETE");
             verify(filterChain).doFilter(request, response);
         }
     }
@@ -0,0 +1,90 @@
+package com.yushan.engagement_service.service;
+
+import com.yushan.engagement_service.cache.ChapterMetadata;
+import com.yushan.engagement_service.cache.ChapterMetadataCache;
+import com.yushan.engagement_service.repository.CommentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentNovelBackfillServiceTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private ChapterMetadataCache chapterMetadataCache;
+
+    @InjectMocks
+    private CommentNovelBackfillService commentNovelBackfillService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(commentNovelBackfillService, "enabled", true);
+        ReflectionTestUtils.setField(commentNovelBackfillService, "chapterBatchSize", 2);
+        ReflectionTestUtils.setField(commentNovelBackfillService, "rowBatchSize", 100);
+    }
+
+    @Test
+    void backfill_ShouldWalkChaptersInBatchesAndFillRowsUntilDone() {
+        when(commentRepository.findChapterIdsWithoutNovel(0, 2)).thenReturn(List.of(1, 2));
+        when(commentRepository.findChapterIdsWithoutNovel(2, 2)).thenReturn(List.of(3));
+        when(chapterMetadataCache.getChapters(List.of(1, 2))).thenReturn(Map.of(1, chapter(1, 10), 2, chapter(2, 10)));
+        when(chapterMetadataCache.getChapters(List.of(3))).thenReturn(Map.of(3, chapter(3, 20)));
+        // Chapter 1 has more comments than one row batch
+        when(commentRepository.backfillNovelId(1, 10, 100)).thenReturn(100, 40);
+        when(commentRepository.backfillNovelId(2, 10, 100)).thenReturn(5);
+        when(commentRepository.backfillNovelId(3, 20, 100)).thenReturn(1);
+
+        int updated = commentNovelBackfillService.backfill();
+
+        assertEquals(146, updated);
+        verify(commentRepository, times(2)).backfillNovelId(1, 10, 100);
+        verify(commentRepository, never()).findChapterIdsWithoutNovel(eq(3), anyInt());
+    }
+
+    @Test
+    void backfill_WithUnknownChapter_ShouldSkipItAndContinue() {
+        when(commentRepository.findChapterIdsWithoutNovel(0, 2)).thenReturn(List.of(1, 2));
+        when(commentRepository.findChapterIdsWithoutNovel(2, 2)).thenReturn(Collections.emptyList());
+        when(chapterMetadataCache.getChapters(List.of(1, 2))).thenReturn(Map.of(2, chapter(2, 10)));
+        when(commentRepository.backfillNovelId(2, 10, 100)).thenReturn(3);
+
+        assertEquals(3, commentNovelBackfillService.backfill());
+        verify(commentRepository, never()).backfillNovelId(eq(1), any(), anyInt());
+    }
+
+    @Test
+    void backfill_WhenNothingMissing_ShouldOnlyQueryOnce() {
+        when(commentRepository.findChapterIdsWithoutNovel(0, 2)).thenReturn(Collections.emptyList());
+
+        assertEquals(0, commentNovelBackfillService.backfill());
+        verifyNoInteractions(chapterMetadataCache);
+    }
+
+    @Test
+    void scheduledBackfill_WhenDisabled_ShouldDoNothing() {
+        ReflectionTestUtils.setField(commentNovelBackfillService, "enabled", false);
+
+        commentNovelBackfillService.scheduledBackfill();
+
+        verifyNoInteractions(commentRepository, chapterMetadataCache);
+    }
+
+    private ChapterMetadata chapter(Integer id, Integer novelId) {
+        return new ChapterMetadata(id, novelId, "Chapter " + id, true, true);
+    }
+}
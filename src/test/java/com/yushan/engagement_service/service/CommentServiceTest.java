@@ -1,20 +1,30 @@
 package com.yushan.engagement_service.service;
 
-import com.yushan.engagement_service.client.ContentServiceClient;
-import com.yushan.engagement_service.client.UserServiceClient;
+import com.yushan.engagement_service.cache.ChapterMetadata;
+import com.yushan.engagement_service.cache.ChapterMetadataCache;
+import com.yushan.engagement_service.cache.LikeMembershipCache;
+import com.yushan.engagement_service.cache.ReadThroughPageCache;
+import com.yushan.engagement_service.cache.UserProfileCache;
 import com.yushan.engagement_service.repository.CommentRepository;
+import com.yushan.engagement_service.repository.LikeRepository;
 import com.yushan.engagement_service.dto.comment.*;
 import com.yushan.engagement_service.dto.chapter.ChapterDetailResponseDTO;
 import com.yushan.engagement_service.entity.Comment;
+import com.yushan.engagement_service.enums.LikeTargetType;
+import com.yushan.engagement_service.dto.common.PageCursor;
 import com.yushan.engagement_service.exception.ResourceNotFoundException;
+import com.yushan.engagement_service.exception.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,19 +36,28 @@ import static org.mockito.Mockito.*;
 public class CommentServiceTest {
 
     private CommentRepository commentRepository;
-    private ContentServiceClient contentServiceClient;
-    private UserServiceClient userServiceClient;
+    private UserProfileCache userProfileCache;
+    private ChapterMetadataCache chapterMetadataCache;
     private KafkaEventProducerService kafkaEventProducerService;
     private TransactionAwareKafkaPublisher transactionAwareKafkaPublisher;
+    private LikeCounterService likeCounterService;
+    private LikeRepository likeRepository;
+    private LikeMembershipCache likeMembershipCache;
     private CommentService commentService;
 
     @BeforeEach
     void setUp() {
         commentRepository = Mockito.mock(CommentRepository.class);
-        contentServiceClient = Mockito.mock(ContentServiceClient.class);
-        userServiceClient = Mockito.mock(UserServiceClient.class);
+        userProfileCache = Mockito.mock(UserProfileCache.class);
+        chapterMetadataCache = Mockito.mock(ChapterMetadataCache.class);
         kafkaEventProducerService = Mockito.mock(KafkaEventProducerService.class);
         transactionAwareKafkaPublisher = Mockito.mock(TransactionAwareKafkaPublisher.class);
+        likeCounterService = Mockito.mock(LikeCounterService.class);
+        likeRepository = Mockito.mock(LikeRepository.class);
+        likeMembershipCache = Mockito.mock(LikeMembershipCache.class);
+        // No buffered likes unless a test says otherwise: counts are the stored ones
+        when(likeCounterService.currentCount(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2) != null ? invocation.getArgument(2) : 0);
 
         commentService = new CommentService();
         try {
@@ -46,13 +65,9 @@ public class CommentServiceTest {
             f1.setAccessible(true);
             f1.set(commentService, commentRepository);
             
-            java.lang.reflect.Field f2 = CommentService.class.getDeclaredField("contentServiceClient");
-            f2.setAccessible(true);
-            f2.set(commentService, contentServiceClient);
-            
-            java.lang.reflect.Field f3 = CommentService.class.getDeclaredField("userServiceClient");
+            java.lang.reflect.Field f3 = CommentService.class.getDeclaredField("userProfileCache");
             f3.setAccessible(true);
-            f3.set(commentService, userServiceClient);
+            f3.set(commentService, userProfileCache);
             
             java.lang.reflect.Field f4 = CommentService.class.getDeclaredField("kafkaEventProducerService");
             f4.setAccessible(true);
@@ -61,6 +76,27 @@ public class CommentServiceTest {
             java.lang.reflect.Field f5 = CommentService.class.getDeclaredField("transactionAwareKafkaPublisher");
             f5.setAccessible(true);
             f5.set(commentService, transactionAwareKafkaPublisher);
+
+            java.lang.reflect.Field f6 = CommentService.class.getDeclaredField("chapterMetadataCache");
+            f6.setAccessible(true);
+            f6.set(commentService, chapterMetadataCache);
+
+            java.lang.reflect.Field f7 = CommentService.class.getDeclaredField("likeCounterService");
+            f7.setAccessible(true);
+            f7.set(commentService, likeCounterService);
+
+            java.lang.reflect.Field f8 = CommentService.class.getDeclaredField("likeRepository");
+            f8.setAccessible(true);
+            f8.set(commentService, likeRepository);
+
+            java.lang.reflect.Field f9 = CommentService.class.getDeclaredField("likeMembershipCache");
+            f9.setAccessible(true);
+            f9.set(commentService, likeMembershipCache);
+
+            // Disabled outside Spring: pages load straight from the repository
+            java.lang.reflect.Field f10 = CommentService.class.getDeclaredField("pageCache");
+            f10.setAccessible(true);
+            f10.set(commentService, new ReadThroughPageCache());
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -75,7 +111,7 @@ public class CommentServiceTest {
         request.setContent("Test comment");
         request.setIsSpoiler(false);
 
-        when(contentServiceClient.chapterExists(1)).thenReturn(true);
+        when(chapterMetadataCache.getChapter(1)).thenReturn(chapter(1, 10));
         when(commentRepository.existsByUserAndChapter(userId, 1)).thenReturn(false);
         when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> {
             Comment comment = invocation.getArgument(0);
@@ -90,7 +126,9 @@ public class CommentServiceTest {
         assertNotNull(result);
         assertEquals("Test comment", result.getContent());
         assertFalse(result.getIsSpoiler());
-        verify(commentRepository).save(any(Comment.class));
+        ArgumentCaptor<Comment> saved = ArgumentCaptor.forClass(Comment.class);
+        verify(commentRepository).save(saved.capture());
+        assertEquals(10, saved.getValue().getNovelId());
         verify(transactionAwareKafkaPublisher).publishAfterCommit(any(Runnable.class));
     }
 
@@ -103,7 +141,7 @@ public class CommentServiceTest {
         request.setContent("Test comment");
         request.setIsSpoiler(false);
 
-        when(contentServiceClient.chapterExists(999)).thenReturn(false);
+        when(chapterMetadataCache.chapterExists(999)).thenReturn(false);
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
@@ -120,7 +158,7 @@ public class CommentServiceTest {
         request.setContent("Test comment");
         request.setIsSpoiler(false);
 
-        when(contentServiceClient.chapterExists(1)).thenReturn(true);
+        when(chapterMetadataCache.getChapter(1)).thenReturn(chapter(1, 10));
         when(commentRepository.existsByUserAndChapter(userId, 1)).thenReturn(true);
 
         // Act & Assert
@@ -138,7 +176,7 @@ public class CommentServiceTest {
         request.setContent(""); // Empty content - service doesn't validate this currently
         request.setIsSpoiler(false);
 
-        when(contentServiceClient.chapterExists(1)).thenReturn(true);
+        when(chapterMetadataCache.getChapter(1)).thenReturn(chapter(1, 10));
         when(commentRepository.existsByUserAndChapter(userId, 1)).thenReturn(false);
         when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> {
             Comment comment = invocation.getArgument(0);
@@ -165,7 +203,7 @@ public class CommentServiceTest {
         request.setContent("Test comment");
         request.setIsSpoiler(null); // Null spoiler flag
 
-        when(contentServiceClient.chapterExists(1)).thenReturn(true);
+        when(chapterMetadataCache.getChapter(1)).thenReturn(chapter(1, 10));
         when(commentRepository.existsByUserAndChapter(userId, 1)).thenReturn(false);
         when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> {
             Comment comment = invocation.getArgument(0);
@@ -408,6 +446,7 @@ public class CommentServiceTest {
         );
 
         when(commentRepository.findByUserId(userId)).thenReturn(comments);
+        when(userProfileCache.getUsernames(anyCollection())).thenReturn(Map.of(userId, "testuser"));
 
         // Act
         List<CommentResponseDTO> result = commentService.getUserComments(userId);
@@ -417,6 +456,10 @@ public class CommentServiceTest {
         assertEquals(2, result.size());
         assertEquals("Comment 1", result.get(0).getContent());
         assertEquals("Comment 2", result.get(1).getContent());
+        assertEquals("testuser", result.get(0).getUsername());
+        assertEquals("testuser", result.get(1).getUsername());
+        verify(userProfileCache, times(1)).getUsernames(anyCollection());
+        verify(userProfileCache, never()).getUsername(any());
     }
 
     @Test
@@ -525,15 +568,75 @@ public class CommentServiceTest {
         comment.setLikeCnt(5);
 
         when(commentRepository.findById(commentId)).thenReturn(comment);
-        doNothing().when(commentRepository).updateLikeCount(commentId, 1);
-        when(commentRepository.findById(commentId)).thenReturn(comment);
+        when(likeRepository.addLike(LikeTargetType.COMMENT, commentId, userId)).thenReturn(true);
+        when(likeCounterService.currentCount(LikeTargetType.COMMENT, commentId, 5)).thenReturn(6);
 
         // Act
         CommentResponseDTO result = commentService.toggleLike(commentId, userId, isLiking);
 
         // Assert
         assertNotNull(result);
-        verify(commentRepository).updateLikeCount(commentId, 1);
+        assertEquals(6, result.getLikeCnt());
+        assertTrue(result.getIsLiked());
+        // The like is buffered instead of updating the row and reading it back
+        verify(likeCounterService).increment(LikeTargetType.COMMENT, commentId, 1);
+        verify(likeMembershipCache).recordLike(LikeTargetType.COMMENT, userId, commentId);
+        verify(commentRepository, times(1)).findById(commentId);
+        verify(commentRepository, never()).updateLikeCount(anyInt(), anyInt());
+    }
+
+    @Test
+    void toggleLike_WhenAlreadyLiked_ShouldNotCountAgain() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        Comment comment = new Comment();
+        comment.setId(1);
+        comment.setLikeCnt(5);
+        when(commentRepository.findById(1)).thenReturn(comment);
+        when(likeRepository.addLike(LikeTargetType.COMMENT, 1, userId)).thenReturn(false);
+
+        // Act
+        CommentResponseDTO result = commentService.toggleLike(1, userId, true);
+
+        // Assert
+        assertTrue(result.getIsLiked());
+        assertEquals(5, result.getLikeCnt());
+        verify(likeCounterService, never()).increment(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void toggleLike_WhenUnliking_ShouldBufferDecrement() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        Comment comment = new Comment();
+        comment.setId(1);
+        comment.setLikeCnt(5);
+        when(commentRepository.findById(1)).thenReturn(comment);
+        when(likeRepository.removeLike(LikeTargetType.COMMENT, 1, userId)).thenReturn(true);
+
+        // Act
+        CommentResponseDTO result = commentService.toggleLike(1, userId, false);
+
+        // Assert
+        assertFalse(result.getIsLiked());
+        verify(likeCounterService).increment(LikeTargetType.COMMENT, 1, -1);
+        verify(likeMembershipCache).recordUnlike(LikeTargetType.COMMENT, userId, 1);
+    }
+
+    @Test
+    void toggleLike_WhenUnlikingWithoutLike_ShouldNotCount() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        Comment comment = new Comment();
+        comment.setId(1);
+        when(commentRepository.findById(1)).thenReturn(comment);
+        when(likeRepository.removeLike(LikeTargetType.COMMENT, 1, userId)).thenReturn(false);
+
+        // Act
+        commentService.toggleLike(1, userId, false);
+
+        // Assert
+        verify(likeCounterService, never()).increment(any(), anyInt(), anyInt());
     }
 
     @Test
@@ -595,8 +698,8 @@ public class CommentServiceTest {
         ChapterDetailResponseDTO chapter = new ChapterDetailResponseDTO();
         chapter.setTitle("Test Chapter");
 
-        when(contentServiceClient.chapterExists(chapterId)).thenReturn(true);
-        when(contentServiceClient.getChapter(chapterId)).thenReturn(chapter);
+        when(chapterMetadataCache.chapterExists(chapterId)).thenReturn(true);
+        when(chapterMetadataCache.getChapter(chapterId)).thenReturn(ChapterMetadata.of(chapter));
         when(commentRepository.findByChapterId(chapterId)).thenReturn(comments);
 
         // Act
@@ -605,8 +708,8 @@ public class CommentServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(2, result.getTotalComments());
-        verify(contentServiceClient).chapterExists(chapterId);
-        verify(contentServiceClient).getChapter(chapterId);
+        verify(chapterMetadataCache).chapterExists(chapterId);
+        verify(chapterMetadataCache).getChapter(chapterId);
         verify(commentRepository).findByChapterId(chapterId);
     }
 
@@ -618,8 +721,8 @@ public class CommentServiceTest {
         ChapterDetailResponseDTO chapter = new ChapterDetailResponseDTO();
         chapter.setTitle("Test Chapter");
 
-        when(contentServiceClient.chapterExists(chapterId)).thenReturn(true);
-        when(contentServiceClient.getChapter(chapterId)).thenReturn(chapter);
+        when(chapterMetadataCache.chapterExists(chapterId)).thenReturn(true);
+        when(chapterMetadataCache.getChapter(chapterId)).thenReturn(ChapterMetadata.of(chapter));
         when(commentRepository.findByChapterId(chapterId)).thenReturn(new ArrayList<>());
 
         // Act
@@ -628,8 +731,8 @@ public class CommentServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(0, result.getTotalComments());
-        verify(contentServiceClient).chapterExists(chapterId);
-        verify(contentServiceClient).getChapter(chapterId);
+        verify(chapterMetadataCache).chapterExists(chapterId);
+        verify(chapterMetadataCache).getChapter(chapterId);
         verify(commentRepository).findByChapterId(chapterId);
     }
 
@@ -643,7 +746,7 @@ public class CommentServiceTest {
         String sort = "createTime";
         String order = "desc";
 
-        when(contentServiceClient.chapterExists(chapterId)).thenReturn(true);
+        when(chapterMetadataCache.chapterExists(chapterId)).thenReturn(true);
         when(commentRepository.findCommentsWithPagination(any(CommentSearchRequestDTO.class))).thenReturn(new ArrayList<>());
         when(commentRepository.countComments(any(CommentSearchRequestDTO.class))).thenReturn(0L);
 
@@ -654,26 +757,185 @@ public class CommentServiceTest {
         assertNotNull(result);
         assertTrue(result.getComments().isEmpty());
         assertEquals(0, result.getTotalCount());
-        verify(contentServiceClient).chapterExists(chapterId);
+        verify(chapterMetadataCache).chapterExists(chapterId);
         verify(commentRepository).findCommentsWithPagination(any(CommentSearchRequestDTO.class));
         verify(commentRepository).countComments(any(CommentSearchRequestDTO.class));
     }
 
+    @Test
+    void getCommentsByChapter_ShouldAnnotateViewerLikesWithOneLookup() {
+        // Arrange
+        UUID currentUserId = UUID.randomUUID();
+        List<Comment> comments = Arrays.asList(
+                createTestComment(1, UUID.randomUUID(), "First"),
+                createTestComment(2, UUID.randomUUID(), "Second"));
+        when(chapterMetadataCache.chapterExists(1)).thenReturn(true);
+        when(commentRepository.findCommentsWithPagination(any(CommentSearchRequestDTO.class))).thenReturn(comments);
+        when(commentRepository.countComments(any(CommentSearchRequestDTO.class))).thenReturn(2L);
+        when(likeMembershipCache.likedAmong(LikeTargetType.COMMENT, currentUserId, List.of(1, 2))).thenReturn(Set.of(2));
+
+        // Act
+        CommentListResponseDTO result = commentService.getCommentsByChapter(1, currentUserId, 0, 10, "createTime", "desc");
+
+        // Assert
+        assertFalse(result.getComments().get(0).getIsLiked());
+        assertTrue(result.getComments().get(1).getIsLiked());
+        verify(likeMembershipCache, times(1)).likedAmong(any(), any(), anyCollection());
+    }
+
     @Test
     void getCommentsByChapter_WithNonExistentChapter_ShouldThrowException() {
         // Arrange
         Integer chapterId = 999;
         UUID currentUserId = UUID.randomUUID();
-        when(contentServiceClient.chapterExists(chapterId)).thenReturn(false);
+        when(chapterMetadataCache.chapterExists(chapterId)).thenReturn(false);
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
             commentService.getCommentsByChapter(chapterId, currentUserId, 0, 10, "createTime", "desc");
         });
 
-        verify(contentServiceClient).chapterExists(chapterId);
+        verify(chapterMetadataCache).chapterExists(chapterId);
+    }
+
+    @Test
+    void getCommentsByChapter_WithUnsupportedSort_ShouldSortByCreateTime() {
+        when(chapterMetadataCache.chapterExists(1)).thenReturn(true);
+        when(commentRepository.findCommentsWithPagination(any(CommentSearchRequestDTO.class))).thenReturn(new ArrayList<>());
+        when(commentRepository.countComments(any(CommentSearchRequestDTO.class))).thenReturn(0L);
+
+        commentService.getCommentsByChapter(1, null, 0, 10, "rating", "desc");
+
+        ArgumentCaptor<CommentSearchRequestDTO> request = ArgumentCaptor.forClass(CommentSearchRequestDTO.class);
+        verify(commentRepository).findCommentsWithPagination(request.capture());
+        assertEquals("createTime", request.getValue().getSort());
     }
 
+    @Test
+    void getCommentsByChapter_OffsetPage_ShouldReturnCursorForNextPage() {
+        UUID userId = UUID.randomUUID();
+        List<Comment> page = Arrays.asList(createTestComment(5, userId, "a"), createTestComment(4, userId, "b"));
+        when(chapterMetadataCache.chapterExists(1)).thenReturn(true);
+        when(commentRepository.findCommentsWithPagination(any(CommentSearchRequestDTO.class))).thenReturn(page);
+        when(commentRepository.countComments(any(CommentSearchRequestDTO.class))).thenReturn(10L);
+
+        CommentListResponseDTO result = commentService.getCommentsByChapter(1, userId, 0, 2, "createTime", "desc");
+
+        PageCursor cursor = PageCursor.decode(result.getNextCursor(), "createTime");
+        assertEquals(4, cursor.getId());
+        assertEquals(page.get(1).getCreateTime(), cursor.getKeyAsTime());
+    }
+
+    @Test
+    void getCommentsByChapter_WithCursor_ShouldSeekAndSkipCount() {
+        UUID userId = UUID.randomUUID();
+        String cursor = PageCursor.encode("likeCnt", "desc", 3, 9);
+        // size + 1 rows come back: the extra row only signals that another page exists
+        List<Comment> rows = Arrays.asList(createTestComment(8, userId, "a"), createTestComment(7, userId, "b"),
+                createTestComment(6, userId, "c"));
+        when(chapterMetadataCache.chapterExists(1)).thenReturn(true);
+        when(commentRepository.findCommentsWithPagination(any(CommentSearchRequestDTO.class))).thenReturn(rows);
+
+        CommentListResponseDTO result = commentService.getCommentsByChapter(1, userId, 50, 2, "createTime", "asc", cursor);
+
+        ArgumentCaptor<CommentSearchRequestDTO> request = ArgumentCaptor.forClass(CommentSearchRequestDTO.class);
+        verify(commentRepository).findCommentsWithPagination(request.capture());
+        assertEquals("likeCnt", request.getValue().getSort());
+        assertEquals("desc", request.getValue().getOrder());
+        assertEquals(9, request.getValue().getSeek().getId());
+        verify(commentRepository, never()).countComments(any(CommentSearchRequestDTO.class));
+
+        assertEquals(2, result.getComments().size());
+        assertEquals(7, PageCursor.decode(result.getNextCursor(), "likeCnt").getId());
+    }
+
+    @Test
+    void getCommentsByChapter_WithCursorOnLastPage_ShouldReturnNoNextCursor() {
+        UUID userId = UUID.randomUUID();
+        String cursor = PageCursor.encode("createTime", "desc", new Date(), 9);
+        when(chapterMetadataCache.chapterExists(1)).thenReturn(true);
+        when(commentRepository.findCommentsWithPagination(any(CommentSearchRequestDTO.class)))
+                .thenReturn(Arrays.asList(createTestComment(8, userId, "a")));
+
+        CommentListResponseDTO result = commentService.getCommentsByChapter(1, userId, 0, 2, null, null, cursor);
+
+        assertEquals(1, result.getComments().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getCommentsByNovel_WithCursor_ShouldUseKeysetQuery() {
+        UUID userId = UUID.randomUUID();
+        CommentSearchRequestDTO request = CommentSearchRequestDTO.builder()
+                .size(2)
+                .cursor(PageCursor.encode("createTime", "desc", new Date(), 9))
+                .build();
+        when(commentRepository.findCommentsByNovelAfter(eq(1), isNull(), isNull(), any(PageCursor.class), eq(3)))
+                .thenReturn(Arrays.asList(createTestComment(8, userId, "a")));
+
+        CommentListResponseDTO result = commentService.getCommentsByNovel(1, userId, request);
+
+        assertEquals(1, result.getComments().size());
+        assertNull(result.getNextCursor());
+        verify(commentRepository, never()).findCommentsByNovelWithPagination(
+                any(), any(), any(), any(), any(), anyInt(), anyInt());
+        verify(commentRepository, never()).countCommentsByNovel(any(), any(), any());
+    }
+
+    @Test
+    void getCommentsByChapter_WithInvalidCursor_ShouldThrowValidationException() {
+        when(chapterMetadataCache.chapterExists(1)).thenReturn(true);
+
+        assertThrows(ValidationException.class, () ->
+                commentService.getCommentsByChapter(1, null, 0, 10, "createTime", "desc", "garbage"));
+    }
+
+    @Test
+    void getCommentsByNovel_ShouldQueryByNovelId() {
+        UUID userId = UUID.randomUUID();
+        CommentSearchRequestDTO request = CommentSearchRequestDTO.builder()
+                .page(0)
+                .size(2)
+                .sort("likeCnt")
+                .order("desc")
+                .build();
+        when(commentRepository.findCommentsByNovelWithPagination(1, null, null, "likeCnt", "desc", 0, 2))
+                .thenReturn(Arrays.asList(createTestComment(8, userId, "a"), createTestComment(7, userId, "b")));
+        when(commentRepository.countCommentsByNovel(1, null, null)).thenReturn(5L);
+
+        CommentListResponseDTO result = commentService.getCommentsByNovel(1, userId, request);
+
+        assertEquals(2, result.getComments().size());
+        assertEquals(5L, result.getTotalCount());
+        assertEquals(3, result.getTotalPages());
+        assertEquals(7, PageCursor.decode(result.getNextCursor(), "likeCnt").getId());
+    }
+
+    @Test
+    void getCommentsByNovel_WithRelevanceSearch_ShouldReturnHighlightsWithoutCursor() {
+        UUID userId = UUID.randomUUID();
+        Comment match = createTestComment(8, userId, "the dragon returns");
+        match.setHighlight("the \u0002dragon\u0003 returns");
+        CommentSearchRequestDTO request = CommentSearchRequestDTO.builder()
+                .page(0)
+                .size(1)
+                .sort("relevance")
+                .order("desc")
+                .search("dragon")
+                .build();
+        when(commentRepository.findCommentsByNovelWithPagination(1, null, "dragon", "relevance", "desc", 0, 1))
+                .thenReturn(Arrays.asList(match));
+        when(commentRepository.countCommentsByNovel(1, null, "dragon")).thenReturn(3L);
+
+        CommentListResponseDTO result = commentService.getCommentsByNovel(1, userId, request);
+
+        assertEquals("the <mark>dragon</mark> returns", result.getComments().get(0).getHighlight());
+        assertNull(result.getNextCursor());
+    }
+
+    private ChapterMetadata chapter(Integer id, Integer novelId) {
+        return new ChapterMetadata(id, novelId, "Chapter " + id, true, true);
+    }
 
     // Helper method to create test comments
     private Comment createTestComment(Integer id, UUID userId, String content) {
@@ -0,0 +1,205 @@
+package com.yushan.engagement_service.service;
+
+import com.yushan.engagement_service.cache.ChapterMetadataCache;
+import com.yushan.engagement_service.cache.UserProfileCache;
+import com.yushan.engagement_service.client.UserServiceClient;
+import com.yushan.engagement_service.dto.comment.CommentListResponseDTO;
+import com.yushan.engagement_service.dto.comment.CommentSearchRequestDTO;
+import com.yushan.engagement_service.dto.common.ApiResponse;
+import com.yushan.engagement_service.dto.user.UserProfileResponseDTO;
+import com.yushan.engagement_service.entity.Comment;
+import com.yushan.engagement_service.repository.CommentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares downstream user-service calls and latency for comment page enrichment:
+ * one username lookup per row versus a single batch lookup per page.
+ * The user-service is replaced by an in-process stand-in that adds a fixed latency per HTTP call.
+ */
+@Tag("benchmark")
+public class CommentUsernameEnrichmentBenchmarkTest {
+
+    private static final int[] PAGE_SIZES = {10, 50, 100};
+    private static final int DISTINCT_AUTHORS = 20;
+    private static final long SIMULATED_CALL_LATENCY_MS = 1;
+
+    private CommentRepository commentRepository;
+    private ChapterMetadataCache chapterMetadataCache;
+    private LatencyUserServiceClient userServiceClient;
+    private UserProfileCache userProfileCache;
+    private CommentService commentService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        commentRepository = Mockito.mock(CommentRepository.class);
+        chapterMetadataCache = Mockito.mock(ChapterMetadataCache.class);
+        userServiceClient = new LatencyUserServiceClient();
+
+        userProfileCache = new UserProfileCache();
+        java.lang.reflect.Field client = UserProfileCache.class.getDeclaredField("userServiceClient");
+        client.setAccessible(true);
+        client.set(userProfileCache, userServiceClient);
+        java.lang.reflect.Field maximumSize = UserProfileCache.class.getDeclaredField("maximumSize");
+        maximumSize.setAccessible(true);
+        maximumSize.set(userProfileCache, 10_000L);
+        java.lang.reflect.Field ttlSeconds = UserProfileCache.class.getDeclaredField("ttlSeconds");
+        ttlSeconds.setAccessible(true);
+        ttlSeconds.set(userProfileCache, 600L);
+        java.lang.reflect.Method init = UserProfileCache.class.getDeclaredMethod("init");
+        init.setAccessible(true);
+        init.invoke(userProfileCache);
+
+        commentService = new CommentService();
+        java.lang.reflect.Field f1 = CommentService.class.getDeclaredField("commentRepository");
+        f1.setAccessible(true);
+        f1.set(commentService, commentRepository);
+
+        java.lang.reflect.Field f3 = CommentService.class.getDeclaredField("userProfileCache");
+        f3.setAccessible(true);
+        f3.set(commentService, userProfileCache);
+
+        java.lang.reflect.Field f4 = CommentService.class.getDeclaredField("chapterMetadataCache");
+        f4.setAccessible(true);
+        f4.set(commentService, chapterMetadataCache);
+
+        LikeCounterService likeCounterService = Mockito.mock(LikeCounterService.class);
+        when(likeCounterService.currentCount(any(), any(), any())).thenReturn(0);
+        java.lang.reflect.Field f5 = CommentService.class.getDeclaredField("likeCounterService");
+        f5.setAccessible(true);
+        f5.set(commentService, likeCounterService);
+
+        java.lang.reflect.Field f6 = CommentService.class.getDeclaredField("likeMembershipCache");
+        f6.setAccessible(true);
+        f6.set(commentService, Mockito.mock(com.yushan.engagement_service.cache.LikeMembershipCache.class));
+
+        java.lang.reflect.Field f7 = CommentService.class.getDeclaredField("pageCache");
+        f7.setAccessible(true);
+        f7.set(commentService, new com.yushan.engagement_service.cache.ReadThroughPageCache());
+
+        when(chapterMetadataCache.chapterExists(anyInt())).thenReturn(true);
+    }
+
+    @Test
+    void batchEnrichment_ShouldMakeOneUserServiceCallPerPage() {
+        System.out.println("page size | per-row calls | per-row ms | batch calls | batch ms");
+        for (int pageSize : PAGE_SIZES) {
+            List<Comment> page = createPage(pageSize);
+            when(commentRepository.findCommentsWithPagination(any(CommentSearchRequestDTO.class))).thenReturn(page);
+            when(commentRepository.countComments(any(CommentSearchRequestDTO.class))).thenReturn((long) pageSize);
+
+            // Per-row enrichment: one lookup for every comment on the page
+            userServiceClient.reset();
+            long perRowStart = System.nanoTime();
+            for (Comment comment : page) {
+                userServiceClient.getUsernameById(comment.getUserId());
+            }
+            long perRowMs = (System.nanoTime() - perRowStart) / 1_000_000;
+            int perRowCalls = userServiceClient.totalCalls();
+
+            // Page-level enrichment: one batch lookup for the distinct authors on the page (cold cache)
+            userProfileCache.invalidateAll();
+            userServiceClient.reset();
+            long batchStart = System.nanoTime();
+            CommentListResponseDTO result = commentService.getCommentsByChapter(1, null, 0, pageSize, null, null);
+            long batchMs = (System.nanoTime() - batchStart) / 1_000_000;
+            int batchCalls = userServiceClient.totalCalls();
+
+            System.out.printf("%9d | %13d | %10d | %11d | %8d%n",
+                    pageSize, perRowCalls, perRowMs, batchCalls, batchMs);
+
+            assertEquals(pageSize, perRowCalls);
+            assertEquals(1, batchCalls);
+            assertEquals(1, userServiceClient.batchCalls.get());
+            assertEquals(pageSize, result.getComments().size());
+            result.getComments().forEach(dto -> assertTrue(dto.getUsername().startsWith("user-")));
+
+            // Same page again: every author is now served from the local cache
+            userServiceClient.reset();
+            commentService.getCommentsByChapter(1, null, 0, pageSize, null, null);
+            assertEquals(0, userServiceClient.totalCalls());
+        }
+    }
+
+    private List<Comment> createPage(int size) {
+        List<UUID> authors = new ArrayList<>();
+        for (int i = 0; i < DISTINCT_AUTHORS; i++) {
+            authors.add(UUID.randomUUID());
+        }
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Comment comment = new Comment();
+            comment.setId(i + 1);
+            comment.setUserId(authors.get(i % DISTINCT_AUTHORS));
+            comment.setChapterId(1);
+            comment.setContent("Comment " + i);
+            comment.setLikeCnt(0);
+            comment.setIsSpoiler(false);
+            comment.setCreateTime(new Date());
+            comment.setUpdateTime(new Date());
+            comments.add(comment);
+        }
+        return comments;
+    }
+
+    /**
+     * Stand-in for user-service that counts calls and sleeps for a fixed latency on each one
+     */
+    private static final class LatencyUserServiceClient implements UserServiceClient {
+        private final AtomicInteger singleCalls = new AtomicInteger();
+        private final AtomicInteger batchCalls = new AtomicInteger();
+
+        void reset() {
+            singleCalls.set(0);
+            batchCalls.set(0);
+        }
+
+        int totalCalls() {
+            return singleCalls.get() + batchCalls.get();
+        }
+
+        @Override
+        public ApiResponse<UserProfileResponseDTO> getUser(UUID userId) {
+            singleCalls.incrementAndGet();
+            simulateLatency();
+            return ApiResponse.success("Success", profile(userId));
+        }
+
+        @Override
+        public ApiResponse<List<UserProfileResponseDTO>> getUsersBatch(List<UUID> userIds) {
+            batchCalls.incrementAndGet();
+            simulateLatency();
+            List<UserProfileResponseDTO> profiles = new ArrayList<>();
+            for (UUID userId : userIds) {
+                profiles.add(profile(userId));
+            }
+            return ApiResponse.success("Success", profiles);
+        }
+
+        private static UserProfileResponseDTO profile(UUID userId) {
+            UserProfileResponseDTO profile = new UserProfileResponseDTO();
+            profile.setUuid(userId.toString());
+            profile.setUsername("user-" + userId.toString().substring(0, 8));
+            return profile;
+        }
+
+        private static void simulateLatency() {
+            try {
+                Thread.sleep(SIMULATED_CALL_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.yushan.engagement_service.service;
+
+import com.yushan.engagement_service.cache.ProcessedKeyFilter;
+import com.yushan.engagement_service.dao.ProcessedEventMapper;
+import com.yushan.engagement_service.entity.ProcessedEvent;
+import com.yushan.engagement_service.util.RedisUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private RedisUtil redisUtil;
+
+    @Mock
+    private ProcessedEventMapper processedEventMapper;
+
+    @Mock
+    private ProcessedKeyFilter processedKeyFilter;
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(processedKeyFilter.mightContain(anyString())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void tryClaim_WhenProcessedInRedis_ShouldRejectWithoutTouchingTheDatabase() {
+        when(redisUtil.claim(eq("k1"), eq("claimed"), any(Duration.class))).thenReturn("processed");
+
+        assertFalse(idempotencyService.tryClaim("k1", "VoteSagaCreate"));
+
+        verifyNoInteractions(processedEventMapper);
+    }
+
+    @Test
+    void tryClaim_WhenInsertWins_ShouldClaimAndMarkProcessed() {
+        when(processedEventMapper.insert(any(ProcessedEvent.class))).thenReturn(1);
+
+        assertTrue(idempotencyService.tryClaim("k1", "VoteSagaCreate"));
+
+        ArgumentCaptor<ProcessedEvent> event = ArgumentCaptor.forClass(ProcessedEvent.class);
+        verify(processedEventMapper).insert(event.capture());
+        assertEquals("k1", event.getValue().getIdempotencyKey());
+        assertEquals("VoteSagaCreate", event.getValue().getEventType());
+        verify(redisUtil).setAll(eq(List.of("k1")), eq("processed"), any(Duration.class));
+    }
+
+    @Test
+    void tryClaim_WhenInsertConflicts_ShouldRejectAndBackfillRedis() {
+        when(redisUtil.claim(anyString(), any(), any(Duration.class))).thenReturn("claimed");
+        when(processedEventMapper.insert(any(ProcessedEvent.class))).thenReturn(0);
+
+        assertFalse(idempotencyService.tryClaim("k1", "VoteSagaCreate"));
+
+        verify(redisUtil).setAll(eq(List.of("k1")), eq("processed"), any(Duration.class));
+    }
+
+    @Test
+    void tryClaim_WhenRedisIsDown_ShouldFallBackToDatabase() {
+        when(redisUtil.claim(anyString(), any(), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        when(processedEventMapper.insert(any(ProcessedEvent.class))).thenReturn(1);
+
+        assertTrue(idempotencyService.tryClaim("k1", "VoteSagaCreate"));
+    }
+
+    @Test
+    void tryClaim_InTransaction_ShouldMarkProcessedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(processedEventMapper.insert(any(ProcessedEvent.class))).thenReturn(1);
+
+        assertTrue(idempotencyService.tryClaim("k1", "VoteSagaCreate"));
+        verify(redisUtil, never()).setAll(anyCollection(), any(), any());
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        verify(redisUtil).setAll(eq(List.of("k1")), eq("processed"), any(Duration.class));
+    }
+
+    @Test
+    void tryClaim_InTransaction_ShouldReleaseRedisClaimOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(processedEventMapper.insert(any(ProcessedEvent.class))).thenReturn(1);
+
+        assertTrue(idempotencyService.tryClaim("k1", "VoteSagaCreate"));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(redisUtil).delete(Set.of("k1"));
+        verify(redisUtil, never()).setAll(anyCollection(), any(), any());
+    }
+
+    @Test
+    void tryClaimAll_ShouldClaimOnlyKeysInsertedByThisCall() {
+        when(redisUtil.claimAll(eq(List.of("k1", "k2", "k3")), eq("claimed"), any(Duration.class)))
+                .thenReturn(Arrays.asList("processed", null, null));
+        when(processedEventMapper.insertBatchReturningKeys(eq(List.of("k2", "k3")), eq("VoteSagaCreate"),
+                eq("engagement-service"), any(LocalDateTime.class))).thenReturn(List.of("k2"));
+
+        Set<String> claimed = idempotencyService.tryClaimAll(List.of("k1", "k2", "k3", "k2"), "VoteSagaCreate");
+
+        assertEquals(Set.of("k2"), claimed);
+        verify(redisUtil).setAll(eq(List.of("k3")), eq("processed"), any(Duration.class));
+        verify(redisUtil).setAll(eq(Set.of("k2")), eq("processed"), any(Duration.class));
+    }
+
+    @Test
+    void tryClaimAll_WhenAllProcessedInRedis_ShouldNotTouchTheDatabase() {
+        when(redisUtil.claimAll(anyList(), any(), any(Duration.class))).thenReturn(List.of("processed"));
+
+        assertTrue(idempotencyService.tryClaimAll(List.of("k1"), "VoteSagaCreate").isEmpty());
+
+        verifyNoInteractions(processedEventMapper);
+    }
+
+    @Test
+    void tryClaim_WhenFilterHasNotSeenTheKey_ShouldSkipRedis() {
+        when(processedKeyFilter.mightContain("k1")).thenReturn(false);
+        when(processedEventMapper.insert(any(ProcessedEvent.class))).thenReturn(1);
+
+        assertTrue(idempotencyService.tryClaim("k1", "VoteSagaCreate"));
+
+        verify(redisUtil, never()).claim(anyString(), any(), any());
+        verify(processedKeyFilter).put("k1");
+        verify(processedKeyFilter, never()).recordFalsePositives(anyInt());
+    }
+
+    @Test
+    void tryClaim_WhenFilterPositiveTurnsOutNew_ShouldRecordFalsePositive() {
+        when(processedEventMapper.insert(any(ProcessedEvent.class))).thenReturn(1);
+
+        assertTrue(idempotencyService.tryClaim("k1", "VoteSagaCreate"));
+
+        verify(processedKeyFilter).recordFalsePositives(1);
+    }
+
+    @Test
+    void tryClaimAll_ShouldSendOnlyFilterPositivesToRedis() {
+        when(processedKeyFilter.mightContain("new")).thenReturn(false);
+        when(redisUtil.claimAll(eq(List.of("seen")), eq("claimed"), any(Duration.class)))
+                .thenReturn(Arrays.asList((Object) null));
+        when(processedEventMapper.insertBatchReturningKeys(anyCollection(), anyString(), anyString(), any()))
+                .thenReturn(List.of("new", "seen"));
+
+        assertEquals(Set.of("new", "seen"), idempotencyService.tryClaimAll(List.of("new", "seen"), "VoteSagaCreate"));
+
+        verify(processedKeyFilter).recordFalsePositives(1);
+    }
+
+    @Test
+    void findProcessed_WhenFilterHasSeenNoKey_ShouldSkipBothStores() {
+        when(processedKeyFilter.mightContain(anyString())).thenReturn(false);
+
+        assertTrue(idempotencyService.findProcessed(List.of("k1", "k2"), "VoteSagaCreate").isEmpty());
+
+        verifyNoInteractions(redisUtil, processedEventMapper);
+    }
+
+    @Test
+    void findProcessed_ShouldLookUpOnlyFilterPositivesAndRecordFalsePositives() {
+        when(processedKeyFilter.mightContain("k1")).thenReturn(false);
+        when(redisUtil.multiGet(List.of("k2", "k3"))).thenReturn(Arrays.asList("processed", null));
+        when(processedEventMapper.selectExistingKeys(List.of("k3"))).thenReturn(List.of());
+
+        assertEquals(Set.of("k2"), idempotencyService.findProcessed(List.of("k1", "k2", "k3"), "VoteSagaCreate"));
+
+        verify(processedKeyFilter).recordFalsePositives(1);
+    }
+
+    @Test
+    void maintainPartitions_ShouldCreateWeeksAheadAndDropExpiredWeeks() {
+        ReflectionTestUtils.setField(idempotencyService, "retentionEnabled", true);
+        ReflectionTestUtils.setField(idempotencyService, "retentionDays", 14);
+        ReflectionTestUtils.setField(idempotencyService, "partitionWeeksAhead", 2);
+        LocalDate thisWeek = IdempotencyService.weekStart(LocalDate.now());
+        LocalDate expired = thisWeek.minusWeeks(3);
+        LocalDate kept = thisWeek.minusWeeks(2);
+        when(processedEventMapper.selectPartitionNames()).thenReturn(List.of(
+                IdempotencyService.partitionName(expired),
+                IdempotencyService.partitionName(kept),
+                IdempotencyService.partitionName(thisWeek),
+                "processed_events_default"));
+
+        idempotencyService.maintainPartitions();
+
+        for (int i = 0; i <= 2; i++) {
+            LocalDate week = thisWeek.plusWeeks(i);
+            verify(processedEventMapper).createPartition(IdempotencyService.partitionName(week), week, week.plusWeeks(1));
+        }
+        verify(processedEventMapper).dropPartition(IdempotencyService.partitionName(expired));
+        verify(processedEventMapper, times(1)).dropPartition(anyString());
+    }
+
+    @Test
+    void maintainPartitions_WhenDisabled_ShouldDoNothing() {
+        idempotencyService.maintainPartitions();
+
+        verifyNoInteractions(processedEventMapper);
+    }
+
+    @Test
+    void partitionName_ShouldUseTheMondayOfTheWeek() {
+        LocalDate sunday = LocalDate.of(2026, 10, 18);
+
+        assertEquals("processed_events_p20261012", IdempotencyService.partitionName(IdempotencyService.weekStart(sunday)));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
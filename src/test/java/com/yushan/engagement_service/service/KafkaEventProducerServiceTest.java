@@ -1,23 +1,35 @@
 package com.yushan.engagement_service.service;
 
 import com.yushan.engagement_service.dto.event.CommentCreatedEvent;
+import com.yushan.engagement_service.dto.event.NovelRatingUpdateEvent;
+import com.yushan.engagement_service.dto.event.NovelVoteCountUpdateEvent;
 import com.yushan.engagement_service.dto.event.ReviewCreatedEvent;
 import com.yushan.engagement_service.dto.event.UserActivityEvent;
 import com.yushan.engagement_service.dto.event.VoteCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -28,6 +40,9 @@ class KafkaEventProducerServiceTest {
     @Mock
     private KafkaTemplate<String, Object> kafkaTemplate;
 
+    @Mock
+    private OutboxService outboxService;
+
     @Mock
     private SendResult<String, Object> sendResult;
 
@@ -243,4 +258,140 @@ class KafkaEventProducerServiceTest {
         // Assert
         verify(kafkaTemplate).send(eq("test-comment-events"), eq(commentId.toString()), any(CommentCreatedEvent.class));
     }
+
+    @Test
+    void publishNovelVoteCountUpdateEvent_ShouldEmitOnlyLatestCountPerNovelPerWindow() {
+        SimpleMeterRegistry registry = enableCoalescing();
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+
+        kafkaEventProducerService.publishNovelVoteCountUpdateEvent(1, 10);
+        kafkaEventProducerService.publishNovelVoteCountUpdateEvent(1, 11);
+        kafkaEventProducerService.publishNovelVoteCountUpdateEvent(1, 12);
+        kafkaEventProducerService.publishNovelVoteCountUpdateEvent(2, 3);
+        verifyNoInteractions(kafkaTemplate);
+
+        kafkaEventProducerService.flushCoalescedEvents();
+
+        ArgumentCaptor<NovelVoteCountUpdateEvent> events = ArgumentCaptor.forClass(NovelVoteCountUpdateEvent.class);
+        verify(kafkaTemplate, times(2)).send(eq("test-novel-vote-count-events"), anyString(), events.capture());
+        Map<Integer, Integer> counts = new HashMap<>();
+        events.getAllValues().forEach(event -> counts.put(event.getNovelId(), event.getVoteCount()));
+        assertEquals(Map.of(1, 12, 2, 3), counts);
+        assertEquals(2.0, registry.get("kafka.coalesce.merged").tag("event", "novel-vote-count").counter().count());
+        assertEquals(2.0, registry.get("kafka.coalesce.emitted").tag("event", "novel-vote-count").counter().count());
+
+        // Nothing left for the next window
+        kafkaEventProducerService.flushCoalescedEvents();
+        verify(kafkaTemplate, times(2)).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    void publishNovelRatingUpdateEvent_ShouldCoalescePerNovel() {
+        SimpleMeterRegistry registry = enableCoalescing();
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+
+        kafkaEventProducerService.publishNovelRatingUpdateEvent(5, 4.0f, 1);
+        kafkaEventProducerService.publishNovelRatingUpdateEvent(5, 4.5f, 2);
+        assertEquals(1.0, registry.get("kafka.coalesce.pending").tag("event", "novel-rating").gauge().value());
+
+        kafkaEventProducerService.flushCoalescedEvents();
+
+        ArgumentCaptor<NovelRatingUpdateEvent> event = ArgumentCaptor.forClass(NovelRatingUpdateEvent.class);
+        verify(kafkaTemplate).send(eq("test-novel-rating-events"), eq("5"), event.capture());
+        assertEquals(4.5f, event.getValue().getAvgRating());
+        assertEquals(2, event.getValue().getReviewCount());
+        assertEquals(1.0, registry.get("kafka.coalesce.merged").tag("event", "novel-rating").counter().count());
+    }
+
+    @Test
+    void shutdown_ShouldFlushPendingUpdates() {
+        enableCoalescing();
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+        kafkaEventProducerService.publishNovelVoteCountUpdateEvent(1, 10);
+
+        kafkaEventProducerService.shutdown();
+
+        verify(kafkaTemplate).send(eq("test-novel-vote-count-events"), eq("1"), any(NovelVoteCountUpdateEvent.class));
+    }
+
+    @Test
+    void publishNovelVoteCountUpdateEvent_WithCoalescingDisabled_ShouldPublishImmediately() {
+        ReflectionTestUtils.setField(kafkaEventProducerService, "novelVoteCountEventsTopic", "test-novel-vote-count-events");
+        ReflectionTestUtils.setField(kafkaEventProducerService, "coalesceEnabled", false);
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+
+        kafkaEventProducerService.publishNovelVoteCountUpdateEvent(1, 10);
+        kafkaEventProducerService.publishNovelVoteCountUpdateEvent(1, 11);
+
+        verify(kafkaTemplate, times(2)).send(eq("test-novel-vote-count-events"), eq("1"), any(NovelVoteCountUpdateEvent.class));
+    }
+
+    @Test
+    void publishCommentCreatedEvent_InTransactionWithOutbox_ShouldEnqueueInsteadOfSending() {
+        when(outboxService.isActive()).thenReturn(true);
+
+        kafkaEventProducerService.publishCommentCreatedEvent(1, UUID.randomUUID(), 100, "content", false);
+
+        verify(outboxService).enqueue(eq("test-comment-events"), eq("1"), any(CommentCreatedEvent.class));
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void publishNovelVoteCountUpdateEvent_InTransactionWithOutbox_ShouldEnqueueLatestPerNovelBeforeCommit() {
+        SimpleMeterRegistry registry = enableCoalescing();
+        when(outboxService.isActive()).thenReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            kafkaEventProducerService.publishNovelVoteCountUpdateEvent(1, 10);
+            kafkaEventProducerService.publishNovelVoteCountUpdateEvent(1, 11);
+            kafkaEventProducerService.publishNovelVoteCountUpdateEvent(2, 3);
+            // The window does not see transactional updates
+            kafkaEventProducerService.flushCoalescedEvents();
+            verifyNoInteractions(kafkaTemplate);
+            verify(outboxService, never()).enqueue(anyString(), anyString(), any());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ArgumentCaptor<NovelVoteCountUpdateEvent> events = ArgumentCaptor.forClass(NovelVoteCountUpdateEvent.class);
+        verify(outboxService, times(2)).enqueue(eq("test-novel-vote-count-events"), anyString(), events.capture());
+        Map<Integer, Integer> counts = new HashMap<>();
+        events.getAllValues().forEach(event -> counts.put(event.getNovelId(), event.getVoteCount()));
+        assertEquals(Map.of(1, 11, 2, 3), counts);
+        assertEquals(1.0, registry.get("kafka.coalesce.merged").tag("event", "novel-vote-count").counter().count());
+        assertEquals(2.0, registry.get("kafka.coalesce.emitted").tag("event", "novel-vote-count").counter().count());
+        assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void publishNovelRatingUpdateEvent_WhenOutboxWriteFailsBeforeCommit_ShouldFailTheCommit() {
+        enableCoalescing();
+        when(outboxService.isActive()).thenReturn(true);
+        doThrow(new IllegalStateException("outbox down")).when(outboxService).enqueue(anyString(), anyString(), any());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            kafkaEventProducerService.publishNovelRatingUpdateEvent(5, 4.0f, 1);
+
+            TransactionSynchronization synchronization = TransactionSynchronizationManager.getSynchronizations().get(0);
+            assertThrows(IllegalStateException.class, () -> synchronization.beforeCommit(false));
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private SimpleMeterRegistry enableCoalescing() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(kafkaEventProducerService, "novelRatingEventsTopic", "test-novel-rating-events");
+        ReflectionTestUtils.setField(kafkaEventProducerService, "novelVoteCountEventsTopic", "test-novel-vote-count-events");
+        ReflectionTestUtils.setField(kafkaEventProducerService, "coalesceEnabled", true);
+        ReflectionTestUtils.setField(kafkaEventProducerService, "meterRegistry", registry);
+        kafkaEventProducerService.initMetrics();
+        return registry;
+    }
 }
@@ -0,0 +1,245 @@
+package com.yushan.engagement_service.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yushan.engagement_service.cache.PageSnapshot;
+import com.yushan.engagement_service.cache.ReadThroughPageCache;
+import com.yushan.engagement_service.cache.codec.RedisValueCodec;
+import com.yushan.engagement_service.entity.Comment;
+import com.yushan.engagement_service.entity.LikeCountDelta;
+import com.yushan.engagement_service.enums.LikeTargetType;
+import com.yushan.engagement_service.repository.LikeCounterRepository;
+import com.yushan.engagement_service.util.RedisUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LikeCounterServiceTest {
+
+    @Mock
+    private LikeCounterRepository likeCounterRepository;
+
+    @Mock
+    private RedisUtil redisUtil;
+
+    @TempDir
+    Path journalDir;
+
+    private LikeCounterService likeCounterService;
+
+    @BeforeEach
+    void setUp() {
+        likeCounterService = newService();
+    }
+
+    @Test
+    void currentCount_ShouldAddPendingDeltaToStoredCount() {
+        likeCounterService.increment(LikeTargetType.COMMENT, 1, 1);
+        likeCounterService.increment(LikeTargetType.COMMENT, 1, 1);
+        likeCounterService.increment(LikeTargetType.REVIEW, 1, -1);
+
+        assertEquals(7, likeCounterService.currentCount(LikeTargetType.COMMENT, 1, 5));
+        assertEquals(4, likeCounterService.currentCount(LikeTargetType.REVIEW, 1, 5));
+        assertEquals(2, likeCounterService.currentCount(LikeTargetType.COMMENT, 1, null));
+        assertEquals(5, likeCounterService.currentCount(LikeTargetType.COMMENT, null, 5));
+    }
+
+    @Test
+    void flush_ShouldApplyDeltasWithCheckpointAndClearPending() {
+        likeCounterService.increment(LikeTargetType.COMMENT, 1, 1);
+        likeCounterService.increment(LikeTargetType.COMMENT, 1, 1);
+        likeCounterService.increment(LikeTargetType.REVIEW, 2, 1);
+
+        likeCounterService.flush();
+
+        Map<LikeTargetType, List<LikeCountDelta>> applied = captureApplied(1L);
+        assertEquals(2L, applied.get(LikeTargetType.COMMENT).get(0).getDelta());
+        assertEquals(2, applied.get(LikeTargetType.REVIEW).get(0).getId());
+        assertEquals(5, likeCounterService.currentCount(LikeTargetType.COMMENT, 1, 5));
+        // Only the segment of the new generation is left on disk
+        assertFalse(Files.exists(journalDir.resolve("segment-1.log")));
+        assertTrue(Files.exists(journalDir.resolve("segment-2.log")));
+    }
+
+    @Test
+    void flush_WithNothingBuffered_ShouldNotTouchDatabase() {
+        likeCounterService.flush();
+
+        verifyNoInteractions(likeCounterRepository);
+    }
+
+    @Test
+    void flush_WhenDatabaseFails_ShouldKeepDeltasForNextRun() {
+        likeCounterService.increment(LikeTargetType.COMMENT, 1, 1);
+        doThrow(new DataAccessResourceFailureException("down"))
+                .doReturn(Map.of())
+                .when(likeCounterRepository).applyDeltas(anyString(), anyLong(), anyMap());
+
+        likeCounterService.flush();
+        assertEquals(1, likeCounterService.currentCount(LikeTargetType.COMMENT, 1, 0));
+
+        likeCounterService.increment(LikeTargetType.COMMENT, 1, 1);
+        likeCounterService.flush();
+
+        // The retry covers the failed segment too, so the checkpoint moves past both
+        Map<LikeTargetType, List<LikeCountDelta>> applied = captureApplied(2L);
+        assertEquals(2L, applied.get(LikeTargetType.COMMENT).get(0).getDelta());
+        assertEquals(0, likeCounterService.currentCount(LikeTargetType.COMMENT, 1, 0));
+    }
+
+    @Test
+    void flush_BetweenTwoPageReads_ShouldKeepTheFlushedLikesOnTheCachedPage() {
+        ReadThroughPageCache pageCache = mapBackedPageCache();
+        ReflectionTestUtils.setField(likeCounterService, "pageCache", pageCache);
+        AtomicInteger storedCount = new AtomicInteger(5);
+        when(likeCounterRepository.applyDeltas(anyString(), anyLong(), anyMap())).thenAnswer(invocation -> {
+            Map<LikeTargetType, List<LikeCountDelta>> deltas = invocation.getArgument(2);
+            storedCount.addAndGet(deltas.get(LikeTargetType.COMMENT).get(0).getDelta().intValue());
+            return Map.of(LikeTargetType.COMMENT, Set.of(7));
+        });
+        likeCounterService.increment(LikeTargetType.COMMENT, 1, 1);
+
+        assertEquals(6, readLikeCount(pageCache, storedCount));
+        likeCounterService.flush();
+
+        // The page cached before the flush holds 5 and nothing is pending any more
+        assertEquals(6, readLikeCount(pageCache, storedCount));
+        verify(redisUtil).bumpGeneration(RedisUtil.chapterCommentsNamespace(7));
+    }
+
+    @Test
+    void restart_ShouldReplayUnflushedJournalOnce() {
+        likeCounterService.increment(LikeTargetType.COMMENT, 1, 1);
+        likeCounterService.increment(LikeTargetType.REVIEW, 3, 1);
+        // Crash: no flush, no shutdown
+
+        LikeCounterService restarted = newService();
+        when(likeCounterRepository.findFlushedSegment(anyString())).thenReturn(null);
+        restarted.flush();
+
+        Map<LikeTargetType, List<LikeCountDelta>> applied = captureApplied(2L);
+        assertEquals(1L, applied.get(LikeTargetType.COMMENT).get(0).getDelta());
+        assertEquals(1L, applied.get(LikeTargetType.REVIEW).get(0).getDelta());
+    }
+
+    @Test
+    void restart_ShouldSkipSegmentsAlreadyCheckpointed() {
+        likeCounterService.increment(LikeTargetType.COMMENT, 1, 1);
+        // Crash after the flush committed but before segment 1 was deleted
+        LikeCounterService restarted = newService();
+        when(likeCounterRepository.findFlushedSegment(anyString())).thenReturn(1L);
+
+        restarted.flush();
+
+        verify(likeCounterRepository, never()).applyDeltas(anyString(), anyLong(), anyMap());
+        assertEquals(0, restarted.currentCount(LikeTargetType.COMMENT, 1, 0));
+        assertFalse(Files.exists(journalDir.resolve("segment-1.log")));
+    }
+
+    @Test
+    void restart_WhenCheckpointUnreadable_ShouldPostponeFlushUntilRecovered() {
+        likeCounterService.increment(LikeTargetType.COMMENT, 1, 1);
+        LikeCounterService restarted = newService();
+        when(likeCounterRepository.findFlushedSegment(anyString()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(null);
+        restarted.increment(LikeTargetType.COMMENT, 1, 1);
+
+        restarted.flush();
+        verify(likeCounterRepository, never()).applyDeltas(anyString(), anyLong(), anyMap());
+
+        restarted.flush();
+        Map<LikeTargetType, List<LikeCountDelta>> applied = captureApplied(2L);
+        assertEquals(2L, applied.get(LikeTargetType.COMMENT).get(0).getDelta());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<LikeTargetType, List<LikeCountDelta>> captureApplied(long segment) {
+        ArgumentCaptor<Map<LikeTargetType, List<LikeCountDelta>>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(likeCounterRepository).applyDeltas(anyString(), eq(segment), deltas.capture());
+        return deltas.getValue();
+    }
+
+    private int readLikeCount(ReadThroughPageCache pageCache, AtomicInteger storedCount) {
+        PageSnapshot<Comment> page = pageCache.getPage(0, RedisUtil.chapterCommentsNamespace(7), "createTime:desc:0:20",
+                Comment.class, () -> new PageSnapshot<>(List.of(new Comment(1, UUID.randomUUID(), 7, 10, "content",
+                        storedCount.get(), false, new Date(), new Date())), 1L));
+        Comment row = page.rows().get(0);
+        return likeCounterService.currentCount(LikeTargetType.COMMENT, row.getId(), row.getLikeCnt());
+    }
+
+    /**
+     * An enabled page cache over a map standing in for Redis, with a generation per namespace
+     */
+    @SuppressWarnings("unchecked")
+    private ReadThroughPageCache mapBackedPageCache() {
+        Map<String, Object> store = new ConcurrentHashMap<>();
+        Map<String, Long> generations = new ConcurrentHashMap<>();
+        when(redisUtil.versionedKey(anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(0) + ":v" + generations.getOrDefault(invocation.<String>getArgument(0), 0L));
+        when(redisUtil.bumpGeneration(anyString()))
+                .thenAnswer(invocation -> generations.merge(invocation.getArgument(0), 1L, Long::sum));
+        when(redisUtil.get(anyString(), any(RedisValueCodec.class))).thenAnswer(invocation -> {
+            Object bytes = store.get(invocation.<String>getArgument(0));
+            return bytes != null ? invocation.<RedisValueCodec<?>>getArgument(1).decode((byte[]) bytes) : null;
+        });
+        doAnswer(invocation -> store.put(invocation.getArgument(0),
+                        invocation.<RedisValueCodec<Object>>getArgument(2).encode(invocation.getArgument(1))))
+                .when(redisUtil).set(anyString(), any(), any(RedisValueCodec.class), any(Duration.class));
+        when(redisUtil.setIfAbsent(anyString(), any(), any()))
+                .thenAnswer(invocation -> store.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null);
+        when(redisUtil.deleteIfEquals(anyString(), any()))
+                .thenAnswer(invocation -> store.remove(invocation.getArgument(0), invocation.getArgument(1)));
+
+        ReadThroughPageCache pageCache = new ReadThroughPageCache();
+        ReflectionTestUtils.setField(pageCache, "redisUtil", redisUtil);
+        ReflectionTestUtils.setField(pageCache, "objectMapper",
+                new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+        ReflectionTestUtils.setField(pageCache, "enabled", true);
+        ReflectionTestUtils.setField(pageCache, "maxPages", 3);
+        ReflectionTestUtils.setField(pageCache, "ttlSeconds", 30L);
+        ReflectionTestUtils.setField(pageCache, "lockMs", 500L);
+        ReflectionTestUtils.setField(pageCache, "pollMs", 10L);
+        ReflectionTestUtils.setField(pageCache, "beta", 1.0);
+        ReflectionTestUtils.setField(pageCache, "l1MaximumNamespaces", 100L);
+        ReflectionTestUtils.setField(pageCache, "l1TtlSeconds", 5L);
+        ReflectionTestUtils.setField(pageCache, "l1MaximumPagesPerNamespace", 64);
+        ReflectionTestUtils.setField(pageCache, "compressThresholdBytes", 1024);
+        ReflectionTestUtils.invokeMethod(pageCache, "init");
+        return pageCache;
+    }
+
+    private LikeCounterService newService() {
+        LikeCounterService service = new LikeCounterService();
+        ReflectionTestUtils.setField(service, "likeCounterRepository", likeCounterRepository);
+        // Disabled outside Spring: invalidations are no-ops
+        ReflectionTestUtils.setField(service, "pageCache", new ReadThroughPageCache());
+        ReflectionTestUtils.setField(service, "redisUtil", redisUtil);
+        ReflectionTestUtils.setField(service, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(service, "fsync", false);
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,159 @@
+package com.yushan.engagement_service.service;
+
+import com.yushan.engagement_service.entity.LikeCountDelta;
+import com.yushan.engagement_service.enums.LikeTargetType;
+import com.yushan.engagement_service.repository.LikeCounterRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares like throughput on a single hot comment: one row update per like, serialized on the
+ * row lock, versus the write-behind buffer flushed by a background thread.
+ * The database is replaced by an in-process stand-in that holds a row lock for a fixed time per statement.
+ */
+@Tag("benchmark")
+public class LikeCounterThroughputBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int ROW_LOCK_LIKES = 2_000;
+    private static final int BUFFERED_LIKES = 200_000;
+    private static final long SIMULATED_STATEMENT_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long FLUSH_INTERVAL_MS = 50;
+    private static final int HOT_COMMENT_ID = 1;
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    void bufferedLikes_OnOneHotRow_ShouldSustainTenThousandPerSecond() throws Exception {
+        StandInDatabase database = new StandInDatabase();
+
+        // One UPDATE per like: every like waits for the previous one's row lock
+        long rowLockStart = System.nanoTime();
+        runConcurrently(ROW_LOCK_LIKES, () -> database.updateLikeCount(HOT_COMMENT_ID, 1));
+        long rowLockNanos = System.nanoTime() - rowLockStart;
+        int rowLockStatements = database.statements.getAndSet(0);
+        assertEquals(ROW_LOCK_LIKES, database.likeCount.getAndSet(0));
+
+        // Write-behind: likes land in the buffer, a flusher applies one batched UPDATE per interval
+        LikeCounterService likeCounterService = new LikeCounterService();
+        ReflectionTestUtils.setField(likeCounterService, "likeCounterRepository", database);
+        ReflectionTestUtils.setField(likeCounterService, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(likeCounterService, "fsync", false);
+        likeCounterService.init();
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+        flusher.scheduleWithFixedDelay(
+                likeCounterService::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        long bufferedStart = System.nanoTime();
+        runConcurrently(BUFFERED_LIKES,
+                () -> likeCounterService.increment(LikeTargetType.COMMENT, HOT_COMMENT_ID, 1));
+        long bufferedNanos = System.nanoTime() - bufferedStart;
+        flusher.shutdown();
+        assertTrue(flusher.awaitTermination(5, TimeUnit.SECONDS));
+        likeCounterService.shutdown();
+        int bufferedStatements = database.statements.get();
+
+        double rowLockRate = ROW_LOCK_LIKES * 1e9 / rowLockNanos;
+        double bufferedRate = BUFFERED_LIKES * 1e9 / bufferedNanos;
+        System.out.println("mode      |   likes |     ms |   likes/sec | db statements");
+        System.out.printf("row lock  | %7d | %6d | %11.0f | %13d%n",
+                ROW_LOCK_LIKES, rowLockNanos / 1_000_000, rowLockRate, rowLockStatements);
+        System.out.printf("buffered  | %7d | %6d | %11.0f | %13d%n",
+                BUFFERED_LIKES, bufferedNanos / 1_000_000, bufferedRate, bufferedStatements);
+
+        // Every buffered like reaches the row exactly once
+        assertEquals(BUFFERED_LIKES, database.likeCount.get());
+        assertEquals(BUFFERED_LIKES, likeCounterService.currentCount(
+                LikeTargetType.COMMENT, HOT_COMMENT_ID, (int) database.likeCount.get()));
+        assertTrue(bufferedStatements < BUFFERED_LIKES / 100);
+    }
+
+    private static void runConcurrently(int totalLikes, Runnable like) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < totalLikes / THREADS; i++) {
+                    like.run();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new AssertionError(e.getCause());
+            }
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Stand-in for the comment table: one row lock held for a fixed time by every statement
+     */
+    private static final class StandInDatabase implements LikeCounterRepository {
+        private final ReentrantLock rowLock = new ReentrantLock();
+        private final AtomicLong likeCount = new AtomicLong();
+        private final AtomicInteger statements = new AtomicInteger();
+        private volatile Long checkpoint;
+
+        void updateLikeCount(int id, int increment) {
+            rowLock.lock();
+            try {
+                statements.incrementAndGet();
+                LockSupport.parkNanos(SIMULATED_STATEMENT_NANOS);
+                likeCount.addAndGet(increment);
+            } finally {
+                rowLock.unlock();
+            }
+        }
+
+        @Override
+        public Long findFlushedSegment(String journalId) {
+            return checkpoint;
+        }
+
+        @Override
+        public Map<LikeTargetType, Set<Integer>> applyDeltas(String journalId, long segment,
+                                                             Map<LikeTargetType, List<LikeCountDelta>> deltas) {
+            rowLock.lock();
+            try {
+                statements.incrementAndGet();
+                LockSupport.parkNanos(SIMULATED_STATEMENT_NANOS);
+                for (LikeCountDelta delta : deltas.get(LikeTargetType.COMMENT)) {
+                    likeCount.addAndGet(delta.getDelta());
+                }
+                checkpoint = segment;
+                return Map.of();
+            } finally {
+                rowLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.yushan.engagement_service.service;
+
+import com.yushan.engagement_service.cache.NovelRatingAggregateCache;
+import com.yushan.engagement_service.entity.NovelRatingAggregate;
+import com.yushan.engagement_service.repository.NovelRatingAggregateRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NovelRatingAggregateServiceTest {
+
+    @Mock
+    private NovelRatingAggregateRepository novelRatingAggregateRepository;
+
+    @Mock
+    private NovelRatingAggregateCache novelRatingAggregateCache;
+
+    @Mock
+    private KafkaEventProducerService kafkaEventProducerService;
+
+    @Mock
+    private TransactionAwareKafkaPublisher transactionAwareKafkaPublisher;
+
+    @InjectMocks
+    private NovelRatingAggregateService novelRatingAggregateService;
+
+    @Test
+    void recordRatingChange_ShouldApplyDeltaAndPublishFromAggregate() {
+        when(novelRatingAggregateRepository.applyRatingChange(1, null, 5)).thenReturn(aggregate(1, 23L, 5));
+
+        NovelRatingAggregate result = novelRatingAggregateService.recordRatingChange(1, null, 5);
+
+        assertEquals(5, result.getReviewCount());
+        verify(novelRatingAggregateCache).invalidate(1);
+        runPublishedTask();
+        verify(kafkaEventProducerService).publishNovelRatingUpdateEvent(1, 4.6f, 5);
+    }
+
+    @Test
+    void recordRatingChange_WhenLastReviewDeleted_ShouldPublishZeroRating() {
+        when(novelRatingAggregateRepository.applyRatingChange(1, 3, null)).thenReturn(aggregate(1, 0L, 0));
+
+        novelRatingAggregateService.recordRatingChange(1, 3, null);
+
+        runPublishedTask();
+        verify(kafkaEventProducerService).publishNovelRatingUpdateEvent(1, 0.0f, 0);
+    }
+
+    @Test
+    void recordRatingChange_ShouldNotPublishBeforeCommit() {
+        when(novelRatingAggregateRepository.applyRatingChange(1, 5, 4)).thenReturn(aggregate(1, 8L, 2));
+
+        novelRatingAggregateService.recordRatingChange(1, 5, 4);
+
+        verify(transactionAwareKafkaPublisher).publishAfterCommit(any(Runnable.class));
+        verifyNoInteractions(kafkaEventProducerService);
+    }
+
+    @Test
+    void rebuild_ShouldRecomputeAndPublish() {
+        when(novelRatingAggregateRepository.rebuild(2)).thenReturn(aggregate(2, 9L, 2));
+
+        NovelRatingAggregate result = novelRatingAggregateService.rebuild(2);
+
+        assertEquals(4.5f, result.getAverageRating());
+        verify(novelRatingAggregateCache).invalidate(2);
+        runPublishedTask();
+        verify(kafkaEventProducerService).publishNovelRatingUpdateEvent(2, 4.5f, 2);
+    }
+
+    @Test
+    void rebuildAll_ShouldRecomputeEveryAggregateWithoutPublishing() {
+        when(novelRatingAggregateRepository.tryLockRebuildAll()).thenReturn(true);
+        when(novelRatingAggregateRepository.rebuildAll()).thenReturn(42);
+
+        novelRatingAggregateService.rebuildAll();
+
+        verify(novelRatingAggregateRepository).rebuildAll();
+        verify(novelRatingAggregateCache).invalidateAll();
+        verifyNoInteractions(transactionAwareKafkaPublisher);
+    }
+
+    @Test
+    void rebuildAll_WhileAnotherInstanceRebuilds_ShouldSkip() {
+        when(novelRatingAggregateRepository.tryLockRebuildAll()).thenReturn(false);
+
+        novelRatingAggregateService.rebuildAll();
+
+        verify(novelRatingAggregateRepository, never()).rebuildAll();
+        verifyNoInteractions(novelRatingAggregateCache);
+    }
+
+    @Test
+    void getAggregate_ShouldReadThroughCache() {
+        when(novelRatingAggregateCache.get(3)).thenReturn(NovelRatingAggregate.empty(3));
+
+        assertEquals(3, novelRatingAggregateService.getAggregate(3).getNovelId());
+        verifyNoInteractions(novelRatingAggregateRepository);
+    }
+
+    private void runPublishedTask() {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(transactionAwareKafkaPublisher).publishAfterCommit(task.capture());
+        task.getValue().run();
+    }
+
+    private NovelRatingAggregate aggregate(Integer novelId, long ratingSum, int reviewCount) {
+        NovelRatingAggregate aggregate = NovelRatingAggregate.empty(novelId);
+        aggregate.setRatingSum(ratingSum);
+        aggregate.setReviewCount(reviewCount);
+        return aggregate;
+    }
+}
@@ -0,0 +1,141 @@
+package com.yushan.engagement_service.service;
+
+import com.yushan.engagement_service.cache.NovelProjection;
+import com.yushan.engagement_service.cache.NovelProjectionCache;
+import com.yushan.engagement_service.cache.NovelRatingAggregateCache;
+import com.yushan.engagement_service.dto.review.NovelRatingStatsDTO;
+import com.yushan.engagement_service.entity.NovelRatingAggregate;
+import com.yushan.engagement_service.entity.Review;
+import com.yushan.engagement_service.repository.NovelRatingAggregateRepository;
+import com.yushan.engagement_service.repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares memory allocation and latency of rating stats for a novel with 100k reviews:
+ * loading every review row and counting ratings in Java versus reading the persisted histogram.
+ * The review repository is replaced by a stand-in that materialises the rows on every call,
+ * as the MyBatis result mapping would.
+ */
+@Tag("benchmark")
+public class NovelRatingStatsBenchmarkTest {
+
+    private static final int REVIEW_COUNT = 100_000;
+    private static final int ITERATIONS = 5;
+    private static final String REVIEW_CONTENT = "This novel kept me reading late into the night. ".repeat(10);
+
+    private ReviewRepository reviewRepository;
+    private NovelRatingAggregateRepository novelRatingAggregateRepository;
+    private ReviewService reviewService;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository = Mockito.mock(ReviewRepository.class);
+        when(reviewRepository.findByNovelId(1)).thenAnswer(invocation -> materialiseReviews());
+
+        NovelRatingAggregate aggregate = NovelRatingAggregate.empty(1);
+        aggregate.setReviewCount(REVIEW_COUNT);
+        aggregate.setRatingSum(REVIEW_COUNT * 3L);
+        aggregate.setRating1Count(REVIEW_COUNT / 5);
+        aggregate.setRating2Count(REVIEW_COUNT / 5);
+        aggregate.setRating3Count(REVIEW_COUNT / 5);
+        aggregate.setRating4Count(REVIEW_COUNT / 5);
+        aggregate.setRating5Count(REVIEW_COUNT / 5);
+        novelRatingAggregateRepository = Mockito.mock(NovelRatingAggregateRepository.class);
+        when(novelRatingAggregateRepository.findByNovelId(1)).thenReturn(aggregate);
+
+        NovelRatingAggregateCache aggregateCache = new NovelRatingAggregateCache();
+        ReflectionTestUtils.setField(aggregateCache, "novelRatingAggregateRepository", novelRatingAggregateRepository);
+        ReflectionTestUtils.setField(aggregateCache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(aggregateCache, "ttlSeconds", 300L);
+        ReflectionTestUtils.invokeMethod(aggregateCache, "init");
+
+        NovelRatingAggregateService aggregateService = new NovelRatingAggregateService();
+        ReflectionTestUtils.setField(aggregateService, "novelRatingAggregateRepository", novelRatingAggregateRepository);
+        ReflectionTestUtils.setField(aggregateService, "novelRatingAggregateCache", aggregateCache);
+
+        NovelProjectionCache novelProjectionCache = Mockito.mock(NovelProjectionCache.class);
+        when(novelProjectionCache.getNovel(1)).thenReturn(new NovelProjection(1, "Novel 1", UUID.randomUUID(), "PUBLISHED"));
+
+        reviewService = new ReviewService();
+        ReflectionTestUtils.setField(reviewService, "reviewRepository", reviewRepository);
+        ReflectionTestUtils.setField(reviewService, "novelRatingAggregateService", aggregateService);
+        ReflectionTestUtils.setField(reviewService, "novelProjectionCache", novelProjectionCache);
+    }
+
+    @Test
+    void persistedHistogram_ShouldAvoidLoadingEveryReview() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        // Full scan: the previous implementation, one row per review plus five counting passes
+        long scanBytes = 0;
+        long scanNanos = 0;
+        int[] scanCounts = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            scanCounts = fullScanHistogram(reviewRepository.findByNovelId(1));
+            scanNanos += System.nanoTime() - start;
+            scanBytes += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        }
+
+        // Persisted histogram: one aggregate row, cached between review writes
+        long histogramBytes = 0;
+        long histogramNanos = 0;
+        NovelRatingStatsDTO stats = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            stats = reviewService.getNovelRatingStats(1);
+            histogramNanos += System.nanoTime() - start;
+            histogramBytes += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        }
+
+        System.out.println("reviews | approach  | avg alloc KB | avg ms");
+        System.out.printf("%7d | full scan | %12d | %6.2f%n", REVIEW_COUNT,
+                scanBytes / ITERATIONS / 1024, scanNanos / ITERATIONS / 1_000_000.0);
+        System.out.printf("%7d | histogram | %12d | %6.2f%n", REVIEW_COUNT,
+                histogramBytes / ITERATIONS / 1024, histogramNanos / ITERATIONS / 1_000_000.0);
+
+        assertNotNull(stats);
+        assertEquals(REVIEW_COUNT, stats.getTotalReviews());
+        assertEquals(scanCounts[5], stats.getRating5Count());
+        assertEquals(scanCounts[1], stats.getRating1Count());
+        assertEquals(3.0f, stats.getAverageRating());
+        assertTrue(histogramBytes * 100 < scanBytes, "histogram path should allocate orders of magnitude less");
+        verify(novelRatingAggregateRepository, times(1)).findByNovelId(1);
+    }
+
+    private static int[] fullScanHistogram(List<Review> reviews) {
+        int[] counts = new int[6];
+        for (int rating = 1; rating <= 5; rating++) {
+            final int star = rating;
+            counts[rating] = reviews.stream().mapToInt(r -> r.getRating() == star ? 1 : 0).sum();
+        }
+        return counts;
+    }
+
+    private static List<Review> materialiseReviews() {
+        Date now = new Date();
+        List<Review> reviews = new ArrayList<>(REVIEW_COUNT);
+        for (int i = 0; i < REVIEW_COUNT; i++) {
+            reviews.add(new Review(i + 1, new UUID(0L, i), new UUID(1L, i), 1, i % 5 + 1,
+                    "Review " + i, new String(REVIEW_CONTENT), 0, false, now, now));
+        }
+        return reviews;
+    }
+}
@@ -0,0 +1,136 @@
+package com.yushan.engagement_service.service;
+
+import com.yushan.engagement_service.entity.Vote;
+import com.yushan.engagement_service.repository.NovelVoteCounterRepository;
+import com.yushan.engagement_service.repository.VoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NovelVoteCounterServiceTest {
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    @Mock
+    private NovelVoteCounterRepository novelVoteCounterRepository;
+
+    @InjectMocks
+    private NovelVoteCounterService novelVoteCounterService;
+
+    private Vote vote;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(novelVoteCounterService, "slots", 4);
+        vote = new Vote();
+        vote.setId(7);
+        vote.setUserId(UUID.randomUUID());
+        vote.setNovelId(1);
+    }
+
+    @Test
+    void recordVote_ShouldInsertVoteThenIncrementOneSlot() {
+        when(novelVoteCounterRepository.countByNovelId(1)).thenReturn(12L);
+
+        long count = novelVoteCounterService.recordVote(vote);
+
+        assertEquals(12L, count);
+        InOrder inOrder = inOrder(voteRepository, novelVoteCounterRepository);
+        inOrder.verify(voteRepository).save(vote);
+        ArgumentCaptor<Integer> slot = ArgumentCaptor.forClass(Integer.class);
+        inOrder.verify(novelVoteCounterRepository).increment(eq(1), slot.capture(), eq(1));
+        assertTrue(slot.getValue() >= 0 && slot.getValue() < 4);
+        verify(voteRepository, never()).countByNovelId(anyInt());
+    }
+
+    @Test
+    void recordVote_ShouldSpreadVotesOverSlots() {
+        for (int i = 0; i < 200; i++) {
+            novelVoteCounterService.recordVote(vote);
+        }
+
+        ArgumentCaptor<Integer> slots = ArgumentCaptor.forClass(Integer.class);
+        verify(novelVoteCounterRepository, times(200)).increment(eq(1), slots.capture(), eq(1));
+        assertEquals(4, slots.getAllValues().stream().distinct().count());
+    }
+
+    @Test
+    void recordVote_WithOneSlot_ShouldAlwaysUseSlotZero() {
+        ReflectionTestUtils.setField(novelVoteCounterService, "slots", 1);
+
+        novelVoteCounterService.recordVote(vote);
+        novelVoteCounterService.recordVote(vote);
+
+        verify(novelVoteCounterRepository, times(2)).increment(1, 0, 1);
+    }
+
+    @Test
+    void recordVotes_ShouldInsertOnceAndIncrementEachNovelByItsShare() {
+        Vote other = new Vote();
+        other.setUserId(UUID.randomUUID());
+        other.setNovelId(2);
+        List<Vote> votes = List.of(vote, other, vote);
+        when(novelVoteCounterRepository.countByNovelId(1)).thenReturn(20L);
+        when(novelVoteCounterRepository.countByNovelId(2)).thenReturn(3L);
+
+        Map<Integer, Long> counts = novelVoteCounterService.recordVotes(votes);
+
+        assertEquals(Map.of(1, 20L, 2, 3L), counts);
+        InOrder inOrder = inOrder(voteRepository, novelVoteCounterRepository);
+        inOrder.verify(voteRepository).insertAll(votes);
+        inOrder.verify(novelVoteCounterRepository).increment(eq(1), anyInt(), eq(2));
+        inOrder.verify(novelVoteCounterRepository).increment(eq(2), anyInt(), eq(1));
+        verify(voteRepository, never()).save(any());
+    }
+
+    @Test
+    void recordVotes_WithNoVotes_ShouldDoNothing() {
+        assertTrue(novelVoteCounterService.recordVotes(List.of()).isEmpty());
+        verifyNoInteractions(voteRepository, novelVoteCounterRepository);
+    }
+
+    @Test
+    void removeVote_ShouldDeleteVoteAndDecrement() {
+        when(novelVoteCounterRepository.countByNovelId(1)).thenReturn(11L);
+
+        assertEquals(11L, novelVoteCounterService.removeVote(vote));
+        verify(voteRepository).delete(7);
+        verify(novelVoteCounterRepository).increment(eq(1), anyInt(), eq(-1));
+    }
+
+    @Test
+    void reconcileAll_ShouldReturnNumberOfCorrectedNovels() {
+        when(novelVoteCounterRepository.tryLockReconcile()).thenReturn(true);
+        when(novelVoteCounterRepository.reconcileAll()).thenReturn(3);
+
+        assertEquals(3, novelVoteCounterService.reconcileAll());
+    }
+
+    @Test
+    void reconcileAll_WhileAnotherInstanceReconciles_ShouldNotApplyTheDriftAgain() {
+        // The first run holds the advisory lock until its transaction ends
+        when(novelVoteCounterRepository.tryLockReconcile()).thenReturn(true, false);
+        when(novelVoteCounterRepository.reconcileAll()).thenReturn(3);
+
+        assertEquals(3, novelVoteCounterService.reconcileAll());
+        assertEquals(0, novelVoteCounterService.reconcileAll());
+
+        verify(novelVoteCounterRepository, times(1)).reconcileAll();
+    }
+}
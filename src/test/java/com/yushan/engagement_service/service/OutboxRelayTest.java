@@ -0,0 +1,64 @@
+package com.yushan.engagement_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxService outboxService;
+
+    @InjectMocks
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxRelay, "enabled", true);
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 100);
+        ReflectionTestUtils.setField(outboxRelay, "maxBatchesPerRun", 5);
+    }
+
+    @Test
+    void relay_ShouldDrainFullBatchesUntilAPartialOne() {
+        when(outboxService.relayBatch(100)).thenReturn(100, 100, 40);
+
+        outboxRelay.relay();
+
+        verify(outboxService, times(3)).relayBatch(100);
+    }
+
+    @Test
+    void relay_ShouldStopAfterMaxBatchesPerRun() {
+        when(outboxService.relayBatch(100)).thenReturn(100);
+
+        outboxRelay.relay();
+
+        verify(outboxService, times(5)).relayBatch(100);
+    }
+
+    @Test
+    void relay_WhenBatchFails_ShouldStopUntilNextRun() {
+        when(outboxService.relayBatch(100)).thenThrow(new IllegalStateException("broker down"));
+
+        assertDoesNotThrow(() -> outboxRelay.relay());
+        verify(outboxService, times(1)).relayBatch(100);
+    }
+
+    @Test
+    void relay_WhenDisabled_ShouldDoNothing() {
+        ReflectionTestUtils.setField(outboxRelay, "enabled", false);
+
+        outboxRelay.relay();
+
+        verifyNoInteractions(outboxService);
+    }
+}
@@ -0,0 +1,148 @@
+package com.yushan.engagement_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.yushan.engagement_service.dto.event.NovelVoteCountUpdateEvent;
+import com.yushan.engagement_service.entity.OutboxEvent;
+import com.yushan.engagement_service.repository.OutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @InjectMocks
+    private OutboxService outboxService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(outboxService, "enabled", true);
+        ReflectionTestUtils.setField(outboxService, "sendTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(outboxService, "compactTopics", Set.of("novel-vote-count-events"));
+        ReflectionTestUtils.setField(outboxService, "meterRegistry", meterRegistry);
+        outboxService.initMetrics();
+    }
+
+    @Test
+    void isActive_OutsideTransaction_ShouldBeFalse() {
+        assertFalse(outboxService.isActive());
+    }
+
+    @Test
+    void enqueue_ShouldStoreEventAsJson() {
+        outboxService.enqueue("novel-vote-count-events", "7", NovelVoteCountUpdateEvent.builder()
+                .novelId(7).voteCount(12).timestamp(LocalDateTime.now()).idempotencyKey("7-x").build());
+
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(saved.capture());
+        assertEquals("novel-vote-count-events", saved.getValue().getTopic());
+        assertEquals("7", saved.getValue().getEventKey());
+        assertTrue(saved.getValue().getPayload().contains("\"voteCount\":12"));
+    }
+
+    @Test
+    void enqueue_WhenInsertFails_ShouldThrow() {
+        doThrow(new RuntimeException("db down")).when(outboxRepository).save(any());
+
+        assertThrows(IllegalStateException.class, () -> outboxService.enqueue("comment-events", "1", "{}"));
+    }
+
+    @Test
+    void relayBatch_ShouldPublishInOrderCompactStateTopicsAndDeleteAll() {
+        when(outboxRepository.lockBatch(10)).thenReturn(List.of(
+                event(1L, "comment-events", "5", "{\"commentId\":5}"),
+                event(2L, "novel-vote-count-events", "7", "{\"voteCount\":10}"),
+                event(3L, "comment-events", "6", "{\"commentId\":6}"),
+                event(4L, "novel-vote-count-events", "7", "{\"voteCount\":11}"),
+                event(5L, "novel-vote-count-events", "8", "{\"voteCount\":1}")));
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(5, outboxService.relayBatch(10));
+
+        InOrder inOrder = inOrder(kafkaTemplate, outboxRepository);
+        inOrder.verify(kafkaTemplate).send(eq("comment-events"), eq("5"), any());
+        inOrder.verify(kafkaTemplate).send(eq("comment-events"), eq("6"), any());
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        inOrder.verify(kafkaTemplate).send(eq("novel-vote-count-events"), eq("7"), payload.capture());
+        inOrder.verify(kafkaTemplate).send(eq("novel-vote-count-events"), eq("8"), any());
+        inOrder.verify(outboxRepository).deleteAll(List.of(1L, 2L, 3L, 4L, 5L));
+        verify(kafkaTemplate, times(4)).send(anyString(), anyString(), any());
+        assertEquals(11, ((JsonNode) payload.getValue()).get("voteCount").asInt());
+        assertEquals(4.0, meterRegistry.get("outbox.relay.published").counter().count());
+        assertEquals(1.0, meterRegistry.get("outbox.relay.compacted").counter().count());
+    }
+
+    @Test
+    void relayBatch_WhenSendFails_ShouldThrowAndKeepEvents() {
+        when(outboxRepository.lockBatch(10)).thenReturn(List.of(event(1L, "comment-events", "5", "{}")));
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        assertThrows(IllegalStateException.class, () -> outboxService.relayBatch(10));
+        verify(outboxRepository, never()).deleteAll(any());
+    }
+
+    @Test
+    void relayBatch_WhenSendNeverCompletes_ShouldTimeOut() {
+        ReflectionTestUtils.setField(outboxService, "sendTimeoutMs", 10L);
+        when(outboxRepository.lockBatch(10)).thenReturn(List.of(event(1L, "comment-events", "5", "{}")));
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+
+        assertThrows(IllegalStateException.class, () -> outboxService.relayBatch(10));
+        verify(outboxRepository, never()).deleteAll(any());
+    }
+
+    @Test
+    void relayBatch_WithUnreadablePayload_ShouldDropItAndRelayTheRest() {
+        when(outboxRepository.lockBatch(10)).thenReturn(List.of(
+                event(1L, "comment-events", "5", "not json"),
+                event(2L, "comment-events", "6", "{}")));
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(2, outboxService.relayBatch(10));
+        verify(kafkaTemplate).send(eq("comment-events"), eq("6"), any());
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+        verify(outboxRepository).deleteAll(List.of(1L, 2L));
+    }
+
+    @Test
+    void relayBatch_WhenOutboxEmpty_ShouldDoNothing() {
+        when(outboxRepository.lockBatch(10)).thenReturn(new ArrayList<>());
+
+        assertEquals(0, outboxService.relayBatch(10));
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private OutboxEvent event(Long id, String topic, String key, String payload) {
+        OutboxEvent event = new OutboxEvent(topic, key, payload);
+        event.setId(id);
+        return event;
+    }
+}
@@ -1,10 +1,11 @@
 package com.yushan.engagement_service.service;
 
-import com.yushan.engagement_service.client.ContentServiceClient;
-import com.yushan.engagement_service.client.UserServiceClient;
+import com.yushan.engagement_service.cache.NovelProjection;
+import com.yushan.engagement_service.cache.NovelProjectionCache;
+import com.yushan.engagement_service.cache.UserProfileCache;
 import com.yushan.engagement_service.repository.CommentRepository;
 import com.yushan.engagement_service.repository.ReportRepository;
-import com.yushan.engagement_service.dto.common.ApiResponse;
+import com.yushan.engagement_service.dto.common.PageCursor;
 import com.yushan.engagement_service.dto.common.PageResponseDTO;
 import com.yushan.engagement_service.dto.novel.NovelDetailResponseDTO;
 import com.yushan.engagement_service.dto.report.ReportCreateRequestDTO;
@@ -40,10 +41,10 @@ class ReportServiceTest {
     private ReportRepository reportRepository;
 
     @Mock
-    private ContentServiceClient contentServiceClient;
+    private NovelProjectionCache novelProjectionCache;
 
     @Mock
-    private UserServiceClient userServiceClient;
+    private UserProfileCache userProfileCache;
 
     @Mock
     private CommentRepository commentRepository;
@@ -102,17 +103,14 @@ class ReportServiceTest {
     @Test
     void createNovelReport_WithValidData_ShouldCreateReport() {
         // Arrange
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
         when(reportRepository.existsReportByUserAndContent(testReporterId, "NOVEL", testNovelId)).thenReturn(false);
         when(reportRepository.save(any(Report.class))).thenAnswer(invocation -> {
             Report report = invocation.getArgument(0);
             report.setId(1);
             return report;
         });
-        when(userServiceClient.getUsernameById(testReporterId)).thenReturn("testuser");
+        when(userProfileCache.getUsername(testReporterId)).thenReturn("testuser");
 
         // Act
         ReportResponseDTO result = reportService.createNovelReport(testReporterId, testNovelId, testCreateRequest);
@@ -127,7 +125,7 @@ class ReportServiceTest {
         assertEquals(testNovelId, result.getContentId());
         assertEquals("testuser", result.getReporterUsername());
         
-        verify(contentServiceClient).getNovelById(testNovelId);
+        verify(novelProjectionCache).getNovel(testNovelId);
         verify(reportRepository).existsReportByUserAndContent(testReporterId, "NOVEL", testNovelId);
         verify(reportRepository).save(any(Report.class));
     }
@@ -135,14 +133,14 @@ class ReportServiceTest {
     @Test
     void createNovelReport_WithNonExistentNovel_ShouldThrowException() {
         // Arrange
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(null);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(null);
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
             reportService.createNovelReport(testReporterId, testNovelId, testCreateRequest);
         });
         
-        verify(contentServiceClient).getNovelById(testNovelId);
+        verify(novelProjectionCache).getNovel(testNovelId);
         verify(reportRepository, never()).save(any(Report.class));
     }
 
@@ -150,46 +148,37 @@ class ReportServiceTest {
     void createNovelReport_WithAuthorReportingOwnNovel_ShouldThrowException() {
         // Arrange
         testNovel.setAuthorId(testReporterId); // Same as testReporterId
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
 
         // Act & Assert
         assertThrows(ValidationException.class, () -> {
             reportService.createNovelReport(testReporterId, testNovelId, testCreateRequest);
         });
         
-        verify(contentServiceClient).getNovelById(testNovelId);
+        verify(novelProjectionCache).getNovel(testNovelId);
         verify(reportRepository, never()).save(any(Report.class));
     }
 
     @Test
     void createNovelReport_WithInvalidReportType_ShouldThrowException() {
         // Arrange
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        
         testCreateRequest.setReportType("INVALID_TYPE");
         
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
 
         // Act & Assert
         assertThrows(ValidationException.class, () -> {
             reportService.createNovelReport(testReporterId, testNovelId, testCreateRequest);
         });
         
-        verify(contentServiceClient).getNovelById(testNovelId);
+        verify(novelProjectionCache).getNovel(testNovelId);
         verify(reportRepository, never()).save(any(Report.class));
     }
 
     @Test
     void createNovelReport_WithExistingReport_ShouldThrowException() {
         // Arrange
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
         when(reportRepository.existsReportByUserAndContent(testReporterId, "NOVEL", testNovelId)).thenReturn(true);
 
         // Act & Assert
@@ -197,7 +186,7 @@ class ReportServiceTest {
             reportService.createNovelReport(testReporterId, testNovelId, testCreateRequest);
         });
         
-        verify(contentServiceClient).getNovelById(testNovelId);
+        verify(novelProjectionCache).getNovel(testNovelId);
         verify(reportRepository).existsReportByUserAndContent(testReporterId, "NOVEL", testNovelId);
         verify(reportRepository, never()).save(any(Report.class));
     }
@@ -212,7 +201,7 @@ class ReportServiceTest {
             report.setId(1);
             return report;
         });
-        when(userServiceClient.getUsernameById(testReporterId)).thenReturn("testuser");
+        when(userProfileCache.getUsername(testReporterId)).thenReturn("testuser");
 
         // Act
         ReportResponseDTO result = reportService.createCommentReport(testReporterId, testCommentId, testCreateRequest);
@@ -270,11 +259,9 @@ class ReportServiceTest {
         
         when(reportRepository.findReportsWithPagination(request)).thenReturn(Arrays.asList(testReport));
         when(reportRepository.countReports(request)).thenReturn(1L);
-        when(userServiceClient.getUsernameById(testReporterId)).thenReturn("testuser");
+        when(userProfileCache.getUsernames(anyCollection())).thenReturn(Map.of(testReporterId, "testuser"));
         
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovels(anyCollection())).thenReturn(Map.of(testNovelId, NovelProjection.of(testNovel)));
 
         // Act
         PageResponseDTO<ReportResponseDTO> result = reportService.getReportsForAdmin(request);
@@ -285,20 +272,23 @@ class ReportServiceTest {
         assertEquals(1L, result.getTotalElements());
         assertEquals(0, result.getCurrentPage());
         assertEquals(10, result.getSize());
+        assertEquals("testuser", result.getContent().get(0).getReporterUsername());
+        assertEquals("Test Novel", result.getContent().get(0).getNovelTitle());
         
         verify(reportRepository).findReportsWithPagination(request);
         verify(reportRepository).countReports(request);
+        verify(userProfileCache).getUsernames(anyCollection());
+        verify(novelProjectionCache, never()).getNovel(any());
+        verify(userProfileCache, never()).getUsername(any());
     }
 
     @Test
     void getReportById_WithValidId_ShouldReturnReport() {
         // Arrange
         when(reportRepository.findById(1)).thenReturn(testReport);
-        when(userServiceClient.getUsernameById(testReporterId)).thenReturn("testuser");
+        when(userProfileCache.getUsername(testReporterId)).thenReturn("testuser");
         
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
 
         // Act
         ReportResponseDTO result = reportService.getReportById(1);
@@ -330,12 +320,10 @@ class ReportServiceTest {
         // Arrange
         when(reportRepository.findById(1)).thenReturn(testReport);
         // save method returns Report, not int
-        when(userServiceClient.getUsernameById(testReporterId)).thenReturn("testuser");
-        when(userServiceClient.getUsernameById(testAdminId)).thenReturn("admin");
+        when(userProfileCache.getUsername(testReporterId)).thenReturn("testuser");
+        when(userProfileCache.getUsername(testAdminId)).thenReturn("admin");
         
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
 
         // Act
         ReportResponseDTO result = reportService.resolveReport(1, testAdminId, testResolutionRequest);
@@ -381,11 +369,9 @@ class ReportServiceTest {
     void getReportsByReporter_WithValidData_ShouldReturnReports() {
         // Arrange
         when(reportRepository.findReportsByReporterId(testReporterId)).thenReturn(Arrays.asList(testReport));
-        when(userServiceClient.getUsernameById(testReporterId)).thenReturn("testuser");
+        when(userProfileCache.getUsernames(anyCollection())).thenReturn(Map.of(testReporterId, "testuser"));
         
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovels(anyCollection())).thenReturn(Map.of(testNovelId, NovelProjection.of(testNovel)));
 
         // Act
         List<ReportResponseDTO> result = reportService.getReportsByReporter(testReporterId);
@@ -395,6 +381,8 @@ class ReportServiceTest {
         assertEquals(1, result.size());
         assertEquals(1, result.get(0).getId());
         assertEquals(testReporterId, result.get(0).getReporterId());
+        assertEquals("testuser", result.get(0).getReporterUsername());
+        assertEquals("Test Novel", result.get(0).getNovelTitle());
         
         verify(reportRepository).findReportsByReporterId(testReporterId);
     }
@@ -413,4 +401,36 @@ class ReportServiceTest {
         
         verify(reportRepository).findReportsByReporterId(testReporterId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getReportsForAdmin_WithCursor_ShouldSeekWithoutCounting() {
+        // Arrange
+        ReportSearchRequestDTO request = new ReportSearchRequestDTO();
+        request.setPage(0);
+        request.setSize(10);
+        request.setCursor(PageCursor.encode("createdAt", "desc", new Date(), 50));
+
+        when(reportRepository.findReportsWithPagination(request)).thenReturn(Arrays.asList(testReport));
+        when(userProfileCache.getUsernames(anyCollection())).thenReturn(Map.of(testReporterId, "testuser"));
+        when(novelProjectionCache.getNovels(anyCollection())).thenReturn(Map.of(testNovelId, NovelProjection.of(testNovel)));
+
+        // Act
+        PageResponseDTO<ReportResponseDTO> result = reportService.getReportsForAdmin(request);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertNull(result.getNextCursor());
+        assertFalse(result.isHasNext());
+        assertEquals(50, request.getSeek().getId());
+        verify(reportRepository, never()).countReports(any());
+    }
+
+    @Test
+    void getReportsForAdmin_WithCursorForOtherSort_ShouldThrowValidationException() {
+        ReportSearchRequestDTO request = new ReportSearchRequestDTO();
+        request.setSize(10);
+        request.setCursor(PageCursor.encode("status", "asc", 1, 1));
+
+        assertThrows(ValidationException.class, () -> reportService.getReportsForAdmin(request));
+    }
+}
@@ -1,18 +1,27 @@
 package com.yushan.engagement_service.service;
 
-import com.yushan.engagement_service.client.ContentServiceClient;
-import com.yushan.engagement_service.client.UserServiceClient;
+import com.yushan.engagement_service.cache.NovelProjection;
+import com.yushan.engagement_service.cache.LikeMembershipCache;
+import com.yushan.engagement_service.cache.NovelProjectionCache;
+import com.yushan.engagement_service.cache.ReadThroughPageCache;
+import com.yushan.engagement_service.cache.UserProfileCache;
+import com.yushan.engagement_service.repository.LikeRepository;
 import com.yushan.engagement_service.repository.ReviewRepository;
-import com.yushan.engagement_service.dto.common.ApiResponse;
+import com.yushan.engagement_service.dto.common.PageCursor;
 import com.yushan.engagement_service.dto.novel.NovelDetailResponseDTO;
 import com.yushan.engagement_service.dto.review.*;
+import com.yushan.engagement_service.entity.NovelRatingAggregate;
 import com.yushan.engagement_service.entity.Review;
+import com.yushan.engagement_service.enums.LikeTargetType;
 import com.yushan.engagement_service.exception.ResourceNotFoundException;
+import com.yushan.engagement_service.util.RedisUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.*;
@@ -28,10 +37,22 @@ class ReviewServiceTest {
     private ReviewRepository reviewRepository;
 
     @Mock
-    private ContentServiceClient contentServiceClient;
+    private UserProfileCache userProfileCache;
 
     @Mock
-    private UserServiceClient userServiceClient;
+    private NovelProjectionCache novelProjectionCache;
+
+    @Mock
+    private NovelRatingAggregateService novelRatingAggregateService;
+
+    @Mock
+    private LikeCounterService likeCounterService;
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @Mock
+    private LikeMembershipCache likeMembershipCache;
 
     @Mock
     private KafkaEventProducerService kafkaEventProducerService;
@@ -39,6 +60,10 @@ class ReviewServiceTest {
     @Mock
     private TransactionAwareKafkaPublisher transactionAwareKafkaPublisher;
 
+    // Disabled outside Spring: pages load straight from the repository
+    @Spy
+    private ReadThroughPageCache pageCache = new ReadThroughPageCache();
+
     @InjectMocks
     private ReviewService reviewService;
 
@@ -84,24 +109,23 @@ class ReviewServiceTest {
         testUpdateRequest.setTitle("Updated title");
         testUpdateRequest.setContent("Updated content");
         testUpdateRequest.setIsSpoiler(true);
+
+        // No buffered likes unless a test says otherwise: counts are the stored ones
+        lenient().when(likeCounterService.currentCount(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2) != null ? invocation.getArgument(2) : 0);
     }
 
     @Test
     void createReview_WithValidData_ShouldCreateReview() {
         // Arrange
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
         when(reviewRepository.findByUserAndNovel(testUserId, testNovelId)).thenReturn(null);
         when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> {
             Review review = invocation.getArgument(0);
             review.setId(1);
             return review;
         });
-        when(reviewRepository.findByNovelId(testNovelId)).thenReturn(Arrays.asList(testReview));
-        when(userServiceClient.getUsernameById(testUserId)).thenReturn("testuser");
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(userProfileCache.getUsername(testUserId)).thenReturn("testuser");
 
         // Act
         ReviewResponseDTO result = reviewService.createReview(testUserId, testCreateRequest);
@@ -114,34 +138,32 @@ class ReviewServiceTest {
         assertEquals("I really enjoyed this novel.", result.getContent());
         assertFalse(result.getIsSpoiler());
         
-        verify(contentServiceClient, times(2)).getNovelById(testNovelId);
+        verify(novelProjectionCache, times(2)).getNovel(testNovelId);
         verify(reviewRepository).findByUserAndNovel(testUserId, testNovelId);
         verify(reviewRepository).save(any(Review.class));
-        // Verify publishAfterCommit is called (may be called multiple times: once for review event, once for rating update)
-        verify(transactionAwareKafkaPublisher, atLeastOnce()).publishAfterCommit(any(Runnable.class));
+        verify(novelRatingAggregateService).recordRatingChange(testNovelId, null, 5);
+        verify(reviewRepository, never()).findByNovelId(anyInt());
+        verify(transactionAwareKafkaPublisher).publishAfterCommit(any(Runnable.class));
     }
 
     @Test
     void createReview_WithNonExistentNovel_ShouldThrowException() {
         // Arrange
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(null);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(null);
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
             reviewService.createReview(testUserId, testCreateRequest);
         });
         
-        verify(contentServiceClient).getNovelById(testNovelId);
+        verify(novelProjectionCache).getNovel(testNovelId);
         verify(reviewRepository, never()).save(any(Review.class));
     }
 
     @Test
     void createReview_WithExistingReview_ShouldThrowException() {
         // Arrange
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
         when(reviewRepository.findByUserAndNovel(testUserId, testNovelId)).thenReturn(testReview);
 
         // Act & Assert
@@ -149,7 +171,7 @@ class ReviewServiceTest {
             reviewService.createReview(testUserId, testCreateRequest);
         });
         
-        verify(contentServiceClient).getNovelById(testNovelId);
+        verify(novelProjectionCache).getNovel(testNovelId);
         verify(reviewRepository).findByUserAndNovel(testUserId, testNovelId);
         verify(reviewRepository, never()).save(any(Review.class));
     }
@@ -171,6 +193,7 @@ class ReviewServiceTest {
         
         verify(reviewRepository).findById(1);
         verify(reviewRepository).save(any(Review.class));
+        verify(novelRatingAggregateService).recordRatingChange(testNovelId, 5, 4);
     }
 
     @Test
@@ -207,7 +230,6 @@ class ReviewServiceTest {
         // Arrange
         when(reviewRepository.findById(1)).thenReturn(testReview);
         // delete method returns void, no need to mock return value
-        when(reviewRepository.findByNovelId(testNovelId)).thenReturn(Arrays.asList(testReview));
 
         // Act
         boolean result = reviewService.deleteReview(1, testUserId, false);
@@ -216,6 +238,7 @@ class ReviewServiceTest {
         assertTrue(result);
         verify(reviewRepository).findById(1);
         verify(reviewRepository).delete(1);
+        verify(novelRatingAggregateService).recordRatingChange(testNovelId, 5, null);
     }
 
     @Test
@@ -253,7 +276,6 @@ class ReviewServiceTest {
         UUID otherUserId = UUID.randomUUID();
         when(reviewRepository.findById(1)).thenReturn(testReview);
         // delete method returns void, no need to mock return value
-        when(reviewRepository.findByNovelId(testNovelId)).thenReturn(Arrays.asList(testReview));
 
         // Act
         boolean result = reviewService.deleteReview(1, otherUserId, true);
@@ -268,11 +290,9 @@ class ReviewServiceTest {
     void getReview_WithValidId_ShouldReturnReview() {
         // Arrange
         when(reviewRepository.findById(1)).thenReturn(testReview);
-        when(userServiceClient.getUsernameById(testUserId)).thenReturn("testuser");
+        when(userProfileCache.getUsername(testUserId)).thenReturn("testuser");
         
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
 
         // Act
         ReviewResponseDTO result = reviewService.getReview(1);
@@ -306,11 +326,9 @@ class ReviewServiceTest {
         // Arrange
         when(reviewRepository.findReviewsWithPagination(any(ReviewSearchRequestDTO.class))).thenReturn(Arrays.asList(testReview));
         when(reviewRepository.countReviews(any(ReviewSearchRequestDTO.class))).thenReturn(1L);
-        when(userServiceClient.getUsernameById(testUserId)).thenReturn("testuser");
+        when(userProfileCache.getUsernames(anyCollection())).thenReturn(Map.of(testUserId, "testuser"));
         
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovels(anyCollection())).thenReturn(Map.of(testNovelId, NovelProjection.of(testNovel)));
 
         // Act
         var result = reviewService.getReviewsByNovel(testNovelId, 0, 10, "createTime", "desc");
@@ -332,11 +350,9 @@ class ReviewServiceTest {
         ReviewSearchRequestDTO request = new ReviewSearchRequestDTO(0, 10, "createTime", "desc", testNovelId, null, null, null);
         when(reviewRepository.findReviewsWithPagination(request)).thenReturn(Arrays.asList(testReview));
         when(reviewRepository.countReviews(request)).thenReturn(1L);
-        when(userServiceClient.getUsernameById(testUserId)).thenReturn("testuser");
+        when(userProfileCache.getUsernames(anyCollection())).thenReturn(Map.of(testUserId, "testuser"));
         
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovels(anyCollection())).thenReturn(Map.of(testNovelId, NovelProjection.of(testNovel)));
 
         // Act
         var result = reviewService.getAllReviews(request);
@@ -356,12 +372,11 @@ class ReviewServiceTest {
     void toggleLike_WithValidData_ShouldToggleLike() {
         // Arrange
         when(reviewRepository.findById(1)).thenReturn(testReview);
-        doNothing().when(reviewRepository).updateLikeCount(1, 1);
-        when(userServiceClient.getUsernameById(testUserId)).thenReturn("testuser");
+        when(likeRepository.addLike(LikeTargetType.REVIEW, 1, testUserId)).thenReturn(true);
+        when(likeCounterService.currentCount(LikeTargetType.REVIEW, 1, 10)).thenReturn(11);
+        when(userProfileCache.getUsername(testUserId)).thenReturn("testuser");
         
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
 
         // Act
         ReviewResponseDTO result = reviewService.toggleLike(1, testUserId, true);
@@ -369,9 +384,45 @@ class ReviewServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getId());
+        assertEquals(11, result.getLikeCnt());
+        assertTrue(result.getIsLiked());
         
-        verify(reviewRepository, times(2)).findById(1);
-        verify(reviewRepository).updateLikeCount(1, 1);
+        // The like is buffered instead of updating the row and reading it back
+        verify(reviewRepository, times(1)).findById(1);
+        verify(likeCounterService).increment(LikeTargetType.REVIEW, 1, 1);
+        verify(likeMembershipCache).recordLike(LikeTargetType.REVIEW, testUserId, 1);
+        verify(reviewRepository, never()).updateLikeCount(anyInt(), anyInt());
+    }
+
+    @Test
+    void toggleLike_WhenAlreadyLiked_ShouldNotCountAgain() {
+        // Arrange
+        when(reviewRepository.findById(1)).thenReturn(testReview);
+        when(likeRepository.addLike(LikeTargetType.REVIEW, 1, testUserId)).thenReturn(false);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
+
+        // Act
+        ReviewResponseDTO result = reviewService.toggleLike(1, testUserId, true);
+
+        // Assert
+        assertEquals(10, result.getLikeCnt());
+        verify(likeCounterService, never()).increment(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void toggleLike_WhenUnliking_ShouldBufferDecrement() {
+        // Arrange
+        when(reviewRepository.findById(1)).thenReturn(testReview);
+        when(likeRepository.removeLike(LikeTargetType.REVIEW, 1, testUserId)).thenReturn(true);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
+
+        // Act
+        ReviewResponseDTO result = reviewService.toggleLike(1, testUserId, false);
+
+        // Assert
+        assertFalse(result.getIsLiked());
+        verify(likeCounterService).increment(LikeTargetType.REVIEW, 1, -1);
+        verify(likeMembershipCache).recordUnlike(LikeTargetType.REVIEW, testUserId, 1);
     }
 
     @Test
@@ -385,18 +436,16 @@ class ReviewServiceTest {
         });
         
         verify(reviewRepository).findById(1);
-        verify(reviewRepository, never()).updateLikeCount(anyInt(), anyInt());
+        verify(likeCounterService, never()).increment(any(), anyInt(), anyInt());
     }
 
     @Test
     void getUserReviews_WithValidData_ShouldReturnReviews() {
         // Arrange
         when(reviewRepository.findByUserId(testUserId)).thenReturn(Arrays.asList(testReview));
-        when(userServiceClient.getUsernameById(testUserId)).thenReturn("testuser");
+        when(userProfileCache.getUsernames(anyCollection())).thenReturn(Map.of(testUserId, "testuser"));
         
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovels(anyCollection())).thenReturn(Map.of(testNovelId, NovelProjection.of(testNovel)));
 
         // Act
         List<ReviewResponseDTO> result = reviewService.getUserReviews(testUserId);
@@ -405,8 +454,11 @@ class ReviewServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(1, result.get(0).getId());
+        assertEquals("testuser", result.get(0).getUsername());
         
         verify(reviewRepository).findByUserId(testUserId);
+        verify(userProfileCache).getUsernames(anyCollection());
+        verify(userProfileCache, never()).getUsername(any());
     }
 
     @Test
@@ -439,11 +491,9 @@ class ReviewServiceTest {
     void getUserReviewForNovel_WithExistingReview_ShouldReturnReview() {
         // Arrange
         when(reviewRepository.findByUserAndNovel(testUserId, testNovelId)).thenReturn(testReview);
-        when(userServiceClient.getUsernameById(testUserId)).thenReturn("testuser");
+        when(userProfileCache.getUsername(testUserId)).thenReturn("testuser");
         
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
 
         // Act
         ReviewResponseDTO result = reviewService.getUserReviewForNovel(testUserId, testNovelId);
@@ -472,10 +522,13 @@ class ReviewServiceTest {
     @Test
     void getNovelRatingStats_WithValidData_ShouldReturnStats() {
         // Arrange
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
-        when(reviewRepository.findByNovelId(testNovelId)).thenReturn(Arrays.asList(testReview));
+        NovelRatingAggregate aggregate = NovelRatingAggregate.empty(testNovelId);
+        aggregate.setRatingSum(9L);
+        aggregate.setReviewCount(2);
+        aggregate.setRating5Count(1);
+        aggregate.setRating4Count(1);
+        when(novelRatingAggregateService.getAggregate(testNovelId)).thenReturn(aggregate);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
 
         // Act
         NovelRatingStatsDTO result = reviewService.getNovelRatingStats(testNovelId);
@@ -484,20 +537,22 @@ class ReviewServiceTest {
         assertNotNull(result);
         assertEquals(testNovelId, result.getNovelId());
         assertEquals("Test Novel", result.getNovelTitle());
-        assertEquals(1, result.getTotalReviews());
+        assertEquals(2, result.getTotalReviews());
         assertEquals(4.5f, result.getAverageRating());
+        assertEquals(1, result.getRating5Count());
+        assertEquals(1, result.getRating4Count());
+        assertEquals(0, result.getRating1Count());
+        assertEquals(50.0f, result.getRating5Percentage());
+        assertEquals(0.0f, result.getRating1Percentage());
         
-        verify(contentServiceClient).getNovelById(testNovelId);
-        verify(reviewRepository).findByNovelId(testNovelId);
+        verify(reviewRepository, never()).findByNovelId(anyInt());
     }
 
     @Test
     void getNovelRatingStats_WithNoReviews_ShouldReturnZeroStats() {
         // Arrange
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
-        when(reviewRepository.findByNovelId(testNovelId)).thenReturn(new ArrayList<>());
+        when(novelRatingAggregateService.getAggregate(testNovelId)).thenReturn(NovelRatingAggregate.empty(testNovelId));
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
 
         // Act
         NovelRatingStatsDTO result = reviewService.getNovelRatingStats(testNovelId);
@@ -507,9 +562,83 @@ class ReviewServiceTest {
         assertEquals(testNovelId, result.getNovelId());
         assertEquals("Test Novel", result.getNovelTitle());
         assertEquals(0, result.getTotalReviews());
-        assertEquals(4.5f, result.getAverageRating());
+        assertEquals(0.0f, result.getAverageRating());
+        assertNull(result.getRating5Count());
         
-        verify(contentServiceClient).getNovelById(testNovelId);
-        verify(reviewRepository).findByNovelId(testNovelId);
+        verify(reviewRepository, never()).findByNovelId(anyInt());
+    }
+
+    @Test
+    void getNovelRatingStats_WhenNovelUnresolved_ShouldStillReturnHistogram() {
+        // Arrange
+        NovelRatingAggregate aggregate = NovelRatingAggregate.empty(testNovelId);
+        aggregate.setRatingSum(3L);
+        aggregate.setReviewCount(1);
+        aggregate.setRating3Count(1);
+        when(novelRatingAggregateService.getAggregate(testNovelId)).thenReturn(aggregate);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(null);
+
+        // Act
+        NovelRatingStatsDTO result = reviewService.getNovelRatingStats(testNovelId);
+
+        // Assert
+        assertNull(result.getNovelTitle());
+        assertEquals(1, result.getTotalReviews());
+        assertEquals(3.0f, result.getAverageRating());
+        assertEquals(100.0f, result.getRating3Percentage());
+    }
+
+    @Test
+    void getReviewsByNovel_OffsetPage_ShouldReturnCursorForNextPage() {
+        when(reviewRepository.findReviewsWithPagination(any(ReviewSearchRequestDTO.class))).thenReturn(Arrays.asList(testReview));
+        when(reviewRepository.countReviews(any(ReviewSearchRequestDTO.class))).thenReturn(5L);
+        when(userProfileCache.getUsernames(anyCollection())).thenReturn(Map.of(testUserId, "testuser"));
+        when(novelProjectionCache.getNovels(anyCollection())).thenReturn(Map.of(testNovelId, NovelProjection.of(testNovel)));
+
+        var result = reviewService.getReviewsByNovel(testNovelId, 0, 1, "likeCnt", "desc");
+
+        PageCursor cursor = PageCursor.decode(result.getNextCursor(), "likeCnt");
+        assertEquals(10L, cursor.getKey());
+        assertEquals(1, cursor.getId());
+    }
+
+    @Test
+    void getReviewsByNovel_WithUnsupportedSort_ShouldCacheUnderCreateTime() {
+        when(reviewRepository.findReviewsWithPagination(any(ReviewSearchRequestDTO.class))).thenReturn(Collections.emptyList());
+        when(reviewRepository.countReviews(any(ReviewSearchRequestDTO.class))).thenReturn(0L);
+
+        reviewService.getReviewsByNovel(testNovelId, 0, 10, "'; drop table review; --", "DESC");
+
+        verify(pageCache).getPage(eq(0), eq(RedisUtil.novelReviewsNamespace(testNovelId)), eq("createTime:desc:0:10"),
+                eq(Review.class), any());
+        ArgumentCaptor<ReviewSearchRequestDTO> request = ArgumentCaptor.forClass(ReviewSearchRequestDTO.class);
+        verify(reviewRepository).findReviewsWithPagination(request.capture());
+        assertEquals("createTime", request.getValue().getSort());
+    }
+
+    @Test
+    void getReviewsByNovel_WithCursor_ShouldSeekWithoutCounting() {
+        Review next = new Review();
+        next.setId(2);
+        next.setUserId(testUserId);
+        next.setNovelId(testNovelId);
+        next.setRating(4);
+        String cursor = PageCursor.encode("rating", "desc", 5, 7);
+        when(reviewRepository.findReviewsWithPagination(any(ReviewSearchRequestDTO.class)))
+                .thenReturn(Arrays.asList(testReview, next));
+        when(userProfileCache.getUsernames(anyCollection())).thenReturn(Map.of(testUserId, "testuser"));
+        when(novelProjectionCache.getNovels(anyCollection())).thenReturn(Map.of(testNovelId, NovelProjection.of(testNovel)));
+
+        var result = reviewService.getReviewsByNovel(testNovelId, 4, 1, "createTime", "asc", cursor);
+
+        ArgumentCaptor<ReviewSearchRequestDTO> request = ArgumentCaptor.forClass(ReviewSearchRequestDTO.class);
+        verify(reviewRepository).findReviewsWithPagination(request.capture());
+        assertEquals("rating", request.getValue().getSort());
+        assertEquals("desc", request.getValue().getOrder());
+        assertEquals(7, request.getValue().getSeek().getId());
+        verify(reviewRepository, never()).countReviews(any(ReviewSearchRequestDTO.class));
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(1, PageCursor.decode(result.getNextCursor(), "rating").getId());
     }
-}
\ No newline at end of file
+}
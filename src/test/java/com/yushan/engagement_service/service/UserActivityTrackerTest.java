@@ -0,0 +1,105 @@
+package com.yushan.engagement_service.service;
+
+import com.yushan.engagement_service.dto.event.UserActivityEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserActivityTrackerTest {
+
+    @Mock
+    private KafkaEventProducerService kafkaEventProducerService;
+
+    @InjectMocks
+    private UserActivityTracker userActivityTracker;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(userActivityTracker, "meterRegistry", meterRegistry);
+        userActivityTracker.initMetrics();
+    }
+
+    @Test
+    void recordActivity_ShouldNotPublishUntilFlush() {
+        userActivityTracker.recordActivity(UUID.randomUUID(), "/api/v1/comments", "GET");
+
+        verifyNoInteractions(kafkaEventProducerService);
+        assertEquals(1.0, meterRegistry.get("user.activity.pending").gauge().value());
+    }
+
+    @Test
+    void flush_ShouldPublishOneEventPerUserWithLatestRequest() {
+        UUID reader = UUID.randomUUID();
+        UUID writer = UUID.randomUUID();
+        for (int i = 0; i < 100; i++) {
+            userActivityTracker.recordActivity(reader, "/api/v1/comments/chapter/" + i, "GET");
+        }
+        userActivityTracker.recordActivity(writer, "/api/v1/reviews", "POST");
+
+        userActivityTracker.flush();
+
+        ArgumentCaptor<UserActivityEvent> events = ArgumentCaptor.forClass(UserActivityEvent.class);
+        verify(kafkaEventProducerService, times(2)).publishUserActivityEvent(events.capture());
+        UserActivityEvent readerEvent = events.getAllValues().stream()
+                .filter(event -> event.userId().equals(reader)).findFirst().orElseThrow();
+        assertEquals("engagement-service", readerEvent.serviceName());
+        assertEquals("/api/v1/comments/chapter/99", readerEvent.endpoint());
+        assertEquals("GET", readerEvent.method());
+        assertNotNull(readerEvent.timestamp());
+        assertEquals(101.0, meterRegistry.get("user.activity.recorded").counter().count());
+        assertEquals(2.0, meterRegistry.get("user.activity.published").counter().count());
+    }
+
+    @Test
+    void flush_ShouldStartANewWindow() {
+        UUID userId = UUID.randomUUID();
+        userActivityTracker.recordActivity(userId, "/api/v1/comments", "GET");
+        userActivityTracker.flush();
+        userActivityTracker.flush();
+
+        verify(kafkaEventProducerService, times(1)).publishUserActivityEvent(any());
+
+        userActivityTracker.recordActivity(userId, "/api/v1/comments", "GET");
+        userActivityTracker.flush();
+
+        verify(kafkaEventProducerService, times(2)).publishUserActivityEvent(any());
+    }
+
+    @Test
+    void flush_WhenPublishFails_ShouldContinueWithOtherUsers() {
+        doThrow(new RuntimeException("Kafka error")).doNothing()
+                .when(kafkaEventProducerService).publishUserActivityEvent(any());
+        userActivityTracker.recordActivity(UUID.randomUUID(), "/a", "GET");
+        userActivityTracker.recordActivity(UUID.randomUUID(), "/b", "GET");
+
+        userActivityTracker.flush();
+
+        verify(kafkaEventProducerService, times(2)).publishUserActivityEvent(any());
+        assertEquals(1.0, meterRegistry.get("user.activity.published").counter().count());
+    }
+
+    @Test
+    void shutdown_ShouldFlushPendingActivity() {
+        userActivityTracker.recordActivity(UUID.randomUUID(), "/api/v1/votes", "POST");
+
+        userActivityTracker.shutdown();
+
+        verify(kafkaEventProducerService).publishUserActivityEvent(any());
+    }
+}
@@ -0,0 +1,140 @@
+package com.yushan.engagement_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yushan.engagement_service.cache.NovelProjection;
+import com.yushan.engagement_service.cache.NovelProjectionCache;
+import com.yushan.engagement_service.dto.event.VoteSagaYuanReservedEvent;
+import com.yushan.engagement_service.entity.Vote;
+import com.yushan.engagement_service.exception.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VoteSagaServiceTest {
+
+    private static final String KEY_PREFIX = "idempotency:vote-saga-create:";
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private NovelVoteCounterService novelVoteCounterService;
+
+    @Mock
+    private NovelProjectionCache novelProjectionCache;
+
+    @Mock
+    private KafkaEventProducerService kafkaEventProducerService;
+
+    @Mock
+    private TransactionAwareKafkaPublisher transactionAwareKafkaPublisher;
+
+    @InjectMocks
+    private VoteSagaService voteSagaService;
+
+    private final UUID authorId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(voteSagaService, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(transactionAwareKafkaPublisher).publishAfterCommit(any(Runnable.class));
+    }
+
+    @Test
+    void createVote_ShouldClaimInsertAndPublish() {
+        when(idempotencyService.tryClaim(KEY_PREFIX + "s1", "VoteSagaCreate")).thenReturn(true);
+        when(novelProjectionCache.getNovel(1)).thenReturn(new NovelProjection(1, "Novel 1", authorId, "PUBLISHED"));
+        when(novelVoteCounterService.recordVote(any(Vote.class))).thenAnswer(invocation -> {
+            invocation.<Vote>getArgument(0).setId(10);
+            return 7L;
+        });
+
+        assertEquals(10, voteSagaService.createVote(event("s1", UUID.randomUUID(), 1)));
+
+        verify(kafkaEventProducerService).publishVoteSagaVoteCreatedEvent(eq("s1"), contains("\"voteId\":10"));
+        verify(kafkaEventProducerService).publishNovelVoteCountUpdateEvent(1, 7);
+    }
+
+    @Test
+    void createVote_WhenAlreadyClaimed_ShouldSkip() {
+        when(idempotencyService.tryClaim(anyString(), anyString())).thenReturn(false);
+
+        assertNull(voteSagaService.createVote(event("s1", UUID.randomUUID(), 1)));
+
+        verifyNoInteractions(novelProjectionCache, novelVoteCounterService, kafkaEventProducerService);
+    }
+
+    @Test
+    void createVote_OwnNovel_ShouldThrowWithoutInserting() {
+        when(idempotencyService.tryClaim(anyString(), anyString())).thenReturn(true);
+        when(novelProjectionCache.getNovel(1)).thenReturn(new NovelProjection(1, "Novel 1", authorId, "PUBLISHED"));
+
+        assertThrows(ValidationException.class, () -> voteSagaService.createVote(event("s1", authorId, 1)));
+
+        verifyNoInteractions(novelVoteCounterService, kafkaEventProducerService);
+    }
+
+    @Test
+    void createVotes_ShouldInsertOnlyClaimedRecordsAndPublishOneCountUpdatePerNovel() {
+        when(idempotencyService.tryClaimAll(anyCollection(), eq("VoteSagaCreate")))
+                .thenReturn(Set.of(KEY_PREFIX + "s1", KEY_PREFIX + "s3"));
+        when(novelVoteCounterService.recordVotes(anyList())).thenAnswer(invocation -> {
+            List<Vote> votes = invocation.getArgument(0);
+            for (int i = 0; i < votes.size(); i++) {
+                votes.get(i).setId(100 + i);
+            }
+            return Map.of(1, 12L, 2, 5L);
+        });
+
+        List<String> created = voteSagaService.createVotes(List.of(
+                event("s1", UUID.randomUUID(), 1), event("s2", UUID.randomUUID(), 1), event("s3", UUID.randomUUID(), 2)));
+
+        assertEquals(List.of("s1", "s3"), created);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Vote>> votes = ArgumentCaptor.forClass(List.class);
+        verify(novelVoteCounterService).recordVotes(votes.capture());
+        assertEquals(2, votes.getValue().size());
+        // The batch insert writes each vote's own timestamp rather than one NOW() for the statement
+        assertTrue(votes.getValue().stream().allMatch(vote -> vote.getCreateTime() != null && vote.getUpdateTime() != null));
+        verify(kafkaEventProducerService).publishVoteSagaVoteCreatedEvent(eq("s1"), contains("\"voteId\":100"));
+        verify(kafkaEventProducerService).publishVoteSagaVoteCreatedEvent(eq("s3"), contains("\"voteId\":101"));
+        verify(kafkaEventProducerService).publishNovelVoteCountUpdateEvent(1, 12);
+        verify(kafkaEventProducerService).publishNovelVoteCountUpdateEvent(2, 5);
+    }
+
+    @Test
+    void createVotes_WhenNothingClaimed_ShouldNotInsert() {
+        when(idempotencyService.tryClaimAll(anyCollection(), anyString())).thenReturn(Set.of());
+
+        assertTrue(voteSagaService.createVotes(List.of(event("s1", UUID.randomUUID(), 1))).isEmpty());
+
+        verifyNoInteractions(novelVoteCounterService, kafkaEventProducerService);
+    }
+
+    private static VoteSagaYuanReservedEvent event(String sagaId, UUID userId, Integer novelId) {
+        return VoteSagaYuanReservedEvent.builder()
+                .sagaId(sagaId)
+                .userId(userId)
+                .novelId(novelId)
+                .reservationId(UUID.randomUUID())
+                .build();
+    }
+}
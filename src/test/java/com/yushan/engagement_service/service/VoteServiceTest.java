@@ -1,9 +1,12 @@
 package com.yushan.engagement_service.service;
 
+import com.yushan.engagement_service.cache.NovelProjection;
+import com.yushan.engagement_service.cache.NovelProjectionCache;
 import com.yushan.engagement_service.client.ContentServiceClient;
 import com.yushan.engagement_service.client.GamificationServiceClient;
 import com.yushan.engagement_service.repository.VoteRepository;
 import com.yushan.engagement_service.dto.common.ApiResponse;
+import com.yushan.engagement_service.dto.common.PageCursor;
 import com.yushan.engagement_service.dto.common.PageResponseDTO;
 import com.yushan.engagement_service.dto.gamification.VoteCheckResponseDTO;
 import com.yushan.engagement_service.dto.novel.NovelDetailResponseDTO;
@@ -17,6 +20,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
 
@@ -33,6 +37,12 @@ class VoteServiceTest {
     @Mock
     private ContentServiceClient contentServiceClient;
 
+    @Mock
+    private NovelVoteCounterService novelVoteCounterService;
+
+    @Mock
+    private NovelProjectionCache novelProjectionCache;
+
     @Mock
     private GamificationServiceClient gamificationServiceClient;
 
@@ -76,22 +86,18 @@ class VoteServiceTest {
     @Test
     void createVote_WithValidData_ShouldCreateVote() {
         // Arrange
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        
         ApiResponse<VoteCheckResponseDTO> voteCheckResponse = new ApiResponse<>();
         voteCheckResponse.setData(testVoteCheck);
         testVoteCheck.setCurrentYuanBalance(10.0);
         
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
         when(gamificationServiceClient.checkVoteEligibility()).thenReturn(voteCheckResponse);
-        when(voteRepository.save(any(Vote.class))).thenAnswer(invocation -> {
+        // The counter returns 5 (including the vote we just inserted)
+        when(novelVoteCounterService.recordVote(any(Vote.class))).thenAnswer(invocation -> {
             Vote vote = invocation.getArgument(0);
             vote.setId(1);
-            return vote;
+            return 5L;
         });
-        // Mock countByNovelId to return 5 (including the vote we just inserted)
-        when(voteRepository.countByNovelId(testNovelId)).thenReturn(5L);
 
         // Act
         VoteResponseDTO result = voteService.createVote(testNovelId, testUserId);
@@ -103,57 +109,71 @@ class VoteServiceTest {
         assertTrue(result.getIsVoted());
         assertEquals(9.0f, result.getRemainedYuan()); // 10.0 - 1.0
         
-        verify(contentServiceClient).getNovelById(testNovelId);
+        verify(novelProjectionCache).getNovel(testNovelId);
         verify(gamificationServiceClient).checkVoteEligibility();
-        verify(voteRepository).save(any(Vote.class));
-        verify(voteRepository).countByNovelId(testNovelId);
+        verify(novelVoteCounterService).recordVote(any(Vote.class));
+        // The count comes from the maintained counter, not count(*) over the vote table
+        verify(voteRepository, never()).countByNovelId(anyInt());
         verify(transactionAwareKafkaPublisher).publishAfterCommit(any(Runnable.class));
         // Verify no longer calling sync API
         verify(contentServiceClient, never()).incrementVoteCount(anyInt());
         verify(contentServiceClient, never()).getNovelVoteCount(anyInt());
     }
 
+    @Test
+    void createVote_WithSaga_ShouldReadCountFromCounter() {
+        // Arrange
+        ReflectionTestUtils.setField(voteService, "sagaEnabled", true);
+        ApiResponse<VoteCheckResponseDTO> voteCheckResponse = new ApiResponse<>();
+        voteCheckResponse.setData(testVoteCheck);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
+        when(gamificationServiceClient.checkVoteEligibility()).thenReturn(voteCheckResponse);
+        when(novelVoteCounterService.getVoteCount(testNovelId)).thenReturn(42L);
+
+        // Act
+        VoteResponseDTO result = voteService.createVote(testNovelId, testUserId);
+
+        // Assert
+        assertEquals(42, result.getVoteCount());
+        verify(voteRepository, never()).countByNovelId(anyInt());
+        verify(transactionAwareKafkaPublisher).publishAfterCommit(any(Runnable.class));
+    }
+
     @Test
     void createVote_WithNonExistentNovel_ShouldThrowException() {
         // Arrange
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(null);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(null);
 
         // Act & Assert
         assertThrows(ValidationException.class, () -> {
             voteService.createVote(testNovelId, testUserId);
         });
         
-        verify(contentServiceClient).getNovelById(testNovelId);
+        verify(novelProjectionCache).getNovel(testNovelId);
         verify(gamificationServiceClient, never()).checkVoteEligibility();
-        verify(voteRepository, never()).save(any(Vote.class));
+        verify(novelVoteCounterService, never()).recordVote(any(Vote.class));
     }
 
     @Test
     void createVote_WithAuthorVotingOwnNovel_ShouldThrowException() {
         // Arrange
         testNovel.setAuthorId(testUserId); // Same as testUserId
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
 
         // Act & Assert
         assertThrows(ValidationException.class, () -> {
             voteService.createVote(testNovelId, testUserId);
         });
         
-        verify(contentServiceClient).getNovelById(testNovelId);
+        verify(novelProjectionCache).getNovel(testNovelId);
         verify(gamificationServiceClient, never()).checkVoteEligibility();
-        verify(voteRepository, never()).save(any(Vote.class));
+        verify(novelVoteCounterService, never()).recordVote(any(Vote.class));
     }
 
     @Test
     void createVote_WithVoteCheckNull_ShouldThrowException() {
         // Arrange
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
         when(gamificationServiceClient.checkVoteEligibility()).thenReturn(null);
 
         // Act & Assert
@@ -161,21 +181,18 @@ class VoteServiceTest {
             voteService.createVote(testNovelId, testUserId);
         });
         
-        verify(contentServiceClient).getNovelById(testNovelId);
+        verify(novelProjectionCache).getNovel(testNovelId);
         verify(gamificationServiceClient).checkVoteEligibility();
-        verify(voteRepository, never()).save(any(Vote.class));
+        verify(novelVoteCounterService, never()).recordVote(any(Vote.class));
     }
 
     @Test
     void createVote_WithVoteCheckDataNull_ShouldThrowException() {
         // Arrange
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        
         ApiResponse<VoteCheckResponseDTO> voteCheckResponse = new ApiResponse<>();
         voteCheckResponse.setData(null);
         
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
         when(gamificationServiceClient.checkVoteEligibility()).thenReturn(voteCheckResponse);
 
         // Act & Assert
@@ -183,23 +200,20 @@ class VoteServiceTest {
             voteService.createVote(testNovelId, testUserId);
         });
         
-        verify(contentServiceClient).getNovelById(testNovelId);
+        verify(novelProjectionCache).getNovel(testNovelId);
         verify(gamificationServiceClient).checkVoteEligibility();
-        verify(voteRepository, never()).save(any(Vote.class));
+        verify(novelVoteCounterService, never()).recordVote(any(Vote.class));
     }
 
     @Test
     void createVote_WithCannotVote_ShouldThrowException() {
         // Arrange
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        
         testVoteCheck.setCanVote(false);
         testVoteCheck.setMessage("Not enough Yuan");
         ApiResponse<VoteCheckResponseDTO> voteCheckResponse = new ApiResponse<>();
         voteCheckResponse.setData(testVoteCheck);
         
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
         when(gamificationServiceClient.checkVoteEligibility()).thenReturn(voteCheckResponse);
 
         // Act & Assert
@@ -209,23 +223,20 @@ class VoteServiceTest {
         
         assertEquals("Not enough Yuan", exception.getMessage());
         
-        verify(contentServiceClient).getNovelById(testNovelId);
+        verify(novelProjectionCache).getNovel(testNovelId);
         verify(gamificationServiceClient).checkVoteEligibility();
-        verify(voteRepository, never()).save(any(Vote.class));
+        verify(novelVoteCounterService, never()).recordVote(any(Vote.class));
     }
 
     @Test
     void createVote_WithCannotVoteNullMessage_ShouldThrowException() {
         // Arrange
-        ApiResponse<NovelDetailResponseDTO> novelResponse = new ApiResponse<>();
-        novelResponse.setData(testNovel);
-        
         testVoteCheck.setCanVote(false);
         testVoteCheck.setMessage(null);
         ApiResponse<VoteCheckResponseDTO> voteCheckResponse = new ApiResponse<>();
         voteCheckResponse.setData(testVoteCheck);
         
-        when(contentServiceClient.getNovelById(testNovelId)).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovel(testNovelId)).thenReturn(NovelProjection.of(testNovel));
         when(gamificationServiceClient.checkVoteEligibility()).thenReturn(voteCheckResponse);
 
         // Act & Assert
@@ -235,9 +246,9 @@ class VoteServiceTest {
         
         assertEquals("Not enough Yuan to vote", exception.getMessage());
         
-        verify(contentServiceClient).getNovelById(testNovelId);
+        verify(novelProjectionCache).getNovel(testNovelId);
         verify(gamificationServiceClient).checkVoteEligibility();
-        verify(voteRepository, never()).save(any(Vote.class));
+        verify(novelVoteCounterService, never()).recordVote(any(Vote.class));
     }
 
     @Test
@@ -250,9 +261,8 @@ class VoteServiceTest {
         when(voteRepository.countByUserId(testUserId)).thenReturn(totalElements);
         when(voteRepository.findByUserIdWithPagination(testUserId, 0, size)).thenReturn(Arrays.asList(testVote));
         
-        ApiResponse<List<NovelDetailResponseDTO>> novelResponse = new ApiResponse<>();
-        novelResponse.setData(Arrays.asList(testNovel));
-        when(contentServiceClient.getNovelsBatch(Arrays.asList(testNovelId))).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovels(Arrays.asList(testNovelId)))
+                .thenReturn(Map.of(testNovelId, NovelProjection.of(testNovel)));
 
         // Act
         PageResponseDTO<VoteUserResponseDTO> result = voteService.getUserVotes(testUserId, page, size);
@@ -271,7 +281,7 @@ class VoteServiceTest {
         
         verify(voteRepository).countByUserId(testUserId);
         verify(voteRepository).findByUserIdWithPagination(testUserId, 0, size);
-        verify(contentServiceClient).getNovelsBatch(Arrays.asList(testNovelId));
+        verify(novelProjectionCache).getNovels(Arrays.asList(testNovelId));
     }
 
     @Test
@@ -295,7 +305,7 @@ class VoteServiceTest {
         
         verify(voteRepository).countByUserId(testUserId);
         verify(voteRepository, never()).findByUserIdWithPagination(any(), anyInt(), anyInt());
-        verify(contentServiceClient, never()).getNovelsBatch(any());
+        verify(novelProjectionCache, never()).getNovels(any());
     }
 
     @Test
@@ -320,7 +330,7 @@ class VoteServiceTest {
         
         verify(voteRepository).countByUserId(testUserId);
         verify(voteRepository).findByUserIdWithPagination(testUserId, 0, size);
-        verify(contentServiceClient, never()).getNovelsBatch(any());
+        verify(novelProjectionCache, never()).getNovels(any());
     }
 
     @Test
@@ -333,9 +343,7 @@ class VoteServiceTest {
         when(voteRepository.countByUserId(testUserId)).thenReturn(totalElements);
         when(voteRepository.findByUserIdWithPagination(testUserId, 0, size)).thenReturn(Arrays.asList(testVote));
         
-        ApiResponse<List<NovelDetailResponseDTO>> novelResponse = new ApiResponse<>();
-        novelResponse.setData(Collections.emptyList()); // No novels found
-        when(contentServiceClient.getNovelsBatch(Arrays.asList(testNovelId))).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovels(Arrays.asList(testNovelId))).thenReturn(Collections.emptyMap()); // No novels found
 
         // Act
         PageResponseDTO<VoteUserResponseDTO> result = voteService.getUserVotes(testUserId, page, size);
@@ -350,7 +358,7 @@ class VoteServiceTest {
         
         verify(voteRepository).countByUserId(testUserId);
         verify(voteRepository).findByUserIdWithPagination(testUserId, 0, size);
-        verify(contentServiceClient).getNovelsBatch(Arrays.asList(testNovelId));
+        verify(novelProjectionCache).getNovels(Arrays.asList(testNovelId));
     }
 
     @Test
@@ -363,7 +371,7 @@ class VoteServiceTest {
         when(voteRepository.countByUserId(testUserId)).thenReturn(totalElements);
         when(voteRepository.findByUserIdWithPagination(testUserId, 0, size)).thenReturn(Arrays.asList(testVote));
         
-        when(contentServiceClient.getNovelsBatch(Arrays.asList(testNovelId))).thenReturn(null);
+        when(novelProjectionCache.getNovels(Arrays.asList(testNovelId))).thenReturn(Collections.emptyMap()); // Content service unavailable
 
         // Act
         PageResponseDTO<VoteUserResponseDTO> result = voteService.getUserVotes(testUserId, page, size);
@@ -378,7 +386,7 @@ class VoteServiceTest {
         
         verify(voteRepository).countByUserId(testUserId);
         verify(voteRepository).findByUserIdWithPagination(testUserId, 0, size);
-        verify(contentServiceClient).getNovelsBatch(Arrays.asList(testNovelId));
+        verify(novelProjectionCache).getNovels(Arrays.asList(testNovelId));
     }
 
     @Test
@@ -392,9 +400,8 @@ class VoteServiceTest {
         when(voteRepository.countByUserId(testUserId)).thenReturn(totalElements);
         when(voteRepository.findByUserIdWithPagination(testUserId, expectedOffset, size)).thenReturn(Arrays.asList(testVote));
         
-        ApiResponse<List<NovelDetailResponseDTO>> novelResponse = new ApiResponse<>();
-        novelResponse.setData(Arrays.asList(testNovel));
-        when(contentServiceClient.getNovelsBatch(Arrays.asList(testNovelId))).thenReturn(novelResponse);
+        when(novelProjectionCache.getNovels(Arrays.asList(testNovelId)))
+                .thenReturn(Map.of(testNovelId, NovelProjection.of(testNovel)));
 
         // Act
         PageResponseDTO<VoteUserResponseDTO> result = voteService.getUserVotes(testUserId, page, size);
@@ -407,4 +414,69 @@ class VoteServiceTest {
         verify(voteRepository).countByUserId(testUserId);
         verify(voteRepository).findByUserIdWithPagination(testUserId, expectedOffset, size);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUserVotes_WithCursor_ShouldSeekWithoutCounting() {
+        // Arrange
+        Vote older = new Vote();
+        older.setId(0);
+        older.setUserId(testUserId);
+        older.setNovelId(testNovelId);
+        older.setCreateTime(new Date(testVote.getCreateTime().getTime() - 1000));
+        String cursor = PageCursor.encode("createTime", "desc", new Date(), 5);
+
+        when(voteRepository.findByUserIdAfter(eq(testUserId), any(Date.class), eq(5), eq(2)))
+                .thenReturn(Arrays.asList(testVote, older));
+        when(novelProjectionCache.getNovels(Arrays.asList(testNovelId)))
+                .thenReturn(Map.of(testNovelId, NovelProjection.of(testNovel)));
+
+        // Act
+        PageResponseDTO<VoteUserResponseDTO> result = voteService.getUserVotes(testUserId, 3, 1, cursor);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        PageCursor next = PageCursor.decode(result.getNextCursor(), "createTime");
+        assertEquals(testVote.getId(), next.getId());
+        assertEquals(testVote.getCreateTime(), next.getKeyAsTime());
+        verify(voteRepository, never()).countByUserId(any());
+        verify(voteRepository, never()).findByUserIdWithPagination(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getUserVotes_TwoVotesInOneMillisecondAcrossPages_ShouldReturnBoth() {
+        // Arrange: one poll inserted both votes with the same Java timestamp
+        Date votedAt = new Date(1_700_000_000_123L);
+        Vote newer = new Vote(8, testUserId, 1, votedAt, votedAt);
+        Vote sibling = new Vote(7, testUserId, 2, votedAt, votedAt);
+        List<Vote> stored = Arrays.asList(newer, sibling);
+        when(voteRepository.countByUserId(testUserId)).thenReturn(2L);
+        when(voteRepository.findByUserIdWithPagination(testUserId, 0, 1)).thenReturn(List.of(newer));
+        // Same row comparison as VoteMapper.selectByUserIdAfter
+        when(voteRepository.findByUserIdAfter(eq(testUserId), any(Date.class), anyInt(), eq(2)))
+                .thenAnswer(invocation -> {
+                    long cursorTime = invocation.<Date>getArgument(1).getTime();
+                    int cursorId = invocation.getArgument(2);
+                    return stored.stream()
+                            .filter(vote -> vote.getCreateTime().getTime() < cursorTime
+                                    || vote.getCreateTime().getTime() == cursorTime && vote.getId() < cursorId)
+                            .toList();
+                });
+        when(novelProjectionCache.getNovels(anyList())).thenReturn(Map.of());
+
+        // Act
+        PageResponseDTO<VoteUserResponseDTO> first = voteService.getUserVotes(testUserId, 0, 1, null);
+        PageResponseDTO<VoteUserResponseDTO> second = voteService.getUserVotes(testUserId, 1, 1, first.getNextCursor());
+
+        // Assert
+        assertEquals(8, first.getContent().get(0).getId());
+        assertEquals(1, second.getContent().size());
+        assertEquals(7, second.getContent().get(0).getId());
+        verify(voteRepository).findByUserIdAfter(testUserId, votedAt, 8, 2);
+    }
+
+    @Test
+    void getUserVotes_WithInvalidCursor_ShouldThrowValidationException() {
+        assertThrows(ValidationException.class, () -> voteService.getUserVotes(testUserId, 0, 10, "@@@"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.yushan.engagement_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HmacUtilTest {
+
+    private static final String SECRET = "test-gateway-secret";
+
+    @Test
+    void generateSignature_ShouldMatchTheGatewayFormat() throws Exception {
+        long now = System.currentTimeMillis();
+
+        assertEquals(reference("user-1", "a@example.com", "USER", now, SECRET),
+                HmacUtil.generateSignature("user-1", "a@example.com", "USER", now, SECRET));
+        // A missing role is signed as USER
+        assertEquals(reference("user-1", "a@example.com", "USER", now, SECRET),
+                HmacUtil.generateSignature("user-1", "a@example.com", null, now, SECRET));
+        assertEquals(reference("user-1", "a@example.com", "ADMIN", -42L, SECRET),
+                HmacUtil.generateSignature("user-1", "a@example.com", "ADMIN", -42L, SECRET));
+    }
+
+    @Test
+    void generateSignature_ShouldEncodeNonAsciiHeadersAsUtf8() throws Exception {
+        String email = "zoë+中文😀\ud800@example.com";
+
+        assertEquals(reference("user-1", email, "USER", 1L, SECRET),
+                HmacUtil.generateSignature("user-1", email, "USER", 1L, SECRET));
+    }
+
+    @Test
+    void generateSignature_ShouldGrowTheMessageBufferForLongHeaders() throws Exception {
+        String email = "a".repeat(1000) + "@example.com";
+
+        assertEquals(reference("user-1", email, "USER", 1L, SECRET),
+                HmacUtil.generateSignature("user-1", email, "USER", 1L, SECRET));
+        assertEquals(reference("user-1", "a@example.com", "USER", 1L, SECRET),
+                HmacUtil.generateSignature("user-1", "a@example.com", "USER", 1L, SECRET));
+    }
+
+    @Test
+    void verifySignature_ShouldAcceptOnlyTheSignatureOfTheseHeaders() throws Exception {
+        long now = System.currentTimeMillis();
+        String signature = reference("user-1", "a@example.com", "USER", now, SECRET);
+
+        assertTrue(HmacUtil.verifySignature("user-1", "a@example.com", "USER", now, signature, SECRET));
+        assertFalse(HmacUtil.verifySignature("user-1", "a@example.com", "ADMIN", now, signature, SECRET));
+        assertFalse(HmacUtil.verifySignature("user-1", "a@example.com", "USER", now, signature, "other-secret"));
+        assertFalse(HmacUtil.verifySignature("user-1", "a@example.com", "USER", now, signature.substring(1), SECRET));
+        assertFalse(HmacUtil.verifySignature("user-1", "a@example.com", "USER", now, null, SECRET));
+        // The thread's Mac is re-keyed back after the other secret
+        assertTrue(HmacUtil.verifySignature("user-1", "a@example.com", "USER", now, signature, SECRET));
+    }
+
+    @Test
+    void verifySignature_WhenTimestampIsOutsideTolerance_ShouldReject() throws Exception {
+        long old = System.currentTimeMillis() - 6 * 60 * 1000;
+
+        assertFalse(HmacUtil.verifySignature("user-1", "a@example.com", "USER", old,
+                reference("user-1", "a@example.com", "USER", old, SECRET), SECRET));
+    }
+
+    @Test
+    void constantTimeEquals_ShouldCompareWholeStrings() {
+        assertTrue(HmacUtil.constantTimeEquals("abc", "abc"));
+        assertFalse(HmacUtil.constantTimeEquals("abc", "abd"));
+        assertFalse(HmacUtil.constantTimeEquals("abc", "ab"));
+        assertFalse(HmacUtil.constantTimeEquals(null, "abc"));
+    }
+
+    /**
+     * The signature as the gateway computes it
+     */
+    static String reference(String userId, String email, String role, long timestamp, String secret) throws Exception {
+        String message = String.format("%s|%s|%s|%d", userId, email, role, timestamp);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return Base64.getEncoder().encodeToString(mac.doFinal(message.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -3,14 +3,21 @@ package com.yushan.engagement_service.util;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -30,12 +37,19 @@ class RedisUtilTest {
     @Mock
     private ValueOperations<String, Object> valueOperations;
 
+    @Mock
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, byte[]> binaryValueOperations;
+
     @InjectMocks
     private RedisUtil redisUtil;
 
     @BeforeEach
     void setUp() {
-        // Only mock when needed in individual tests
+        // Only mock when needed in individual tests; generations are read as raw counters
+        lenient().when(binaryRedisTemplate.opsForValue()).thenReturn(binaryValueOperations);
     }
 
     @Test
@@ -307,7 +321,7 @@ class RedisUtilTest {
         redisUtil.cacheChapterComments(chapterId, commentsData);
 
         // Assert
-        verify(valueOperations).set("comment:chapter:1", commentsData, Duration.ofHours(1));
+        verify(valueOperations).set("comment:chapter:1:v0", commentsData, Duration.ofHours(1));
     }
 
     @Test
@@ -316,14 +330,14 @@ class RedisUtilTest {
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         Integer chapterId = 1;
         String expectedData = "comments data";
-        when(valueOperations.get("comment:chapter:1")).thenReturn(expectedData);
+        when(valueOperations.get("comment:chapter:1:v0")).thenReturn(expectedData);
 
         // Act
         Object result = redisUtil.getCachedChapterComments(chapterId);
 
         // Assert
         assertEquals(expectedData, result);
-        verify(valueOperations).get("comment:chapter:1");
+        verify(valueOperations).get("comment:chapter:1:v0");
     }
 
     @Test
@@ -397,7 +411,7 @@ class RedisUtilTest {
         redisUtil.cacheNovelReviews(novelId, reviewsData);
 
         // Assert
-        verify(valueOperations).set("review:novel:1", reviewsData, Duration.ofHours(2));
+        verify(valueOperations).set("review:novel:1:v0", reviewsData, Duration.ofHours(2));
     }
 
     @Test
@@ -406,14 +420,14 @@ class RedisUtilTest {
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         Integer novelId = 1;
         String expectedData = "reviews data";
-        when(valueOperations.get("review:novel:1")).thenReturn(expectedData);
+        when(valueOperations.get("review:novel:1:v0")).thenReturn(expectedData);
 
         // Act
         Object result = redisUtil.getCachedNovelReviews(novelId);
 
         // Assert
         assertEquals(expectedData, result);
-        verify(valueOperations).get("review:novel:1");
+        verify(valueOperations).get("review:novel:1:v0");
     }
 
     @Test
@@ -471,7 +485,7 @@ class RedisUtilTest {
         redisUtil.cacheNovelVotes(novelId, votesData);
 
         // Assert
-        verify(valueOperations).set("vote:novel:1", votesData, Duration.ofHours(1));
+        verify(valueOperations).set("vote:novel:1:v0", votesData, Duration.ofHours(1));
     }
 
     @Test
@@ -480,14 +494,14 @@ class RedisUtilTest {
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         Integer novelId = 1;
         String expectedData = "votes data";
-        when(valueOperations.get("vote:novel:1")).thenReturn(expectedData);
+        when(valueOperations.get("vote:novel:1:v0")).thenReturn(expectedData);
 
         // Act
         Object result = redisUtil.getCachedNovelVotes(novelId);
 
         // Assert
         assertEquals(expectedData, result);
-        verify(valueOperations).get("vote:novel:1");
+        verify(valueOperations).get("vote:novel:1:v0");
     }
 
     @Test
@@ -501,7 +515,7 @@ class RedisUtilTest {
         redisUtil.cacheUserVotes(userId, votesData);
 
         // Assert
-        verify(valueOperations).set("vote:user:user123", votesData, Duration.ofHours(1));
+        verify(valueOperations).set("vote:user:user123:v0", votesData, Duration.ofHours(1));
     }
 
     @Test
@@ -510,14 +524,14 @@ class RedisUtilTest {
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         String userId = "user123";
         String expectedData = "votes data";
-        when(valueOperations.get("vote:user:user123")).thenReturn(expectedData);
+        when(valueOperations.get("vote:user:user123:v0")).thenReturn(expectedData);
 
         // Act
         Object result = redisUtil.getCachedUserVotes(userId);
 
         // Assert
         assertEquals(expectedData, result);
-        verify(valueOperations).get("vote:user:user123");
+        verify(valueOperations).get("vote:user:user123:v0");
     }
 
     // Like-specific cache methods tests
@@ -604,7 +618,7 @@ class RedisUtilTest {
         redisUtil.cacheEngagementStats(entityType, entityId, statsData);
 
         // Assert
-        verify(valueOperations).set("engagement:novel:1", statsData, Duration.ofMinutes(15));
+        verify(valueOperations).set("engagement:novel:1:v0", statsData, Duration.ofMinutes(15));
     }
 
     @Test
@@ -614,132 +628,145 @@ class RedisUtilTest {
         String entityType = "novel";
         Integer entityId = 1;
         String expectedData = "stats data";
-        when(valueOperations.get("engagement:novel:1")).thenReturn(expectedData);
+        when(valueOperations.get("engagement:novel:1:v0")).thenReturn(expectedData);
 
         // Act
         Object result = redisUtil.getCachedEngagementStats(entityType, entityId);
 
         // Assert
         assertEquals(expectedData, result);
-        verify(valueOperations).get("engagement:novel:1");
+        verify(valueOperations).get("engagement:novel:1:v0");
     }
 
-    // Cache invalidation methods tests
-
     @Test
-    void invalidateCommentCaches_ShouldDeleteCommentAndChapterCaches() {
+    void cacheChapterComments_AfterInvalidation_ShouldWriteUnderTheNewGeneration() {
         // Arrange
-        Integer commentId = 1;
-        Set<String> commentKeys = new HashSet<>();
-        commentKeys.add("comment:chapter:1");
-        commentKeys.add("comment:chapter:2");
-        when(redisTemplate.keys("comment:chapter:*")).thenReturn(commentKeys);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(binaryValueOperations.get("ns:comment:chapter:1")).thenReturn("3".getBytes());
 
         // Act
-        redisUtil.invalidateCommentCaches(commentId);
+        redisUtil.cacheChapterComments(1, "comments data");
 
         // Assert
-        verify(redisTemplate).delete("comment:1");
-        verify(redisTemplate).keys("comment:chapter:*");
-        verify(redisTemplate).delete(commentKeys);
+        verify(valueOperations).set("comment:chapter:1:v3", "comments data", Duration.ofHours(1));
     }
 
-    @Test
-    void invalidateCommentCaches_WhenNoChapterKeys_ShouldOnlyDeleteComment() {
-        // Arrange
-        Integer commentId = 1;
-        when(redisTemplate.keys("comment:chapter:*")).thenReturn(new HashSet<>());
+    // Cache invalidation methods tests
 
+    @Test
+    void invalidateCommentCaches_ShouldDeleteCommentAndBumpOnlyItsChapter() {
         // Act
-        redisUtil.invalidateCommentCaches(commentId);
+        redisUtil.invalidateCommentCaches(1, 7);
 
         // Assert
         verify(redisTemplate).delete("comment:1");
-        verify(redisTemplate).keys("comment:chapter:*");
-        verify(redisTemplate, never()).delete(any(Set.class));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("ns:comment:chapter:7")), anyLong(), anyLong());
+        verify(redisTemplate, never()).keys(anyString());
     }
 
     @Test
-    void invalidateReviewCaches_ShouldDeleteReviewAndNovelCaches() {
-        // Arrange
-        Integer reviewId = 1;
-        Set<String> reviewKeys = new HashSet<>();
-        reviewKeys.add("review:novel:1");
-        reviewKeys.add("review:novel:2");
-        when(redisTemplate.keys("review:novel:*")).thenReturn(reviewKeys);
-
+    void invalidateReviewCaches_ShouldDeleteReviewAndBumpOnlyItsNovel() {
         // Act
-        redisUtil.invalidateReviewCaches(reviewId);
+        redisUtil.invalidateReviewCaches(1, 5);
 
         // Assert
         verify(redisTemplate).delete("review:1");
-        verify(redisTemplate).keys("review:novel:*");
-        verify(redisTemplate).delete(reviewKeys);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("ns:review:novel:5")), anyLong(), anyLong());
+        verify(redisTemplate, never()).keys(anyString());
     }
 
     @Test
-    void invalidateVoteCaches_ShouldDeleteVoteCaches() {
-        // Arrange
-        Integer novelId = 1;
-        Set<String> voteKeys = new HashSet<>();
-        voteKeys.add("vote:novel:1");
-        Set<String> userVoteKeys = new HashSet<>();
-        userVoteKeys.add("vote:user:user1");
-        when(redisTemplate.keys("vote:novel:1")).thenReturn(voteKeys);
-        when(redisTemplate.keys("vote:user:*")).thenReturn(userVoteKeys);
+    void invalidateVoteCaches_ShouldBumpNovelAndUserGenerations() {
+        // Act
+        redisUtil.invalidateVoteCaches(1, "user1");
+
+        // Assert
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("ns:vote:novel:1")), anyLong(), anyLong());
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("ns:vote:user:user1")), anyLong(), anyLong());
+        verify(redisTemplate, never()).keys(anyString());
+    }
 
+    @Test
+    void invalidateEngagementCaches_ShouldBumpTheEntityGeneration() {
         // Act
-        redisUtil.invalidateVoteCaches(novelId);
+        redisUtil.invalidateEngagementCaches("novel", 1);
 
         // Assert
-        verify(redisTemplate).keys("vote:novel:1");
-        verify(redisTemplate).keys("vote:user:*");
-        verify(redisTemplate).delete(voteKeys);
-        verify(redisTemplate).delete(userVoteKeys);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("ns:engagement:novel:1")), anyLong(), anyLong());
     }
 
     @Test
-    void invalidateEngagementCaches_ShouldDeleteEngagementCaches() {
+    void bumpGeneration_ShouldKeepTheCounterLongerThanAnyCacheEntry() {
         // Arrange
-        Set<String> engagementKeys = new HashSet<>();
-        engagementKeys.add("engagement:novel:1");
-        engagementKeys.add("engagement:comment:1");
-        when(redisTemplate.keys("engagement:*")).thenReturn(engagementKeys);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(4L);
 
         // Act
-        redisUtil.invalidateEngagementCaches();
+        Long generation = redisUtil.bumpGeneration("comment:chapter:1");
 
         // Assert
-        verify(redisTemplate).keys("engagement:*");
-        verify(redisTemplate).delete(engagementKeys);
+        assertEquals(4L, generation);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("ns:comment:chapter:1")),
+                anyLong(), eq(Duration.ofDays(1).toMillis()));
+    }
+
+    @Test
+    void generation_ShouldDefaultToZero() {
+        // Arrange
+        when(binaryValueOperations.get("ns:vote:novel:1")).thenReturn(null);
+        when(binaryValueOperations.get("ns:vote:novel:2")).thenReturn("12".getBytes());
+
+        // Act & Assert
+        assertEquals(0L, redisUtil.generation("vote:novel:1"));
+        assertEquals(12L, redisUtil.generation("vote:novel:2"));
     }
 
     @Test
-    void clearAllCaches_ShouldDeleteAllKeys() {
+    @SuppressWarnings("unchecked")
+    void clearAllCaches_ShouldScanCachePrefixesAndUnlinkInBatches() {
         // Arrange
-        Set<String> allKeys = new HashSet<>();
-        allKeys.add("key1");
-        allKeys.add("key2");
-        when(redisTemplate.keys("*")).thenReturn(allKeys);
+        List<String> commentKeys = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            commentKeys.add("comment:" + i);
+        }
+        when(redisTemplate.scan(any(ScanOptions.class))).thenAnswer(invocation -> {
+            ScanOptions options = invocation.getArgument(0);
+            List<String> keys = "comment:*".equals(options.getPattern()) ? commentKeys : List.of();
+            Iterator<String> iterator = keys.iterator();
+            Cursor<String> cursor = mock(Cursor.class);
+            when(cursor.hasNext()).thenAnswer(i -> iterator.hasNext());
+            lenient().when(cursor.next()).thenAnswer(i -> iterator.next());
+            return cursor;
+        });
 
         // Act
         redisUtil.clearAllCaches();
 
         // Assert
-        verify(redisTemplate).keys("*");
-        verify(redisTemplate).delete(allKeys);
+        ArgumentCaptor<ScanOptions> options = ArgumentCaptor.forClass(ScanOptions.class);
+        verify(redisTemplate, times(6)).scan(options.capture());
+        assertTrue(options.getAllValues().stream().noneMatch(o -> "*".equals(o.getPattern())));
+        verify(redisTemplate).unlink(commentKeys.subList(0, 500));
+        verify(redisTemplate).unlink(List.of("comment:500"));
+        verify(redisTemplate, never()).keys(anyString());
     }
 
     @Test
-    void clearAllCaches_WhenNoKeys_ShouldNotDelete() {
-        // Arrange
-        when(redisTemplate.keys("*")).thenReturn(new HashSet<>());
+    void bumpGeneration_ShouldPublishTheNamespaceToReplicas() {
+        // Act
+        redisUtil.bumpGeneration("comment:chapter:1");
 
+        // Assert
+        verify(redisTemplate).convertAndSend(RedisUtil.INVALIDATION_CHANNEL, List.of("comment:chapter:1"));
+    }
+
+    @Test
+    void delete_ShouldPublishOnlyCacheKeys() {
         // Act
-        redisUtil.clearAllCaches();
+        redisUtil.delete(Set.of("idempotency:vote-saga-create:s1"));
+        redisUtil.delete("comment:1");
 
         // Assert
-        verify(redisTemplate).keys("*");
-        verify(redisTemplate, never()).delete(any(Set.class));
+        verify(redisTemplate).convertAndSend(RedisUtil.INVALIDATION_CHANNEL, List.of("comment:1"));
+        verify(redisTemplate, times(1)).convertAndSend(anyString(), any());
     }
 }
@@ -0,0 +1,28 @@
+package com.yushan.engagement_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchHighlightUtilTest {
+
+    @Test
+    void toHtml_ShouldMarkMatches() {
+        String snippet = "the " + SearchHighlightUtil.MATCH_START + "dragon" + SearchHighlightUtil.MATCH_END + " returns";
+
+        assertEquals("the <mark>dragon</mark> returns", SearchHighlightUtil.toHtml(snippet));
+    }
+
+    @Test
+    void toHtml_ShouldEscapeUserContentBeforeMarking() {
+        String snippet = "<script>" + SearchHighlightUtil.MATCH_START + "alert" + SearchHighlightUtil.MATCH_END + "</script>";
+
+        assertEquals("&lt;script&gt;<mark>alert</mark>&lt;/script&gt;", SearchHighlightUtil.toHtml(snippet));
+    }
+
+    @Test
+    void toHtml_WithNoSnippet_ShouldReturnNull() {
+        assertNull(SearchHighlightUtil.toHtml(null));
+        assertNull(SearchHighlightUtil.toHtml(""));
+    }
+}